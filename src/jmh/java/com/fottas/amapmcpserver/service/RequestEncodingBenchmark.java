@@ -0,0 +1,126 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapCacheKeyGenerator;
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.model.AmapApiModels;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import com.fottas.amapmcpserver.model.PoiModels;
+import com.fottas.amapmcpserver.model.RouteModels;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.util.retry.Retry;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求侧热点基准：反射构建请求参数，以及@Cacheable的缓存键生成
+ * spelCacheKey作为对照，对同一请求求值改用AmapCacheKeyGenerator之前的SpEL缓存键表达式；
+ * 表达式只解析一次，每次求值新建上下文，与Spring缓存拦截器的做法一致
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestEncodingBenchmark {
+
+    @Param({"geocoding", "poiTextSearch", "poiAroundSearch", "drivingRoute", "transitRoute", "distance"})
+    public String operation;
+
+    /**
+     * 改用AmapCacheKeyGenerator之前各方法上的缓存键表达式
+     */
+    private static final Map<String, String> SPEL_KEYS = Map.of(
+            "geocoding", "'geocoding:' + #request.address + ':' + T(java.util.Objects).toString(#request.city, '')",
+            "poiTextSearch", "'poi_text_search:' + #request.keywords + ':' + T(java.util.Objects).toString(#request.region, '') + ':' + T(java.util.Objects).toString(#request.page_size, '') + ':' + #request.page_num",
+            "poiAroundSearch", "'poi_around_search:' + #request.location + ':' + T(java.util.Objects).toString(#request.keywords, '') + ':' + #request.radius + ':' + #request.page_num",
+            "drivingRoute", "'driving_route:' + #request.origin + ':' + #request.destination + ':' + T(java.util.Objects).toString(#request.strategy, '0')",
+            "transitRoute", "'transit_route:' + #request.origin + ':' + #request.destination + ':' + #request.city + ':' + T(java.util.Objects).toString(#request.strategy, '0')",
+            "distance", "'distance:' + #request.origins + ':' + #request.destination + ':' + T(java.util.Objects).toString(#request.type, '0')");
+
+    private final KeyGenerator keyGenerator = new AmapCacheKeyGenerator();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+
+    private AmapApiService amapApiService;
+    private Object request;
+    private Method method;
+    private Expression keyExpression;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        var configProperties = new AmapConfigProperties();
+        configProperties.setKey("0123456789abcdef0123456789abcdef");
+        amapApiService = new AmapApiService(WebClient.create(), configProperties, Retry.max(0),
+                new PoiSpatialIndex(configProperties), new AmapRateLimiter(configProperties, System::nanoTime),
+                new AmapMetrics(new SimpleMeterRegistry(), configProperties), new AmapTracing(ObservationRegistry.NOOP),
+                Jackson2ObjectMapperBuilder.json().build());
+
+        request = request(operation);
+        method = AmapApiService.class.getMethod(operation, request.getClass());
+        keyExpression = new SpelExpressionParser().parseExpression(SPEL_KEYS.get(operation));
+    }
+
+    @Benchmark
+    public Map<String, String> buildRequestParams() {
+        return amapApiService.buildRequestParams(request);
+    }
+
+    @Benchmark
+    public Object cacheKey() {
+        return keyGenerator.generate(amapApiService, method, request);
+    }
+
+    @Benchmark
+    public Object spelCacheKey() {
+        var context = new MethodBasedEvaluationContext(null, method, new Object[]{request}, parameterNames);
+        return keyExpression.getValue(context);
+    }
+
+    private static Object request(String operation) {
+        return switch (operation) {
+            case "geocoding" -> new AmapApiModels.GeocodingRequest("北京市朝阳区阜通东大街6号", "北京");
+            case "poiTextSearch" -> {
+                var request = new PoiModels.PoiTextSearchRequest();
+                request.setKeywords("咖啡");
+                request.setRegion("北京");
+                request.setPage_size("10");
+                request.setPage_num("1");
+                request.setShow_fields("business,photos");
+                yield request;
+            }
+            case "poiAroundSearch" -> PoiModels.PoiAroundSearchRequest.builder()
+                    .location("116.473168,39.993015")
+                    .keywords("便利店")
+                    .radius("1000")
+                    .page_num("1")
+                    .build();
+            case "drivingRoute" -> new RouteModels.DrivingRouteRequest("116.321086,39.894913", "116.603039,40.080525", "32");
+            case "transitRoute" -> new RouteModels.TransitRouteRequest("116.321086,39.894913", "116.603039,40.080525", "010");
+            case "distance" -> new AmapOtherModels.DistanceRequest(
+                    "116.481028,39.989643|114.481028,39.989643|115.481028,39.989643", "114.465302,40.004717", "1");
+            default -> throw new IllegalArgumentException(operation);
+        };
+    }
+}
@@ -0,0 +1,154 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fottas.amapmcpserver.model.AmapApiModels;
+import com.fottas.amapmcpserver.model.AmapFixtures;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import com.fottas.amapmcpserver.model.PoiModels;
+import com.fottas.amapmcpserver.model.RouteModels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 响应侧热点基准：高德响应体解析、响应转换、工具结果序列化，以及三者串联的完整流程
+ * 转换直接调用AmapMcpTools的包内转换方法，测量路径上没有模拟对象、链路追踪与阻塞等待；序列化使用与工具回调相同的DefaultToolCallResultConverter。
+ * 响应体默认取自fixtures/amap下的接口样本；指定archive参数（如 -p archive=data/amap-recording.jsonl.gz）时
+ * 改用录制模式归档中该接口的第一条成功响应，以真实流量的响应体测量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponsePipelineBenchmark {
+
+    @Param({"geo", "regeo", "text", "around", "detail", "driving", "walking", "bicycling", "electrobike",
+            "transit", "distance", "weather", "ip", "district"})
+    public String fixture;
+
+    /**
+     * 录制模式归档路径，为空时使用接口样本
+     */
+    @Param({""})
+    public String archive;
+
+    /**
+     * 单个工具的处理流程
+     */
+    private record Pipeline(String endpoint, Class<?> responseType, Function<Object, Object> converter) {
+    }
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ToolCallResultConverter resultConverter = new DefaultToolCallResultConverter();
+    private final AmapMcpTools tools = new AmapMcpTools();
+
+    private Pipeline pipeline;
+    private byte[] body;
+    private Object response;
+    private Object result;
+
+    @Setup
+    public void setup() throws IOException {
+        pipeline = pipeline(fixture);
+        body = archive.isEmpty() ? AmapFixtures.load(pipeline.endpoint()) : loadRecorded(Path.of(archive), pipeline.endpoint());
+        response = decode();
+        result = convert();
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return objectMapper.readValue(body, pipeline.responseType());
+    }
+
+    @Benchmark
+    public Object convert() {
+        return pipeline.converter().apply(response);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return resultConverter.convert(result, result.getClass());
+    }
+
+    @Benchmark
+    public String pipeline() throws IOException {
+        Object converted = pipeline.converter().apply(objectMapper.readValue(body, pipeline.responseType()));
+        return resultConverter.convert(converted, converted.getClass());
+    }
+
+    /**
+     * 读取归档中该接口第一条成功响应的响应体
+     */
+    private byte[] loadRecorded(Path path, String endpoint) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode exchange = objectMapper.readTree(line);
+                if (endpoint.equals(exchange.path("path").asText()) && exchange.path("status").asInt() == 200
+                        && objectMapper.readTree(exchange.path("body").asText()).path("status").asText().equals("1")) {
+                    return exchange.path("body").asText().getBytes(StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new IllegalArgumentException("归档中没有接口的成功响应: " + endpoint);
+    }
+
+    private Pipeline pipeline(String fixture) {
+        return switch (fixture) {
+            case "geo" -> new Pipeline("/v3/geocode/geo", AmapApiModels.GeocodingResponse.class,
+                    r -> tools.convertGeocodingResponse((AmapApiModels.GeocodingResponse) r));
+            case "regeo" -> new Pipeline("/v3/geocode/regeo", AmapApiModels.ReverseGeocodingResponse.class,
+                    r -> tools.convertReverseGeocodingResponse((AmapApiModels.ReverseGeocodingResponse) r, false));
+            case "text" -> new Pipeline("/v5/place/text", PoiModels.PoiResponse.class,
+                    r -> tools.convertPoiTextSearchResponse((PoiModels.PoiResponse) r));
+            case "around" -> new Pipeline("/v5/place/around", PoiModels.PoiResponse.class,
+                    r -> tools.convertPoiAroundSearchResponse((PoiModels.PoiResponse) r));
+            case "detail" -> new Pipeline("/v5/place/detail", PoiModels.PoiResponse.class,
+                    r -> tools.convertPoiDetailResponse((PoiModels.PoiResponse) r));
+            case "driving" -> new Pipeline("/v5/direction/driving", RouteModels.RouteResponse.class,
+                    r -> tools.convertDrivingRouteResponse((RouteModels.RouteResponse) r, RouteModels.Projection.STEPS, null));
+            case "walking" -> new Pipeline("/v5/direction/walking", RouteModels.RouteResponse.class,
+                    r -> tools.convertWalkingRouteResponse((RouteModels.RouteResponse) r, RouteModels.Projection.STEPS, null));
+            case "bicycling" -> new Pipeline("/v5/direction/bicycling", RouteModels.RouteResponse.class,
+                    r -> tools.convertBicyclingRouteResponse((RouteModels.RouteResponse) r, RouteModels.Projection.STEPS, null));
+            case "electrobike" -> new Pipeline("/v5/direction/electrobike", RouteModels.RouteResponse.class,
+                    r -> tools.convertGeneralRouteResponse((RouteModels.RouteResponse) r, RouteModels.Projection.STEPS, null));
+            case "transit" -> new Pipeline("/v5/direction/transit/integrated", RouteModels.TransitRouteResponse.class,
+                    r -> tools.convertTransitRouteResponse((RouteModels.TransitRouteResponse) r, RouteModels.Projection.STEPS, null));
+            case "distance" -> new Pipeline("/v3/distance", AmapOtherModels.DistanceResponse.class,
+                    r -> tools.convertDistanceResponse((AmapOtherModels.DistanceResponse) r));
+            case "weather" -> new Pipeline("/v3/weather/weatherInfo", AmapOtherModels.WeatherResponse.class,
+                    r -> tools.convertWeatherResponse((AmapOtherModels.WeatherResponse) r));
+            case "ip" -> new Pipeline("/v3/ip", AmapOtherModels.IpLocationResponse.class,
+                    r -> tools.convertIpLocationResponse((AmapOtherModels.IpLocationResponse) r));
+            case "district" -> new Pipeline("/v3/config/district", AmapOtherModels.DistrictResponse.class,
+                    r -> tools.convertDistrictResponse((AmapOtherModels.DistrictResponse) r));
+            default -> throw new IllegalArgumentException(fixture);
+        };
+    }
+}
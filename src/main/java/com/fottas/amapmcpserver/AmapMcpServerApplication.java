@@ -1,9 +1,12 @@
 package com.fottas.amapmcpserver;
 
+import com.fottas.amapmcpserver.config.AmapRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(AmapRuntimeHints.class)
 public class AmapMcpServerApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,164 @@
+package com.fottas.amapmcpserver.config;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * 高德接口缓存键
+ * 由操作名与请求参数组成，不可变，哈希值在构造时计算；参数在构造时统一为字符串，
+ * 超过DIGEST_THRESHOLD的参数（多边形、批量起点等）以128位摘要代替原文保存，减少大缓存的键内存。
+ * 跨副本共享时使用{@link #sharedKey()}，参数带长度前缀，可以无歧义地还原为缓存键
+ */
+public final class AmapCacheKey implements Serializable {
+
+    /**
+     * 超过该长度的字符串参数保存为摘要
+     */
+    static final int DIGEST_THRESHOLD = 128;
+
+    /**
+     * 长参数的摘要，取SHA-256的前128位，碰撞概率可以忽略
+     */
+    record Digest(long high, long low) implements Serializable {
+
+        private static final int HEX_LENGTH = 32;
+
+        static Digest of(String value) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+                ByteBuffer buffer = ByteBuffer.wrap(hash);
+                return new Digest(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "#" + HexFormat.of().toHexDigits(high) + HexFormat.of().toHexDigits(low);
+        }
+
+        static Digest parse(String hex) {
+            return new Digest(HexFormat.fromHexDigitsToLong(hex, 0, 16), HexFormat.fromHexDigitsToLong(hex, 16, HEX_LENGTH));
+        }
+    }
+
+    private final String operation;
+    private final Object[] parts;
+    private final int hash;
+
+    private AmapCacheKey(String operation, Object[] parts) {
+        this.operation = operation;
+        this.parts = parts;
+        this.hash = 31 * operation.hashCode() + Arrays.hashCode(parts);
+    }
+
+    /**
+     * 创建缓存键，参数转为字符串（null保持为null），过长时转为摘要
+     *
+     * @param operation 操作名，同一请求类型用于不同接口时（如实时天气与天气预报）依靠它区分，不能包含冒号
+     * @param parts 参数，复制后保存，不修改调用方的数组
+     */
+    public static AmapCacheKey of(String operation, Object... parts) {
+        Object[] copy = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String text = parts[i] != null ? parts[i].toString() : null;
+            copy[i] = text != null && text.length() > DIGEST_THRESHOLD ? Digest.of(text) : text;
+        }
+        return new AmapCacheKey(operation, copy);
+    }
+
+    /**
+     * 跨副本共享的字符串形式：操作名之后每个参数以冒号开头，
+     * 字符串为"长度=原文"，摘要为"#十六进制"，null为"-"；参数中的冒号不会造成歧义
+     */
+    public String sharedKey() {
+        var text = new StringBuilder(operation);
+        for (Object part : parts) {
+            text.append(':');
+            if (part == null) {
+                text.append('-');
+            } else if (part instanceof Digest digest) {
+                text.append(digest);
+            } else {
+                String value = (String) part;
+                text.append(value.length()).append('=').append(value);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 由{@link #sharedKey()}的结果还原缓存键
+     *
+     * @return 缓存键，格式不正确时返回null
+     */
+    public static AmapCacheKey parse(String sharedKey) {
+        int end = sharedKey.indexOf(':');
+        if (end < 0) {
+            return new AmapCacheKey(sharedKey, new Object[0]);
+        }
+        String operation = sharedKey.substring(0, end);
+        List<Object> parts = new ArrayList<>();
+        int position = end;
+        try {
+            while (position < sharedKey.length()) {
+                if (sharedKey.charAt(position) != ':') {
+                    return null;
+                }
+                char kind = sharedKey.charAt(position + 1);
+                if (kind == '-') {
+                    parts.add(null);
+                    position += 2;
+                } else if (kind == '#') {
+                    int start = position + 2;
+                    parts.add(Digest.parse(sharedKey.substring(start, start + Digest.HEX_LENGTH)));
+                    position = start + Digest.HEX_LENGTH;
+                } else {
+                    int separator = sharedKey.indexOf('=', position);
+                    int start = separator + 1;
+                    int length = Integer.parseInt(sharedKey, position + 1, separator, 10);
+                    parts.add(sharedKey.substring(start, start + length));
+                    position = start + length;
+                }
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return new AmapCacheKey(operation, parts.toArray());
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof AmapCacheKey key && hash == key.hash
+                && operation.equals(key.operation) && Arrays.equals(parts, key.parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        var text = new StringBuilder(operation);
+        for (Object part : parts) {
+            text.append(':').append(part);
+        }
+        return text.toString();
+    }
+}
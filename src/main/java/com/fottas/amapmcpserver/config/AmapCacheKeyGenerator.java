@@ -0,0 +1,67 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fottas.amapmcpserver.model.AmapApiModels;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import com.fottas.amapmcpserver.model.PoiModels;
+import com.fottas.amapmcpserver.model.RouteModels;
+import org.springframework.cache.interceptor.KeyGenerator;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * AmapApiService的缓存键生成器
+ * 按请求类型直接读取参与缓存的字段，生成AmapCacheKey，代替每次调用都要求值的SpEL字符串拼接；
+ * 操作名取方法名，字段与默认值和原先的SpEL表达式一致；路线请求的返回内容投影不同时解析结果不同，也计入缓存键
+ */
+public class AmapCacheKeyGenerator implements KeyGenerator {
+
+    private final Map<Class<?>, Function<Object, Object[]>> extractors = new HashMap<>();
+
+    public AmapCacheKeyGenerator() {
+        register(AmapApiModels.GeocodingRequest.class, r -> new Object[]{r.getAddress(), Objects.toString(r.getCity(), "")});
+        register(AmapApiModels.ReverseGeocodingRequest.class, r -> new Object[]{r.getLocation(), Objects.toString(r.getRadius(), "1000")});
+        register(PoiModels.PoiTextSearchRequest.class, r -> new Object[]{r.getKeywords(), Objects.toString(r.getRegion(), ""),
+                Objects.toString(r.getPage_size(), ""), r.getPage_num()});
+        register(PoiModels.PoiAroundSearchRequest.class, r -> new Object[]{r.getLocation(), Objects.toString(r.getKeywords(), ""),
+                Objects.toString(r.getTypes(), ""), r.getRadius(), Objects.toString(r.getSortrule(), ""),
+                Objects.toString(r.getPage_size(), ""), r.getPage_num(), Objects.toString(r.getShow_fields(), "")});
+        register(PoiModels.PoiPolygonSearchRequest.class, r -> new Object[]{r.getPolygon(), Objects.toString(r.getKeywords(), ""),
+                Objects.toString(r.getTypes(), ""), r.getPage_size(), r.getPage_num()});
+        register(PoiModels.PoiDetailRequest.class, r -> new Object[]{r.getId()});
+        register(RouteModels.DrivingRouteRequest.class, r -> new Object[]{r.getOrigin(), r.getDestination(),
+                Objects.toString(r.getStrategy(), "0"), r.getProjection()});
+        register(RouteModels.WalkingRouteRequest.class, r -> new Object[]{r.getOrigin(), r.getDestination(), r.getProjection()});
+        register(RouteModels.BicyclingRouteRequest.class, r -> new Object[]{r.getOrigin(), r.getDestination(),
+                Objects.toString(r.getRiding_type(), "0"), r.getProjection()});
+        register(RouteModels.ElectricBikeRouteRequest.class, r -> new Object[]{r.getOrigin(), r.getDestination(),
+                Objects.toString(r.getAlternative_route(), "0"), r.getProjection()});
+        register(RouteModels.TransitRouteRequest.class, r -> new Object[]{r.getOrigin(), r.getDestination(), r.getCity(),
+                Objects.toString(r.getStrategy(), "0"), r.getProjection()});
+        register(AmapOtherModels.DistanceRequest.class, r -> new Object[]{r.getOrigins(), r.getDestination(),
+                Objects.toString(r.getType(), "0")});
+        register(AmapOtherModels.WeatherRequest.class, r -> new Object[]{r.getCity()});
+        register(AmapOtherModels.IpLocationRequest.class, r -> new Object[]{Objects.toString(r.getIp(), "auto")});
+        register(AmapOtherModels.TrafficRectangleRequest.class, r -> new Object[]{r.getRectangle(), r.getLevel()});
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void register(Class<T> type, Function<T, Object[]> extractor) {
+        extractors.put(type, (Function<Object, Object[]>) extractor);
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        if (params.length == 1 && params[0] != null) {
+            Function<Object, Object[]> extractor = extractors.get(params[0].getClass());
+            if (extractor != null) {
+                return AmapCacheKey.of(method.getName(), extractor.apply(params[0]));
+            }
+        }
+        // 未登记的请求类型按完整参数比较，请求模型都实现了equals/hashCode
+        return AmapCacheKey.of(method.getName(), params);
+    }
+}
@@ -5,13 +5,18 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -71,6 +76,76 @@ public class AmapConfigProperties {
     @NestedConfigurationProperty
     private RateLimitConfig rateLimit = new RateLimitConfig();
 
+    /**
+     * 行政区划本地索引配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private DistrictIndexConfig districtIndex = new DistrictIndexConfig();
+
+    /**
+     * 离线逆地理编码配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private OfflineRegeoConfig offlineRegeo = new OfflineRegeoConfig();
+
+    /**
+     * POI本地空间索引配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private PoiIndexConfig poiIndex = new PoiIndexConfig();
+
+    /**
+     * POI分片并行搜索配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private PoiFanoutConfig poiFanout = new PoiFanoutConfig();
+
+    /**
+     * 多点行程优化配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private TripOptimizerConfig tripOptimizer = new TripOptimizerConfig();
+
+    /**
+     * 等时圈配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private IsochroneConfig isochrone = new IsochroneConfig();
+
+    /**
+     * 交通态势配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private TrafficConfig traffic = new TrafficConfig();
+
+    /**
+     * 指标配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private MetricsConfig metrics = new MetricsConfig();
+
+    /**
+     * 请求录制与回放配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private RecordingConfig recording = new RecordingConfig();
+
+    /**
+     * 共享二级缓存配置
+     */
+    @Valid
+    @NestedConfigurationProperty
+    private L2CacheConfig l2Cache = new L2CacheConfig();
+
     /**
      * 重试配置
      */
@@ -223,13 +298,13 @@ public class AmapConfigProperties {
     public static class HttpClientConfig {
         // Getters and Setters
         /**
-         * 连接池最大连接数
+         * 全部连接池的最大连接数之和，扣除各接口族连接池后剩余的连接数归默认连接池
          */
         @Min(value = 1, message = "连接池最大连接数不能小于1")
         private int maxConnections = 100;
 
         /**
-         * 每个路由的最大连接数
+         * 每个路由的最大连接数，舱壁未单独配置max-connections时使用该值
          */
         @Min(value = 1, message = "每个路由的最大连接数不能小于1")
         private int maxConnectionsPerRoute = 20;
@@ -262,6 +337,106 @@ public class AmapConfigProperties {
          */
         private String userAgent = "AmapMcpServer/1.0";
 
+        /**
+         * 默认连接池等待连接的请求数上限，超过时立即失败
+         */
+        @Min(value = 1, message = "等待连接的请求数上限不能小于1")
+        private int pendingAcquireMaxCount = 200;
+
+        /**
+         * 默认连接池等待连接的最长时间
+         */
+        @NotNull
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(60);
+
+        /**
+         * 内置接口族的默认接口路径前缀
+         */
+        private static final Map<String, List<String>> DEFAULT_BULKHEAD_ENDPOINTS = Map.of(
+                "geocoding", List.of("/v3/geocode/"),
+                "poi", List.of("/v5/place/"),
+                "routing", List.of("/v5/direction/", "/v3/distance"),
+                "weather-ip", List.of("/v3/weather/", "/v3/ip"));
+
+        /**
+         * 按接口族划分的连接池（舱壁），键为接口族名称；默认包含geocoding、poi、routing与weather-ip。
+         * 接口路径按前缀匹配到接口族，未匹配的接口使用默认连接池
+         */
+        @Valid
+        @NotNull
+        private Map<String, BulkheadConfig> bulkheads = defaultBulkheads();
+
+        /**
+         * 接口族的接口路径前缀，内置接口族未配置endpoints时使用默认前缀
+         */
+        public List<String> resolveEndpoints(String bulkhead) {
+            BulkheadConfig config = bulkheads.get(bulkhead);
+            if (config != null && !config.getEndpoints().isEmpty()) {
+                return config.getEndpoints();
+            }
+            return DEFAULT_BULKHEAD_ENDPOINTS.getOrDefault(bulkhead, List.of());
+        }
+
+        /**
+         * 接口族连接池的最大连接数，未单独配置时使用max-connections-per-route
+         */
+        public int resolveMaxConnections(String bulkhead) {
+            BulkheadConfig config = bulkheads.get(bulkhead);
+            return config != null && config.getMaxConnections() != null ? config.getMaxConnections() : maxConnectionsPerRoute;
+        }
+
+        /**
+         * 默认连接池的最大连接数，即max-connections扣除各接口族连接池后的剩余部分
+         */
+        public int fallbackMaxConnections() {
+            return maxConnections - bulkheads.keySet().stream().mapToInt(this::resolveMaxConnections).sum();
+        }
+
+        @AssertTrue(message = "各接口族连接池的最大连接数之和必须小于http-client.max-connections，为默认连接池至少保留1个连接")
+        public boolean isWithinConnectionCap() {
+            return fallbackMaxConnections() >= 1;
+        }
+
+        private static Map<String, BulkheadConfig> defaultBulkheads() {
+            Map<String, BulkheadConfig> bulkheads = new LinkedHashMap<>();
+            for (String name : List.of("geocoding", "poi", "routing", "weather-ip")) {
+                bulkheads.put(name, new BulkheadConfig());
+            }
+            return bulkheads;
+        }
+
+    }
+
+    /**
+     * 接口族连接池配置
+     * 慢接口（例如公交路线）占满自己的连接池后，其他接口族的请求不受影响
+     */
+    @Data
+    public static class BulkheadConfig {
+        /**
+         * 接口路径前缀，内置接口族可以省略
+         */
+        @NotNull
+        private List<String> endpoints = new ArrayList<>();
+
+        /**
+         * 最大连接数，为空时使用http-client.max-connections-per-route
+         */
+        @Min(value = 1, message = "最大连接数不能小于1")
+        private Integer maxConnections;
+
+        /**
+         * 等待连接的请求数上限，超过时立即失败
+         */
+        @Min(value = 1, message = "等待连接的请求数上限不能小于1")
+        private int pendingAcquireMaxCount = 200;
+
+        /**
+         * 等待连接的最长时间
+         */
+        @NotNull
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
     }
 
     /**
@@ -294,10 +469,88 @@ public class AmapConfigProperties {
         private Duration window = Duration.ofSeconds(1);
 
         /**
-         * 不同API的限流配置
+         * 令牌不足时的最大等待时间，超过时直接拒绝请求
+         */
+        @NotNull
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        /**
+         * 不同API的限流配置，键为接口路径，如 /v5/place/text
          */
         private Map<String, ApiLimitConfig> apiLimits = new HashMap<>();
 
+        /**
+         * 集群限流配置，启用后qps为所有副本共享的上限
+         */
+        @Valid
+        @NestedConfigurationProperty
+        private DistributedRateLimitConfig distributed = new DistributedRateLimitConfig();
+
+    }
+
+    /**
+     * 集群限流配置
+     * 高德的QPS与日配额属于Key而不是单个副本：每个窗口（rate-limit.window）的调用数在共享存储中计数，
+     * 副本每次租用一批令牌在本地扣减，不必每次调用都访问共享存储。单接口限流（api-limits）仍按副本计算；
+     * 共享存储不可用时退回本地令牌桶
+     */
+    @Data
+    public static class DistributedRateLimitConfig {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        @NotBlank(message = "共享存储地址不能为空")
+        private String host = "localhost";
+
+        @Min(value = 1, message = "共享存储端口不能小于1")
+        private int port = 6379;
+
+        /**
+         * 访问密码，为空时不认证
+         */
+        private String password;
+
+        @Min(value = 0, message = "数据库编号不能小于0")
+        private int database = 0;
+
+        /**
+         * 计数键前缀
+         */
+        @NotBlank(message = "计数键前缀不能为空")
+        private String keyPrefix = "amap-mcp:rate:";
+
+        /**
+         * 每次租用的令牌数量，越大访问共享存储越少，窗口结束时作废的令牌也越多
+         */
+        @Min(value = 1, message = "租用数量不能小于1")
+        private int leaseSize = 10;
+
+        /**
+         * 每日调用配额，0表示不限制
+         */
+        @Min(value = 0, message = "每日配额不能小于0")
+        private long dailyQuota = 0;
+
+        /**
+         * 日配额的重置时区，高德按北京时间零点重置
+         */
+        @NotBlank(message = "配额时区不能为空")
+        private String quotaZone = "Asia/Shanghai";
+
+        /**
+         * 单条命令超时时间
+         */
+        @NotNull
+        private Duration timeout = Duration.ofMillis(200);
+
+        /**
+         * 连接失败后的重连间隔，期间使用本地令牌桶
+         */
+        @NotNull
+        private Duration reconnectBackoff = Duration.ofSeconds(5);
+
     }
 
     /**
@@ -320,6 +573,418 @@ public class AmapConfigProperties {
 
     }
 
+    /**
+     * 行政区划本地索引配置
+     */
+    @Data
+    public static class DistrictIndexConfig {
+        /**
+         * 是否启用本地行政区划索引
+         */
+        private boolean enabled = true;
+
+        /**
+         * 全量刷新间隔，行政区划变更很少，默认每周刷新一次
+         */
+        @NotNull
+        private Duration refreshInterval = Duration.ofDays(7);
+
+        /**
+         * 启动后首次加载的延迟时间
+         */
+        @NotNull
+        private Duration initialDelay = Duration.ofSeconds(5);
+
+    }
+
+    /**
+     * 离线逆地理编码配置
+     */
+    @Data
+    public static class OfflineRegeoConfig {
+        /**
+         * 是否启用离线逆地理编码（仅区县级）
+         */
+        private boolean enabled = true;
+
+        /**
+         * 行政区边界快照文件路径
+         */
+        private String snapshotPath = "data/district-boundaries.json";
+
+        /**
+         * 快照不存在时是否通过行政区划接口逐个拉取区县边界，会消耗较多配额
+         */
+        private boolean fetchFromApi = false;
+
+        /**
+         * 拉取边界时的并发数
+         */
+        @Min(value = 1, message = "拉取并发数不能小于1")
+        private int fetchConcurrency = 4;
+
+    }
+
+    /**
+     * POI本地空间索引配置
+     */
+    @Data
+    public static class PoiIndexConfig {
+        /**
+         * 是否启用POI本地空间索引
+         */
+        private boolean enabled = true;
+
+        /**
+         * 索引数据有效期，与POI缓存时间保持一致
+         */
+        @NotNull
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * geohash网格精度，6位约为1.2km × 0.6km
+         */
+        @Min(value = 4, message = "geohash精度不能小于4")
+        private int precision = 6;
+
+        /**
+         * 最多索引的POI数量
+         */
+        @Min(value = 1, message = "最大POI数量不能小于1")
+        private int maxPois = 200_000;
+
+        /**
+         * 单次查询最多涉及的网格数量，超过时不使用本地索引
+         */
+        @Min(value = 1, message = "单次查询网格数量不能小于1")
+        private int maxCellsPerQuery = 400;
+
+    }
+
+    /**
+     * POI分片并行搜索配置
+     */
+    @Data
+    public static class PoiFanoutConfig {
+        /**
+         * 同时进行的请求数量
+         */
+        @Min(value = 1, message = "并发数不能小于1")
+        private int concurrency = 4;
+
+        /**
+         * 每页数量，POI搜索2.0最大为25
+         */
+        @Min(value = 1, message = "每页数量不能小于1")
+        private int pageSize = 25;
+
+        /**
+         * 单个查询最多翻页数，高德单个查询最多返回200条
+         */
+        @Min(value = 1, message = "最大翻页数不能小于1")
+        private int maxPages = 8;
+
+        /**
+         * 多边形分片边长（米）
+         */
+        @Min(value = 100, message = "分片边长不能小于100米")
+        private int tileSizeMeters = 5000;
+
+        /**
+         * 初始分片最大数量，超过时自动放大分片边长
+         */
+        @Min(value = 1, message = "最大分片数量不能小于1")
+        private int maxTiles = 64;
+
+        /**
+         * 分片结果被截断时继续四分的最大层数
+         */
+        @Min(value = 0, message = "最大细分层数不能小于0")
+        private int maxSplitDepth = 2;
+
+        /**
+         * 单次搜索最多返回的POI数量
+         */
+        @Min(value = 1, message = "最大结果数量不能小于1")
+        private int maxResults = 2000;
+
+    }
+
+    /**
+     * 多点行程优化配置
+     */
+    @Data
+    public static class TripOptimizerConfig {
+        /**
+         * 最大站点数量，距离测量接口单次最多支持100个起点
+         */
+        @Min(value = 2, message = "最大站点数量不能小于2")
+        private int maxStops = 50;
+
+        /**
+         * 构建距离矩阵时同时进行的请求数量
+         */
+        @Min(value = 1, message = "并发数不能小于1")
+        private int concurrency = 4;
+
+        /**
+         * 距离矩阵单元格缓存时间
+         */
+        @NotNull
+        private Duration cacheTtl = Duration.ofMinutes(30);
+
+        /**
+         * 距离矩阵单元格缓存最大条目数，一次50个站点的行程最多写入2450条
+         */
+        @Min(value = 1, message = "缓存最大条目数不能小于1")
+        private long cacheMaximumSize = 20_000;
+
+    }
+
+    /**
+     * 等时圈配置
+     */
+    @Data
+    public static class IsochroneConfig {
+        /**
+         * 采样射线数量
+         */
+        @Min(value = 6, message = "射线数量不能小于6")
+        private int rays = 16;
+
+        /**
+         * 单次计算最多调用接口次数
+         */
+        @Min(value = 1, message = "接口调用预算不能小于1")
+        private int maxRequests = 12;
+
+        /**
+         * 同时进行的请求数量
+         */
+        @Min(value = 1, message = "并发数不能小于1")
+        private int concurrency = 4;
+
+        /**
+         * 最大时长（分钟）
+         */
+        @Min(value = 1, message = "最大时长不能小于1分钟")
+        private int maxMinutes = 120;
+
+        /**
+         * 边界细化容差（米），射线上可达与不可达点的距离小于该值时停止细化
+         */
+        @Min(value = 100, message = "细化容差不能小于100米")
+        private int toleranceMeters = 400;
+
+        /**
+         * 多边形简化容差（米）
+         */
+        @Min(value = 0, message = "简化容差不能小于0")
+        private int simplifyToleranceMeters = 100;
+
+        /**
+         * 骑行速度（千米/小时），骑行时间由步行路网距离按该速度换算
+         */
+        @Min(value = 1, message = "骑行速度不能小于1")
+        private int cyclingSpeedKmh = 15;
+
+        /**
+         * 采样点缓存时间
+         */
+        @NotNull
+        private Duration cacheTtl = Duration.ofMinutes(30);
+
+        /**
+         * 采样点缓存最大条目数
+         */
+        @Min(value = 1, message = "缓存最大条目数不能小于1")
+        private long cacheMaximumSize = 20_000;
+
+    }
+
+    /**
+     * 交通态势配置
+     */
+    @Data
+    public static class TrafficConfig {
+        /**
+         * 网格边长（度），查询矩形会对齐到该网格，相同网格的请求共享缓存
+         */
+        private double tileSizeDegrees = 0.02;
+
+        /**
+         * 单次查询最多涉及的网格数量
+         */
+        @Min(value = 1, message = "最大网格数量不能小于1")
+        private int maxTiles = 25;
+
+        /**
+         * 同时进行的请求数量
+         */
+        @Min(value = 1, message = "并发数不能小于1")
+        private int concurrency = 4;
+
+        /**
+         * 网格缓存时间，交通态势变化较快，只做短时间缓存
+         */
+        @NotNull
+        private Duration cacheTtl = Duration.ofSeconds(90);
+
+        /**
+         * 网格缓存最大条目数
+         */
+        @Min(value = 1, message = "缓存最大条目数不能小于1")
+        private long cacheMaximumSize = 5000;
+
+        /**
+         * 单次查询最多返回的道路数量，拥堵道路优先
+         */
+        @Min(value = 1, message = "最大道路数量不能小于1")
+        private int maxRoads = 200;
+
+    }
+
+    /**
+     * 指标配置
+     */
+    @Data
+    public static class MetricsConfig {
+        /**
+         * 工具与接口耗时直方图的SLO边界
+         */
+        @NotNull
+        private List<Duration> latencySlos = List.of(Duration.ofMillis(50), Duration.ofMillis(100),
+                Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(2),
+                Duration.ofSeconds(5));
+
+        /**
+         * 响应体大小分布的SLO边界
+         */
+        @NotNull
+        private List<DataSize> payloadSlos = List.of(DataSize.ofKilobytes(1), DataSize.ofKilobytes(4),
+                DataSize.ofKilobytes(16), DataSize.ofKilobytes(64), DataSize.ofKilobytes(256), DataSize.ofMegabytes(1));
+
+    }
+
+    /**
+     * 请求录制与回放配置
+     */
+    @Data
+    public static class RecordingConfig {
+
+        public enum Mode {
+            /**
+             * 正常调用高德接口
+             */
+            OFF,
+            /**
+             * 正常调用高德接口，同时把请求和响应追加到归档文件
+             */
+            RECORD,
+            /**
+             * 不访问高德接口，从归档文件返回响应
+             */
+            REPLAY
+        }
+
+        public enum Timing {
+            /**
+             * 按录制时单次请求的耗时延迟返回，不还原请求之间的间隔
+             */
+            ORIGINAL,
+            /**
+             * 立即返回
+             */
+            FULL_SPEED
+        }
+
+        @NotNull
+        private Mode mode = Mode.OFF;
+
+        /**
+         * 归档文件路径，gzip压缩的JSON Lines，每行一次请求；录制时不包含key参数
+         */
+        @NotBlank(message = "归档文件路径不能为空")
+        private String archivePath = "data/amap-recording.jsonl.gz";
+
+        /**
+         * 回放时的响应节奏
+         */
+        @NotNull
+        private Timing timing = Timing.ORIGINAL;
+
+    }
+
+    /**
+     * 共享二级缓存配置
+     * 多副本部署时，各副本的Caffeine缓存之后增加一层Redis协议的共享缓存，同一份数据只需向高德请求一次；
+     * 二级缓存不可用或超时时按未命中处理，不影响请求
+     */
+    @Data
+    public static class L2CacheConfig {
+        /**
+         * 是否启用
+         */
+        private boolean enabled = false;
+
+        @NotBlank(message = "二级缓存地址不能为空")
+        private String host = "localhost";
+
+        @Min(value = 1, message = "二级缓存端口不能小于1")
+        private int port = 6379;
+
+        /**
+         * 访问密码，为空时不认证
+         */
+        private String password;
+
+        @Min(value = 0, message = "数据库编号不能小于0")
+        private int database = 0;
+
+        /**
+         * 键前缀，完整的键为 前缀 + 缓存名称 + ":" + 缓存键
+         */
+        @NotBlank(message = "二级缓存键前缀不能为空")
+        private String keyPrefix = "amap-mcp:";
+
+        /**
+         * 条目过期时间
+         */
+        @NotNull
+        private Duration ttl = Duration.ofMinutes(30);
+
+        /**
+         * 单条命令超时时间，超时按未命中处理
+         */
+        @NotNull
+        private Duration timeout = Duration.ofMillis(200);
+
+        /**
+         * 连接失败后的重连间隔，期间命令直接失败
+         */
+        @NotNull
+        private Duration reconnectBackoff = Duration.ofSeconds(5);
+
+        /**
+         * 失效通知频道，副本删除或清空共享条目时通知其他副本淘汰本地缓存
+         */
+        @NotBlank(message = "失效通知频道不能为空")
+        private String invalidationChannel = "amap-mcp:invalidate";
+
+        /**
+         * 使用二级缓存的缓存名称，交通态势变化较快，默认不共享
+         */
+        @NotNull
+        private List<String> caches = List.of("amapCache");
+
+        /**
+         * 超过该大小的值压缩后写入
+         */
+        @NotNull
+        private DataSize compressThreshold = DataSize.ofBytes(256);
+
+    }
+
     /**
      * 获取完整的API URL
      *
@@ -0,0 +1,237 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 高德请求录制与回放过滤器，需要作为最内层过滤器注册
+ * 录制：请求正常发出，响应体读出后原样交给上层，同时异步追加到gzip压缩的JSON Lines归档，归档中不包含key和sig参数；
+ * 回放：按"接口路径+排序后的查询参数"匹配归档中的响应，同一请求录制多次时依次轮换，未匹配时返回404（不会重试）；
+ * 回放只还原每次请求的耗时，不记录也不还原请求之间的到达间隔，请求节奏由回放时的调用方决定
+ */
+public class AmapRecordingFilter implements ExchangeFilterFunction, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmapRecordingFilter.class);
+
+    /**
+     * 不写入归档、也不参与匹配的查询参数
+     */
+    private static final List<String> SECRET_PARAMS = List.of("key", "sig");
+
+    /**
+     * 归档中的一次请求
+     *
+     * @param latencyMs 从发出请求到读完响应体的耗时
+     */
+    record Exchange(String method, String path, String query, int status, String contentType,
+                    long latencyMs, String body) {
+
+        String key() {
+            return method + " " + path + "?" + query;
+        }
+    }
+
+    private final AmapConfigProperties.RecordingConfig config;
+    private final ObjectMapper objectMapper;
+
+    // 录制
+    private Writer writer;
+    private ExecutorService writerExecutor;
+
+    // 回放
+    private final Map<String, List<Exchange>> archive = new HashMap<>();
+    private final Map<String, AtomicInteger> cursors = new HashMap<>();
+
+    public AmapRecordingFilter(AmapConfigProperties.RecordingConfig config, ObjectMapper objectMapper) throws IOException {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        Path path = Path.of(config.getArchivePath());
+        switch (config.getMode()) {
+            case RECORD -> openArchive(path);
+            case REPLAY -> loadArchive(path);
+            case OFF -> {
+            }
+        }
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return switch (config.getMode()) {
+            case RECORD -> record(request, next);
+            case REPLAY -> replay(request);
+            case OFF -> next.exchange(request);
+        };
+    }
+
+    // ====================== 录制 ======================
+
+    private void openArchive(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        // 追加模式下每次启动写入一个新的gzip成员，GZIPInputStream可以连续读取；同步刷新保证进程中断时已写入的记录可读
+        var output = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        writer = new OutputStreamWriter(new GZIPOutputStream(output, true), StandardCharsets.UTF_8);
+        writerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "amap-recording");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("高德请求录制已开启，归档文件: {}", path.toAbsolutePath());
+    }
+
+    private Mono<ClientResponse> record(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request).flatMap(response -> response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(new byte[0])
+                    .map(body -> {
+                        long end = System.nanoTime();
+                        URI url = request.url();
+                        String contentType = response.headers().contentType().map(MediaType::toString)
+                                .orElse(MediaType.APPLICATION_JSON_VALUE);
+                        append(new Exchange(request.method().name(), url.getRawPath(), normalizeQuery(url.getRawQuery()),
+                                response.statusCode().value(), contentType,
+                                TimeUnit.NANOSECONDS.toMillis(end - start), new String(body, StandardCharsets.UTF_8)));
+                        return response.mutate()
+                                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)))
+                                .build();
+                    }));
+        });
+    }
+
+    /**
+     * 写文件在单独的线程上进行，不阻塞事件循环
+     */
+    private void append(Exchange exchange) {
+        writerExecutor.execute(() -> {
+            try {
+                writer.write(objectMapper.writeValueAsString(exchange));
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                logger.warn("写入录制归档失败，接口: {}, 错误: {}", exchange.path(), e.getMessage());
+            }
+        });
+    }
+
+    // ====================== 回放 ======================
+
+    private void loadArchive(Path path) throws IOException {
+        int count = 0;
+        try (var reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Exchange exchange = objectMapper.readValue(line, Exchange.class);
+                archive.computeIfAbsent(exchange.key(), key -> new ArrayList<>()).add(exchange);
+                count++;
+            }
+        } catch (EOFException e) {
+            // 录制进程未正常退出时最后一个gzip成员不完整，保留已读到的记录
+            logger.warn("录制归档未完整结束，已读取{}条记录", count);
+        }
+        archive.keySet().forEach(key -> cursors.put(key, new AtomicInteger()));
+        logger.info("高德请求回放已开启，归档文件: {}, 记录数: {}, 不同请求数: {}, 节奏: {}",
+                path.toAbsolutePath(), count, archive.size(), config.getTiming());
+    }
+
+    private Mono<ClientResponse> replay(ClientRequest request) {
+        URI url = request.url();
+        String key = request.method().name() + " " + url.getRawPath() + "?" + normalizeQuery(url.getRawQuery());
+        List<Exchange> candidates = archive.get(key);
+        if (candidates == null) {
+            logger.warn("回放归档中没有匹配的请求: {}", key);
+            return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"status\":\"0\",\"info\":\"REPLAY_MISS\",\"infocode\":\"REPLAY_MISS\"}")
+                    .build());
+        }
+        Exchange exchange = candidates.get(Math.floorMod(cursors.get(key).getAndIncrement(), candidates.size()));
+        Mono<ClientResponse> response = Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.valueOf(exchange.status()))
+                .header(HttpHeaders.CONTENT_TYPE, exchange.contentType())
+                .body(exchange.body())
+                .build());
+        return config.getTiming() == AmapConfigProperties.RecordingConfig.Timing.ORIGINAL && exchange.latencyMs() > 0
+                ? Mono.delay(Duration.ofMillis(exchange.latencyMs())).then(response)
+                : response;
+    }
+
+    // ====================== 工具方法 ======================
+
+    /**
+     * 去掉密钥参数并按参数排序，使参数顺序不同的相同请求能够匹配
+     */
+    static String normalizeQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return "";
+        }
+        return Arrays.stream(rawQuery.split("&"))
+                .filter(pair -> !pair.isEmpty() && !SECRET_PARAMS.contains(pair.substring(0, indexOfOrLength(pair, '='))))
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+
+    private static int indexOfOrLength(String text, char c) {
+        int index = text.indexOf(c);
+        return index < 0 ? text.length() : index;
+    }
+
+    @Override
+    public void close() {
+        if (writerExecutor == null) {
+            return;
+        }
+        writerExecutor.shutdown();
+        try {
+            if (!writerExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("录制归档写入未在10秒内完成");
+            }
+            writer.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
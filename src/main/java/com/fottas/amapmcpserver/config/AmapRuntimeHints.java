@@ -0,0 +1,50 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fottas.amapmcpserver.model.AmapApiModels;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import com.fottas.amapmcpserver.model.AmapPoiDto;
+import com.fottas.amapmcpserver.model.McpResponseModels;
+import com.fottas.amapmcpserver.model.PoiModels;
+import com.fottas.amapmcpserver.model.RouteModels;
+import com.fottas.amapmcpserver.service.TripOptimizerService;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * 原生镜像的反射元数据
+ * 模型类都是Lombok生成访问方法的嵌套类，Jackson通过反射读写；
+ * AmapApiService.buildRequestParams按声明字段拼接请求参数，请求模型还需要字段的反射访问；
+ * 二级缓存按类名解码缓存值，直接写入缓存的服务内部类型也需要注册
+ */
+public class AmapRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> MODEL_HOLDERS = List.of(
+            AmapApiModels.class, AmapOtherModels.class, PoiModels.class, RouteModels.class, McpResponseModels.class);
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> holder : MODEL_HOLDERS) {
+            registerNested(hints, holder);
+        }
+        bindings.registerReflectionHints(hints.reflection(), AmapPoiDto.class, AmapRecordingFilter.Exchange.class,
+                TripOptimizerService.Leg.class);
+    }
+
+    private void registerNested(RuntimeHints hints, Class<?> owner) {
+        for (Class<?> type : owner.getDeclaredClasses()) {
+            if (type.isInterface()) {
+                // JsonView视图接口只作为注解参数使用
+                continue;
+            }
+            bindings.registerReflectionHints(hints.reflection(), type);
+            hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS);
+            registerNested(hints, type);
+        }
+    }
+}
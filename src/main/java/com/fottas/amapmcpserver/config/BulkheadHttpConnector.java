@@ -0,0 +1,69 @@
+package com.fottas.amapmcpserver.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 按接口路径把请求分派到各接口族连接器的ClientHttpConnector
+ * 每个接口族使用独立的连接池，WebClient的过滤器链仍然只有一份；
+ * 路径去掉baseUrl的路径部分后按最长前缀匹配，未匹配时使用默认连接器
+ */
+public class BulkheadHttpConnector implements ClientHttpConnector {
+
+    private record Route(String prefix, String bulkhead, ClientHttpConnector connector) {
+    }
+
+    private final List<Route> routes = new ArrayList<>();
+    private final ClientHttpConnector fallback;
+
+    /**
+     * @param basePath baseUrl的路径部分，可以为空
+     * @param connectors 接口族名称到连接器
+     * @param endpoints 接口族名称到接口路径前缀
+     * @param fallback 默认连接器
+     */
+    public BulkheadHttpConnector(String basePath, Map<String, ClientHttpConnector> connectors,
+                                 Map<String, List<String>> endpoints, ClientHttpConnector fallback) {
+        String base = basePath == null ? "" : basePath.replaceAll("/+$", "");
+        endpoints.forEach((bulkhead, prefixes) -> prefixes.forEach(
+                prefix -> routes.add(new Route(base + prefix, bulkhead, connectors.get(bulkhead)))));
+        routes.sort(Comparator.comparingInt((Route route) -> route.prefix().length()).reversed());
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Mono<ClientHttpResponse> connect(HttpMethod method, URI uri,
+                                            Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+        Route route = route(uri.getPath());
+        return (route != null ? route.connector() : fallback).connect(method, uri, requestCallback);
+    }
+
+    /**
+     * 接口路径所属的接口族，未匹配时返回null
+     */
+    String bulkheadFor(String path) {
+        Route route = route(path);
+        return route != null ? route.bulkhead() : null;
+    }
+
+    private Route route(String path) {
+        if (path != null) {
+            for (Route route : routes) {
+                if (path.startsWith(route.prefix())) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 二级缓存的值编码
+ * 格式为 标志字节 + 正文，正文超过阈值时整体Deflate压缩；正文以类型字节开头：
+ * double[]按原始双精度写入，String按UTF-8写入，其余对象写入类名和JSON。
+ * 只解码本项目包下的类型，其余类型与损坏的数据都按未命中处理
+ */
+final class CacheValueCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheValueCodec.class);
+
+    private static final byte FLAG_DEFLATE = 1;
+
+    private static final byte TYPE_DOUBLES = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_JSON = 3;
+
+    private static final String ALLOWED_PACKAGE = "com.fottas.amapmcpserver.";
+
+    private final ObjectMapper objectMapper;
+    private final int compressThreshold;
+
+    CacheValueCodec(ObjectMapper objectMapper, int compressThreshold) {
+        this.objectMapper = objectMapper;
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * 编码缓存值，不支持的类型返回null，调用方跳过写入
+     */
+    byte[] encode(Object value) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(body);
+            if (value instanceof double[] doubles) {
+                out.writeByte(TYPE_DOUBLES);
+                out.writeInt(doubles.length);
+                for (double d : doubles) {
+                    out.writeDouble(d);
+                }
+            } else if (value instanceof String text) {
+                out.writeByte(TYPE_STRING);
+                out.write(text.getBytes(StandardCharsets.UTF_8));
+            } else if (value != null && value.getClass().getName().startsWith(ALLOWED_PACKAGE)) {
+                out.writeByte(TYPE_JSON);
+                out.writeUTF(value.getClass().getName());
+                objectMapper.writeValue((OutputStream) out, value);
+            } else {
+                return null;
+            }
+            out.flush();
+            if (body.size() <= compressThreshold) {
+                byte[] bytes = new byte[body.size() + 1];
+                System.arraycopy(body.toByteArray(), 0, bytes, 1, body.size());
+                return bytes;
+            }
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.size() / 4 + 16);
+            compressed.write(FLAG_DEFLATE);
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater)) {
+                body.writeTo(deflate);
+            } finally {
+                deflater.end();
+            }
+            return compressed.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            logger.debug("缓存值编码失败: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 解码缓存值，无法解码时返回null
+     */
+    Object decode(byte[] bytes) {
+        if (bytes == null || bytes.length < 2) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream((bytes[0] & FLAG_DEFLATE) != 0
+                ? new InflaterInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))
+                : new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            byte type = in.readByte();
+            switch (type) {
+                case TYPE_DOUBLES: {
+                    double[] doubles = new double[in.readInt()];
+                    for (int i = 0; i < doubles.length; i++) {
+                        doubles[i] = in.readDouble();
+                    }
+                    return doubles;
+                }
+                case TYPE_STRING:
+                    return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                case TYPE_JSON: {
+                    String className = in.readUTF();
+                    if (!className.startsWith(ALLOWED_PACKAGE)) {
+                        return null;
+                    }
+                    Class<?> valueType = Class.forName(className, false, CacheValueCodec.class.getClassLoader());
+                    return objectMapper.readValue((InputStream) in, valueType);
+                }
+                default:
+                    return null;
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            // 其他版本的副本写入的不兼容数据按未命中处理，随后由本副本覆盖
+            logger.debug("缓存值解码失败: {}", e.getMessage());
+            return null;
+        }
+    }
+}
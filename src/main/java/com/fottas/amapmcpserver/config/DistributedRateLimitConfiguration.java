@@ -0,0 +1,19 @@
+package com.fottas.amapmcpserver.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 集群限流（amap.api.rate-limit.distributed.enabled=true）
+ * 提供AmapRateLimiter租用令牌所需的共享计数，未启用时AmapRateLimiter只使用本地令牌桶
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "amap.api.rate-limit.distributed", name = "enabled", havingValue = "true")
+public class DistributedRateLimitConfiguration {
+
+    @Bean
+    public RespSharedCounters sharedCounters(AmapConfigProperties amapConfigProperties) {
+        return new RespSharedCounters(amapConfigProperties.getRateLimit().getDistributed());
+    }
+}
@@ -0,0 +1,24 @@
+package com.fottas.amapmcpserver.config;
+
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpSyncServer;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 快速启动模式（fast-start profile）
+ * application-fast-start.yml开启全局懒加载，这里把MCP服务器排除在外：服务器在创建时才把会话工厂注册到传输层，
+ * 懒加载会使/mcp无法建立会话。服务器依赖的工具、AmapApiService与amapWebClient随之在启动时创建，
+ * 首次工具调用不承担这部分开销；其余不在工具调用路径上的Bean（例如genericWebClient、各Actuator端点）推迟到首次使用时创建
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter mcpServerLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(McpAsyncServer.class, McpSyncServer.class);
+    }
+}
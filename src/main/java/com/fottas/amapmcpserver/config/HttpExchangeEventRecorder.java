@@ -0,0 +1,91 @@
+package com.fottas.amapmcpserver.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.netty.http.client.ContextAwareHttpClientMetricsRecorder;
+import reactor.util.context.ContextView;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+
+/**
+ * 将Reactor Netty的连接阶段耗时记录为当前WebClient请求观测上的事件
+ * WebClient把请求观测放在Reactor Context中，Reactor Netty回调时带回同一个Context，
+ * 因此建连、TLS握手、请求发送与响应接收都能落到对应请求的span上；只记录事件，不注册指标
+ */
+class HttpExchangeEventRecorder extends ContextAwareHttpClientMetricsRecorder {
+
+    static final HttpExchangeEventRecorder INSTANCE = new HttpExchangeEventRecorder();
+
+    private HttpExchangeEventRecorder() {
+    }
+
+    @Override
+    public void recordConnectTime(ContextView context, SocketAddress remoteAddress, Duration time, String status) {
+        event(context, "amap.http.connect", "connect " + status, time);
+    }
+
+    @Override
+    public void recordTlsHandshakeTime(ContextView context, SocketAddress remoteAddress, Duration time, String status) {
+        event(context, "amap.http.tls", "tls handshake " + status, time);
+    }
+
+    @Override
+    public void recordDataSentTime(ContextView context, SocketAddress remoteAddress, String uri, String method, Duration time) {
+        event(context, "amap.http.request.sent", "request sent", time);
+    }
+
+    @Override
+    public void recordDataReceivedTime(ContextView context, SocketAddress remoteAddress, String uri, String method,
+                                       String status, Duration time) {
+        event(context, "amap.http.response.received", "response received " + status, time);
+    }
+
+    @Override
+    public void recordResolveAddressTime(SocketAddress remoteAddress, Duration time, String status) {
+    }
+
+    @Override
+    public void recordResponseTime(ContextView context, SocketAddress remoteAddress, String uri, String method,
+                                   String status, Duration time) {
+    }
+
+    @Override
+    public void incrementErrorsCount(ContextView context, SocketAddress remoteAddress, String uri) {
+    }
+
+    @Override
+    public void incrementErrorsCount(ContextView context, SocketAddress remoteAddress) {
+    }
+
+    @Override
+    public void recordDataReceived(ContextView context, SocketAddress remoteAddress, String uri, long bytes) {
+    }
+
+    @Override
+    public void recordDataSent(ContextView context, SocketAddress remoteAddress, String uri, long bytes) {
+    }
+
+    @Override
+    public void recordDataReceived(ContextView context, SocketAddress remoteAddress, long bytes) {
+    }
+
+    @Override
+    public void recordDataSent(ContextView context, SocketAddress remoteAddress, long bytes) {
+    }
+
+    /**
+     * 响应头到达时记录首字节事件，事件时间相对请求开始即为TTFB
+     */
+    static void firstByte(ContextView context) {
+        event(context, "amap.http.first.byte", "first byte", null);
+    }
+
+    private static void event(ContextView context, String name, String description, Duration time) {
+        Observation observation = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+        if (observation != null) {
+            String contextualName = time != null ? description + " " + time.toMillis() + "ms" : description;
+            observation.event(Observation.Event.of(name, contextualName));
+        }
+    }
+}
@@ -1,12 +1,29 @@
 package com.fottas.amapmcpserver.config;
 
+import com.fottas.amapmcpserver.service.AmapMetrics;
 import com.fottas.amapmcpserver.tools.AmapMcpTools;
+import com.fottas.amapmcpserver.tools.McpToolProgress;
+import com.fottas.amapmcpserver.tools.MeteredToolCallback;
+import com.fottas.amapmcpserver.tools.ObservedToolCallback;
+import io.micrometer.observation.ObservationRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * MCP服务器配置类
@@ -22,7 +39,8 @@ public class McpServerConfiguration {
      * 将高德地图API封装的工具注册到MCP服务器
      */
     @Bean
-    public ToolCallbackProvider amapMcpToolCallbackProvider(AmapMcpTools amapMcpTools) {
+    public ToolCallbackProvider amapMcpToolCallbackProvider(AmapMcpTools amapMcpTools, AmapMetrics amapMetrics,
+                                                            ObservationRegistry observationRegistry) {
         logger.info("注册高德地图MCP工具回调提供者");
 
         // 使用MethodToolCallbackProvider自动扫描@Tool注解的方法
@@ -30,7 +48,38 @@ public class McpServerConfiguration {
                 .toolObjects(amapMcpTools)
                 .build();
 
+        // 包装每个工具以记录调用耗时与结果，并为每次调用创建追踪span
+        provider = ToolCallbackProvider.from(Arrays.stream(provider.getToolCallbacks())
+                .map(callback -> new ObservedToolCallback(new MeteredToolCallback(callback, amapMetrics), observationRegistry))
+                .toList());
+
         logger.info("成功注册高德地图MCP工具");
         return provider;
     }
+
+    /**
+     * 将工具回调注册为MCP异步工具
+     * 替代Spring AI默认的转换（spring.ai.mcp.server.tool-callback-converter=false），
+     * 默认转换生成的ToolContext中没有进度令牌，扇出类工具无法向客户端发送进度通知；
+     * 工具方法是同步的，在boundedElastic线程上执行，不阻塞事件循环
+     */
+    @Bean
+    public List<McpServerFeatures.AsyncToolSpecification> amapToolSpecifications(ToolCallbackProvider amapMcpToolCallbackProvider) {
+        return Arrays.stream(amapMcpToolCallbackProvider.getToolCallbacks())
+                .map(McpServerConfiguration::toToolSpecification)
+                .toList();
+    }
+
+    private static McpServerFeatures.AsyncToolSpecification toToolSpecification(ToolCallback callback) {
+        return McpServerFeatures.AsyncToolSpecification.builder()
+                .tool(McpToolUtils.toAsyncToolSpecification(callback).tool())
+                .callHandler((exchange, request) -> Mono.fromCallable(() -> callback.call(
+                                ModelOptionsUtils.toJsonString(request.arguments()),
+                                new ToolContext(McpToolProgress.toolContext(exchange, request))))
+                        .map(result -> new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(result)), false))
+                        .onErrorResume(error -> Mono.just(new McpSchema.CallToolResult(
+                                List.of(new McpSchema.TextContent(Objects.toString(error.getMessage(), error.getClass().getSimpleName()))), true)))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .build();
+    }
 }
\ No newline at end of file
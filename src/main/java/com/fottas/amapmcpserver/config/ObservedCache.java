@@ -0,0 +1,140 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fottas.amapmcpserver.jfr.CacheEvent;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 记录缓存查找的Cache装饰
+ * 只为@Cacheable在工具线程上发起的retrieve查找创建span并标记命中结果，
+ * 没有当前观测时（例如并发查询的内部线程）不创建span，避免产生孤立的span；
+ * 查找、加载与写入都会提交JFR缓存事件
+ */
+public class ObservedCache implements Cache {
+
+    private final Cache delegate;
+    private final ObservationRegistry registry;
+
+    public ObservedCache(Cache delegate, ObservationRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CacheEvent event = new CacheEvent();
+        event.begin();
+        Observation parent = registry.getCurrentObservation();
+        Observation observation = parent == null ? null : Observation.createNotStarted("amap.cache.lookup", registry)
+                .parentObservation(parent)
+                .contextualName("cache " + getName())
+                .lowCardinalityKeyValue("cache", getName())
+                .start();
+        CompletableFuture<?> future = delegate.retrieve(key);
+        if (future == null) {
+            finishLookup(event, observation, key, false, null);
+            return null;
+        }
+        return future.whenComplete((value, error) -> finishLookup(event, observation, key, value != null, error));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, () -> {
+            CacheEvent event = new CacheEvent();
+            event.begin();
+            return valueLoader.get().whenComplete((value, error) -> commit(event, key, CacheEvent.LOAD));
+        });
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CacheEvent event = new CacheEvent();
+        event.begin();
+        T value = delegate.get(key, type);
+        commit(event, key, value != null ? CacheEvent.HIT : CacheEvent.MISS);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        CacheEvent event = new CacheEvent();
+        event.begin();
+        delegate.put(key, value);
+        commit(event, key, CacheEvent.PUT);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private void finishLookup(CacheEvent event, Observation observation, Object key, boolean hit, Throwable error) {
+        String result = hit ? CacheEvent.HIT : CacheEvent.MISS;
+        commit(event, key, result);
+        if (observation != null) {
+            if (error != null) {
+                observation.error(error);
+            }
+            observation.lowCardinalityKeyValue("result", result).stop();
+        }
+    }
+
+    private void commit(CacheEvent event, Object key, String operation) {
+        if (event.shouldCommit()) {
+            event.cache = getName();
+            event.key = String.valueOf(key);
+            event.operation = operation;
+            event.commit();
+        }
+    }
+}
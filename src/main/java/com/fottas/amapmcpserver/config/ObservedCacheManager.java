@@ -0,0 +1,50 @@
+package com.fottas.amapmcpserver.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 为每个缓存包装ObservedCache的CacheManager
+ */
+public class ObservedCacheManager implements CacheManager, DisposableBean {
+
+    private final CacheManager delegate;
+    private final ObservationRegistry registry;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public ObservedCacheManager(CacheManager delegate, ObservationRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target == null ? null : caches.computeIfAbsent(name, ignored -> new ObservedCache(target, registry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * 被包装的CacheManager持有连接等资源时随容器关闭
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (delegate instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+}
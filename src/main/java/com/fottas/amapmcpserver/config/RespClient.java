@@ -0,0 +1,245 @@
+package com.fottas.amapmcpserver.config;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.tcp.TcpClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 最小的Redis协议客户端
+ * 所有命令共用一条连接并以流水线方式发送，不等待前一条命令的回复，回复按发送顺序对应；
+ * 连接在首次使用时建立，断开后在退避时间内命令直接失败，避免缓存不可用时拖慢请求。
+ * 订阅使用独立连接，断开后自动重连并重新订阅。
+ * 只覆盖二级缓存与共享计数用到的命令，与真实Redis的兼容性由RespRedisCompatibilityTest验证
+ */
+final class RespClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RespClient.class);
+
+    private final TcpClient tcpClient;
+    private final String password;
+    private final int database;
+    private final Duration timeout;
+    private final Duration reconnectBackoff;
+
+    private final Object lock = new Object();
+    private CompletableFuture<Link> link;
+    private long retryAt;
+    private Connection subscription;
+    private volatile boolean closed;
+
+    RespClient(String host, int port, String password, int database, Duration timeout, Duration reconnectBackoff) {
+        // 长连接，不使用连接池
+        this.tcpClient = TcpClient.newConnection()
+                .host(host)
+                .port(port)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) Math.max(timeout.toMillis(), 1000))
+                .doOnConnected(connection -> connection.addHandlerLast("resp", new RespCodec.Decoder()));
+        this.password = password;
+        this.database = database;
+        this.timeout = timeout;
+        this.reconnectBackoff = reconnectBackoff;
+    }
+
+    /**
+     * 发送一条命令，回复为错误、超时或连接不可用时异常完成
+     */
+    CompletableFuture<Object> execute(Object... args) {
+        return connection().thenCompose(current -> current.send(args))
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 订阅频道，listener在Netty事件循环线程上收到消息；重新订阅成功（即可能错过了消息）时调用onResubscribe
+     */
+    void subscribe(String channel, Consumer<byte[]> listener, Runnable onResubscribe) {
+        subscribe(channel, listener, onResubscribe, false);
+    }
+
+    private void subscribe(String channel, Consumer<byte[]> listener, Runnable onResubscribe, boolean resubscribe) {
+        if (closed) {
+            return;
+        }
+        tcpClient.connect().subscribe(connection -> {
+            synchronized (lock) {
+                if (closed) {
+                    connection.dispose();
+                    return;
+                }
+                subscription = connection;
+            }
+            connection.inbound().receiveObject().subscribe(reply -> {
+                if (reply instanceof List<?> message && message.size() == 3 && message.get(2) instanceof byte[] payload
+                        && "message".equals(text(message.get(0)))) {
+                    listener.accept(payload);
+                } else if (reply instanceof RespCodec.Error error) {
+                    logger.warn("二级缓存订阅失败: {}", error.message());
+                } else if (resubscribe && reply instanceof List<?> confirm && !confirm.isEmpty()
+                        && "subscribe".equals(text(confirm.get(0)))) {
+                    onResubscribe.run();
+                }
+            });
+            connection.onDispose(() -> retrySubscribe(channel, listener, onResubscribe));
+            List<Object[]> commands = handshake();
+            commands.add(new Object[]{"SUBSCRIBE", channel});
+            for (Object[] command : commands) {
+                connection.channel().write(RespCodec.encode(connection.channel().alloc(), command));
+            }
+            connection.channel().flush();
+        }, error -> {
+            logger.warn("二级缓存订阅连接失败: {}", error.getMessage());
+            retrySubscribe(channel, listener, onResubscribe);
+        });
+    }
+
+    private void retrySubscribe(String channel, Consumer<byte[]> listener, Runnable onResubscribe) {
+        if (!closed) {
+            Mono.delay(reconnectBackoff).subscribe(ignored -> subscribe(channel, listener, onResubscribe, true));
+        }
+    }
+
+    @Override
+    public void close() {
+        CompletableFuture<Link> current;
+        Connection subscribed;
+        synchronized (lock) {
+            closed = true;
+            current = link;
+            subscribed = subscription;
+            link = null;
+            subscription = null;
+        }
+        if (current != null) {
+            current.thenAccept(Link::dispose);
+        }
+        if (subscribed != null) {
+            subscribed.dispose();
+        }
+    }
+
+    private CompletableFuture<Link> connection() {
+        synchronized (lock) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("二级缓存客户端已关闭"));
+            }
+            if (link != null && !link.isCompletedExceptionally() && (!link.isDone() || link.join().isActive())) {
+                return link;
+            }
+            if (System.nanoTime() - retryAt < 0) {
+                return CompletableFuture.failedFuture(new IllegalStateException("二级缓存暂不可用"));
+            }
+            CompletableFuture<Link> connecting = tcpClient.connect().toFuture()
+                    .thenCompose(connection -> {
+                        Link created = new Link(connection);
+                        // 认证与选库在其他命令之前进入流水线
+                        CompletableFuture<?> ready = CompletableFuture.completedFuture(null);
+                        for (Object[] command : handshake()) {
+                            ready = created.send(command);
+                        }
+                        return ready.handle((ignored, error) -> {
+                            if (error != null) {
+                                created.dispose();
+                                throw new IllegalStateException("二级缓存认证失败: " + error.getMessage(), error);
+                            }
+                            return created;
+                        });
+                    });
+            connecting.whenComplete((connected, error) -> {
+                if (error != null) {
+                    logger.warn("二级缓存连接失败: {}", error.getMessage());
+                    synchronized (lock) {
+                        retryAt = System.nanoTime() + reconnectBackoff.toNanos();
+                    }
+                }
+            });
+            link = connecting;
+            return connecting;
+        }
+    }
+
+    private List<Object[]> handshake() {
+        List<Object[]> commands = new ArrayList<>(2);
+        if (StringUtils.hasText(password)) {
+            commands.add(new Object[]{"AUTH", password});
+        }
+        if (database != 0) {
+            commands.add(new Object[]{"SELECT", database});
+        }
+        return commands;
+    }
+
+    private static String text(Object reply) {
+        return reply instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(reply);
+    }
+
+    /**
+     * 命令连接及其等待回复的队列
+     */
+    private static final class Link {
+
+        private final Connection connection;
+        private final Queue<CompletableFuture<Object>> pending = new ConcurrentLinkedQueue<>();
+
+        Link(Connection connection) {
+            this.connection = connection;
+            connection.inbound().receiveObject().subscribe(this::complete,
+                    error -> failAll(error), () -> failAll(new IllegalStateException("二级缓存连接已断开")));
+            connection.onDispose(() -> failAll(new IllegalStateException("二级缓存连接已断开")));
+        }
+
+        boolean isActive() {
+            return !connection.isDisposed() && connection.channel().isActive();
+        }
+
+        CompletableFuture<Object> send(Object... args) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            // 入队与写出保持相同的顺序，Netty按提交顺序写出非事件循环线程的写操作
+            synchronized (pending) {
+                pending.add(future);
+                connection.channel().writeAndFlush(RespCodec.encode(connection.channel().alloc(), args))
+                        .addListener(write -> {
+                            if (!write.isSuccess()) {
+                                connection.dispose();
+                            }
+                        });
+            }
+            return future;
+        }
+
+        void dispose() {
+            connection.dispose();
+        }
+
+        private void complete(Object reply) {
+            CompletableFuture<Object> future = pending.poll();
+            if (future == null) {
+                return;
+            }
+            if (reply instanceof RespCodec.Error error) {
+                future.completeExceptionally(new IllegalStateException(error.message()));
+            } else {
+                future.complete(reply);
+            }
+        }
+
+        private void failAll(Throwable error) {
+            CompletableFuture<Object> future;
+            while ((future = pending.poll()) != null) {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.fottas.amapmcpserver.config;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.ByteProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis协议（RESP2）编解码
+ * 命令编码为批量字符串数组；回复解码为：简单字符串为String，整数为Long，批量字符串为byte[]，
+ * 数组为List，空回复为NIL，错误为Error
+ */
+final class RespCodec {
+
+    /**
+     * 空回复，Netty不能传递null消息
+     */
+    static final Object NIL = new Object() {
+        @Override
+        public String toString() {
+            return "NIL";
+        }
+    };
+
+    /**
+     * 错误回复
+     */
+    record Error(String message) {
+    }
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private RespCodec() {
+    }
+
+    /**
+     * 编码一条命令，参数为byte[]时原样写入，其余按字符串写入
+     */
+    static ByteBuf encode(ByteBufAllocator allocator, Object... args) {
+        ByteBuf buffer = allocator.buffer();
+        writeHeader(buffer, '*', args.length);
+        for (Object arg : args) {
+            writeBulk(buffer, arg instanceof byte[] bytes ? bytes : String.valueOf(arg).getBytes(StandardCharsets.UTF_8));
+        }
+        return buffer;
+    }
+
+    /**
+     * 编码一条回复，供测试替身使用
+     */
+    static void encodeReply(ByteBuf buffer, Object reply) {
+        if (reply == null || reply == NIL) {
+            buffer.writeBytes("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+        } else if (reply instanceof Error error) {
+            buffer.writeByte('-').writeBytes(error.message().getBytes(StandardCharsets.UTF_8)).writeBytes(CRLF);
+        } else if (reply instanceof String text) {
+            buffer.writeByte('+').writeBytes(text.getBytes(StandardCharsets.UTF_8)).writeBytes(CRLF);
+        } else if (reply instanceof Long number) {
+            writeHeader(buffer, ':', number);
+        } else if (reply instanceof byte[] bytes) {
+            writeBulk(buffer, bytes);
+        } else if (reply instanceof List<?> list) {
+            writeHeader(buffer, '*', list.size());
+            list.forEach(item -> encodeReply(buffer, item));
+        } else {
+            throw new IllegalArgumentException("不支持的回复类型: " + reply.getClass());
+        }
+    }
+
+    private static void writeHeader(ByteBuf buffer, char type, long value) {
+        buffer.writeByte(type).writeBytes(Long.toString(value).getBytes(StandardCharsets.US_ASCII)).writeBytes(CRLF);
+    }
+
+    private static void writeBulk(ByteBuf buffer, byte[] bytes) {
+        writeHeader(buffer, '$', bytes.length);
+        buffer.writeBytes(bytes).writeBytes(CRLF);
+    }
+
+    /**
+     * 回复解码器，数据不完整时等待后续数据，不产生中间对象
+     */
+    static final class Decoder extends ByteToMessageDecoder {
+
+        private static final Object INCOMPLETE = new Object();
+
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+            while (in.isReadable()) {
+                int start = in.readerIndex();
+                Object reply = parse(in);
+                if (reply == INCOMPLETE) {
+                    in.readerIndex(start);
+                    return;
+                }
+                out.add(reply);
+            }
+        }
+
+        private static Object parse(ByteBuf in) {
+            if (!in.isReadable()) {
+                return INCOMPLETE;
+            }
+            byte type = in.readByte();
+            String line = readLine(in);
+            if (line == null) {
+                return INCOMPLETE;
+            }
+            switch (type) {
+                case '+':
+                    return line;
+                case '-':
+                    return new Error(line);
+                case ':':
+                    return Long.parseLong(line);
+                case '$': {
+                    int length = Integer.parseInt(line);
+                    if (length < 0) {
+                        return NIL;
+                    }
+                    if (in.readableBytes() < length + 2) {
+                        return INCOMPLETE;
+                    }
+                    byte[] bytes = new byte[length];
+                    in.readBytes(bytes);
+                    in.skipBytes(2);
+                    return bytes;
+                }
+                case '*': {
+                    int count = Integer.parseInt(line);
+                    if (count < 0) {
+                        return NIL;
+                    }
+                    List<Object> items = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        Object item = parse(in);
+                        if (item == INCOMPLETE) {
+                            return INCOMPLETE;
+                        }
+                        items.add(item);
+                    }
+                    return items;
+                }
+                default:
+                    throw new IllegalStateException("无法识别的RESP类型: " + (char) type);
+            }
+        }
+
+        private static String readLine(ByteBuf in) {
+            int lf = in.forEachByte(ByteProcessor.FIND_LF);
+            if (lf < 0) {
+                return null;
+            }
+            String line = in.toString(in.readerIndex(), lf - 1 - in.readerIndex(), StandardCharsets.UTF_8);
+            in.readerIndex(lf + 1);
+            return line;
+        }
+    }
+}
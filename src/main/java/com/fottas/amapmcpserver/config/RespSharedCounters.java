@@ -0,0 +1,41 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fottas.amapmcpserver.service.SharedCounters;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 基于Redis协议存储的共享计数
+ * 增加计数与设置过期时间在同一个脚本中原子执行，避免连接中断时留下没有过期时间的计数
+ */
+public class RespSharedCounters implements SharedCounters, AutoCloseable {
+
+    /**
+     * 增加计数，计数没有过期时间时设置过期时间；返回增加后的计数
+     */
+    static final String ADD_SCRIPT = """
+            local total = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if redis.call('PTTL', KEYS[1]) < 0 then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return total""";
+
+    private final RespClient client;
+
+    public RespSharedCounters(AmapConfigProperties.DistributedRateLimitConfig config) {
+        this.client = new RespClient(config.getHost(), config.getPort(), config.getPassword(), config.getDatabase(),
+                config.getTimeout(), config.getReconnectBackoff());
+    }
+
+    @Override
+    public Mono<Long> add(String key, long delta, Duration ttl) {
+        return Mono.defer(() -> Mono.fromFuture(client.execute("EVAL", ADD_SCRIPT, 1, key, delta, ttl.toMillis())))
+                .map(reply -> (Long) reply);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+}
@@ -1,8 +1,21 @@
 package com.fottas.amapmcpserver.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,10 +29,70 @@ import org.springframework.context.annotation.Configuration;
 public class SimpleCacheConfiguration {
 
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(AmapConfigProperties amapConfigProperties, ObservationRegistry observationRegistry,
+                                     ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("amapCache");
         // 关键配置：启用异步缓存模式支持响应式返回值
         cacheManager.setAsyncCacheMode(true);
-        return cacheManager;
+        // 记录命中、未命中与淘汰统计，由Actuator按缓存名称导出
+        cacheManager.setCaffeine(Caffeine.newBuilder().recordStats());
+
+        // 交通态势变化较快，使用独立的短TTL缓存
+        var traffic = amapConfigProperties.getTraffic();
+        cacheManager.registerCustomCache("trafficCache", Caffeine.newBuilder()
+                .expireAfterWrite(traffic.getCacheTtl())
+                .maximumSize(traffic.getCacheMaximumSize())
+                .recordStats()
+                .buildAsync());
+
+        // 行程距离矩阵与等时圈采样按单元格写入，条目数随请求规模增长，使用有界缓存
+        var tripOptimizer = amapConfigProperties.getTripOptimizer();
+        cacheManager.registerCustomCache("tripLegCache", Caffeine.newBuilder()
+                .expireAfterWrite(tripOptimizer.getCacheTtl())
+                .maximumSize(tripOptimizer.getCacheMaximumSize())
+                .recordStats()
+                .buildAsync());
+        var isochrone = amapConfigProperties.getIsochrone();
+        cacheManager.registerCustomCache("isochroneProbeCache", Caffeine.newBuilder()
+                .expireAfterWrite(isochrone.getCacheTtl())
+                .maximumSize(isochrone.getCacheMaximumSize())
+                .recordStats()
+                .buildAsync());
+
+        // 多副本共享的二级缓存，本地未命中时查询
+        var l2Cache = amapConfigProperties.getL2Cache();
+        CacheManager target = l2Cache.isEnabled()
+                ? new TwoLevelCacheManager(cacheManager, l2Cache, objectMapper, meterRegistry.getIfAvailable(SimpleMeterRegistry::new))
+                : cacheManager;
+
+        // 缓存查找记录为工具调用链中的子span
+        return new ObservedCacheManager(target, observationRegistry);
+    }
+
+    /**
+     * AmapApiService的缓存键生成器，生成带预计算哈希的AmapCacheKey
+     */
+    @Bean
+    public KeyGenerator amapKeyGenerator() {
+        return new AmapCacheKeyGenerator();
+    }
+
+    /**
+     * 缓存被ObservedCache（以及TwoLevelCache）包装后，Actuator需要通过该提供者找到内部的Caffeine缓存来导出统计
+     */
+    @Bean
+    public CacheMeterBinderProvider<ObservedCache> observedCacheMeterBinderProvider() {
+        return new ObservedCacheMeterBinderProvider();
+    }
+
+    static class ObservedCacheMeterBinderProvider implements CacheMeterBinderProvider<ObservedCache> {
+
+        private final CaffeineCacheMeterBinderProvider caffeine = new CaffeineCacheMeterBinderProvider();
+
+        @Override
+        public MeterBinder getMeterBinder(ObservedCache cache, Iterable<Tag> tags) {
+            Cache delegate = cache.getDelegate() instanceof TwoLevelCache twoLevel ? twoLevel.getLocal() : cache.getDelegate();
+            return delegate instanceof CaffeineCache caffeineCache ? caffeine.getMeterBinder(caffeineCache, tags) : null;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,307 @@
+package com.fottas.amapmcpserver.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * 本地Caffeine缓存 + 共享二级缓存
+ * 本地未命中时异步查询二级缓存，命中的值回填本地；写入时同时写入二级缓存。
+ * 同步读取只在允许阻塞的线程上查询二级缓存，事件循环线程上只读本地。
+ * 二级缓存的任何失败都按未命中处理。
+ * <p>
+ * 本地缓存直接以缓存键对象为键；二级缓存与失效通知使用AmapCacheKey.sharedKey，收到通知时还原为缓存键淘汰本地条目。
+ * 只有AmapCacheKey参与二级缓存，其他类型的键只使用本地缓存。
+ * 应用自身只写入不删除：写入使用NX，条目依靠TTL过期；只有显式调用evict/clear（例如开放actuator的caches端点后
+ * DELETE /actuator/caches/amapCache）才会删除二级缓存条目并通知其他副本淘汰本地条目
+ */
+public class TwoLevelCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCache.class);
+
+    private final CaffeineCache local;
+    private final RespClient client;
+    private final CacheValueCodec codec;
+    private final TwoLevelCacheManager.Invalidations invalidations;
+    private final String keyPrefix;
+    private final String ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter errors;
+
+    TwoLevelCache(CaffeineCache local, RespClient client, CacheValueCodec codec,
+                  TwoLevelCacheManager.Invalidations invalidations, AmapConfigProperties.L2CacheConfig config,
+                  MeterRegistry meterRegistry) {
+        this.local = local;
+        this.client = client;
+        this.codec = codec;
+        this.invalidations = invalidations;
+        this.keyPrefix = config.getKeyPrefix() + local.getName() + ":";
+        this.ttlMillis = String.valueOf(config.getTtl().toMillis());
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.errors = counter(meterRegistry, "error");
+    }
+
+    /**
+     * 本地Caffeine缓存，用于导出统计
+     */
+    public CaffeineCache getLocal() {
+        return local;
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> cached = local.retrieve(key);
+        if (cached != null) {
+            return cached;
+        }
+        return load(key).thenApply(value -> {
+            if (value == null) {
+                return null;
+            }
+            local.put(key, value);
+            // 与本地缓存的retrieve返回形式一致
+            return local.isAllowNullValues() ? new SimpleValueWrapper(value) : value;
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return local.retrieve(key, () -> load(key).thenCompose(value -> {
+            if (value != null) {
+                @SuppressWarnings("unchecked")
+                T shared = (T) value;
+                return CompletableFuture.completedFuture(shared);
+            }
+            return valueLoader.get().thenApply(loaded -> {
+                store(key, loaded);
+                return loaded;
+            });
+        }));
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = local.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object value = loadBlocking(key);
+        if (value == null) {
+            return null;
+        }
+        local.put(key, value);
+        return new SimpleValueWrapper(value);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T cached = local.get(key, type);
+        if (cached != null) {
+            return cached;
+        }
+        Object value = loadBlocking(key);
+        if (!type.isInstance(value)) {
+            return null;
+        }
+        local.put(key, value);
+        return type.cast(value);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            Object value = loadBlocking(key);
+            if (value != null) {
+                @SuppressWarnings("unchecked")
+                T shared = (T) value;
+                return shared;
+            }
+            T loaded = valueLoader.call();
+            store(key, loaded);
+            return loaded;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        store(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = local.putIfAbsent(key, value);
+        if (existing == null) {
+            store(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.evict(key);
+        evictShared(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = local.evictIfPresent(key);
+        evictShared(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        clearShared();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean present = local.invalidate();
+        clearShared();
+        return present;
+    }
+
+    /**
+     * 收到其他副本的失效通知，只淘汰本地条目；无法还原的键按清空处理
+     */
+    void evictLocal(String sharedKey) {
+        AmapCacheKey key = AmapCacheKey.parse(sharedKey);
+        if (key != null) {
+            local.evict(key);
+        } else {
+            local.clear();
+        }
+    }
+
+    void clearLocal() {
+        local.clear();
+    }
+
+    /**
+     * 二级缓存中的键，不参与二级缓存的键返回null
+     */
+    static String sharedKeyOf(Object key) {
+        return key instanceof AmapCacheKey amapKey ? amapKey.sharedKey() : null;
+    }
+
+    private CompletableFuture<Object> load(Object key) {
+        String sharedKey = sharedKeyOf(key);
+        if (sharedKey == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.execute("GET", keyPrefix + sharedKey)
+                .handle((reply, error) -> {
+                    if (error != null) {
+                        errors.increment();
+                        logger.debug("二级缓存读取失败: {}", error.getMessage());
+                        return null;
+                    }
+                    Object value = reply instanceof byte[] bytes ? codec.decode(bytes) : null;
+                    (value != null ? hits : misses).increment();
+                    return value;
+                });
+    }
+
+    private Object loadBlocking(Object key) {
+        if (Schedulers.isInNonBlockingThread()) {
+            return null;
+        }
+        try {
+            return load(key).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void store(Object key, Object value) {
+        String sharedKey = sharedKeyOf(key);
+        byte[] encoded = sharedKey != null ? codec.encode(value) : null;
+        if (encoded == null) {
+            return;
+        }
+        // NX：其他副本已经写入时保留先写入的值，不重置过期时间
+        client.execute("SET", keyPrefix + sharedKey, encoded, "PX", ttlMillis, "NX")
+                .whenComplete((reply, error) -> {
+                    if (error != null) {
+                        errors.increment();
+                        logger.debug("二级缓存写入失败: {}", error.getMessage());
+                    }
+                });
+    }
+
+    private void evictShared(Object key) {
+        String sharedKey = sharedKeyOf(key);
+        if (sharedKey == null) {
+            return;
+        }
+        client.execute("DEL", keyPrefix + sharedKey)
+                .whenComplete((reply, error) -> invalidations.publish(getName(), sharedKey));
+    }
+
+    private void clearShared() {
+        scanAndUnlink("0").whenComplete((ignored, error) -> {
+            if (error != null) {
+                logger.warn("二级缓存清空失败: {}", error.getMessage());
+            }
+            invalidations.publish(getName(), null);
+        });
+    }
+
+    private CompletableFuture<Void> scanAndUnlink(String cursor) {
+        return client.execute("SCAN", cursor, "MATCH", keyPrefix + "*", "COUNT", 500).thenCompose(reply -> {
+            List<?> page = (List<?>) reply;
+            String next = new String((byte[]) page.get(0), StandardCharsets.UTF_8);
+            List<?> keys = (List<?>) page.get(1);
+            CompletableFuture<?> unlinked = keys.isEmpty() ? CompletableFuture.completedFuture(null)
+                    : client.execute(unlinkCommand(keys));
+            return unlinked.thenCompose(ignored -> "0".equals(next) ? CompletableFuture.completedFuture(null)
+                    : scanAndUnlink(next));
+        });
+    }
+
+    private static Object[] unlinkCommand(List<?> keys) {
+        Object[] command = new Object[keys.size() + 1];
+        command[0] = "UNLINK";
+        for (int i = 0; i < keys.size(); i++) {
+            command[i + 1] = keys.get(i);
+        }
+        return command;
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("amap.cache.l2")
+                .description("二级缓存读取结果")
+                .tag("cache", getName())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,118 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 为配置的缓存叠加共享二级缓存的CacheManager，其余缓存原样返回
+ * 失效通知的格式为 副本ID + 换行 + 缓存名称 + 换行 + 缓存键，缓存键为空表示清空；副本忽略自己发出的通知
+ */
+public class TwoLevelCacheManager implements CacheManager, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    private final CacheManager delegate;
+    private final AmapConfigProperties.L2CacheConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> sharedCaches;
+    private final RespClient client;
+    private final CacheValueCodec codec;
+    private final Invalidations invalidations;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager delegate, AmapConfigProperties.L2CacheConfig config,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.sharedCaches = Set.copyOf(config.getCaches());
+        this.client = new RespClient(config.getHost(), config.getPort(), config.getPassword(), config.getDatabase(),
+                config.getTimeout(), config.getReconnectBackoff());
+        this.codec = new CacheValueCodec(objectMapper.copy()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false),
+                (int) config.getCompressThreshold().toBytes());
+        this.invalidations = new Invalidations(UUID.randomUUID().toString());
+        // 订阅断开期间可能错过失效通知，重新订阅后清空本地条目
+        client.subscribe(config.getInvalidationChannel(), invalidations::receive,
+                () -> caches.values().forEach(cache -> {
+                    if (cache instanceof TwoLevelCache twoLevel) {
+                        twoLevel.clearLocal();
+                    }
+                }));
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, ignored -> sharedCaches.contains(name) && target instanceof CaffeineCache caffeine
+                ? new TwoLevelCache(caffeine, client, codec, invalidations, config, meterRegistry)
+                : target);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    @Override
+    public void destroy() {
+        client.close();
+    }
+
+    /**
+     * 失效通知的发布与接收
+     */
+    final class Invalidations {
+
+        private final String instanceId;
+
+        Invalidations(String instanceId) {
+            this.instanceId = instanceId;
+        }
+
+        void publish(String cacheName, String key) {
+            String message = instanceId + "\n" + cacheName + "\n" + (key != null ? key : "");
+            client.execute("PUBLISH", config.getInvalidationChannel(), message).whenComplete((reply, error) -> {
+                if (error != null) {
+                    logger.warn("二级缓存失效通知发送失败: {}", error.getMessage());
+                }
+            });
+        }
+
+        void receive(byte[] payload) {
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\n", 3);
+            if (parts.length < 3 || instanceId.equals(parts[0])
+                    || !(caches.get(parts[1]) instanceof TwoLevelCache cache)) {
+                return;
+            }
+            if (parts[2].isEmpty()) {
+                cache.clearLocal();
+            } else {
+                cache.evictLocal(parts[2]);
+            }
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.fottas.amapmcpserver.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fottas.amapmcpserver.jfr.RetryEvent;
+import com.fottas.amapmcpserver.service.AmapMetrics;
+import io.micrometer.observation.ObservationRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
@@ -8,8 +12,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
@@ -19,7 +25,12 @@ import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.net.URI;
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -41,35 +52,27 @@ public class WebClientConfig {
     /**
      * 配置用于高德地图API的WebClient
      *
+     * @param amapMetrics 指标，用于统计响应体大小
+     * @param observationRegistry 观测注册表，每次请求生成一个子span并传递追踪头
+     * @param amapRecordingFilter 录制与回放过滤器，注册在最内层，回放的响应同样经过日志、指标和错误处理
      * @return 配置好的WebClient实例
      */
     @Bean("amapWebClient")
-    public WebClient amapWebClient() {
-        // 创建连接池
-        ConnectionProvider connectionProvider = ConnectionProvider.builder("amap-connection-pool")
-                .maxConnections(amapConfigProperties.getHttpClient().getMaxConnections())
-                .maxIdleTime(amapConfigProperties.getHttpClient().getIdleTimeout())
-                .maxLifeTime(Duration.ofMinutes(30))
-                .pendingAcquireTimeout(Duration.ofSeconds(60))
-                .evictInBackground(Duration.ofSeconds(120))
-                .build();
-
-        // 配置HttpClient
-        HttpClient httpClient = HttpClient.create(connectionProvider)
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 
-                        (int) amapConfigProperties.getHttpClient().getConnectionTimeout().toMillis())
-                .responseTimeout(amapConfigProperties.getHttpClient().getReadTimeout())
-                .doOnConnected(conn -> conn
-                        .addHandlerLast(new ReadTimeoutHandler(
-                                amapConfigProperties.getHttpClient().getReadTimeout().toSeconds(), TimeUnit.SECONDS))
-                        .addHandlerLast(new WriteTimeoutHandler(
-                                amapConfigProperties.getHttpClient().getReadTimeout().toSeconds(), TimeUnit.SECONDS)))
-                .compress(true);
-
-        // 如果启用HTTP/2
-        if (amapConfigProperties.getHttpClient().isHttp2Enabled()) {
-            httpClient = httpClient.protocol(reactor.netty.http.HttpProtocol.H2C, reactor.netty.http.HttpProtocol.HTTP11);
-        }
+    public WebClient amapWebClient(AmapMetrics amapMetrics, ObservationRegistry observationRegistry,
+                                   AmapRecordingFilter amapRecordingFilter) {
+        // 每个接口族使用独立的连接池，未归入接口族的接口使用默认连接池，各连接池合计不超过max-connections
+        var http = amapConfigProperties.getHttpClient();
+        Map<String, ClientHttpConnector> connectors = new LinkedHashMap<>();
+        Map<String, List<String>> endpoints = new LinkedHashMap<>();
+        http.getBulkheads().forEach((name, bulkhead) -> {
+            connectors.put(name, new ReactorClientHttpConnector(amapHttpClient(amapConnectionProvider("amap-" + name,
+                    http.resolveMaxConnections(name), bulkhead.getPendingAcquireMaxCount(), bulkhead.getPendingAcquireTimeout()))));
+            endpoints.put(name, http.resolveEndpoints(name));
+        });
+        ClientHttpConnector fallback = new ReactorClientHttpConnector(amapHttpClient(amapConnectionProvider(
+                "amap-connection-pool", http.fallbackMaxConnections(), http.getPendingAcquireMaxCount(), http.getPendingAcquireTimeout())));
+        ClientHttpConnector connector = new BulkheadHttpConnector(URI.create(amapConfigProperties.getBaseUrl()).getPath(),
+                connectors, endpoints, fallback);
 
         // 配置ExchangeStrategies以处理大响应
         ExchangeStrategies exchangeStrategies = ExchangeStrategies.builder()
@@ -78,18 +81,70 @@ public class WebClientConfig {
 
         return WebClient.builder()
                 .baseUrl(amapConfigProperties.getBaseUrl())
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .clientConnector(connector)
                 .exchangeStrategies(exchangeStrategies)
+                .observationRegistry(observationRegistry)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.USER_AGENT, amapConfigProperties.getHttpClient().getUserAgent())
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .defaultHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
                 .filter(loggingExchangeFilterFunction())
+                .filter(amapMetrics.payloadSizeFilter())
                 .filter(retryExchangeFilterFunction())
                 .filter(errorHandlingExchangeFilterFunction())
+                .filter(amapRecordingFilter)
+                .build();
+    }
+
+    /**
+     * 高德接口连接池，连接池指标按名称导出（reactor.netty.connection.provider.*）
+     */
+    private ConnectionProvider amapConnectionProvider(String name, int maxConnections, int pendingAcquireMaxCount,
+                                                      Duration pendingAcquireTimeout) {
+        return ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(amapConfigProperties.getHttpClient().getIdleTimeout())
+                .maxLifeTime(Duration.ofMinutes(30))
+                .evictInBackground(Duration.ofSeconds(120))
+                .metrics(true)
                 .build();
     }
 
+    /**
+     * 高德接口的HttpClient，各连接池共用相同的超时、压缩与协议配置
+     */
+    private HttpClient amapHttpClient(ConnectionProvider connectionProvider) {
+        var http = amapConfigProperties.getHttpClient();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectionTimeout().toMillis())
+                .responseTimeout(http.getReadTimeout())
+                .doOnConnected(conn -> conn
+                        .addHandlerLast(new ReadTimeoutHandler(http.getReadTimeout().toSeconds(), TimeUnit.SECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(http.getReadTimeout().toSeconds(), TimeUnit.SECONDS)))
+                // 建连、TLS握手、首字节等阶段记录为请求span上的事件
+                .metrics(true, () -> HttpExchangeEventRecorder.INSTANCE)
+                .doOnResponse((response, connection) -> HttpExchangeEventRecorder.firstByte(response.currentContextView()))
+                .compress(true);
+
+        // 如果启用HTTP/2
+        if (http.isHttp2Enabled()) {
+            httpClient = httpClient.protocol(reactor.netty.http.HttpProtocol.H2C, reactor.netty.http.HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+
+    /**
+     * 高德请求录制与回放过滤器，amap.api.recording.mode为OFF时直接放行
+     *
+     * @return 录制与回放过滤器
+     */
+    @Bean
+    public AmapRecordingFilter amapRecordingFilter(ObjectMapper objectMapper) throws IOException {
+        return new AmapRecordingFilter(amapConfigProperties.getRecording(), objectMapper);
+    }
+
     /**
      * 请求日志过滤器
      *
@@ -171,9 +226,16 @@ public class WebClientConfig {
                     return throwable instanceof RuntimeException && 
                            !throwable.getMessage().contains("Client error");
                 })
-                .doBeforeRetry(retrySignal -> 
-                        logger.warn("Retrying API call, attempt: {}, exception: {}", 
-                                retrySignal.totalRetries() + 1, retrySignal.failure().getMessage()))
+                .doBeforeRetry(retrySignal -> {
+                    logger.warn("Retrying API call, attempt: {}, exception: {}",
+                            retrySignal.totalRetries() + 1, retrySignal.failure().getMessage());
+                    RetryEvent event = new RetryEvent();
+                    if (event.shouldCommit()) {
+                        event.attempt = retrySignal.totalRetries() + 1;
+                        event.failure = String.valueOf(retrySignal.failure().getMessage());
+                        event.commit();
+                    }
+                })
                 .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> {
                     logger.error("Retry exhausted after {} attempts", retrySignal.totalRetries());
                     return new RuntimeException("API call failed after " + retrySignal.totalRetries() + " retries", 
@@ -182,10 +244,11 @@ public class WebClientConfig {
     }
 
     /**
-     * 通用WebClient Bean，可用于其他HTTP调用
+     * 通用WebClient Bean，可用于其他HTTP调用；目前没有使用方，首次注入时才创建连接池
      *
      * @return 通用WebClient实例
      */
+    @Lazy
     @Bean("genericWebClient")
     public WebClient genericWebClient() {
         ConnectionProvider connectionProvider = ConnectionProvider.builder("generic-connection-pool")
@@ -0,0 +1,207 @@
+package com.fottas.amapmcpserver.geo;
+
+/**
+ * 坐标与距离计算工具
+ * 基于GCJ-02坐标的球面距离计算，结果与高德直线距离测量(type=0)保持一致的量级
+ */
+public final class GeoUtils {
+
+    /**
+     * 地球半径（米），与高德JS API GeometryUtil保持一致
+     */
+    public static final double EARTH_RADIUS = 6378137.0;
+
+    private GeoUtils() {
+    }
+
+    /**
+     * 解析"经度,纬度"格式的坐标
+     *
+     * @param location 坐标字符串
+     * @return [经度, 纬度]，格式错误或超出范围时返回null
+     */
+    public static double[] parseLocation(String location) {
+        if (location == null) {
+            return null;
+        }
+        int comma = location.indexOf(',');
+        if (comma <= 0 || comma != location.lastIndexOf(',')) {
+            return null;
+        }
+        try {
+            double lng = Double.parseDouble(location.substring(0, comma).trim());
+            double lat = Double.parseDouble(location.substring(comma + 1).trim());
+            if (!isValid(lng, lat)) {
+                return null;
+            }
+            return new double[]{lng, lat};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析以竖线分隔的多个坐标，如 120,30|120,31
+     *
+     * @param locations 坐标串
+     * @return 按列存储的坐标 [经度数组, 纬度数组]，任一坐标非法时返回null
+     */
+    public static double[][] parseLocations(String locations) {
+        if (locations == null || locations.isBlank()) {
+            return null;
+        }
+        String[] parts = locations.split("\\|");
+        double[] lngs = new double[parts.length];
+        double[] lats = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            double[] point = parseLocation(parts[i]);
+            if (point == null) {
+                return null;
+            }
+            lngs[i] = point[0];
+            lats[i] = point[1];
+        }
+        return new double[][]{lngs, lats};
+    }
+
+    /**
+     * 格式化为高德坐标字符串，保留6位小数
+     */
+    public static String formatLocation(double lng, double lat) {
+        return String.format("%.6f,%.6f", lng, lat);
+    }
+
+    public static boolean isValid(double lng, double lat) {
+        return lng >= -180 && lng <= 180 && lat >= -90 && lat <= 90;
+    }
+
+    /**
+     * Haversine球面距离
+     *
+     * @return 距离（米）
+     */
+    public static double haversine(double lng1, double lat1, double lng2, double lat2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double sinDLat = Math.sin((phi2 - phi1) * 0.5);
+        double sinDLng = Math.sin(Math.toRadians(lng2 - lng1) * 0.5);
+        double a = sinDLat * sinDLat + Math.cos(phi1) * Math.cos(phi2) * sinDLng * sinDLng;
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * 批量计算多个起点到同一终点的球面距离
+     * 终点相关的三角函数只计算一次，循环只访问基本类型数组，便于JIT优化
+     *
+     * @param lngs 起点经度
+     * @param lats 起点纬度
+     * @param count 起点数量
+     * @param destLng 终点经度
+     * @param destLat 终点纬度
+     * @param out 输出距离（米），长度不小于count
+     */
+    public static void haversineBatch(double[] lngs, double[] lats, int count,
+                                      double destLng, double destLat, double[] out) {
+        final double destPhi = Math.toRadians(destLat);
+        final double destLambda = Math.toRadians(destLng);
+        final double cosDest = Math.cos(destPhi);
+        final double diameter = 2 * EARTH_RADIUS;
+        for (int i = 0; i < count; i++) {
+            double phi = Math.toRadians(lats[i]);
+            double sinDLat = Math.sin((destPhi - phi) * 0.5);
+            double sinDLng = Math.sin((destLambda - Math.toRadians(lngs[i])) * 0.5);
+            double a = sinDLat * sinDLat + Math.cos(phi) * cosDest * sinDLng * sinDLng;
+            out[i] = diameter * Math.asin(Math.min(1.0, Math.sqrt(a)));
+        }
+    }
+
+    /**
+     * 由起点、方位角与距离计算终点
+     *
+     * @param bearing 方位角（度），正北为0，顺时针
+     * @param meters 距离（米）
+     * @return [经度, 纬度]
+     */
+    public static double[] destination(double lng, double lat, double bearing, double meters) {
+        double delta = meters / EARTH_RADIUS;
+        double theta = Math.toRadians(bearing);
+        double phi1 = Math.toRadians(lat);
+        double lambda1 = Math.toRadians(lng);
+        double phi2 = Math.asin(Math.sin(phi1) * Math.cos(delta) + Math.cos(phi1) * Math.sin(delta) * Math.cos(theta));
+        double lambda2 = lambda1 + Math.atan2(Math.sin(theta) * Math.sin(delta) * Math.cos(phi1),
+                Math.cos(delta) - Math.sin(phi1) * Math.sin(phi2));
+        return new double[]{Math.toDegrees(lambda2), Math.toDegrees(phi2)};
+    }
+
+    /**
+     * 道格拉斯-普克简化闭合环
+     *
+     * @param ring 交替存放的经纬度 [lng0, lat0, lng1, lat1, ...]，首尾不重复
+     * @param toleranceMeters 允许的最大偏差（米）
+     * @return 简化后的环，至少保留3个点
+     */
+    public static double[] simplifyRing(double[] ring, double toleranceMeters) {
+        int points = ring.length / 2;
+        if (points <= 3) {
+            return ring;
+        }
+        // 以首点为原点投影到平面米制坐标
+        double cosLat = Math.cos(Math.toRadians(ring[1]));
+        double scale = Math.toRadians(1) * EARTH_RADIUS;
+        double[] xs = new double[points + 1];
+        double[] ys = new double[points + 1];
+        for (int i = 0; i <= points; i++) {
+            int p = i % points;
+            xs[i] = (ring[2 * p] - ring[0]) * scale * cosLat;
+            ys[i] = (ring[2 * p + 1] - ring[1]) * scale;
+        }
+        boolean[] keep = new boolean[points + 1];
+        keep[0] = true;
+        keep[points] = true;
+        simplifySection(xs, ys, 0, points, toleranceMeters, keep);
+
+        int kept = 0;
+        for (int i = 0; i < points; i++) {
+            if (keep[i]) {
+                kept++;
+            }
+        }
+        if (kept < 3) {
+            return ring;
+        }
+        double[] result = new double[kept * 2];
+        int written = 0;
+        for (int i = 0; i < points; i++) {
+            if (keep[i]) {
+                result[written++] = ring[2 * i];
+                result[written++] = ring[2 * i + 1];
+            }
+        }
+        return result;
+    }
+
+    private static void simplifySection(double[] xs, double[] ys, int from, int to, double tolerance, boolean[] keep) {
+        if (to - from < 2) {
+            return;
+        }
+        double dx = xs[to] - xs[from];
+        double dy = ys[to] - ys[from];
+        double length = Math.hypot(dx, dy);
+        double maxDistance = -1;
+        int farthest = -1;
+        for (int i = from + 1; i < to; i++) {
+            double distance = length == 0
+                    ? Math.hypot(xs[i] - xs[from], ys[i] - ys[from])
+                    : Math.abs(dy * (xs[i] - xs[from]) - dx * (ys[i] - ys[from])) / length;
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                farthest = i;
+            }
+        }
+        if (maxDistance > tolerance) {
+            keep[farthest] = true;
+            simplifySection(xs, ys, from, farthest, tolerance, keep);
+            simplifySection(xs, ys, farthest, to, tolerance, keep);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.fottas.amapmcpserver.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Geohash编码工具
+ * 用于将坐标划分到固定网格中，6位精度约为1.2km × 0.6km
+ */
+public final class Geohash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int[] DECODE = new int[128];
+
+    static {
+        Arrays.fill(DECODE, -1);
+        for (int i = 0; i < BASE32.length; i++) {
+            DECODE[BASE32[i]] = i;
+        }
+    }
+
+    /**
+     * 每度纬度对应的米数（近似值）
+     */
+    public static final double METERS_PER_DEGREE = 111320.0;
+
+    private Geohash() {
+    }
+
+    public static String encode(double lng, double lat, int precision) {
+        double minLng = -180, maxLng = 180, minLat = -90, maxLat = 90;
+        char[] hash = new char[precision];
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+        int length = 0;
+        while (length < precision) {
+            if (evenBit) {
+                double mid = (minLng + maxLng) / 2;
+                if (lng >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch <<= 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch <<= 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash[length++] = BASE32[ch];
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return new String(hash);
+    }
+
+    /**
+     * 解码网格边界
+     *
+     * @return [最小经度, 最小纬度, 最大经度, 最大纬度]
+     */
+    public static double[] bounds(String hash) {
+        double minLng = -180, maxLng = 180, minLat = -90, maxLat = 90;
+        boolean evenBit = true;
+        for (int i = 0; i < hash.length(); i++) {
+            int value = DECODE[hash.charAt(i)];
+            for (int shift = 4; shift >= 0; shift--) {
+                boolean set = ((value >> shift) & 1) == 1;
+                if (evenBit) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (set) {
+                        minLng = mid;
+                    } else {
+                        maxLng = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{minLng, minLat, maxLng, maxLat};
+    }
+
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << ((5 * precision + 1) / 2));
+    }
+
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << (5 * precision / 2));
+    }
+
+    /**
+     * 获取覆盖指定矩形的全部网格
+     *
+     * @param maxCells 最大网格数量
+     * @return 网格编码列表，超过最大数量时返回null
+     */
+    public static List<String> cover(double minLng, double minLat, double maxLng, double maxLat,
+                                     int precision, int maxCells) {
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        long columns = (long) Math.floor(maxLng / width) - (long) Math.floor(minLng / width) + 1;
+        long rows = (long) Math.floor(maxLat / height) - (long) Math.floor(minLat / height) + 1;
+        if (columns * rows > maxCells) {
+            return null;
+        }
+        List<String> cells = new ArrayList<>((int) (columns * rows));
+        double startLng = Math.floor(minLng / width) * width + width / 2;
+        double startLat = Math.floor(minLat / height) * height + height / 2;
+        for (long row = 0; row < rows; row++) {
+            for (long column = 0; column < columns; column++) {
+                cells.add(encode(startLng + column * width, startLat + row * height, precision));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * 获取覆盖以指定点为圆心、指定半径的圆的全部网格
+     */
+    public static List<String> coverCircle(double lng, double lat, double radiusMeters, int precision, int maxCells) {
+        double dLat = radiusMeters / METERS_PER_DEGREE;
+        double dLng = radiusMeters / (METERS_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+        return cover(lng - dLng, lat - dLat, lng + dLng, lat + dLat, precision, maxCells);
+    }
+
+    /**
+     * 判断网格是否完全位于圆内
+     */
+    public static boolean cellWithinCircle(String hash, double lng, double lat, double radiusMeters) {
+        double[] box = bounds(hash);
+        return GeoUtils.haversine(lng, lat, box[0], box[1]) <= radiusMeters
+                && GeoUtils.haversine(lng, lat, box[0], box[3]) <= radiusMeters
+                && GeoUtils.haversine(lng, lat, box[2], box[1]) <= radiusMeters
+                && GeoUtils.haversine(lng, lat, box[2], box[3]) <= radiusMeters;
+    }
+}
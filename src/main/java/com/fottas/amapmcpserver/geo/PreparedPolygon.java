@@ -0,0 +1,252 @@
+package com.fottas.amapmcpserver.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 预处理后的多边形，用于高频点包含判断
+ * 支持高德行政区边界格式（区块以|分隔，坐标点以;分隔），所有环按奇偶规则判断，天然支持飞地与内洞；
+ * 边按纬度切分为若干条带，单次判断只需遍历所在条带内的边
+ */
+public final class PreparedPolygon {
+
+    private static final int EDGES_PER_SLAB = 8;
+    private static final int MAX_SLABS = 512;
+
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    // 边的端点，按结构数组存储
+    private final double[] x1;
+    private final double[] y1;
+    private final double[] x2;
+    private final double[] y2;
+
+    private final int slabCount;
+    private final double slabHeight;
+    private final int[][] slabEdges;
+
+    private PreparedPolygon(List<double[]> rings) {
+        int edgeCount = 0;
+        double lx = Double.POSITIVE_INFINITY, ly = Double.POSITIVE_INFINITY;
+        double hx = Double.NEGATIVE_INFINITY, hy = Double.NEGATIVE_INFINITY;
+        for (double[] ring : rings) {
+            int points = ring.length / 2;
+            edgeCount += points;
+            for (int i = 0; i < points; i++) {
+                lx = Math.min(lx, ring[2 * i]);
+                hx = Math.max(hx, ring[2 * i]);
+                ly = Math.min(ly, ring[2 * i + 1]);
+                hy = Math.max(hy, ring[2 * i + 1]);
+            }
+        }
+        this.minX = lx;
+        this.minY = ly;
+        this.maxX = hx;
+        this.maxY = hy;
+
+        this.x1 = new double[edgeCount];
+        this.y1 = new double[edgeCount];
+        this.x2 = new double[edgeCount];
+        this.y2 = new double[edgeCount];
+        int e = 0;
+        for (double[] ring : rings) {
+            int points = ring.length / 2;
+            for (int i = 0; i < points; i++) {
+                int j = (i + 1) % points;
+                x1[e] = ring[2 * i];
+                y1[e] = ring[2 * i + 1];
+                x2[e] = ring[2 * j];
+                y2[e] = ring[2 * j + 1];
+                e++;
+            }
+        }
+
+        this.slabCount = Math.max(1, Math.min(MAX_SLABS, edgeCount / EDGES_PER_SLAB));
+        this.slabHeight = Math.max((maxY - minY) / slabCount, 1e-12);
+        this.slabEdges = buildSlabs(edgeCount);
+    }
+
+    private int[][] buildSlabs(int edgeCount) {
+        int[] counts = new int[slabCount];
+        for (int i = 0; i < edgeCount; i++) {
+            int from = slabOf(Math.min(y1[i], y2[i]));
+            int to = slabOf(Math.max(y1[i], y2[i]));
+            for (int s = from; s <= to; s++) {
+                counts[s]++;
+            }
+        }
+        int[][] slabs = new int[slabCount][];
+        for (int s = 0; s < slabCount; s++) {
+            slabs[s] = new int[counts[s]];
+            counts[s] = 0;
+        }
+        for (int i = 0; i < edgeCount; i++) {
+            int from = slabOf(Math.min(y1[i], y2[i]));
+            int to = slabOf(Math.max(y1[i], y2[i]));
+            for (int s = from; s <= to; s++) {
+                slabs[s][counts[s]++] = i;
+            }
+        }
+        return slabs;
+    }
+
+    private int slabOf(double y) {
+        int slab = (int) ((y - minY) / slabHeight);
+        return Math.max(0, Math.min(slabCount - 1, slab));
+    }
+
+    /**
+     * 解析高德边界坐标串
+     *
+     * @param polyline 形如 lng,lat;lng,lat|lng,lat;... 的坐标串
+     * @return 预处理后的多边形，无有效环时返回null
+     */
+    public static PreparedPolygon parse(String polyline) {
+        if (polyline == null || polyline.isBlank()) {
+            return null;
+        }
+        List<double[]> rings = new ArrayList<>();
+        for (String part : polyline.split("\\|")) {
+            double[] ring = parseRing(part, ";");
+            if (ring != null) {
+                rings.add(ring);
+            }
+        }
+        return rings.isEmpty() ? null : new PreparedPolygon(rings);
+    }
+
+    /**
+     * 由单个环构建多边形
+     *
+     * @param ring 交替存放的经纬度 [lng0, lat0, lng1, lat1, ...]
+     */
+    public static PreparedPolygon ofRing(double[] ring) {
+        return ring.length >= 6 ? new PreparedPolygon(List.of(ring)) : null;
+    }
+
+    /**
+     * 解析单个环
+     *
+     * @param text 坐标串
+     * @param separator 坐标点之间的分隔符
+     * @return 交替存放的经纬度，少于3个点时返回null
+     */
+    public static double[] parseRing(String text, String separator) {
+        String[] points = text.split(separator);
+        double[] ring = new double[points.length * 2];
+        int count = 0;
+        for (String point : points) {
+            double[] location = GeoUtils.parseLocation(point);
+            if (location != null) {
+                ring[count++] = location[0];
+                ring[count++] = location[1];
+            }
+        }
+        // 首尾重合的闭合点不重复计入
+        if (count >= 4 && ring[0] == ring[count - 2] && ring[1] == ring[count - 1]) {
+            count -= 2;
+        }
+        if (count < 6) {
+            return null;
+        }
+        return count == ring.length ? ring : Arrays.copyOf(ring, count);
+    }
+
+    /**
+     * 判断点是否在多边形内（射线法，奇偶规则）
+     */
+    public boolean contains(double x, double y) {
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            return false;
+        }
+        boolean inside = false;
+        for (int i : slabEdges[slabOf(y)]) {
+            double ay = y1[i];
+            double by = y2[i];
+            if ((ay > y) != (by > y)) {
+                double crossX = x1[i] + (y - ay) * (x2[i] - x1[i]) / (by - ay);
+                if (x < crossX) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * 判断矩形是否与多边形相交（含矩形完全位于多边形内、多边形完全位于矩形内的情况）
+     */
+    public boolean intersectsRect(double rMinX, double rMinY, double rMaxX, double rMaxY) {
+        if (rMaxX < minX || rMinX > maxX || rMaxY < minY || rMinY > maxY) {
+            return false;
+        }
+        if (contains((rMinX + rMaxX) / 2, (rMinY + rMaxY) / 2)) {
+            return true;
+        }
+        int from = slabOf(Math.max(rMinY, minY));
+        int to = slabOf(Math.min(rMaxY, maxY));
+        for (int s = from; s <= to; s++) {
+            for (int i : slabEdges[s]) {
+                if (segmentIntersectsRect(x1[i], y1[i], x2[i], y2[i], rMinX, rMinY, rMaxX, rMaxY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 线段与矩形相交判断（Liang-Barsky裁剪）
+     */
+    private static boolean segmentIntersectsRect(double ax, double ay, double bx, double by,
+                                                 double rMinX, double rMinY, double rMaxX, double rMaxY) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double[] p = {-dx, dx, -dy, dy};
+        double[] q = {ax - rMinX, rMaxX - ax, ay - rMinY, rMaxY - ay};
+        double t0 = 0;
+        double t1 = 1;
+        for (int k = 0; k < 4; k++) {
+            if (p[k] == 0) {
+                if (q[k] < 0) {
+                    return false;
+                }
+            } else {
+                double t = q[k] / p[k];
+                if (p[k] < 0) {
+                    t0 = Math.max(t0, t);
+                } else {
+                    t1 = Math.min(t1, t);
+                }
+                if (t0 > t1) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public double getMinX() {
+        return minX;
+    }
+
+    public double getMinY() {
+        return minY;
+    }
+
+    public double getMaxX() {
+        return maxX;
+    }
+
+    public double getMaxY() {
+        return maxY;
+    }
+
+    public int getEdgeCount() {
+        return x1.length;
+    }
+}
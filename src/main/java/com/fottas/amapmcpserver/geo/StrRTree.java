@@ -0,0 +1,180 @@
+package com.fottas.amapmcpserver.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 基于STR（Sort-Tile-Recursive）批量装载的静态R树
+ * 构建后不可修改，适合行政区边界这类整体加载、整体替换的数据
+ *
+ * @param <T> 条目类型
+ */
+public final class StrRTree<T> {
+
+    private static final int DEFAULT_NODE_CAPACITY = 16;
+
+    private static final class Node {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        Node[] children;
+        Object item;
+
+        void expand(double lx, double ly, double hx, double hy) {
+            minX = Math.min(minX, lx);
+            minY = Math.min(minY, ly);
+            maxX = Math.max(maxX, hx);
+            maxY = Math.max(maxY, hy);
+        }
+
+        boolean contains(double x, double y) {
+            return x >= minX && x <= maxX && y >= minY && y <= maxY;
+        }
+
+        boolean intersects(double lx, double ly, double hx, double hy) {
+            return lx <= maxX && hx >= minX && ly <= maxY && hy >= minY;
+        }
+
+        double centerX() {
+            return (minX + maxX) * 0.5;
+        }
+
+        double centerY() {
+            return (minY + maxY) * 0.5;
+        }
+    }
+
+    /**
+     * 构建器：逐条添加条目后一次性装载
+     */
+    public static final class Builder<T> {
+        private final List<Node> leaves = new ArrayList<>();
+        private final int nodeCapacity;
+
+        private Builder(int nodeCapacity) {
+            this.nodeCapacity = nodeCapacity;
+        }
+
+        public Builder<T> add(T item, double minX, double minY, double maxX, double maxY) {
+            Node leaf = new Node();
+            leaf.item = item;
+            leaf.expand(minX, minY, maxX, maxY);
+            leaves.add(leaf);
+            return this;
+        }
+
+        public StrRTree<T> build() {
+            return new StrRTree<>(pack(leaves, nodeCapacity), leaves.size());
+        }
+    }
+
+    private final Node root;
+    private final int size;
+
+    private StrRTree(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>(DEFAULT_NODE_CAPACITY);
+    }
+
+    private static Node pack(List<Node> nodes, int capacity) {
+        if (nodes.isEmpty()) {
+            return null;
+        }
+        List<Node> level = nodes;
+        while (level.size() > 1) {
+            level = packLevel(level, capacity);
+        }
+        return level.get(0);
+    }
+
+    /**
+     * STR装载一层：按中心点X排序切成竖条，每条内再按Y排序分组
+     */
+    private static List<Node> packLevel(List<Node> nodes, int capacity) {
+        Node[] sorted = nodes.toArray(new Node[0]);
+        Arrays.sort(sorted, Comparator.comparingDouble(Node::centerX));
+        int parentCount = (sorted.length + capacity - 1) / capacity;
+        int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+        int sliceSize = sliceCount * capacity;
+
+        List<Node> parents = new ArrayList<>(parentCount);
+        for (int sliceStart = 0; sliceStart < sorted.length; sliceStart += sliceSize) {
+            int sliceEnd = Math.min(sliceStart + sliceSize, sorted.length);
+            Arrays.sort(sorted, sliceStart, sliceEnd, Comparator.comparingDouble(Node::centerY));
+            for (int groupStart = sliceStart; groupStart < sliceEnd; groupStart += capacity) {
+                int groupEnd = Math.min(groupStart + capacity, sliceEnd);
+                Node parent = new Node();
+                parent.children = Arrays.copyOfRange(sorted, groupStart, groupEnd);
+                for (Node child : parent.children) {
+                    parent.expand(child.minX, child.minY, child.maxX, child.maxY);
+                }
+                parents.add(parent);
+            }
+        }
+        return parents;
+    }
+
+    /**
+     * 查询外包矩形包含指定点的全部条目
+     */
+    @SuppressWarnings("unchecked")
+    public void queryPoint(double x, double y, Consumer<T> consumer) {
+        if (root == null || !root.contains(x, y)) {
+            return;
+        }
+        Node[] stack = new Node[64];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Node node = stack[--top];
+            if (node.children == null) {
+                consumer.accept((T) node.item);
+                continue;
+            }
+            for (Node child : node.children) {
+                if (child.contains(x, y)) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * 查询外包矩形与指定范围相交的全部条目
+     */
+    @SuppressWarnings("unchecked")
+    public void queryRange(double minX, double minY, double maxX, double maxY, Consumer<T> consumer) {
+        if (root == null || !root.intersects(minX, minY, maxX, maxY)) {
+            return;
+        }
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            if (node.children == null) {
+                consumer.accept((T) node.item);
+                continue;
+            }
+            for (Node child : node.children) {
+                if (child.intersects(minX, minY, maxX, maxY)) {
+                    stack.add(child);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,33 @@
+package com.fottas.amapmcpserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次缓存操作
+ */
+@Name("com.fottas.amap.Cache")
+@Label("Cache Operation")
+@Category({"Amap MCP", "Cache"})
+@Description("缓存查找（hit/miss）、加载（load）与写入（put）")
+@StackTrace(false)
+public class CacheEvent extends Event {
+
+    public static final String HIT = "hit";
+    public static final String MISS = "miss";
+    public static final String LOAD = "load";
+    public static final String PUT = "put";
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Key")
+    public String key;
+}
@@ -0,0 +1,30 @@
+package com.fottas.amapmcpserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次响应体解析
+ */
+@Name("com.fottas.amap.Decode")
+@Label("Response Decode")
+@Category({"Amap MCP", "Upstream"})
+@Description("将高德接口响应体解析为响应模型")
+@StackTrace(false)
+public class DecodeEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Response Type")
+    public String type;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,25 @@
+package com.fottas.amapmcpserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次高德接口重试
+ */
+@Name("com.fottas.amap.Retry")
+@Label("Upstream Retry")
+@Category({"Amap MCP", "Upstream"})
+@Description("高德接口调用失败后触发的重试")
+@StackTrace(false)
+public class RetryEvent extends Event {
+
+    @Label("Attempt")
+    public long attempt;
+
+    @Label("Failure")
+    public String failure;
+}
@@ -0,0 +1,26 @@
+package com.fottas.amapmcpserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次MCP工具调用
+ */
+@Name("com.fottas.amap.ToolCall")
+@Label("Tool Call")
+@Category({"Amap MCP", "Tools"})
+@Description("MCP工具调用，持续时间为整次工具执行")
+@StackTrace(false)
+public class ToolCallEvent extends Event {
+
+    @Label("Tool")
+    public String tool;
+
+    @Label("Outcome")
+    @Description("success、empty（工具返回空结果）或error")
+    public String outcome;
+}
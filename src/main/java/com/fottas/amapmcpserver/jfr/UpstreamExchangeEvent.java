@@ -0,0 +1,31 @@
+package com.fottas.amapmcpserver.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次高德接口HTTP交换（每次重试单独一个事件）
+ */
+@Name("com.fottas.amap.UpstreamExchange")
+@Label("Upstream Exchange")
+@Category({"Amap MCP", "Upstream"})
+@Description("单次高德接口HTTP请求，从发起请求到读完响应体，不包含限流等待")
+@StackTrace(false)
+public class UpstreamExchangeEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Outcome")
+    @Description("ok或异常类型")
+    public String outcome;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+}
@@ -24,6 +24,7 @@ public class AmapApiModels {
     public interface ApiResult<T> {
         boolean isSuccess();
         String getMessage();
+        String getInfocode();
         T getData();
     }
 
@@ -170,8 +171,18 @@ public class AmapApiModels {
     @JsonIgnoreProperties(ignoreUnknown = true)
     @Data
     public static class Regeocode {
+        @JsonProperty("formatted_address")
+        private Object formattedAddress;  // 无数据时为空数组
+
         @JsonProperty("addressComponent")
         private AddressComponent addressComponent;
+
+        /**
+         * 获取字符串形式的结构化地址
+         */
+        public String formattedAddressText() {
+            return formattedAddress instanceof String text && !text.isEmpty() ? text : null;
+        }
     }
 
     @Data
@@ -188,6 +199,39 @@ public class AmapApiModels {
 
         @JsonProperty("district")
         private String district;
+
+        @JsonProperty("township")
+        private Object township;  // 无数据时为空数组
+
+        @JsonProperty("streetNumber")
+        private StreetNumber streetNumber;
+
+        /**
+         * 获取字符串形式的乡镇街道
+         */
+        public String townshipText() {
+            return township instanceof String text && !text.isEmpty() ? text : null;
+        }
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class StreetNumber {
+        @JsonProperty("street")
+        private Object street;  // 无数据时为空数组
+
+        @JsonProperty("number")
+        private Object number;  // 无数据时为空数组
+
+        /**
+         * 获取街道与门牌号，无街道时返回null
+         */
+        public String streetText() {
+            if (!(street instanceof String name) || name.isEmpty()) {
+                return null;
+            }
+            return number instanceof String text ? name + text : name;
+        }
     }
 
     // ====================== POI和路段相关 ======================
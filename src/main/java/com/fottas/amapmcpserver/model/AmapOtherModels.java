@@ -236,4 +236,169 @@ public class AmapOtherModels {
         private String adcode;
         private String rectangle;
     }
+
+    // ====================== 行政区划API相关 ======================
+
+    /**
+     * 行政区划查询请求
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DistrictRequest {
+        private String keywords;  // 查询关键字：行政区名称、citycode、adcode，为空时返回全国
+        private String subdistrict = "1";  // 下级行政区级数：0-不返回；1-返回下一级；2-返回下两级；3-返回下三级
+        private String page = "1";
+        private String offset = "20";
+        private String extensions = "base";  // base-不返回边界；all-返回当前查询行政区的边界坐标
+        private String filter;  // 按adcode过滤
+        private String output = "json";
+
+        public DistrictRequest(String keywords, String subdistrict) {
+            this.keywords = keywords;
+            this.subdistrict = subdistrict;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = true)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @Data
+    public static class DistrictResponse extends AmapApiModels.BaseResponse<List<DistrictInfo>> {
+        @JsonProperty("districts")
+        private List<DistrictInfo> districts;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @Data
+    public static class DistrictInfo {
+        /**
+         * 城市编码，省级及以上行政区返回空数组，因此使用Object接收
+         */
+        @JsonProperty("citycode")
+        private Object citycode;
+
+        @JsonProperty("adcode")
+        private String adcode;
+
+        @JsonProperty("name")
+        private String name;
+
+        /**
+         * 行政区边界坐标点，仅extensions=all时返回，多个区块以|分隔
+         */
+        @JsonProperty("polyline")
+        private String polyline;
+
+        @JsonProperty("center")
+        private String center;
+
+        @JsonProperty("level")
+        private String level;  // country、province、city、district、street
+
+        @JsonProperty("districts")
+        private List<DistrictInfo> districts;
+
+        /**
+         * 获取字符串形式的城市编码
+         */
+        public String citycodeText() {
+            return citycode instanceof String text && !text.isEmpty() ? text : null;
+        }
+    }
+
+    // ====================== 交通态势API相关 ======================
+
+    /**
+     * 矩形区域交通态势请求
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TrafficRectangleRequest {
+        @NotBlank(message = "矩形区域不能为空")
+        private String rectangle;  // 左下、右上顶点坐标，以;分隔，对角线不能超过10公里
+        private String level = "5";  // 道路等级：1-高速，2-城市快速路，3-国道，4-省道，5-县道，6-乡公路及以下，返回不高于该等级的道路
+        private String extensions = "all";  // base-只返回整体评价；all-同时返回道路信息
+        private String output = "json";
+
+        public TrafficRectangleRequest(String rectangle, String level) {
+            this.rectangle = rectangle;
+            this.level = level;
+        }
+    }
+
+    @EqualsAndHashCode(callSuper = true)
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @Data
+    public static class TrafficResponse extends AmapApiModels.BaseResponse<TrafficInfo> {
+        @JsonProperty("trafficinfo")
+        private TrafficInfo trafficinfo;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @Data
+    public static class TrafficInfo {
+        @JsonProperty("description")
+        private Object description;
+
+        @JsonProperty("evaluation")
+        private TrafficEvaluation evaluation;
+
+        @JsonProperty("roads")
+        private List<TrafficRoad> roads;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @Data
+    public static class TrafficEvaluation {
+        @JsonProperty("expedite")
+        private String expedite;  // 畅通所占百分比
+
+        @JsonProperty("congested")
+        private String congested;  // 缓行所占百分比
+
+        @JsonProperty("blocked")
+        private String blocked;  // 拥堵所占百分比
+
+        @JsonProperty("unknown")
+        private String unknown;  // 未知路段所占百分比
+
+        @JsonProperty("status")
+        private String status;  // 0-未知，1-畅通，2-缓行，3-拥堵
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @Data
+    public static class TrafficRoad {
+        /**
+         * 道路名称，无名道路返回空数组，因此使用Object接收
+         */
+        @JsonProperty("name")
+        private Object name;
+
+        @JsonProperty("status")
+        private String status;  // 0-未知，1-畅通，2-缓行，3-拥堵
+
+        @JsonProperty("direction")
+        private String direction;
+
+        @JsonProperty("angle")
+        private String angle;
+
+        @JsonProperty("speed")
+        private String speed;
+
+        @JsonProperty("lcodes")
+        private String lcodes;
+
+        @JsonProperty("polyline")
+        private String polyline;  // 坐标点以;分隔
+
+        /**
+         * 获取字符串形式的道路名称
+         */
+        public String nameText() {
+            return name instanceof String text ? text : "";
+        }
+    }
 }
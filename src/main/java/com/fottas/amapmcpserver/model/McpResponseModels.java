@@ -1,6 +1,7 @@
 package com.fottas.amapmcpserver.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
@@ -71,6 +72,19 @@ public class McpResponseModels {
         
         @JsonProperty("district")
         private String district;
+
+        // 以下字段只在需要乡镇街道级信息时返回
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("township")
+        private String township;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("street")
+        private String street;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("formatted_address")
+        private String formattedAddress;
     }
 
     // ====================== POI搜索返回模型 ======================
@@ -83,6 +97,23 @@ public class McpResponseModels {
         
         @JsonProperty("pois")
         private List<PoiItem> pois;
+
+        // 以下字段只在自动翻页时返回
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("complete")
+        private Boolean complete;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("failed_pages")
+        private List<Integer> failedPages;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("truncated")
+        private Boolean truncated;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("limited")
+        private Boolean limited;
     }
     
     @Data
@@ -91,6 +122,25 @@ public class McpResponseModels {
         @JsonProperty("pois")
         private List<PoiItem> pois;
     }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PolygonSearchResult {
+        @JsonProperty("count")
+        private Integer count;
+
+        @JsonProperty("pois")
+        private List<PoiItem> pois;
+
+        @JsonProperty("complete")
+        private Boolean complete;
+
+        @JsonProperty("failed_tiles")
+        private Integer failedTiles;
+
+        @JsonProperty("truncated_tiles")
+        private Integer truncatedTiles;
+    }
     
     @Data
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -200,6 +250,8 @@ public class McpResponseModels {
         @JsonProperty("duration")
         private String duration;
         
+        // 只返回摘要时省略
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         @JsonProperty("steps")
         private List<RouteStep> steps;
     }
@@ -253,7 +305,14 @@ public class McpResponseModels {
         
         @JsonProperty("duration")
         private Integer duration;
-        
+
+        // 只在返回路线坐标串时输出
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("polyline")
+        private String polyline;
+
+        // 只返回摘要时省略
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         @JsonProperty("steps")
         private List<WalkingStep> steps;
     }
@@ -304,6 +363,8 @@ public class McpResponseModels {
         @JsonProperty("walking_distance")
         private String walkingDistance;
         
+        // 只返回摘要时省略
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         @JsonProperty("segments")
         private List<TransitSegment> segments;
     }
@@ -333,6 +394,8 @@ public class McpResponseModels {
         @JsonProperty("duration")
         private String duration;
         
+        // 精简模式下省略
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         @JsonProperty("steps")
         private List<Object> steps;
     }
@@ -362,6 +425,8 @@ public class McpResponseModels {
         @JsonProperty("arrival_stop")
         private BusStop arrivalStop;
         
+        // 精简模式下省略
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         @JsonProperty("via_stops")
         private List<Object> viaStops;
     }
@@ -468,6 +533,163 @@ public class McpResponseModels {
         private String rectangle;
     }
 
+    // ====================== 行政区划返回模型 ======================
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TripResult {
+        @JsonProperty("stops")
+        private List<TripStop> stops;
+
+        @JsonProperty("total_distance")
+        private String totalDistance;
+
+        @JsonProperty("total_duration")
+        private String totalDuration;
+
+        @JsonProperty("round_trip")
+        private Boolean roundTrip;
+
+        @JsonProperty("estimated_legs")
+        private Integer estimatedLegs;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TripStop {
+        @JsonProperty("sequence")
+        private Integer sequence;
+
+        @JsonProperty("input_index")
+        private Integer inputIndex;
+
+        @JsonProperty("location")
+        private String location;
+
+        @JsonProperty("distance")
+        private String distance;
+
+        @JsonProperty("duration")
+        private String duration;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class IsochroneResult {
+        @JsonProperty("location")
+        private String location;
+
+        @JsonProperty("minutes")
+        private Integer minutes;
+
+        @JsonProperty("mode")
+        private String mode;
+
+        @JsonProperty("polygon")
+        private String polygon;
+
+        @JsonProperty("requests")
+        private Integer requests;
+
+        @JsonProperty("probes")
+        private Integer probes;
+
+        @JsonProperty("complete")
+        private Boolean complete;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TrafficResult {
+        @JsonProperty("description")
+        private String description;
+
+        @JsonProperty("evaluation")
+        private TrafficEvaluation evaluation;
+
+        @JsonProperty("road_count")
+        private Integer roadCount;
+
+        @JsonProperty("roads")
+        private List<TrafficRoadItem> roads;
+
+        @JsonProperty("tiles")
+        private Integer tiles;
+
+        @JsonProperty("failed_tiles")
+        private Integer failedTiles;
+
+        @JsonProperty("complete")
+        private Boolean complete;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TrafficEvaluation {
+        @JsonProperty("expedite")
+        private String expedite;
+
+        @JsonProperty("congested")
+        private String congested;
+
+        @JsonProperty("blocked")
+        private String blocked;
+
+        @JsonProperty("unknown")
+        private String unknown;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TrafficRoadItem {
+        @JsonProperty("name")
+        private String name;
+
+        @JsonProperty("status")
+        private String status;
+
+        @JsonProperty("direction")
+        private String direction;
+
+        @JsonProperty("speed")
+        private String speed;
+
+        @JsonProperty("polyline")
+        private String polyline;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class DistrictResult {
+        @JsonProperty("districts")
+        private List<DistrictItem> districts;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class DistrictItem {
+        @JsonProperty("adcode")
+        private String adcode;
+
+        @JsonProperty("name")
+        private String name;
+
+        @JsonProperty("citycode")
+        private String citycode;
+
+        @JsonProperty("level")
+        private String level;
+
+        @JsonProperty("center")
+        private String center;
+
+        @JsonProperty("parent_adcode")
+        private String parentAdcode;
+
+        @JsonProperty("districts")
+        private List<DistrictItem> districts;
+    }
+
     // ====================== Schema返回模型 ======================
     
     @Data
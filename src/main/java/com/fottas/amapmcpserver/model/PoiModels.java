@@ -22,7 +22,7 @@ public class PoiModels {
      * POI文本搜索请求 - 优化版
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PoiTextSearchRequest {
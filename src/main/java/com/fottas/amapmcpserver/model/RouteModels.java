@@ -2,12 +2,14 @@ package com.fottas.amapmcpserver.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 
 /**
@@ -30,6 +32,10 @@ public class RouteModels {
 
         private String extensions = "base";
         private String output = "json";
+        private String show_fields;  // v5接口返回的可选字段，由projection决定
+
+        // 返回内容投影，不作为请求参数发送
+        private transient Projection projection = Projection.STEPS;
 
         public BaseRouteRequest() {}
 
@@ -39,6 +45,84 @@ public class RouteModels {
         }
     }
 
+    // ====================== 返回内容投影 ======================
+
+    /**
+     * 路线工具的返回内容
+     * 投影同时下推到请求（show_fields）和响应解析（JsonView），未请求的子树解析时直接跳过，不会创建对象
+     */
+    public enum Projection {
+        /**
+         * 只返回每条路线的距离与时间
+         */
+        SUMMARY(Views.Summary.class, "cost"),
+        /**
+         * 额外返回分步导航（默认）
+         */
+        STEPS(Views.Steps.class, "cost"),
+        /**
+         * 分步导航，合并同一道路上的连续步骤并省略次要明细
+         */
+        COMPACT(Views.Steps.class, "cost"),
+        /**
+         * 额外返回路线坐标串
+         */
+        GEOMETRY(Views.Geometry.class, "cost,polyline");
+
+        private final Class<?> view;
+        private final String showFields;
+
+        Projection(Class<?> view, String showFields) {
+            this.view = view;
+            this.showFields = showFields;
+        }
+
+        public Class<?> getView() {
+            return view;
+        }
+
+        public String getShowFields() {
+            return showFields;
+        }
+
+        public boolean includesSteps() {
+            return this != SUMMARY;
+        }
+
+        public boolean includesGeometry() {
+            return this == GEOMETRY;
+        }
+
+        public boolean isCompact() {
+            return this == COMPACT;
+        }
+
+        /**
+         * 解析工具参数，为空或无法识别时使用默认的STEPS
+         */
+        public static Projection parse(String value) {
+            if (value == null || value.isBlank()) {
+                return STEPS;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return STEPS;
+            }
+        }
+    }
+
+    /**
+     * 响应解析视图，未标注的字段属于所有视图
+     */
+    public static final class Views {
+        public interface Summary {}
+        public interface Steps extends Summary {}
+        public interface Geometry extends Steps {}
+
+        private Views() {}
+    }
+
     // ====================== 驾车路线规划 - 优化版 ======================
 
     @EqualsAndHashCode(callSuper = true)
@@ -120,7 +204,7 @@ public class RouteModels {
     @EqualsAndHashCode(callSuper = true)
     @Data
     public static class ElectricBikeRouteRequest extends BaseRouteRequest {
-        private String alternative_route = "0";  // 是否返回备选路线
+        private String alternative_route = "0";  // 是否返回备选路线：0-只返回一条路线（默认）；1~3-备选路线数量
 
         public ElectricBikeRouteRequest() {}
 
@@ -250,6 +334,11 @@ public class RouteModels {
         @JsonProperty("cost")
         private Cost cost;
 
+        // 骑行、电动车路线的时间直接在路线上返回，没有cost对象
+        @JsonProperty("duration")
+        private String duration;
+
+        @JsonView(Views.Steps.class)
         @JsonProperty("steps")
         private List<Step> steps;
     }
@@ -292,6 +381,10 @@ public class RouteModels {
         @JsonProperty("cost")
         private Cost cost;
 
+        @JsonProperty("duration")
+        private String duration;
+
+        @JsonView(Views.Geometry.class)
         @JsonProperty("polyline")
         private String polyline;
 
@@ -301,9 +394,11 @@ public class RouteModels {
         @JsonProperty("assistant_action")
         private String assistantAction;
 
+        @JsonView(Views.Geometry.class)
         @JsonProperty("cities")
         private List<City> cities;
 
+        @JsonView(Views.Geometry.class)
         @JsonProperty("tmcs")
         private List<Tmc> tmcs;
     }
@@ -338,6 +433,7 @@ public class RouteModels {
         @JsonProperty("cost")
         private TransitCost cost;
 
+        @JsonView(Views.Steps.class)
         @JsonProperty("segments")
         private List<Segment> segments;
     }
@@ -395,6 +491,7 @@ public class RouteModels {
         @JsonProperty("distance")
         private String distance;
 
+        @JsonView(Views.Geometry.class)
         @JsonProperty("polyline")
         private String polyline;
 
@@ -456,6 +553,7 @@ public class RouteModels {
         @JsonProperty("drivetime")
         private String drivetime;
 
+        @JsonView(Views.Geometry.class)
         @JsonProperty("polyline")
         private String polyline;
 
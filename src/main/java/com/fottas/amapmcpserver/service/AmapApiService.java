@@ -1,6 +1,10 @@
 package com.fottas.amapmcpserver.service;
 
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.jfr.DecodeEvent;
+import com.fottas.amapmcpserver.jfr.UpstreamExchangeEvent;
 import com.fottas.amapmcpserver.model.AmapApiModels;
 import com.fottas.amapmcpserver.model.AmapOtherModels;
 import com.fottas.amapmcpserver.model.PoiModels;
@@ -13,11 +17,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 import reactor.util.retry.Retry;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * 高德地图API服务类 - 基于真实API文档优化版
@@ -31,45 +39,70 @@ public class AmapApiService {
     private final WebClient webClient;
     private final AmapConfigProperties configProperties;
     private final Retry amapApiRetry;
+    private final PoiSpatialIndex poiSpatialIndex;
+    private final AmapRateLimiter rateLimiter;
+    private final AmapMetrics metrics;
+    private final AmapTracing tracing;
+    private final ObjectMapper objectMapper;
+    // 按视图解析用的副本：Spring Boot默认关闭DEFAULT_VIEW_INCLUSION，未标注@JsonView的字段需要保持可见
+    private final ObjectMapper viewMapper;
 
     public AmapApiService(@Qualifier("amapWebClient") WebClient webClient,
                           AmapConfigProperties configProperties,
-                          Retry amapApiRetry) {
+                          Retry amapApiRetry,
+                          PoiSpatialIndex poiSpatialIndex,
+                          AmapRateLimiter rateLimiter,
+                          AmapMetrics metrics,
+                          AmapTracing tracing,
+                          ObjectMapper objectMapper) {
         this.webClient = webClient;
         this.configProperties = configProperties;
         this.amapApiRetry = amapApiRetry;
+        this.poiSpatialIndex = poiSpatialIndex;
+        this.rateLimiter = rateLimiter;
+        this.metrics = metrics;
+        this.tracing = tracing;
+        this.objectMapper = objectMapper;
+        this.viewMapper = viewMapper(objectMapper);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static ObjectMapper viewMapper(ObjectMapper objectMapper) {
+        return objectMapper.copy().configure(MapperFeature.DEFAULT_VIEW_INCLUSION, true);
     }
 
     // ====================== 地理编码相关 ======================
 
-    @Cacheable(value = "amapCache", key = "'geocoding:' + #request.address + ':' + T(java.util.Objects).toString(#request.city, '')")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<AmapApiModels.GeocodingResponse> geocoding(AmapApiModels.GeocodingRequest request) {
         return callAmapApi("/v3/geocode/geo", request, AmapApiModels.GeocodingResponse.class, "地理编码", request.getAddress());
     }
 
-    @Cacheable(value = "amapCache", key = "'reverse_geocoding:' + #request.location + ':' + T(java.util.Objects).toString(#request.radius, '1000')")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<AmapApiModels.ReverseGeocodingResponse> reverseGeocoding(AmapApiModels.ReverseGeocodingRequest request) {
         return callAmapApi("/v3/geocode/regeo", request, AmapApiModels.ReverseGeocodingResponse.class, "逆地理编码", request.getLocation());
     }
 
     // ====================== POI搜索相关 ======================
 
-    @Cacheable(value = "amapCache", key = "'poi_text_search:' + #request.keywords + ':' + T(java.util.Objects).toString(#request.region, '') + ':' + #request.page_num")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<PoiModels.PoiResponse> poiTextSearch(PoiModels.PoiTextSearchRequest request) {
-        return callAmapApi("/v5/place/text", request, PoiModels.PoiResponse.class, "POI关键字搜索", request.getKeywords());
+        return callAmapApi("/v5/place/text", request, PoiModels.PoiResponse.class, "POI关键字搜索", request.getKeywords())
+                .doOnNext(response -> poiSpatialIndex.recordText(request, response));
     }
 
-    @Cacheable(value = "amapCache", key = "'poi_around_search:' + #request.location + ':' + T(java.util.Objects).toString(#request.keywords, '') + ':' + #request.radius + ':' + #request.page_num")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<PoiModels.PoiResponse> poiAroundSearch(PoiModels.PoiAroundSearchRequest request) {
-        return callAmapApi("/v5/place/around", request, PoiModels.PoiResponse.class, "POI周边搜索", request.getLocation());
+        return callAmapApi("/v5/place/around", request, PoiModels.PoiResponse.class, "POI周边搜索", request.getLocation())
+                .doOnNext(response -> poiSpatialIndex.recordAround(request, response));
     }
 
-    @Cacheable(value = "amapCache", key = "'poi_polygon_search:' + #request.polygon + ':' + T(java.util.Objects).toString(#request.keywords, '') + ':' + #request.page_num")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<PoiModels.PoiResponse> poiPolygonSearch(PoiModels.PoiPolygonSearchRequest request) {
         return callAmapApi("/v5/place/polygon", request, PoiModels.PoiResponse.class, "POI多边形搜索", request.getPolygon());
     }
 
-    @Cacheable(value = "amapCache", key = "'poi_detail:' + #request.id")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<PoiModels.PoiResponse> poiDetail(PoiModels.PoiDetailRequest request) {
 
         return callAmapApi("/v5/place/detail", request, PoiModels.PoiResponse.class, "POI详情查询", request.getId());
@@ -78,53 +111,81 @@ public class AmapApiService {
     // ====================== 路线规划相关 ======================
 
     // 驾车路线规划
-    @Cacheable(value = "amapCache", key = "'driving_route:' + #request.origin + ':' + #request.destination + ':' + T(java.util.Objects).toString(#request.strategy, '0')")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<RouteModels.RouteResponse> drivingRoute(RouteModels.DrivingRouteRequest request) {
-        return callAmapApi("/v5/direction/driving", request, RouteModels.RouteResponse.class, "驾车路线规划", request.getOrigin() + " -> " + request.getDestination());
+        return callAmapApi("/v5/direction/driving", request, RouteModels.RouteResponse.class, "驾车路线规划", request.getOrigin() + " -> " + request.getDestination(),
+                request.getProjection().getView());
     }
 
     // 步行路线规划
-    @Cacheable(value = "amapCache", key = "'walking_route:' + #request.origin + ':' + #request.destination")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<RouteModels.RouteResponse> walkingRoute(RouteModels.WalkingRouteRequest request) {
-        return callAmapApi("/v5/direction/walking", request, RouteModels.RouteResponse.class, "步行路线规划", request.getOrigin() + " -> " + request.getDestination());
+        return callAmapApi("/v5/direction/walking", request, RouteModels.RouteResponse.class, "步行路线规划", request.getOrigin() + " -> " + request.getDestination(),
+                request.getProjection().getView());
     }
 
     // 骑行路线规划
-    @Cacheable(value = "amapCache", key = "'bicycling_route:' + #request.origin + ':' + #request.destination + ':' + T(java.util.Objects).toString(#request.riding_type, '0')")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<RouteModels.RouteResponse> bicyclingRoute(RouteModels.BicyclingRouteRequest request) {
-        return callAmapApi("/v5/direction/bicycling", request, RouteModels.RouteResponse.class, "骑行路线规划", request.getOrigin() + " -> " + request.getDestination());
+        return callAmapApi("/v5/direction/bicycling", request, RouteModels.RouteResponse.class, "骑行路线规划", request.getOrigin() + " -> " + request.getDestination(),
+                request.getProjection().getView());
+    }
+
+    // 电动车路线规划
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
+    public Mono<RouteModels.RouteResponse> electricBikeRoute(RouteModels.ElectricBikeRouteRequest request) {
+        return callAmapApi(configProperties.getEndpoints().getRoutePlanning().getElectricBike(), request, RouteModels.RouteResponse.class,
+                "电动车路线规划", request.getOrigin() + " -> " + request.getDestination(), request.getProjection().getView());
     }
 
     // 公交路线规划
-    @Cacheable(value = "amapCache", key = "'transit_route:' + #request.origin + ':' + #request.destination + ':' + #request.city + ':' + T(java.util.Objects).toString(#request.strategy, '0')")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<RouteModels.TransitRouteResponse> transitRoute(RouteModels.TransitRouteRequest request) {
-        return callAmapApi("/v5/direction/transit/integrated", request, RouteModels.TransitRouteResponse.class, "公交路线规划", request.getOrigin() + " -> " + request.getDestination());
+        return callAmapApi("/v5/direction/transit/integrated", request, RouteModels.TransitRouteResponse.class, "公交路线规划", request.getOrigin() + " -> " + request.getDestination(),
+                request.getProjection().getView());
     }
 
-    @Cacheable(value = "amapCache", key = "'distance:' + #request.origins + ':' + #request.destination + ':' + T(java.util.Objects).toString(#request.type, '0')")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<AmapOtherModels.DistanceResponse> distance(AmapOtherModels.DistanceRequest request) {
         return callAmapApi("/v3/distance", request, AmapOtherModels.DistanceResponse.class, "距离测量", request.getOrigins() + " -> " + request.getDestination());
     }
 
     // ====================== 其他API相关 ======================
 
-    @Cacheable(value = "amapCache", key = "'current_weather:' + #request.city")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<AmapOtherModels.WeatherResponse> getCurrentWeather(AmapOtherModels.WeatherRequest request) {
         request.setExtensions("base");
         return callAmapApi("/v3/weather/weatherInfo", request, AmapOtherModels.WeatherResponse.class, "实时天气查询", request.getCity());
     }
 
-    @Cacheable(value = "amapCache", key = "'forecast_weather:' + #request.city")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<AmapOtherModels.WeatherResponse> getWeatherForecast(AmapOtherModels.WeatherRequest request) {
         request.setExtensions("all");
         return callAmapApi("/v3/weather/weatherInfo", request, AmapOtherModels.WeatherResponse.class, "天气预报查询", request.getCity());
     }
 
-    @Cacheable(value = "amapCache", key = "'ip_location:' + T(java.util.Objects).toString(#request.ip, 'auto')")
+    @Cacheable(value = "amapCache", keyGenerator = "amapKeyGenerator")
     public Mono<AmapOtherModels.IpLocationResponse> ipLocation(AmapOtherModels.IpLocationRequest request) {
         return callAmapApi("/v3/ip", request, AmapOtherModels.IpLocationResponse.class, "IP定位查询", request.getIp());
     }
 
+    /**
+     * 矩形区域交通态势 - 使用短TTL的trafficCache，调用方应先将矩形对齐到固定网格
+     */
+    @Cacheable(value = "trafficCache", keyGenerator = "amapKeyGenerator")
+    public Mono<AmapOtherModels.TrafficResponse> trafficRectangle(AmapOtherModels.TrafficRectangleRequest request) {
+        return callAmapApi(configProperties.getEndpoints().getTraffic(), request, AmapOtherModels.TrafficResponse.class,
+                "交通态势查询", request.getRectangle());
+    }
+
+    /**
+     * 行政区划查询 - 不使用缓存，结果由DistrictIndexService常驻内存
+     */
+    public Mono<AmapOtherModels.DistrictResponse> district(AmapOtherModels.DistrictRequest request) {
+        return callAmapApi(configProperties.getEndpoints().getDistrict(), request, AmapOtherModels.DistrictResponse.class,
+                "行政区划查询", Objects.toString(request.getKeywords(), "全国"));
+    }
+
     // ====================== 私有方法 ======================
 
     /**
@@ -132,27 +193,84 @@ public class AmapApiService {
      */
     private <T extends AmapApiModels.ApiResult<?>> Mono<T> callAmapApi(String endpoint, Object request,
                                                                        Class<T> responseType, String apiName, String key) {
-        Map<String, String> params = buildRequestParams(request);
-
-        return webClient.get()
-                .uri(uriBuilder -> {
-                    var builder = uriBuilder.path(endpoint);
-                    params.forEach(builder::queryParam);
-                    return builder.build();
-                })
-                .retrieve()
-                .bodyToMono(responseType)
-                .retryWhen(amapApiRetry)
-                .doOnSuccess(response -> logApiResult(response, apiName, key, true))
-                .doOnError(error -> logApiResult(null, apiName, key, false, error))
-                .onErrorMap(WebClientResponseException.class,
-                        ex -> new RuntimeException(apiName + "失败: " + ex.getMessage(), ex));
+        return callAmapApi(endpoint, request, responseType, apiName, key, null);
+    }
+
+    /**
+     * 统一高德API调用方法，按视图解析响应，视图外的字段解析时跳过
+     */
+    private <T extends AmapApiModels.ApiResult<?>> Mono<T> callAmapApi(String endpoint, Object request, Class<T> responseType,
+                                                                       String apiName, String key, Class<?> view) {
+        // 追踪：amap.api下依次为参数编码、WebClient请求（每次重试一个）与响应解析；耗时指标同样从订阅开始，包含限流等待与全部重试
+        return tracing.observe("amap.api", apiName, endpoint, Mono.deferContextual(context -> {
+            long start = System.nanoTime();
+            return Mono.fromCallable(() -> tracing.observe(context, "amap.api.encode", () -> buildRequestParams(request)))
+                    // 每次订阅（包括重试）都需要先获取限流许可
+                    .flatMap(params -> rateLimiter.acquire(endpoint)
+                            .then(exchange(endpoint, params))
+                            .flatMap(body -> Mono.fromCallable(() -> tracing.observe(context, "amap.api.decode",
+                                    () -> decode(endpoint, body, responseType, view))))
+                            .retryWhen(amapApiRetry))
+                    .doOnSuccess(response -> {
+                        metrics.recordApi(endpoint, response, System.nanoTime() - start);
+                        logApiResult(response, apiName, key, true);
+                    })
+                    .doOnError(error -> {
+                        metrics.recordApiError(endpoint, error, System.nanoTime() - start);
+                        logApiResult(null, apiName, key, false, error);
+                    });
+        })).onErrorMap(WebClientResponseException.class,
+                ex -> new RuntimeException(apiName + "失败: " + ex.getMessage(), ex));
+    }
+
+    /**
+     * 单次HTTP交换，读取完整响应体；每次订阅（包括重试）记录一个JFR事件
+     */
+    private Mono<byte[]> exchange(String endpoint, Map<String, String> params) {
+        return Mono.defer(() -> {
+            UpstreamExchangeEvent event = new UpstreamExchangeEvent();
+            event.begin();
+            return webClient.get()
+                    .uri(uriBuilder -> {
+                        var builder = uriBuilder.path(endpoint);
+                        params.forEach(builder::queryParam);
+                        return builder.build();
+                    })
+                    .retrieve()
+                    .bodyToMono(byte[].class)
+                    .doOnNext(body -> event.bytes = body.length)
+                    .doOnError(error -> event.outcome = error.getClass().getSimpleName())
+                    .doFinally(signal -> {
+                        if (event.shouldCommit()) {
+                            event.endpoint = endpoint;
+                            if (event.outcome == null) {
+                                event.outcome = signal == SignalType.CANCEL ? "cancel" : "ok";
+                            }
+                            event.commit();
+                        }
+                    });
+        });
+    }
+
+    <T> T decode(String endpoint, byte[] body, Class<T> responseType, Class<?> view) throws IOException {
+        DecodeEvent event = new DecodeEvent();
+        event.begin();
+        T response = view == null
+                ? objectMapper.readValue(body, responseType)
+                : viewMapper.readerWithView(view).forType(responseType).readValue(body);
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.type = responseType.getSimpleName();
+            event.bytes = body.length;
+            event.commit();
+        }
+        return response;
     }
 
     /**
      * 构建请求参数 - 支持继承字段和特殊类型处理
      */
-    private Map<String, String> buildRequestParams(Object request) {
+    Map<String, String> buildRequestParams(Object request) {
         Map<String, String> params = new HashMap<>();
         params.put("key", configProperties.getKey());
 
@@ -160,6 +278,10 @@ public class AmapApiService {
         while (clazz != null && !clazz.equals(Object.class)) {
             Field[] fields = clazz.getDeclaredFields();
             for (Field field : fields) {
+                // transient字段只在服务内部使用，不作为请求参数
+                if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                    continue;
+                }
                 try {
                     field.setAccessible(true);
                     Object value = field.get(request);
@@ -0,0 +1,130 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.model.AmapApiModels;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 工具调用与高德接口的指标
+ * 调用路径上的计量器按标签组合缓存，避免每次调用都经过MeterRegistry的注册查找；
+ * Timer、Counter内部基于分段累加，并发记录时不会集中竞争同一个计数器
+ */
+@Component
+public class AmapMetrics {
+
+    public static final String TOOL_DURATION = "amap.tool.duration";
+    public static final String API_DURATION = "amap.api.duration";
+    public static final String API_RESPONSES = "amap.api.responses";
+    public static final String API_PAYLOAD_SIZE = "amap.api.payload.size";
+
+    /**
+     * 调用结果
+     */
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+    public static final String OUTCOME_EMPTY = "empty";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry registry;
+    private final Duration[] latencySlos;
+    private final double[] payloadSlos;
+
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public AmapMetrics(MeterRegistry registry, AmapConfigProperties configProperties) {
+        this.registry = registry;
+        var config = configProperties.getMetrics();
+        this.latencySlos = config.getLatencySlos().toArray(Duration[]::new);
+        this.payloadSlos = config.getPayloadSlos().stream().mapToDouble(DataSize::toBytes).toArray();
+    }
+
+    /**
+     * 记录一次工具调用
+     *
+     * @param tool 工具名称
+     * @param outcome 调用结果：success、empty（工具返回空结果）、error
+     */
+    public void recordTool(String tool, String outcome, long nanos) {
+        timers.computeIfAbsent(TOOL_DURATION + '|' + tool + '|' + outcome, ignored -> Timer.builder(TOOL_DURATION)
+                        .description("MCP工具调用耗时")
+                        .tag("tool", tool)
+                        .tag("outcome", outcome)
+                        .serviceLevelObjectives(latencySlos)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次高德接口调用（包含限流等待与重试），按infocode统计返回结果
+     */
+    public void recordApi(String endpoint, AmapApiModels.ApiResult<?> response, long nanos) {
+        String outcome = response != null && response.isSuccess() ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+        String infocode = response != null && response.getInfocode() != null ? response.getInfocode() : "unknown";
+        recordApi(endpoint, outcome, infocode, nanos);
+    }
+
+    /**
+     * 记录一次以异常结束的高德接口调用
+     */
+    public void recordApiError(String endpoint, Throwable error, long nanos) {
+        recordApi(endpoint, OUTCOME_ERROR, error.getClass().getSimpleName(), nanos);
+    }
+
+    private void recordApi(String endpoint, String outcome, String infocode, long nanos) {
+        timers.computeIfAbsent(API_DURATION + '|' + endpoint + '|' + outcome, ignored -> Timer.builder(API_DURATION)
+                        .description("高德接口调用耗时")
+                        .tag("endpoint", endpoint)
+                        .tag("outcome", outcome)
+                        .serviceLevelObjectives(latencySlos)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        counters.computeIfAbsent(endpoint + '|' + infocode, ignored -> Counter.builder(API_RESPONSES)
+                        .description("高德接口返回结果，按infocode统计")
+                        .tag("endpoint", endpoint)
+                        .tag("infocode", infocode)
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * 记录一次响应体大小（解压后）
+     */
+    public void recordPayload(String endpoint, long bytes) {
+        summaries.computeIfAbsent(endpoint, ignored -> DistributionSummary.builder(API_PAYLOAD_SIZE)
+                        .description("高德接口响应体大小")
+                        .baseUnit("bytes")
+                        .tag("endpoint", endpoint)
+                        .serviceLevelObjectives(payloadSlos)
+                        .register(registry))
+                .record(bytes);
+    }
+
+    /**
+     * 统计响应体大小的过滤器，在响应体读取完成时按请求路径记录
+     */
+    public ExchangeFilterFunction payloadSizeFilter() {
+        return (request, next) -> next.exchange(request).map(response -> {
+            String endpoint = request.url().getPath();
+            AtomicLong bytes = new AtomicLong();
+            return response.mutate()
+                    .body(body -> body
+                            .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                            .doOnComplete(() -> recordPayload(endpoint, bytes.get())))
+                    .build();
+        });
+    }
+}
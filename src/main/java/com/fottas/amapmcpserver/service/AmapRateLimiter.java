@@ -0,0 +1,184 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.exception.GlobalExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 高德API调用限流器 - 令牌桶
+ * 全局桶限制总QPS，rate-limit.api-limits中按端点路径配置的桶进一步限制单个接口；
+ * 令牌不足时预约令牌并延迟发出请求，预计等待超过max-wait时直接拒绝；
+ * 启用集群限流时全局桶换成从共享计数租用的令牌（见LeasedPermits），共享计数不可用时退回全局桶
+ */
+@Component
+public class AmapRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmapRateLimiter.class);
+
+    /**
+     * 令牌桶，允许预约未来的令牌，余额为负表示已被预约
+     */
+    static final class TokenBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int permits, Duration window, int capacity, long now) {
+            this.tokensPerNano = (double) permits / window.toNanos();
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        /**
+         * 预约一个令牌
+         *
+         * @return 需要等待的纳秒数，超过最大等待时间时返回-1且不扣减令牌
+         */
+        synchronized long reserve(long now, long maxWaitNanos) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            long wait = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            tokens -= 1;
+            return wait;
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+
+    private final AmapConfigProperties configProperties;
+    private final LongSupplier nanoClock;
+    private final Map<String, TokenBucket> apiBuckets = new ConcurrentHashMap<>();
+    private final LeasedPermits leasedPermits;
+    private volatile TokenBucket globalBucket;
+    private volatile boolean sharedUnavailable;
+
+    @Autowired
+    public AmapRateLimiter(AmapConfigProperties configProperties, ObjectProvider<SharedCounters> sharedCounters) {
+        this(configProperties, System::nanoTime, System::currentTimeMillis, sharedCounters.getIfAvailable());
+    }
+
+    AmapRateLimiter(AmapConfigProperties configProperties, LongSupplier nanoClock) {
+        this(configProperties, nanoClock, System::currentTimeMillis, null);
+    }
+
+    AmapRateLimiter(AmapConfigProperties configProperties, LongSupplier nanoClock, LongSupplier millisClock,
+                    SharedCounters sharedCounters) {
+        this.configProperties = configProperties;
+        this.nanoClock = nanoClock;
+        var config = configProperties.getRateLimit();
+        this.leasedPermits = sharedCounters != null && config.getDistributed().isEnabled()
+                ? new LeasedPermits(sharedCounters, config, millisClock)
+                : null;
+    }
+
+    /**
+     * 获取一次调用许可
+     *
+     * @param endpoint 接口路径，用于匹配单接口限流配置
+     * @return 许可可用时完成的Mono，预计等待过长时以RateLimitException结束
+     */
+    public Mono<Void> acquire(String endpoint) {
+        var config = configProperties.getRateLimit();
+        if (!config.isEnabled()) {
+            return Mono.empty();
+        }
+        Mono<Long> reservation = leasedPermits == null ? Mono.fromSupplier(() -> reserve(endpoint)) : reserveShared(endpoint);
+        return reservation.flatMap(wait -> {
+            if (wait < 0) {
+                return Mono.error(new GlobalExceptionHandler.RateLimitException(
+                        "高德API调用频率超限: " + endpoint, endpoint, Math.max(1, config.getWindow().toSeconds())));
+            }
+            return wait == 0 ? Mono.<Void>empty() : Mono.delay(Duration.ofNanos(wait)).then();
+        });
+    }
+
+    /**
+     * 同时预约全局桶与接口桶的令牌，任一失败时归还已预约的令牌
+     *
+     * @return 需要等待的纳秒数，无法在最大等待时间内获得时返回-1
+     */
+    long reserve(String endpoint) {
+        var config = configProperties.getRateLimit();
+        long now = nanoClock.getAsLong();
+        long maxWait = config.getMaxWait().toNanos();
+
+        TokenBucket bucket = globalBucket(now);
+        return reserveApi(endpoint, now, bucket.reserve(now, maxWait), bucket::refund);
+    }
+
+    /**
+     * 从共享计数租用全局令牌，再预约本地的接口桶；共享计数不可用时退回本地全局桶
+     */
+    Mono<Long> reserveShared(String endpoint) {
+        var config = configProperties.getRateLimit();
+        return leasedPermits.reserve(config.getMaxWait())
+                .map(globalWait -> {
+                    if (sharedUnavailable) {
+                        sharedUnavailable = false;
+                        logger.info("集群限流共享计数已恢复");
+                    }
+                    return reserveApi(endpoint, nanoClock.getAsLong(), globalWait, leasedPermits::refund);
+                })
+                .onErrorResume(error -> !(error instanceof GlobalExceptionHandler.RateLimitException), error -> {
+                    if (!sharedUnavailable) {
+                        sharedUnavailable = true;
+                        logger.warn("集群限流共享计数不可用，使用本地限流: {}", error.getMessage());
+                    }
+                    return Mono.fromSupplier(() -> reserve(endpoint));
+                });
+    }
+
+    /**
+     * 在已取得的全局令牌之上预约接口桶，接口桶失败时通过refundGlobal归还全局令牌
+     */
+    private long reserveApi(String endpoint, long now, long globalWait, Runnable refundGlobal) {
+        if (globalWait < 0) {
+            return -1;
+        }
+        var config = configProperties.getRateLimit();
+        var apiLimit = config.getApiLimits().get(endpoint);
+        if (apiLimit == null) {
+            return globalWait;
+        }
+        TokenBucket apiBucket = apiBuckets.computeIfAbsent(endpoint,
+                key -> new TokenBucket(apiLimit.getQps(), config.getWindow(), apiLimit.getBurstCapacity(), now));
+        long apiWait = apiBucket.reserve(now, config.getMaxWait().toNanos());
+        if (apiWait < 0) {
+            refundGlobal.run();
+            return -1;
+        }
+        return Math.max(globalWait, apiWait);
+    }
+
+    private TokenBucket globalBucket(long now) {
+        TokenBucket bucket = globalBucket;
+        if (bucket == null) {
+            synchronized (this) {
+                bucket = globalBucket;
+                if (bucket == null) {
+                    var config = configProperties.getRateLimit();
+                    bucket = new TokenBucket(config.getQps(), config.getWindow(), config.getBurstCapacity(), now);
+                    globalBucket = bucket;
+                }
+            }
+        }
+        return bucket;
+    }
+}
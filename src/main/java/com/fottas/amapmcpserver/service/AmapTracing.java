@@ -0,0 +1,88 @@
+package com.fottas.amapmcpserver.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * 调用链追踪
+ * 工具方法是同步的，只在工具线程上通过Observation作用域获取当前观测；
+ * 进入响应式调用后父观测放在Reactor Context中向上游传递，不依赖线程切换时的ThreadLocal恢复
+ */
+@Component
+public class AmapTracing {
+
+    private final ObservationRegistry registry;
+
+    public AmapTracing(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * 将工具线程上的当前观测写入Reactor Context，需要在订阅（block）之前的工具线程上调用
+     */
+    public <T> Mono<T> propagate(Mono<T> source) {
+        Observation current = registry.getCurrentObservation();
+        if (current == null) {
+            return source;
+        }
+        return source.contextWrite(context -> context.hasKey(ObservationThreadLocalAccessor.KEY)
+                ? context : context.put(ObservationThreadLocalAccessor.KEY, current));
+    }
+
+    /**
+     * 订阅时创建子观测，父观测取自Reactor Context；子观测写回Context供上游（包括WebClient）使用
+     *
+     * @param name 观测名称
+     * @param contextualName 显示名称（span名称）
+     * @param endpoint 高德接口路径，作为低基数标签
+     */
+    public <T> Mono<T> observe(String name, String contextualName, String endpoint, Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            Observation observation = Observation.createNotStarted(name, registry)
+                    .parentObservation(parentOf(context))
+                    .contextualName(contextualName)
+                    .lowCardinalityKeyValue("endpoint", endpoint)
+                    .start();
+            return source
+                    .doOnError(observation::error)
+                    .doOnTerminate(observation::stop)
+                    .doOnCancel(observation::stop)
+                    .contextWrite(inner -> inner.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * 在响应式调用内部同步执行一段代码并记录为子观测，不打开ThreadLocal作用域
+     */
+    public <T> T observe(ContextView context, String name, Callable<T> action) throws Exception {
+        Observation observation = Observation.createNotStarted(name, registry)
+                .parentObservation(parentOf(context))
+                .start();
+        try {
+            return action.call();
+        } catch (Exception e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * 在工具线程上同步执行一段代码并记录为当前观测的子观测
+     */
+    public <T> T observe(String name, Supplier<T> action) {
+        return Observation.createNotStarted(name, registry).observe(action);
+    }
+
+    private static Observation parentOf(ContextView context) {
+        return context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+    }
+}
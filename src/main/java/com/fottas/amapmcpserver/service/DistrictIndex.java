@@ -0,0 +1,254 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 行政区划内存索引 - 不可变快照
+ * 以adcode为主键，使用有序int数组二分查找，避免装箱；另提供名称与citycode索引，
+ * citycode索引只收录使用该编码的最上级区域：直辖市为省级节点，其余城市为地级市，下属区县不重复返回
+ */
+public final class DistrictIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * 行政区节点
+     *
+     * @param adcode 区域编码
+     * @param name 名称
+     * @param citycode 城市编码，国家与普通省份为null；北京、上海、天津、重庆四个直辖市的省级节点也带有城市编码（如北京为010）
+     * @param level 级别：country、province、city、district
+     * @param center 中心点坐标
+     * @param parentAdcode 上级区域编码，顶层为0
+     * @param children 下级区域编码
+     */
+    public record DistrictNode(int adcode, String name, String citycode, String level, String center,
+                               int parentAdcode, int[] children) {
+    }
+
+    private final int[] adcodes;
+    private final DistrictNode[] nodes;
+    private final Map<String, int[]> nameIndex;
+    private final Map<String, int[]> citycodeIndex;
+    private final int rootAdcode;
+    private final long loadedAt;
+
+    private DistrictIndex(int[] adcodes, DistrictNode[] nodes, Map<String, int[]> nameIndex,
+                          Map<String, int[]> citycodeIndex, int rootAdcode) {
+        this.adcodes = adcodes;
+        this.nodes = nodes;
+        this.nameIndex = nameIndex;
+        this.citycodeIndex = citycodeIndex;
+        this.rootAdcode = rootAdcode;
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 由高德行政区划树构建索引
+     *
+     * @param roots 行政区划接口返回的顶层区域
+     */
+    public static DistrictIndex build(List<AmapOtherModels.DistrictInfo> roots) {
+        Map<Integer, DistrictNode> collected = new HashMap<>();
+        int rootAdcode = 0;
+        if (roots != null) {
+            for (AmapOtherModels.DistrictInfo root : roots) {
+                int adcode = collect(root, 0, collected);
+                if (rootAdcode == 0) {
+                    rootAdcode = adcode;
+                }
+            }
+        }
+
+        int[] adcodes = collected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        DistrictNode[] nodes = new DistrictNode[adcodes.length];
+        Map<String, List<Integer>> names = new HashMap<>();
+        Map<String, List<Integer>> citycodes = new HashMap<>();
+        for (int i = 0; i < adcodes.length; i++) {
+            DistrictNode node = collected.get(adcodes[i]);
+            nodes[i] = node;
+            names.computeIfAbsent(node.name(), k -> new ArrayList<>()).add(node.adcode());
+            String shortName = shortName(node.name());
+            if (!shortName.equals(node.name())) {
+                names.computeIfAbsent(shortName, k -> new ArrayList<>()).add(node.adcode());
+            }
+            DistrictNode parent = collected.get(node.parentAdcode());
+            if (node.citycode() != null && (parent == null || !node.citycode().equals(parent.citycode()))) {
+                citycodes.computeIfAbsent(node.citycode(), k -> new ArrayList<>()).add(node.adcode());
+            }
+        }
+        return new DistrictIndex(adcodes, nodes, toArrays(names), toArrays(citycodes), rootAdcode);
+    }
+
+    private static int collect(AmapOtherModels.DistrictInfo info, int parentAdcode, Map<Integer, DistrictNode> collected) {
+        int adcode = parseAdcode(info.getAdcode());
+        if (adcode <= 0) {
+            return 0;
+        }
+        int[] children = EMPTY;
+        if (info.getDistricts() != null && !info.getDistricts().isEmpty()) {
+            int[] buffer = new int[info.getDistricts().size()];
+            int count = 0;
+            for (AmapOtherModels.DistrictInfo child : info.getDistricts()) {
+                // 街道级别没有独立adcode，不纳入索引
+                if ("street".equals(child.getLevel())) {
+                    continue;
+                }
+                int childAdcode = collect(child, adcode, collected);
+                if (childAdcode > 0 && childAdcode != adcode) {
+                    buffer[count++] = childAdcode;
+                }
+            }
+            children = count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+        }
+        collected.putIfAbsent(adcode, new DistrictNode(adcode, info.getName(), info.citycodeText(),
+                info.getLevel(), info.getCenter(), parentAdcode, children));
+        return adcode;
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> source) {
+        Map<String, int[]> result = new HashMap<>(source.size() * 2);
+        source.forEach((key, values) -> result.put(key, values.stream().mapToInt(Integer::intValue).toArray()));
+        return result;
+    }
+
+    /**
+     * 去掉常见行政区后缀，支持"朝阳"匹配"朝阳区"
+     */
+    static String shortName(String name) {
+        if (name == null || name.length() <= 2) {
+            return name == null ? "" : name;
+        }
+        for (String suffix : new String[]{"特别行政区", "自治区", "自治州", "自治县", "省", "市", "区", "县"}) {
+            if (name.endsWith(suffix) && name.length() - suffix.length() >= 2) {
+                return name.substring(0, name.length() - suffix.length());
+            }
+        }
+        return name;
+    }
+
+    /**
+     * 解析adcode，非法时返回-1
+     */
+    public static int parseAdcode(String adcode) {
+        if (adcode == null || adcode.length() != 6) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < 6; i++) {
+            char c = adcode.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    // ====================== 查询方法 ======================
+
+    public DistrictNode find(int adcode) {
+        int position = Arrays.binarySearch(adcodes, adcode);
+        return position >= 0 ? nodes[position] : null;
+    }
+
+    public DistrictNode root() {
+        return find(rootAdcode);
+    }
+
+    public List<DistrictNode> findByName(String name) {
+        int[] matches = nameIndex.get(name);
+        if (matches == null) {
+            matches = nameIndex.get(shortName(name));
+        }
+        return resolve(matches);
+    }
+
+    /**
+     * 按citycode查询城市，直辖市返回省级节点
+     */
+    public List<DistrictNode> findByCitycode(String citycode) {
+        return resolve(citycodeIndex.get(citycode));
+    }
+
+    public List<DistrictNode> children(DistrictNode node) {
+        return resolve(node.children());
+    }
+
+    public DistrictNode parent(DistrictNode node) {
+        return node.parentAdcode() > 0 ? find(node.parentAdcode()) : null;
+    }
+
+    /**
+     * 按关键字查询：6位数字视为adcode，3-4位数字视为citycode，其余按名称匹配；为空时返回全国
+     */
+    public List<DistrictNode> lookup(String keywords) {
+        if (keywords == null || keywords.isBlank()) {
+            DistrictNode root = root();
+            return root == null ? Collections.emptyList() : List.of(root);
+        }
+        String value = keywords.trim();
+        int adcode = parseAdcode(value);
+        if (adcode > 0) {
+            DistrictNode node = find(adcode);
+            return node == null ? Collections.emptyList() : List.of(node);
+        }
+        if (value.length() <= 4 && value.chars().allMatch(Character::isDigit)) {
+            return findByCitycode(value);
+        }
+        return findByName(value);
+    }
+
+    private List<DistrictNode> resolve(int[] codes) {
+        if (codes == null || codes.length == 0) {
+            return Collections.emptyList();
+        }
+        List<DistrictNode> result = new ArrayList<>(codes.length);
+        for (int code : codes) {
+            DistrictNode node = find(code);
+            if (node != null) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取全部末级行政区（无下级的区县或不设区的地级市）
+     */
+    public List<DistrictNode> leaves() {
+        List<DistrictNode> result = new ArrayList<>();
+        for (DistrictNode node : nodes) {
+            if (node.children().length == 0 && !"country".equals(node.level())) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取从顶层到指定区域的层级路径
+     */
+    public List<DistrictNode> pathTo(DistrictNode node) {
+        List<DistrictNode> path = new ArrayList<>(4);
+        for (DistrictNode current = node; current != null; current = parent(current)) {
+            path.add(0, current);
+        }
+        return path;
+    }
+
+    public int size() {
+        return adcodes.length;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+}
@@ -0,0 +1,98 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Optional;
+
+/**
+ * 行政区划索引服务
+ * 启动后一次性加载全国-省-市-区县四级行政区划树，之后按较长间隔全量刷新，查询全部在内存中完成
+ */
+@Service
+public class DistrictIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistrictIndexService.class);
+
+    private final AmapApiService amapApiService;
+    private final AmapConfigProperties configProperties;
+
+    private final Sinks.Many<DistrictIndex> updates = Sinks.many().replay().latest();
+
+    private volatile DistrictIndex index;
+    private volatile Disposable refreshTask;
+
+    public DistrictIndexService(AmapApiService amapApiService, AmapConfigProperties configProperties) {
+        this.amapApiService = amapApiService;
+        this.configProperties = configProperties;
+    }
+
+    /**
+     * 应用启动完成后开始加载并定期刷新
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRefresh() {
+        var config = configProperties.getDistrictIndex();
+        if (!config.isEnabled()) {
+            logger.info("本地行政区划索引未启用");
+            return;
+        }
+        refreshTask = Flux.interval(config.getInitialDelay(), config.getRefreshInterval())
+                .concatMap(tick -> reload()
+                        .onErrorResume(error -> {
+                            logger.warn("行政区划索引加载失败，继续使用旧索引: {}", error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopRefresh() {
+        Disposable task = refreshTask;
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    /**
+     * 从高德行政区划接口加载完整的四级行政区划树并替换当前索引
+     */
+    public Mono<DistrictIndex> reload() {
+        var request = new AmapOtherModels.DistrictRequest(null, "3");
+        return amapApiService.district(request)
+                .flatMap(response -> {
+                    if (!response.isSuccess() || response.getDistricts() == null || response.getDistricts().isEmpty()) {
+                        return Mono.error(new IllegalStateException("行政区划接口返回异常: " + response.getMessage()));
+                    }
+                    DistrictIndex loaded = DistrictIndex.build(response.getDistricts());
+                    index = loaded;
+                    updates.tryEmitNext(loaded);
+                    logger.info("行政区划索引加载完成，区域数量: {}", loaded.size());
+                    return Mono.just(loaded);
+                });
+    }
+
+    /**
+     * 索引更新流，订阅时会先收到最近一次加载的索引
+     */
+    public Flux<DistrictIndex> updates() {
+        return updates.asFlux();
+    }
+
+    /**
+     * 获取当前索引，尚未加载完成时为空
+     */
+    public Optional<DistrictIndex> currentIndex() {
+        return Optional.ofNullable(index);
+    }
+}
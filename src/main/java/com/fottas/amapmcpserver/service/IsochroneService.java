@@ -0,0 +1,344 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.geo.GeoUtils;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 等时圈服务
+ * 沿若干条射线在固定的半径阶梯上采样，批量查询采样点的通行时间，找到每条射线上可达与不可达的区间后
+ * 只在边界附近二分细化，最终将各射线的边界点连成多边形并简化。
+ * 采样半径取整到固定步长，相同中心点的不同时长查询可以复用已缓存的采样点
+ */
+@Service
+public class IsochroneService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IsochroneService.class);
+
+    private static final String PROBE_KEY_PREFIX = "isochrone_probe:";
+
+    /**
+     * 半径阶梯的起始半径与取整步长（米）
+     */
+    private static final double FIRST_RING = 500;
+    private static final double RADIUS_STEP = 100;
+
+    /**
+     * 距离测量接口单次最多支持的起点数量
+     */
+    private static final int MAX_ORIGINS_PER_CALL = 100;
+
+    /**
+     * 出行方式
+     *
+     * @param distanceType 距离测量类型
+     * @param maxSpeed 用于确定采样范围的速度上限（米/秒）
+     */
+    public enum Mode {
+        DRIVING("1", 80 / 3.6),
+        WALKING("3", 6 / 3.6),
+        BICYCLING("3", 20 / 3.6);
+
+        private final String distanceType;
+        private final double maxSpeed;
+
+        Mode(String distanceType, double maxSpeed) {
+            this.distanceType = distanceType;
+            this.maxSpeed = maxSpeed;
+        }
+
+        public static Mode parse(String value) {
+            if (value == null || value.isBlank()) {
+                return DRIVING;
+            }
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "walking", "walk", "步行" -> WALKING;
+                case "bicycling", "cycling", "bike", "骑行" -> BICYCLING;
+                default -> DRIVING;
+            };
+        }
+    }
+
+    /**
+     * 等时圈结果
+     *
+     * @param ring 边界多边形，交替存放的经纬度
+     * @param requests 实际调用接口次数
+     * @param probes 使用的采样点数量（含缓存命中）
+     * @param complete 是否所有射线的边界都已细化到容差以内
+     */
+    public record Isochrone(String location, int minutes, Mode mode, double[] ring,
+                            int requests, int probes, boolean complete) {
+    }
+
+    /**
+     * 射线上可达区间的上下界
+     */
+    private static final class Ray {
+        final double bearing;
+        double inside;
+        double outside = Double.POSITIVE_INFINITY;
+        boolean known;
+
+        Ray(double bearing) {
+            this.bearing = bearing;
+        }
+    }
+
+    private record Probe(Ray ray, double radius, double lng, double lat, String cacheKey) {
+    }
+
+    private record Sample(Probe probe, double distance, double duration) {
+    }
+
+    private final AmapApiService amapApiService;
+    private final AmapConfigProperties configProperties;
+    private final CacheManager cacheManager;
+
+    public IsochroneService(AmapApiService amapApiService, AmapConfigProperties configProperties,
+                            CacheManager cacheManager) {
+        this.amapApiService = amapApiService;
+        this.configProperties = configProperties;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 计算等时圈
+     *
+     * @param location 中心点，格式：经度,纬度
+     * @param minutes 时长（分钟）
+     * @param mode 出行方式
+     * @param budget 最多调用接口次数，为空时使用配置值，且不能超过配置值
+     */
+    public Mono<Isochrone> compute(String location, int minutes, Mode mode, Integer budget) {
+        var config = configProperties.getIsochrone();
+        double[] center = GeoUtils.parseLocation(location);
+        if (center == null) {
+            return Mono.error(new IllegalArgumentException("中心点坐标格式错误: " + location));
+        }
+        if (minutes <= 0 || minutes > config.getMaxMinutes()) {
+            return Mono.error(new IllegalArgumentException("时长需要在1到" + config.getMaxMinutes() + "分钟之间"));
+        }
+        int limit = budget == null || budget <= 0 ? config.getMaxRequests() : Math.min(budget, config.getMaxRequests());
+        AtomicInteger remaining = new AtomicInteger(limit);
+        AtomicInteger probes = new AtomicInteger();
+        double seconds = minutes * 60.0;
+
+        List<Ray> rays = new ArrayList<>(config.getRays());
+        for (int i = 0; i < config.getRays(); i++) {
+            rays.add(new Ray(360.0 * i / config.getRays()));
+        }
+
+        // 初始阶梯：500米起逐级翻倍，直到覆盖速度上限对应的距离
+        double maxRadius = mode.maxSpeed * seconds;
+        List<Probe> initial = new ArrayList<>();
+        for (double radius = FIRST_RING; ; radius *= 2) {
+            for (Ray ray : rays) {
+                initial.add(probe(center, mode, ray, radius));
+            }
+            if (radius >= maxRadius) {
+                break;
+            }
+        }
+
+        return Mono.deferContextual(context -> {
+            // 预算即最多的接口调用次数，提前收敛时进度不会达到总数
+            ToolProgress progress = ToolProgress.from(context);
+            progress.expect(limit);
+            return evaluate(center, mode, seconds, initial, remaining, probes, progress)
+                    .then(Mono.defer(() -> refine(center, mode, seconds, rays, remaining, probes, progress)))
+                    .then(Mono.fromCallable(() -> buildResult(location, minutes, mode, center, rays,
+                            limit - remaining.get(), probes.get())));
+        });
+    }
+
+    /**
+     * 对边界区间仍大于容差的射线取中点继续采样，直到全部收敛或预算用尽
+     */
+    private Mono<Void> refine(double[] center, Mode mode, double seconds, List<Ray> rays,
+                              AtomicInteger remaining, AtomicInteger probes, ToolProgress progress) {
+        double tolerance = configProperties.getIsochrone().getToleranceMeters();
+        List<Probe> pending = new ArrayList<>();
+        for (Ray ray : rays) {
+            if (!ray.known || Double.isInfinite(ray.outside) || ray.outside - ray.inside <= tolerance) {
+                continue;
+            }
+            double mid = snap((ray.inside + ray.outside) / 2);
+            if (mid > ray.inside && mid < ray.outside) {
+                pending.add(probe(center, mode, ray, mid));
+            }
+        }
+        if (pending.isEmpty() || remaining.get() <= 0) {
+            return Mono.empty();
+        }
+        return evaluate(center, mode, seconds, pending, remaining, probes, progress)
+                .then(Mono.defer(() -> refine(center, mode, seconds, rays, remaining, probes, progress)));
+    }
+
+    // ====================== 采样方法 ======================
+
+    /**
+     * 查询一批采样点：先读缓存，其余按接口上限分批并行查询，每批消耗一次预算；
+     * 采样点作为起点、中心点作为终点，即以到达中心点的时间近似从中心点出发的时间
+     */
+    private Mono<Void> evaluate(double[] center, Mode mode, double seconds, List<Probe> batch,
+                                AtomicInteger remaining, AtomicInteger probes, ToolProgress progress) {
+        Cache cache = cacheManager.getCache("isochroneProbeCache");
+        List<Probe> missing = new ArrayList<>();
+        List<Sample> results = new ArrayList<>(batch.size());
+        for (Probe probe : batch) {
+            double[] cached = cache != null ? cache.get(probe.cacheKey(), double[].class) : null;
+            if (cached != null) {
+                results.add(new Sample(probe, cached[0], cached[1]));
+            } else {
+                missing.add(probe);
+            }
+        }
+
+        List<List<Probe>> chunks = new ArrayList<>();
+        for (int start = 0; start < missing.size(); start += MAX_ORIGINS_PER_CALL) {
+            chunks.add(missing.subList(start, Math.min(missing.size(), start + MAX_ORIGINS_PER_CALL)));
+        }
+        String destination = GeoUtils.formatLocation(center[0], center[1]);
+
+        return Flux.fromIterable(chunks)
+                .filter(chunk -> remaining.getAndUpdate(value -> Math.max(0, value - 1)) > 0)
+                .flatMap(chunk -> {
+                    String origins = chunk.stream()
+                            .map(probe -> GeoUtils.formatLocation(probe.lng(), probe.lat()))
+                            .collect(Collectors.joining("|"));
+                    var request = new AmapOtherModels.DistanceRequest(origins, destination, mode.distanceType);
+                    return amapApiService.distance(request)
+                            .filter(AmapOtherModels.DistanceResponse::isSuccess)
+                            .flatMapIterable(response -> {
+                                List<Sample> values = new ArrayList<>();
+                                if (response.getResults() == null) {
+                                    return values;
+                                }
+                                for (AmapOtherModels.DistanceInfo info : response.getResults()) {
+                                    int position = parseInt(info.getOriginId()) - 1;
+                                    double distance = parseDouble(info.getDistance());
+                                    double duration = parseDouble(info.getDuration());
+                                    if (position < 0 || position >= chunk.size() || distance < 0 || duration < 0) {
+                                        continue;
+                                    }
+                                    Probe probe = chunk.get(position);
+                                    if (cache != null) {
+                                        cache.put(probe.cacheKey(), new double[]{distance, duration});
+                                    }
+                                    values.add(new Sample(probe, distance, duration));
+                                }
+                                return values;
+                            })
+                            .onErrorResume(error -> {
+                                logger.warn("等时圈采样失败: {}", error.getMessage());
+                                return Flux.empty();
+                            })
+                            .doOnComplete(() -> progress.advance("等时圈采样完成" + chunk.size() + "个点", null));
+                }, configProperties.getIsochrone().getConcurrency())
+                .collectList()
+                .doOnNext(fetched -> {
+                    results.addAll(fetched);
+                    // 同一射线按半径从小到大处理，第一个不可达点确定外边界
+                    results.sort(Comparator.comparingDouble(sample -> sample.probe().radius()));
+                    for (Sample sample : results) {
+                        apply(sample.probe(), travelSeconds(mode, sample.distance(), sample.duration()) <= seconds);
+                    }
+                    probes.addAndGet(results.size());
+                })
+                .then();
+    }
+
+    private static void apply(Probe probe, boolean reachable) {
+        Ray ray = probe.ray();
+        ray.known = true;
+        if (reachable && probe.radius() < ray.outside) {
+            ray.inside = Math.max(ray.inside, probe.radius());
+        } else if (!reachable && probe.radius() > ray.inside) {
+            ray.outside = Math.min(ray.outside, probe.radius());
+        }
+    }
+
+    private double travelSeconds(Mode mode, double distance, double duration) {
+        if (mode == Mode.BICYCLING) {
+            // 距离测量接口不支持骑行，以步行路网距离按骑行速度换算
+            return distance / (configProperties.getIsochrone().getCyclingSpeedKmh() / 3.6);
+        }
+        return duration;
+    }
+
+    private static Probe probe(double[] center, Mode mode, Ray ray, double radius) {
+        double[] point = GeoUtils.destination(center[0], center[1], ray.bearing, radius);
+        String key = PROBE_KEY_PREFIX + mode.distanceType + ":" + GeoUtils.formatLocation(center[0], center[1])
+                + ":" + String.format(Locale.ROOT, "%.1f", ray.bearing) + ":" + (long) radius;
+        return new Probe(ray, radius, point[0], point[1], key);
+    }
+
+    private static double snap(double radius) {
+        return Math.round(radius / RADIUS_STEP) * RADIUS_STEP;
+    }
+
+    // ====================== 结果构建 ======================
+
+    private Isochrone buildResult(String location, int minutes, Mode mode, double[] center, List<Ray> rays,
+                                  int requests, int probes) {
+        var config = configProperties.getIsochrone();
+        double[] ring = new double[rays.size() * 2];
+        int count = 0;
+        boolean complete = true;
+        for (Ray ray : rays) {
+            if (!ray.known) {
+                complete = false;
+                continue;
+            }
+            double radius;
+            if (Double.isInfinite(ray.outside)) {
+                radius = ray.inside;
+            } else {
+                radius = (ray.inside + ray.outside) / 2;
+                complete &= ray.outside - ray.inside <= config.getToleranceMeters();
+            }
+            double[] point = GeoUtils.destination(center[0], center[1], ray.bearing, radius);
+            ring[count++] = point[0];
+            ring[count++] = point[1];
+        }
+        if (count < 6) {
+            throw new IllegalStateException("等时圈采样结果不足，无法构建多边形");
+        }
+        double[] points = count == ring.length ? ring : Arrays.copyOf(ring, count);
+        double[] simplified = GeoUtils.simplifyRing(points, config.getSimplifyToleranceMeters());
+        logger.info("等时圈计算完成，中心点: {}, 时长: {}分钟, 接口调用: {}, 采样点: {}", location, minutes, requests, probes);
+        return new Isochrone(location, minutes, mode, simplified, requests, probes, complete);
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return value == null ? -1 : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return value == null ? -1 : Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
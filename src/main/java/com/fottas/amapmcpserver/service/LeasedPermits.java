@@ -0,0 +1,175 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.exception.GlobalExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.function.LongSupplier;
+
+/**
+ * 从共享计数租用的令牌
+ * 时间按限流窗口划分，窗口编号由墙上时钟计算，各副本的时钟需要大致同步。每个窗口的共享计数不超过qps，
+ * 副本一次租用lease-size个令牌并在本地扣减，用完后再租；共享计数达到上限后等待下一个窗口。
+ * 窗口结束时未用完的令牌作废，并从当日计数中归还
+ */
+final class LeasedPermits {
+
+    private static final Duration DAY_TTL = Duration.ofDays(2);
+
+    private final SharedCounters counters;
+    private final LongSupplier millisClock;
+    private final long windowMillis;
+    private final int windowLimit;
+    private final int leaseSize;
+    private final long dailyQuota;
+    private final ZoneId zone;
+    private final String keyPrefix;
+
+    private long window = -1;
+    private int remaining;
+    private boolean exhausted;
+    private String leaseDay;
+    private String quotaExhaustedDay;
+    private Mono<Void> refill;
+
+    LeasedPermits(SharedCounters counters, AmapConfigProperties.RateLimitConfig config, LongSupplier millisClock) {
+        var distributed = config.getDistributed();
+        this.counters = counters;
+        this.millisClock = millisClock;
+        this.windowMillis = config.getWindow().toMillis();
+        this.windowLimit = config.getQps();
+        this.leaseSize = distributed.getLeaseSize();
+        this.dailyQuota = distributed.getDailyQuota();
+        this.zone = ZoneId.of(distributed.getQuotaZone());
+        this.keyPrefix = distributed.getKeyPrefix();
+    }
+
+    /**
+     * 获取一个令牌，共享计数不可用时以原始异常结束，由调用方退回本地限流
+     *
+     * @return 0；无法在最大等待时间内获得时为-1；当日配额用完时以RateLimitException结束
+     */
+    Mono<Long> reserve(Duration maxWait) {
+        return take(millisClock.getAsLong() + maxWait.toMillis());
+    }
+
+    /**
+     * 归还一个本窗口内取得的令牌
+     */
+    synchronized void refund() {
+        if (window == millisClock.getAsLong() / windowMillis) {
+            remaining++;
+        }
+    }
+
+    private Mono<Long> take(long deadline) {
+        return Mono.defer(() -> {
+            long now = millisClock.getAsLong();
+            long current = now / windowMillis;
+            Mono<Void> pending;
+            synchronized (this) {
+                rollTo(current);
+                if (remaining > 0) {
+                    remaining--;
+                    return Mono.just(0L);
+                }
+                if (day(now).equals(quotaExhaustedDay)) {
+                    return Mono.error(quotaExhausted(now));
+                }
+                if (exhausted) {
+                    long next = (current + 1) * windowMillis;
+                    return next > deadline ? Mono.just(-1L)
+                            : Mono.delay(Duration.ofMillis(next - now)).then(take(deadline));
+                }
+                if (refill == null) {
+                    // 同一副本并发的请求共用一次租用
+                    refill = lease(current, day(now)).cache();
+                }
+                pending = refill;
+            }
+            return pending.then(take(deadline));
+        });
+    }
+
+    private Mono<Void> lease(long current, String day) {
+        return counters.add(keyPrefix + "window:" + current, leaseSize, Duration.ofMillis(windowMillis * 2))
+                .map(total -> granted(windowLimit, total, leaseSize))
+                .flatMap(granted -> dailyQuota <= 0 || granted == 0 ? Mono.just(granted)
+                        : counters.add(dayKey(day), granted, DAY_TTL)
+                        .map(total -> granted(dailyQuota, total, granted))
+                        .doOnNext(daily -> {
+                            if (daily == 0) {
+                                markQuotaExhausted(day);
+                            }
+                        }))
+                .doOnNext(granted -> apply(current, day, granted))
+                .doOnError(error -> clearRefill())
+                .then();
+    }
+
+    private synchronized void clearRefill() {
+        refill = null;
+    }
+
+    private synchronized void markQuotaExhausted(String day) {
+        quotaExhaustedDay = day;
+    }
+
+    private synchronized void apply(long current, String day, int granted) {
+        refill = null;
+        if (window != current) {
+            // 租用期间窗口已经结束
+            release(day, granted);
+            return;
+        }
+        remaining += granted;
+        leaseDay = day;
+        exhausted |= granted < leaseSize;
+    }
+
+    private void rollTo(long current) {
+        if (window == current) {
+            return;
+        }
+        if (remaining > 0 && leaseDay != null) {
+            release(leaseDay, remaining);
+        }
+        window = current;
+        remaining = 0;
+        exhausted = false;
+    }
+
+    private void release(String day, int unused) {
+        if (dailyQuota > 0 && unused > 0) {
+            counters.add(dayKey(day), -unused, DAY_TTL).subscribe(total -> {
+            }, error -> {
+            });
+        }
+    }
+
+    /**
+     * 计数增加requested后为total时，实际取得的数量
+     */
+    private static int granted(long limit, long total, int requested) {
+        return (int) Math.max(0, Math.min(requested, limit - (total - requested)));
+    }
+
+    private String dayKey(String day) {
+        return keyPrefix + "day:" + day;
+    }
+
+    private String day(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone).toString();
+    }
+
+    private GlobalExceptionHandler.RateLimitException quotaExhausted(long now) {
+        long reset = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone).plusDays(1).atStartOfDay(zone)
+                .toInstant().toEpochMilli();
+        return new GlobalExceptionHandler.RateLimitException("高德API当日配额已用完", "daily-quota",
+                Math.max(1, (reset - now) / 1000));
+    }
+}
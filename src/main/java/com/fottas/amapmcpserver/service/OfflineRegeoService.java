@@ -0,0 +1,199 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.geo.GeoUtils;
+import com.fottas.amapmcpserver.geo.PreparedPolygon;
+import com.fottas.amapmcpserver.geo.StrRTree;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 离线逆地理编码服务
+ * 将区县边界装入STR R树，坐标到省/市/区县的解析在本地完成；未加载边界或坐标未命中时由调用方回退到高德逆地理编码
+ */
+@Service
+public class OfflineRegeoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfflineRegeoService.class);
+
+    /**
+     * 快照文件中的单条边界记录
+     */
+    public record BoundaryRecord(String adcode, String name, String polyline) {
+    }
+
+    private record Boundary(int adcode, PreparedPolygon polygon) {
+    }
+
+    private final AmapApiService amapApiService;
+    private final DistrictIndexService districtIndexService;
+    private final AmapConfigProperties configProperties;
+    private final ObjectMapper objectMapper;
+
+    private volatile StrRTree<Boundary> boundaries;
+
+    public OfflineRegeoService(AmapApiService amapApiService,
+                               DistrictIndexService districtIndexService,
+                               AmapConfigProperties configProperties,
+                               ObjectMapper objectMapper) {
+        this.amapApiService = amapApiService;
+        this.districtIndexService = districtIndexService;
+        this.configProperties = configProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 应用启动后加载边界：优先读取快照文件，快照不存在且允许时通过行政区划接口拉取
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBoundaries() {
+        var config = configProperties.getOfflineRegeo();
+        if (!config.isEnabled()) {
+            return;
+        }
+        Path snapshot = Path.of(config.getSnapshotPath());
+        if (Files.isRegularFile(snapshot)) {
+            Mono.fromCallable(() -> readSnapshot(snapshot))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(this::install, error -> logger.warn("读取行政区边界快照失败: {}", error.getMessage()));
+        } else if (config.isFetchFromApi()) {
+            // 部分区域拉取失败时只在本次运行中使用，不写入快照，下次启动重新拉取
+            districtIndexService.updates()
+                    .next()
+                    .flatMap(index -> fetchBoundaries(index, config.getFetchConcurrency())
+                            .doOnNext(records -> {
+                                int missing = index.leaves().size() - records.size();
+                                if (missing == 0) {
+                                    writeSnapshot(snapshot, records);
+                                } else {
+                                    logger.warn("{}个区域的边界拉取失败，不写入快照 {}", missing, snapshot);
+                                }
+                            }))
+                    .subscribe(this::install, error -> logger.warn("拉取行政区边界失败: {}", error.getMessage()));
+        } else {
+            logger.info("未找到行政区边界快照 {}，离线逆地理编码不可用", snapshot);
+        }
+    }
+
+    /**
+     * 解析坐标所在的行政区层级路径（国家 -> 省 -> 市 -> 区县）
+     *
+     * @param location 经纬度，格式：经度,纬度
+     * @return 层级路径，边界或行政区划索引未就绪、坐标未命中时为空
+     */
+    public Optional<List<DistrictIndex.DistrictNode>> locate(String location) {
+        StrRTree<Boundary> tree = boundaries;
+        double[] point = GeoUtils.parseLocation(location);
+        if (tree == null || point == null) {
+            return Optional.empty();
+        }
+        Optional<DistrictIndex> index = districtIndexService.currentIndex();
+        if (index.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int[] hit = {0};
+        tree.queryPoint(point[0], point[1], boundary -> {
+            if (hit[0] == 0 && boundary.polygon().contains(point[0], point[1])) {
+                hit[0] = boundary.adcode();
+            }
+        });
+        if (hit[0] == 0) {
+            return Optional.empty();
+        }
+        DistrictIndex.DistrictNode node = index.get().find(hit[0]);
+        return node == null ? Optional.empty() : Optional.of(index.get().pathTo(node));
+    }
+
+    public boolean isReady() {
+        return boundaries != null;
+    }
+
+    // ====================== 加载方法 ======================
+
+    private void install(List<BoundaryRecord> records) {
+        StrRTree.Builder<Boundary> builder = StrRTree.builder();
+        int edges = 0;
+        for (BoundaryRecord record : records) {
+            int adcode = DistrictIndex.parseAdcode(record.adcode());
+            PreparedPolygon polygon = PreparedPolygon.parse(record.polyline());
+            if (adcode <= 0 || polygon == null) {
+                continue;
+            }
+            builder.add(new Boundary(adcode, polygon),
+                    polygon.getMinX(), polygon.getMinY(), polygon.getMaxX(), polygon.getMaxY());
+            edges += polygon.getEdgeCount();
+        }
+        StrRTree<Boundary> tree = builder.build();
+        boundaries = tree;
+        logger.info("行政区边界加载完成，区域数量: {}，边数量: {}", tree.size(), edges);
+    }
+
+    private Mono<List<BoundaryRecord>> fetchBoundaries(DistrictIndex index, int concurrency) {
+        List<DistrictIndex.DistrictNode> leaves = index.leaves();
+        logger.info("开始通过行政区划接口拉取边界，区域数量: {}", leaves.size());
+        return Flux.fromIterable(leaves)
+                .flatMap(node -> {
+                    var request = new AmapOtherModels.DistrictRequest(String.valueOf(node.adcode()), "0");
+                    request.setExtensions("all");
+                    return amapApiService.district(request)
+                            .filter(response -> response.isSuccess() && response.getDistricts() != null
+                                    && !response.getDistricts().isEmpty())
+                            .map(response -> response.getDistricts().get(0))
+                            .filter(info -> info.getPolyline() != null && !info.getPolyline().isBlank())
+                            .map(info -> new BoundaryRecord(info.getAdcode(), info.getName(), info.getPolyline()))
+                            .onErrorResume(error -> {
+                                logger.warn("拉取行政区边界失败，adcode: {}, 错误: {}", node.adcode(), error.getMessage());
+                                return Mono.empty();
+                            });
+                }, concurrency)
+                .collectList();
+    }
+
+    private List<BoundaryRecord> readSnapshot(Path snapshot) throws IOException {
+        List<BoundaryRecord> records = new ArrayList<>();
+        try (MappingIterator<BoundaryRecord> iterator = objectMapper.readerFor(BoundaryRecord.class).readValues(snapshot.toFile())) {
+            while (iterator.hasNext()) {
+                records.add(iterator.next());
+            }
+        }
+        return records;
+    }
+
+    private void writeSnapshot(Path snapshot, List<BoundaryRecord> records) {
+        try {
+            if (snapshot.getParent() != null) {
+                Files.createDirectories(snapshot.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(snapshot);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                for (BoundaryRecord record : records) {
+                    objectMapper.writeValue(generator, record);
+                }
+                generator.writeEndArray();
+            }
+            logger.info("行政区边界快照已写入: {}", snapshot);
+        } catch (IOException e) {
+            logger.warn("写入行政区边界快照失败: {}", e.getMessage());
+        }
+    }
+}
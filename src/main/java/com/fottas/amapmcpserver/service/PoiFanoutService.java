@@ -0,0 +1,384 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.geo.GeoUtils;
+import com.fottas.amapmcpserver.geo.Geohash;
+import com.fottas.amapmcpserver.geo.PreparedPolygon;
+import com.fottas.amapmcpserver.model.PoiModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * POI分片并行搜索服务
+ * 高德单个查询最多返回200条结果，大范围搜索会被静默截断；这里将大范围拆成多个小查询，
+ * 以有限并发并行翻页，结果被截断的分片继续细分，最终按POI ID去重后以流的形式合并输出。
+ * 关键字搜索的自动翻页同样在这里完成，所有分页请求都经过AmapApiService的缓存与限流；
+ * 每个分片或分页完成时通过ToolProgress上报进度和新增的POI
+ */
+@Service
+public class PoiFanoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoiFanoutService.class);
+
+    /**
+     * 矩形分片
+     *
+     * @param depth 细分层数，初始分片为0
+     */
+    record Tile(double minLng, double minLat, double maxLng, double maxLat, int depth) {
+
+        /**
+         * 高德矩形多边形参数：左上、右下两个顶点
+         */
+        String polygon() {
+            return GeoUtils.formatLocation(minLng, maxLat) + "|" + GeoUtils.formatLocation(maxLng, minLat);
+        }
+
+        List<Tile> split() {
+            double midLng = (minLng + maxLng) / 2;
+            double midLat = (minLat + maxLat) / 2;
+            return List.of(
+                    new Tile(minLng, minLat, midLng, midLat, depth + 1),
+                    new Tile(midLng, minLat, maxLng, midLat, depth + 1),
+                    new Tile(minLng, midLat, midLng, maxLat, depth + 1),
+                    new Tile(midLng, midLat, maxLng, maxLat, depth + 1));
+        }
+    }
+
+    /**
+     * 分片查询结果
+     *
+     * @param pois 已返回的POI，分片失败时为失败前已取得的页
+     * @param truncated 是否达到翻页上限，即分片内可能还有未返回的POI
+     * @param failed 是否有分页查询失败
+     */
+    private record TileResult(Tile tile, List<PoiModels.PoiInfo> pois, boolean truncated, boolean failed) {
+    }
+
+    /**
+     * 多边形搜索结果
+     *
+     * @param pois 位于多边形内、按POI ID去重后的POI
+     * @param failedTiles 查询失败的分片数，这些分片只包含失败前已取得的页
+     * @param truncatedTiles 达到细分层数上限后仍被截断的分片数
+     * @param limited 是否因达到结果数上限而提前结束
+     */
+    public record PolygonSearch(List<PoiModels.PoiInfo> pois, int failedTiles, int truncatedTiles, boolean limited) {
+
+        /**
+         * 是否完整覆盖了多边形范围
+         */
+        public boolean complete() {
+            return failedTiles == 0 && truncatedTiles == 0 && !limited;
+        }
+    }
+
+    /**
+     * 关键字搜索的单页结果
+     *
+     * @param failed 是否查询失败，失败时pois为空
+     */
+    private record TextPage(int page, List<PoiModels.PoiInfo> pois, boolean failed) {
+    }
+
+    /**
+     * 关键字搜索翻页结果
+     *
+     * @param pois 按页序输出、按POI ID去重后的POI
+     * @param failedPages 查询失败的页码，这些页的POI不在结果中
+     * @param truncated 是否达到翻页上限，即可能还有未取得的页
+     * @param limited 是否因达到结果数上限而提前结束
+     */
+    public record TextSearch(List<PoiModels.PoiInfo> pois, List<Integer> failedPages, boolean truncated, boolean limited) {
+
+        /**
+         * 是否取得了全部结果
+         */
+        public boolean complete() {
+            return failedPages.isEmpty() && !truncated && !limited;
+        }
+    }
+
+    private final AmapApiService amapApiService;
+    private final AmapConfigProperties configProperties;
+
+    public PoiFanoutService(AmapApiService amapApiService, AmapConfigProperties configProperties) {
+        this.amapApiService = amapApiService;
+        this.configProperties = configProperties;
+    }
+
+    /**
+     * 多边形区域搜索
+     * 失败的分片保留已取得的页，与细分到上限仍被截断的分片一起计入结果，调用方据此判断覆盖是否完整
+     *
+     * @param polygon 多边形坐标，经纬度对之间以|分隔；只有两个点时视为矩形的对角顶点
+     */
+    public Mono<PolygonSearch> polygonSearch(String polygon, String keywords, String types) {
+        PreparedPolygon prepared = parsePolygon(polygon);
+        if (prepared == null) {
+            return Mono.error(new IllegalArgumentException("多边形坐标格式错误: " + polygon));
+        }
+        var config = configProperties.getPoiFanout();
+        List<Tile> tiles = tile(prepared, config.getTileSizeMeters(), config.getMaxTiles());
+        logger.info("多边形搜索拆分为{}个分片，关键字: {}", tiles.size(), keywords);
+
+        return Mono.deferContextual(context -> {
+            ToolProgress progress = ToolProgress.from(context);
+            progress.expect(tiles.size());
+            Set<String> seen = new HashSet<>();
+            List<PoiModels.PoiInfo> pois = new ArrayList<>();
+            int[] failed = {0};
+            int[] truncated = {0};
+            return Flux.fromIterable(tiles)
+                    .flatMap(tile -> searchTile(tile, keywords, types), config.getConcurrency())
+                    .expand(result -> {
+                        if (!result.truncated()) {
+                            return Flux.empty();
+                        }
+                        if (result.tile().depth() >= config.getMaxSplitDepth()) {
+                            truncated[0]++;
+                            return Flux.empty();
+                        }
+                        List<Tile> subTiles = result.tile().split().stream()
+                                .filter(sub -> prepared.intersectsRect(sub.minLng(), sub.minLat(), sub.maxLng(), sub.maxLat()))
+                                .toList();
+                        progress.expect(subTiles.size());
+                        return Flux.fromIterable(subTiles)
+                                .flatMap(sub -> searchTile(sub, keywords, types), config.getConcurrency());
+                    })
+                    .concatMap(result -> {
+                        if (result.failed()) {
+                            failed[0]++;
+                        }
+                        List<PoiModels.PoiInfo> fresh = fresh(result.pois(), seen, poi -> {
+                            double[] location = GeoUtils.parseLocation(poi.getLocation());
+                            return location != null && prepared.contains(location[0], location[1]);
+                        });
+                        fresh = fresh.subList(0, Math.min(fresh.size(), config.getMaxResults() - pois.size()));
+                        pois.addAll(fresh);
+                        progress.advance("分片搜索完成，新增" + fresh.size() + "个POI", fresh);
+                        return Mono.just(pois.size());
+                    })
+                    .takeUntil(size -> size >= config.getMaxResults())
+                    .then(Mono.fromSupplier(() -> {
+                        boolean limited = pois.size() >= config.getMaxResults();
+                        if (failed[0] > 0 || truncated[0] > 0 || limited) {
+                            logger.warn("多边形搜索结果不完整，失败分片: {}, 截断分片: {}, 达到结果上限: {}",
+                                    failed[0], truncated[0], limited);
+                        }
+                        return new PolygonSearch(List.copyOf(pois), failed[0], truncated[0], limited);
+                    }));
+        });
+    }
+
+    /**
+     * 关键字搜索自动翻页
+     * 高德v5接口的count只是当前页的条数，无法得知总页数；第一页已满时以翻页上限为界并发预取后续各页，
+     * 按页序合并，遇到第一个不足一页的成功页即停止并取消其余预取。失败的页不影响其他页，
+     * 与达到翻页上限、结果数上限的情况一起计入结果，调用方据此判断结果是否完整
+     *
+     * @param request 查询条件，page_size与page_num由本方法设置
+     */
+    public Mono<TextSearch> textSearchAll(PoiModels.PoiTextSearchRequest request) {
+        var config = configProperties.getPoiFanout();
+        int pageSize = config.getPageSize();
+        int maxPages = config.getMaxPages();
+        int maxResults = config.getMaxResults();
+
+        return Mono.deferContextual(context -> {
+            ToolProgress progress = ToolProgress.from(context);
+            progress.expect(1);
+            Set<String> seen = new HashSet<>();
+            List<PoiModels.PoiInfo> pois = new ArrayList<>();
+            List<Integer> failedPages = new ArrayList<>();
+            boolean[] limited = {false};
+            TextPage[] last = {null};
+            return fetchTextPage(request, 1)
+                    .flatMapMany(first -> {
+                        if (isLastPage(first, pageSize) || maxPages <= 1) {
+                            return Mono.just(first);
+                        }
+                        logger.info("关键字搜索自动翻页，关键字: {}, 最多预取{}页", request.getKeywords(), maxPages - 1);
+                        return Flux.concat(Mono.just(first), Flux.range(2, maxPages - 1)
+                                .flatMapSequential(page -> fetchTextPage(request, page), config.getConcurrency())
+                                .takeUntil(page -> isLastPage(page, pageSize)));
+                    })
+                    .concatMap(page -> {
+                        last[0] = page;
+                        if (page.failed()) {
+                            failedPages.add(page.page());
+                        }
+                        List<PoiModels.PoiInfo> fresh = fresh(page.pois(), seen, poi -> true);
+                        boolean trimmed = fresh.size() > maxResults - pois.size();
+                        boolean hasNext = !isLastPage(page, pageSize) && page.page() < maxPages;
+                        fresh = fresh.subList(0, Math.min(fresh.size(), maxResults - pois.size()));
+                        pois.addAll(fresh);
+                        if (pois.size() >= maxResults) {
+                            // 恰好取完最后一页时不算提前结束
+                            limited[0] = trimmed || hasNext;
+                        } else if (hasNext) {
+                            progress.expect(1);
+                        }
+                        progress.advance(page.failed()
+                                ? "第" + page.page() + "页查询失败"
+                                : "翻页完成，新增" + fresh.size() + "个POI", fresh);
+                        return Mono.just(pois.size());
+                    })
+                    .takeUntil(size -> size >= maxResults)
+                    .then(Mono.fromSupplier(() -> {
+                        TextPage lastPage = last[0];
+                        boolean truncated = lastPage != null && lastPage.page() == maxPages
+                                && !lastPage.failed() && lastPage.pois().size() >= pageSize;
+                        if (!failedPages.isEmpty() || truncated || limited[0]) {
+                            logger.warn("关键字搜索结果不完整，失败页: {}, 达到翻页上限: {}, 达到结果上限: {}",
+                                    failedPages, truncated, limited[0]);
+                        }
+                        return new TextSearch(List.copyOf(pois), List.copyOf(failedPages), truncated, limited[0]);
+                    }));
+        });
+    }
+
+    /**
+     * 是否为最后一页：成功页不足一页时没有后续页；第一页失败时无法判断是否需要翻页，同样视为最后一页
+     */
+    private static boolean isLastPage(TextPage page, int pageSize) {
+        return page.failed() ? page.page() == 1 : page.pois().size() < pageSize;
+    }
+
+    /**
+     * 过滤出满足条件且未出现过的POI，用于按POI ID去重并按批次上报部分结果
+     */
+    private static List<PoiModels.PoiInfo> fresh(List<PoiModels.PoiInfo> pois, Set<String> seen,
+                                                 Predicate<PoiModels.PoiInfo> accept) {
+        List<PoiModels.PoiInfo> result = new ArrayList<>();
+        for (PoiModels.PoiInfo poi : pois) {
+            if (poi.getId() != null && accept.test(poi) && seen.add(poi.getId())) {
+                result.add(poi);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 查询关键字搜索的单页，失败时返回标记为失败的空页
+     */
+    private Mono<TextPage> fetchTextPage(PoiModels.PoiTextSearchRequest request, int page) {
+        var pageRequest = request.toBuilder()
+                .page_size(String.valueOf(configProperties.getPoiFanout().getPageSize()))
+                .page_num(String.valueOf(page))
+                .build();
+        return amapApiService.poiTextSearch(pageRequest)
+                .flatMap(response -> response.isSuccess()
+                        ? Mono.just(new TextPage(page, response.getPois() != null ? response.getPois() : List.<PoiModels.PoiInfo>of(), false))
+                        : Mono.<TextPage>error(new IllegalStateException(response.getMessage())))
+                .onErrorResume(error -> {
+                    logger.warn("关键字搜索第{}页失败，关键字: {}, 错误: {}", page, request.getKeywords(), error.getMessage());
+                    return Mono.just(new TextPage(page, List.of(), true));
+                });
+    }
+
+    /**
+     * 逐页查询单个分片，返回不足一页时停止；单个分片失败不影响其他分片，已取得的页仍然保留
+     */
+    private Mono<TileResult> searchTile(Tile tile, String keywords, String types) {
+        var config = configProperties.getPoiFanout();
+        int pageSize = config.getPageSize();
+        return Mono.defer(() -> {
+            List<PoiModels.PoiInfo> pois = new ArrayList<>();
+            int[] pages = {0};
+            int[] lastSize = {0};
+            return Flux.range(1, config.getMaxPages())
+                    .concatMap(page -> amapApiService.poiPolygonSearch(PoiModels.PoiPolygonSearchRequest.builder()
+                            .polygon(tile.polygon())
+                            .keywords(keywords)
+                            .types(types)
+                            .page_size(String.valueOf(pageSize))
+                            .page_num(String.valueOf(page))
+                            .build())
+                            .flatMap(response -> response.isSuccess()
+                                    ? Mono.just(response.getPois() != null ? response.getPois() : List.<PoiModels.PoiInfo>of())
+                                    : Mono.error(new IllegalStateException(response.getMessage()))))
+                    .doOnNext(page -> {
+                        pois.addAll(page);
+                        pages[0]++;
+                        lastSize[0] = page.size();
+                    })
+                    .takeUntil(page -> page.size() < pageSize)
+                    .then(Mono.fromSupplier(() -> new TileResult(tile, pois,
+                            pages[0] == config.getMaxPages() && lastSize[0] >= pageSize, false)))
+                    .onErrorResume(error -> {
+                        logger.warn("多边形分片搜索失败，分片: {}, 已取得{}页, 错误: {}", tile.polygon(), pages[0], error.getMessage());
+                        return Mono.just(new TileResult(tile, pois, false, true));
+                    });
+        });
+    }
+
+    // ====================== 分片方法 ======================
+
+    /**
+     * 解析多边形参数
+     *
+     * @return 预处理后的多边形，格式错误时返回null
+     */
+    static PreparedPolygon parsePolygon(String polygon) {
+        if (polygon == null || polygon.isBlank()) {
+            return null;
+        }
+        double[][] points = GeoUtils.parseLocations(polygon);
+        if (points != null && points[0].length == 2) {
+            double minLng = Math.min(points[0][0], points[0][1]);
+            double maxLng = Math.max(points[0][0], points[0][1]);
+            double minLat = Math.min(points[1][0], points[1][1]);
+            double maxLat = Math.max(points[1][0], points[1][1]);
+            return PreparedPolygon.ofRing(new double[]{minLng, minLat, maxLng, minLat, maxLng, maxLat, minLng, maxLat});
+        }
+        double[] ring = PreparedPolygon.parseRing(polygon, "\\|");
+        return ring == null ? null : PreparedPolygon.ofRing(ring);
+    }
+
+    /**
+     * 将多边形外接矩形划分为网格，只保留与多边形相交的分片
+     *
+     * @param tileSizeMeters 期望的分片边长
+     * @param maxTiles 网格数量上限，超过时等比放大分片边长
+     */
+    static List<Tile> tile(PreparedPolygon polygon, double tileSizeMeters, int maxTiles) {
+        double midLat = (polygon.getMinY() + polygon.getMaxY()) / 2;
+        double tileLat = tileSizeMeters / Geohash.METERS_PER_DEGREE;
+        double tileLng = tileSizeMeters / (Geohash.METERS_PER_DEGREE * Math.max(0.01, Math.cos(Math.toRadians(midLat))));
+        double width = polygon.getMaxX() - polygon.getMinX();
+        double height = polygon.getMaxY() - polygon.getMinY();
+        int columns = Math.max(1, (int) Math.ceil(width / tileLng));
+        int rows = Math.max(1, (int) Math.ceil(height / tileLat));
+        if ((long) columns * rows > maxTiles) {
+            double scale = Math.sqrt((double) columns * rows / maxTiles);
+            columns = Math.max(1, (int) Math.floor(columns / scale));
+            rows = Math.max(1, (int) Math.floor(rows / scale));
+        }
+        double stepLng = width / columns;
+        double stepLat = height / rows;
+
+        List<Tile> tiles = new ArrayList<>(columns * rows);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                double minLng = polygon.getMinX() + column * stepLng;
+                double minLat = polygon.getMinY() + row * stepLat;
+                double maxLng = column == columns - 1 ? polygon.getMaxX() : minLng + stepLng;
+                double maxLat = row == rows - 1 ? polygon.getMaxY() : minLat + stepLat;
+                if (polygon.intersectsRect(minLng, minLat, maxLng, maxLat)) {
+                    tiles.add(new Tile(minLng, minLat, maxLng, maxLat, 0));
+                }
+            }
+        }
+        return tiles;
+    }
+}
@@ -0,0 +1,349 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.geo.GeoUtils;
+import com.fottas.amapmcpserver.geo.Geohash;
+import com.fottas.amapmcpserver.model.PoiModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * POI本地空间索引
+ * 收集关键字搜索、周边搜索返回的POI，按geohash网格归档并记录每个网格在某个查询条件下的覆盖程度：
+ * 完整枚举（FULL）的网格可直接在本地回答后续的周边搜索与最近N个查询，仅采样（SAMPLED）的网格仍需调用高德接口
+ */
+@Service
+public class PoiSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoiSpatialIndex.class);
+
+    /**
+     * 高德POI搜索2.0默认每页数量
+     */
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    /**
+     * 高德周边搜索默认半径（米）
+     */
+    private static final int DEFAULT_RADIUS = 5000;
+
+    /**
+     * 网格覆盖状态
+     */
+    public enum Coverage {
+        /**
+         * 该网格内符合查询条件的POI已全部获取
+         */
+        FULL,
+        /**
+         * 该网格内只获取到部分POI
+         */
+        SAMPLED
+    }
+
+    /**
+     * 网格覆盖统计
+     */
+    public record Stats(int pois, long fullCells, long sampledCells) {
+    }
+
+    private record IndexedPoi(PoiModels.PoiInfo poi, double lng, double lat, long expiresAt) {
+    }
+
+    private record CoverageKey(String cell, String query) {
+    }
+
+    private record CellCoverage(Coverage coverage, Set<String> ids, long expiresAt) {
+    }
+
+    private record Candidate(PoiModels.PoiInfo poi, double distance) {
+    }
+
+    private final AmapConfigProperties configProperties;
+    private final Map<String, IndexedPoi> poisById = new ConcurrentHashMap<>();
+    private final Map<CoverageKey, CellCoverage> coverage = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    public PoiSpatialIndex(AmapConfigProperties configProperties) {
+        this.configProperties = configProperties;
+    }
+
+    // ====================== 写入 ======================
+
+    /**
+     * 记录周边搜索结果：第一页即返回全部结果时，完全落在搜索圆内的网格标记为完整枚举
+     */
+    public void recordAround(PoiModels.PoiAroundSearchRequest request, PoiModels.PoiResponse response) {
+        if (!isEnabled() || response == null || !response.isSuccess()) {
+            return;
+        }
+        double[] center = GeoUtils.parseLocation(request.getLocation());
+        if (center == null) {
+            return;
+        }
+        List<PoiModels.PoiInfo> pois = response.getPois() != null ? response.getPois() : List.of();
+        int pageSize = parseInt(request.getPage_size(), DEFAULT_PAGE_SIZE);
+        int pageNum = parseInt(request.getPage_num(), 1);
+        int radius = parseInt(request.getRadius(), DEFAULT_RADIUS);
+        int total = parseInt(response.getCount(), pois.size());
+        boolean complete = pageNum <= 1 && pois.size() < pageSize && total <= pois.size();
+
+        recordEnumeration(queryKey(request.getKeywords(), request.getTypes()), center[0], center[1], radius, pois, complete);
+    }
+
+    /**
+     * 记录关键字搜索结果：搜索范围不是空间范围，涉及的网格只能标记为采样
+     */
+    public void recordText(PoiModels.PoiTextSearchRequest request, PoiModels.PoiResponse response) {
+        if (!isEnabled() || response == null || !response.isSuccess() || response.getPois() == null) {
+            return;
+        }
+        String query = queryKey(request.getKeywords(), request.getTypes());
+        long expiresAt = expiresAt();
+        Map<String, Set<String>> idsByCell = new HashMap<>();
+        for (PoiModels.PoiInfo poi : response.getPois()) {
+            String cell = store(poi, expiresAt);
+            if (cell != null) {
+                idsByCell.computeIfAbsent(cell, k -> new HashSet<>()).add(poi.getId());
+            }
+        }
+        idsByCell.forEach((cell, ids) -> mark(cell, query, Coverage.SAMPLED, ids, expiresAt));
+        afterWrite();
+    }
+
+    /**
+     * 记录圆形范围内的枚举结果
+     *
+     * @param complete 是否已获取该范围内全部符合条件的POI
+     */
+    public void recordEnumeration(String query, double lng, double lat, double radius,
+                                  List<PoiModels.PoiInfo> pois, boolean complete) {
+        if (!isEnabled()) {
+            return;
+        }
+        var config = configProperties.getPoiIndex();
+        long expiresAt = expiresAt();
+        Map<String, Set<String>> idsByCell = new HashMap<>();
+        // 未能存入索引的POI所在网格不能标记为完整枚举，位置未知时整个范围都不能
+        Set<String> partialCells = new HashSet<>();
+        boolean allLocated = true;
+        for (PoiModels.PoiInfo poi : pois) {
+            String cell = store(poi, expiresAt);
+            if (cell != null) {
+                idsByCell.computeIfAbsent(cell, k -> new HashSet<>()).add(poi.getId());
+                continue;
+            }
+            double[] location = GeoUtils.parseLocation(poi.getLocation());
+            if (location != null) {
+                partialCells.add(Geohash.encode(location[0], location[1], config.getPrecision()));
+            } else {
+                allLocated = false;
+            }
+        }
+
+        List<String> cells = Geohash.coverCircle(lng, lat, radius, config.getPrecision(), config.getMaxCellsPerQuery());
+        if (cells == null) {
+            idsByCell.forEach((cell, ids) -> mark(cell, query, Coverage.SAMPLED, ids, expiresAt));
+        } else {
+            for (String cell : cells) {
+                Set<String> ids = idsByCell.getOrDefault(cell, Set.of());
+                boolean full = complete && allLocated && !partialCells.contains(cell)
+                        && Geohash.cellWithinCircle(cell, lng, lat, radius);
+                mark(cell, query, full ? Coverage.FULL : Coverage.SAMPLED, ids, expiresAt);
+            }
+        }
+        afterWrite();
+    }
+
+    /**
+     * 存入POI
+     *
+     * @return POI所在网格，缺少ID或位置、或已达到容量上限时返回null
+     */
+    private String store(PoiModels.PoiInfo poi, long expiresAt) {
+        if (poi.getId() == null) {
+            return null;
+        }
+        double[] location = GeoUtils.parseLocation(poi.getLocation());
+        if (location == null) {
+            return null;
+        }
+        if (poisById.size() >= configProperties.getPoiIndex().getMaxPois() && !poisById.containsKey(poi.getId())) {
+            return null;
+        }
+        poisById.put(poi.getId(), new IndexedPoi(poi, location[0], location[1], expiresAt));
+        return Geohash.encode(location[0], location[1], configProperties.getPoiIndex().getPrecision());
+    }
+
+    /**
+     * 更新网格覆盖状态：完整枚举覆盖采样，采样只在原记录不是有效的完整枚举时合并
+     */
+    private void mark(String cell, String query, Coverage status, Set<String> ids, long expiresAt) {
+        long now = System.currentTimeMillis();
+        coverage.compute(new CoverageKey(cell, query), (key, existing) -> {
+            if (existing == null || existing.expiresAt() < now || status == Coverage.FULL) {
+                return new CellCoverage(status, Set.copyOf(ids), expiresAt);
+            }
+            if (existing.coverage() == Coverage.FULL) {
+                return existing;
+            }
+            Set<String> merged = new HashSet<>(existing.ids());
+            merged.addAll(ids);
+            return new CellCoverage(Coverage.SAMPLED, Set.copyOf(merged), expiresAt);
+        });
+    }
+
+    // ====================== 查询 ======================
+
+    /**
+     * 尝试在本地回答周边搜索
+     *
+     * @param limit 最多返回数量
+     * @return 按距离排序的POI，搜索圆涉及的网格未全部完整枚举时为空
+     */
+    public Optional<List<PoiModels.PoiInfo>> findAround(String keywords, String types, String location,
+                                                        String radius, int limit) {
+        double[] center = GeoUtils.parseLocation(location);
+        if (!isEnabled() || center == null) {
+            return Optional.empty();
+        }
+        double searchRadius = parseInt(radius, DEFAULT_RADIUS);
+        List<Candidate> candidates = collect(queryKey(keywords, types), center[0], center[1], searchRadius);
+        if (candidates == null) {
+            return Optional.empty();
+        }
+        return Optional.of(candidates.stream().limit(limit).map(Candidate::poi).toList());
+    }
+
+    /**
+     * 尝试在本地回答最近N个POI查询，以逐步扩大的搜索半径检查网格覆盖
+     *
+     * @return 按距离排序的POI，附近网格未完整枚举时为空
+     */
+    public Optional<List<PoiModels.PoiInfo>> findNearest(String keywords, String types, String location, int count) {
+        double[] center = GeoUtils.parseLocation(location);
+        if (!isEnabled() || center == null || count <= 0) {
+            return Optional.empty();
+        }
+        String query = queryKey(keywords, types);
+        for (double radius = 500; radius <= 8000; radius *= 2) {
+            List<Candidate> candidates = collect(query, center[0], center[1], radius);
+            if (candidates == null) {
+                return Optional.empty();
+            }
+            if (candidates.size() >= count) {
+                return Optional.of(candidates.stream().limit(count).map(Candidate::poi).toList());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 收集圆内的候选POI，任一网格未完整枚举或已过期时返回null
+     */
+    private List<Candidate> collect(String query, double lng, double lat, double radius) {
+        var config = configProperties.getPoiIndex();
+        List<String> cells = Geohash.coverCircle(lng, lat, radius, config.getPrecision(), config.getMaxCellsPerQuery());
+        if (cells == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        List<Candidate> candidates = new ArrayList<>();
+        for (String cell : cells) {
+            CellCoverage cellCoverage = coverage.get(new CoverageKey(cell, query));
+            if (cellCoverage == null || cellCoverage.coverage() != Coverage.FULL || cellCoverage.expiresAt() < now) {
+                return null;
+            }
+            for (String id : cellCoverage.ids()) {
+                IndexedPoi indexed = poisById.get(id);
+                if (indexed == null || indexed.expiresAt() < now) {
+                    return null;
+                }
+                double distance = GeoUtils.haversine(lng, lat, indexed.lng(), indexed.lat());
+                if (distance <= radius) {
+                    candidates.add(new Candidate(indexed.poi(), distance));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distance));
+        return candidates;
+    }
+
+    /**
+     * 查询网格的覆盖状态
+     *
+     * @return 覆盖状态，未记录或已过期时为空
+     */
+    public Optional<Coverage> coverageOf(String location, String keywords, String types) {
+        double[] point = GeoUtils.parseLocation(location);
+        if (point == null) {
+            return Optional.empty();
+        }
+        String cell = Geohash.encode(point[0], point[1], configProperties.getPoiIndex().getPrecision());
+        CellCoverage cellCoverage = coverage.get(new CoverageKey(cell, queryKey(keywords, types)));
+        if (cellCoverage == null || cellCoverage.expiresAt() < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(cellCoverage.coverage());
+    }
+
+    public Stats stats() {
+        long full = coverage.values().stream().filter(c -> c.coverage() == Coverage.FULL).count();
+        return new Stats(poisById.size(), full, coverage.size() - full);
+    }
+
+    // ====================== 辅助方法 ======================
+
+    /**
+     * 查询条件键：关键字与分类编码归一化后组合
+     */
+    public static String queryKey(String keywords, String types) {
+        return normalize(keywords) + "|" + normalize(types);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private boolean isEnabled() {
+        return configProperties.getPoiIndex().isEnabled();
+    }
+
+    private long expiresAt() {
+        return System.currentTimeMillis() + configProperties.getPoiIndex().getTtl().toMillis();
+    }
+
+    /**
+     * 每写入一定次数清理一次过期数据
+     */
+    private void afterWrite() {
+        if (writes.incrementAndGet() % 256 != 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        poisById.values().removeIf(poi -> poi.expiresAt() < now);
+        coverage.values().removeIf(cell -> cell.expiresAt() < now);
+        logger.debug("POI空间索引清理完成，当前统计: {}", stats());
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.fottas.amapmcpserver.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 多个副本共享的计数器，集群限流用它统计窗口调用数与当日调用数
+ */
+public interface SharedCounters {
+
+    /**
+     * 原子地增加计数并刷新过期时间
+     *
+     * @param key 计数键
+     * @param delta 增量，可以为负
+     * @param ttl 过期时间
+     * @return 增加后的计数
+     */
+    Mono<Long> add(String key, long delta, Duration ttl);
+}
@@ -0,0 +1,76 @@
+package com.fottas.amapmcpserver.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * 工具执行进度
+ * 与AmapTracing相同，进度对象在工具线程上创建后放入Reactor Context向上游传递，
+ * 分片搜索、矩阵构建等扇出操作在每个子请求完成时上报一次进度，并可附带该子请求的部分结果；
+ * 上报在同一把锁内完成，保证进度值单调递增
+ */
+public final class ToolProgress {
+
+    /**
+     * 不上报进度，Context中没有进度对象时使用
+     */
+    public static final ToolProgress NONE = new ToolProgress(null);
+
+    private static final Object KEY = ToolProgress.class;
+
+    /**
+     * 进度监听器
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * @param completed 已完成的子请求数
+         * @param total 当前已知的子请求总数，分片细分时会增大
+         * @param message 进度描述
+         * @param partial 本次完成的部分结果，可能为null
+         */
+        void onProgress(int completed, int total, String message, Object partial);
+    }
+
+    private final Listener listener;
+    private int completed;
+    private int total;
+
+    public ToolProgress(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 增加预期的子请求数
+     */
+    public synchronized void expect(int count) {
+        if (listener != null) {
+            total += count;
+        }
+    }
+
+    /**
+     * 完成一个子请求
+     */
+    public synchronized void advance(String message, Object partial) {
+        if (listener == null) {
+            return;
+        }
+        completed++;
+        listener.onProgress(completed, Math.max(total, completed), message, partial);
+    }
+
+    public <T> Mono<T> bind(Mono<T> source) {
+        return listener == null ? source : source.contextWrite(context -> context.put(KEY, this));
+    }
+
+    public <T> Flux<T> bind(Flux<T> source) {
+        return listener == null ? source : source.contextWrite(context -> context.put(KEY, this));
+    }
+
+    public static ToolProgress from(ContextView context) {
+        return context.getOrDefault(KEY, NONE);
+    }
+}
@@ -0,0 +1,135 @@
+package com.fottas.amapmcpserver.service;
+
+/**
+ * 多点行程顺序求解
+ * 以最近邻构造初始路线，再交替进行2-opt与Or-opt局部搜索直到无法改进；
+ * 代价矩阵可以不对称（驾车往返时间不同），起点固定为第0个点
+ */
+public final class TourSolver {
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_ROUNDS = 200;
+    private static final int MAX_SEGMENT = 3;
+
+    private TourSolver() {
+    }
+
+    /**
+     * 求解访问顺序
+     *
+     * @param cost 按行展开的n×n代价矩阵，cost[i * n + j]为从i到j的代价
+     * @param n 点数量
+     * @param roundTrip 是否需要回到起点
+     * @return 访问顺序，第一个元素固定为0
+     */
+    public static int[] solve(double[] cost, int n, boolean roundTrip) {
+        int[] tour = nearestNeighbour(cost, n);
+        if (n <= 2) {
+            return tour;
+        }
+        int[] scratch = new int[n];
+        double best = tourCost(cost, n, tour, roundTrip);
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            double improved = twoOpt(cost, n, tour, scratch, best, roundTrip);
+            improved = orOpt(cost, n, tour, scratch, improved, roundTrip);
+            if (improved >= best - EPSILON) {
+                break;
+            }
+            best = improved;
+        }
+        return tour;
+    }
+
+    /**
+     * 计算路线总代价
+     */
+    public static double tourCost(double[] cost, int n, int[] tour, boolean roundTrip) {
+        double total = 0;
+        for (int i = 1; i < tour.length; i++) {
+            total += cost[tour[i - 1] * n + tour[i]];
+        }
+        if (roundTrip && tour.length > 1) {
+            total += cost[tour[tour.length - 1] * n + tour[0]];
+        }
+        return total;
+    }
+
+    static int[] nearestNeighbour(double[] cost, int n) {
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int position = 1; position < n; position++) {
+            int from = tour[position - 1];
+            int next = -1;
+            for (int candidate = 0; candidate < n; candidate++) {
+                if (!visited[candidate] && (next < 0 || cost[from * n + candidate] < cost[from * n + next])) {
+                    next = candidate;
+                }
+            }
+            tour[position] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    /**
+     * 2-opt：反转tour[i..j]，矩阵不对称时反转段内部的代价也会变化，因此整体重新计算
+     */
+    private static double twoOpt(double[] cost, int n, int[] tour, int[] scratch, double best, boolean roundTrip) {
+        for (int i = 1; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                System.arraycopy(tour, 0, scratch, 0, n);
+                for (int a = i, b = j; a < b; a++, b--) {
+                    int swap = scratch[a];
+                    scratch[a] = scratch[b];
+                    scratch[b] = swap;
+                }
+                double candidate = tourCost(cost, n, scratch, roundTrip);
+                if (candidate < best - EPSILON) {
+                    System.arraycopy(scratch, 0, tour, 0, n);
+                    best = candidate;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Or-opt：将长度1到3的连续片段整体移动到其他位置
+     */
+    private static double orOpt(double[] cost, int n, int[] tour, int[] scratch, double best, boolean roundTrip) {
+        for (int length = 1; length <= MAX_SEGMENT; length++) {
+            for (int start = 1; start + length <= n; start++) {
+                int remaining = n - length;
+                for (int insert = 1; insert <= remaining; insert++) {
+                    if (insert == start) {
+                        continue;
+                    }
+                    // 先写入去掉片段后的前insert个点，再写片段，最后写剩余的点
+                    int written = 0;
+                    int source = 0;
+                    while (written < insert) {
+                        if (source == start) {
+                            source += length;
+                        }
+                        scratch[written++] = tour[source++];
+                    }
+                    System.arraycopy(tour, start, scratch, written, length);
+                    written += length;
+                    while (written < n) {
+                        if (source == start) {
+                            source += length;
+                        }
+                        scratch[written++] = tour[source++];
+                    }
+                    double candidate = tourCost(cost, n, scratch, roundTrip);
+                    if (candidate < best - EPSILON) {
+                        System.arraycopy(scratch, 0, tour, 0, n);
+                        best = candidate;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+}
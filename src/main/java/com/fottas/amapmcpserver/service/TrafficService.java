@@ -0,0 +1,224 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.geo.GeoUtils;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 交通态势服务
+ * 查询矩形先对齐到固定网格，各网格独立请求并缓存在短TTL的trafficCache中，
+ * 多个会话的重叠查询因此共享同一批上游请求；网格结果合并后按道路去重，并重新计算整体评价
+ */
+@Service
+public class TrafficService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrafficService.class);
+
+    /**
+     * 道路状态：0-未知，1-畅通，2-缓行，3-拥堵
+     */
+    private static final int STATUS_COUNT = 4;
+
+    /**
+     * 合并后的道路
+     */
+    public record Road(String name, String direction, int status, String speed, String polyline, double length) {
+    }
+
+    /**
+     * 合并后的交通态势
+     *
+     * @param roads 位于查询矩形内的道路，拥堵程度高的在前
+     * @param totalRoads 截断前的道路数量
+     * @param shares 按道路长度计算的各状态占比，下标即状态值
+     * @param tiles 涉及的网格数量
+     * @param failedTiles 查询失败的网格数量，占比只按成功的网格计算
+     */
+    public record TrafficSummary(List<Road> roads, int totalRoads, double[] shares, int tiles, int failedTiles) {
+
+        /**
+         * 是否所有网格都查询成功
+         */
+        public boolean complete() {
+            return failedTiles == 0;
+        }
+    }
+
+    /**
+     * 对齐后的网格
+     */
+    record Tile(long column, long row) {
+
+        String rectangle(double size) {
+            return GeoUtils.formatLocation(column * size, row * size) + ";"
+                    + GeoUtils.formatLocation((column + 1) * size, (row + 1) * size);
+        }
+    }
+
+    private final AmapApiService amapApiService;
+    private final AmapConfigProperties configProperties;
+
+    public TrafficService(AmapApiService amapApiService, AmapConfigProperties configProperties) {
+        this.amapApiService = amapApiService;
+        this.configProperties = configProperties;
+    }
+
+    /**
+     * 查询矩形区域交通态势
+     *
+     * @param rectangle 矩形对角顶点，格式：经度,纬度;经度,纬度（也支持以|分隔）
+     * @param level 道路等级，为空时默认5
+     */
+    public Mono<TrafficSummary> rectangle(String rectangle, String level) {
+        var config = configProperties.getTraffic();
+        double[] bounds = parseRectangle(rectangle);
+        if (bounds == null) {
+            return Mono.error(new IllegalArgumentException("矩形区域格式错误: " + rectangle));
+        }
+        List<Tile> tiles = tiles(bounds, config.getTileSizeDegrees());
+        if (tiles.size() > config.getMaxTiles()) {
+            return Mono.error(new IllegalArgumentException("查询范围过大，涉及" + tiles.size() + "个网格，最多" + config.getMaxTiles() + "个"));
+        }
+        String roadLevel = level == null || level.isBlank() ? "5" : level.trim();
+
+        return Flux.fromIterable(tiles)
+                .flatMap(tile -> amapApiService.trafficRectangle(new AmapOtherModels.TrafficRectangleRequest(
+                                        tile.rectangle(config.getTileSizeDegrees()), roadLevel))
+                                .filter(AmapOtherModels.TrafficResponse::isSuccess)
+                                .onErrorResume(error -> {
+                                    logger.warn("交通态势网格查询失败，网格: {}, 错误: {}", tile, error.getMessage());
+                                    return Mono.empty();
+                                }),
+                        config.getConcurrency())
+                .collectList()
+                .map(responses -> {
+                    if (responses.size() < tiles.size()) {
+                        logger.warn("交通态势结果不完整，{}个网格中{}个查询失败", tiles.size(), tiles.size() - responses.size());
+                    }
+                    return merge(responses, bounds, tiles.size(), config.getMaxRoads());
+                });
+    }
+
+    // ====================== 网格方法 ======================
+
+    /**
+     * 解析矩形，返回[最小经度, 最小纬度, 最大经度, 最大纬度]，格式错误时返回null
+     */
+    static double[] parseRectangle(String rectangle) {
+        if (rectangle == null) {
+            return null;
+        }
+        String[] corners = rectangle.split("[;|]");
+        if (corners.length != 2) {
+            return null;
+        }
+        double[] a = GeoUtils.parseLocation(corners[0]);
+        double[] b = GeoUtils.parseLocation(corners[1]);
+        if (a == null || b == null) {
+            return null;
+        }
+        return new double[]{Math.min(a[0], b[0]), Math.min(a[1], b[1]), Math.max(a[0], b[0]), Math.max(a[1], b[1])};
+    }
+
+    static List<Tile> tiles(double[] bounds, double size) {
+        long minColumn = (long) Math.floor(bounds[0] / size);
+        long maxColumn = (long) Math.floor(bounds[2] / size);
+        long minRow = (long) Math.floor(bounds[1] / size);
+        long maxRow = (long) Math.floor(bounds[3] / size);
+        List<Tile> tiles = new ArrayList<>();
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long column = minColumn; column <= maxColumn; column++) {
+                tiles.add(new Tile(column, row));
+            }
+        }
+        return tiles;
+    }
+
+    // ====================== 合并方法 ======================
+
+    /**
+     * 合并各网格的道路：相邻网格会返回同一路段，按名称、方向和坐标去重；只保留与查询矩形相交的路段
+     *
+     * @param responses 查询成功的网格结果
+     * @param tiles 涉及的网格数量
+     */
+    static TrafficSummary merge(List<AmapOtherModels.TrafficResponse> responses, double[] bounds, int tiles, int maxRoads) {
+        Map<String, Road> roads = new LinkedHashMap<>();
+        for (AmapOtherModels.TrafficResponse response : responses) {
+            if (response.getTrafficinfo() == null || response.getTrafficinfo().getRoads() == null) {
+                continue;
+            }
+            for (AmapOtherModels.TrafficRoad road : response.getTrafficinfo().getRoads()) {
+                String key = road.nameText() + "|" + road.getDirection() + "|" + road.getPolyline();
+                if (roads.containsKey(key)) {
+                    continue;
+                }
+                double length = lengthWithin(road.getPolyline(), bounds);
+                if (length < 0) {
+                    continue;
+                }
+                roads.put(key, new Road(road.nameText(), road.getDirection(), parseStatus(road.getStatus()),
+                        road.getSpeed(), road.getPolyline(), length));
+            }
+        }
+
+        double[] shares = new double[STATUS_COUNT];
+        double total = 0;
+        for (Road road : roads.values()) {
+            shares[road.status()] += road.length();
+            total += road.length();
+        }
+        for (int i = 0; i < STATUS_COUNT && total > 0; i++) {
+            shares[i] /= total;
+        }
+
+        List<Road> sorted = new ArrayList<>(roads.values());
+        sorted.sort(Comparator.comparingInt(Road::status).reversed().thenComparing(Comparator.comparingDouble(Road::length).reversed()));
+        List<Road> limited = sorted.size() > maxRoads ? sorted.subList(0, maxRoads) : sorted;
+        return new TrafficSummary(List.copyOf(limited), sorted.size(), shares, tiles, tiles - responses.size());
+    }
+
+    /**
+     * 计算路段长度，路段与矩形不相交时返回-1
+     */
+    private static double lengthWithin(String polyline, double[] bounds) {
+        if (polyline == null || polyline.isBlank()) {
+            return -1;
+        }
+        String[] points = polyline.split(";");
+        boolean intersects = false;
+        double length = 0;
+        double[] previous = null;
+        for (String text : points) {
+            double[] point = GeoUtils.parseLocation(text);
+            if (point == null) {
+                continue;
+            }
+            intersects |= point[0] >= bounds[0] && point[0] <= bounds[2] && point[1] >= bounds[1] && point[1] <= bounds[3];
+            if (previous != null) {
+                length += GeoUtils.haversine(previous[0], previous[1], point[0], point[1]);
+            }
+            previous = point;
+        }
+        return intersects ? length : -1;
+    }
+
+    private static int parseStatus(String status) {
+        if (status == null || status.length() != 1) {
+            return 0;
+        }
+        int value = status.charAt(0) - '0';
+        return value >= 0 && value < STATUS_COUNT ? value : 0;
+    }
+}
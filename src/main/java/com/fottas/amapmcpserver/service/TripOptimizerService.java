@@ -0,0 +1,236 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.geo.GeoUtils;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 多点行程优化服务
+ * 通过距离测量接口构建站点间的通行时间矩阵（每个单元格独立缓存），再由TourSolver求解访问顺序
+ */
+@Service
+public class TripOptimizerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TripOptimizerService.class);
+
+    /**
+     * 矩阵单元格缓存键前缀
+     */
+    private static final String CELL_KEY_PREFIX = "trip_cell:";
+
+    /**
+     * 接口失败时估算通行时间使用的速度（米/秒）与绕行系数
+     */
+    private static final double DRIVING_SPEED = 30 / 3.6;
+    private static final double WALKING_SPEED = 4.5 / 3.6;
+    private static final double DETOUR_FACTOR = 1.4;
+
+    /**
+     * 单段行程
+     *
+     * @param distance 距离（米）
+     * @param duration 时间（秒）
+     * @param estimated 是否为接口失败后的估算值
+     */
+    public record Leg(double distance, double duration, boolean estimated) {
+    }
+
+    /**
+     * 行程优化结果
+     *
+     * @param stops 原始站点
+     * @param order 访问顺序（原始站点下标），第一个为起点
+     * @param legs 依次到达每个站点的行程，回到起点时额外包含返程
+     */
+    public record TripPlan(List<String> stops, int[] order, List<Leg> legs, boolean roundTrip) {
+
+        public double totalDistance() {
+            return legs.stream().mapToDouble(Leg::distance).sum();
+        }
+
+        public double totalDuration() {
+            return legs.stream().mapToDouble(Leg::duration).sum();
+        }
+
+        public long estimatedLegs() {
+            return legs.stream().filter(Leg::estimated).count();
+        }
+    }
+
+    private final AmapApiService amapApiService;
+    private final AmapConfigProperties configProperties;
+    private final CacheManager cacheManager;
+
+    public TripOptimizerService(AmapApiService amapApiService, AmapConfigProperties configProperties,
+                                CacheManager cacheManager) {
+        this.amapApiService = amapApiService;
+        this.configProperties = configProperties;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * 优化多点行程的访问顺序
+     *
+     * @param stops 站点坐标，第一个为起点
+     * @param type 距离测量类型：0-直线距离，1-驾车距离，3-步行距离
+     * @param roundTrip 是否需要回到起点
+     */
+    public Mono<TripPlan> optimize(List<String> stops, String type, boolean roundTrip) {
+        var config = configProperties.getTripOptimizer();
+        int n = stops.size();
+        if (n < 2 || n > config.getMaxStops()) {
+            return Mono.error(new IllegalArgumentException("站点数量需要在2到" + config.getMaxStops() + "之间"));
+        }
+        double[][] points = new double[n][];
+        for (int i = 0; i < n; i++) {
+            points[i] = GeoUtils.parseLocation(stops.get(i));
+            if (points[i] == null) {
+                return Mono.error(new IllegalArgumentException("站点坐标格式错误: " + stops.get(i)));
+            }
+        }
+
+        String mode = type == null || type.isBlank() ? "1" : type.trim();
+        Leg[] matrix = new Leg[n * n];
+        return fillMatrix(stops, points, mode, matrix)
+                .then(Mono.fromCallable(() -> solve(stops, points, mode, matrix, roundTrip)));
+    }
+
+    // ====================== 矩阵构建 ======================
+
+    /**
+     * 按终点分组补齐缺失的单元格：同一终点的全部缺失起点合并为一次距离测量请求
+     */
+    private Mono<Void> fillMatrix(List<String> stops, double[][] points, String mode, Leg[] matrix) {
+        int n = stops.size();
+        Cache cache = cacheManager.getCache("tripLegCache");
+        List<Integer> pendingDestinations = new ArrayList<>();
+        for (int dest = 0; dest < n; dest++) {
+            boolean pending = false;
+            for (int origin = 0; origin < n; origin++) {
+                if (origin == dest) {
+                    matrix[origin * n + dest] = new Leg(0, 0, false);
+                } else if ("0".equals(mode)) {
+                    double distance = GeoUtils.haversine(points[origin][0], points[origin][1], points[dest][0], points[dest][1]);
+                    matrix[origin * n + dest] = new Leg(distance, 0, false);
+                } else {
+                    Leg cached = cache != null ? cache.get(cellKey(mode, stops.get(origin), stops.get(dest)), Leg.class) : null;
+                    matrix[origin * n + dest] = cached;
+                    pending |= cached == null;
+                }
+            }
+            if (pending) {
+                pendingDestinations.add(dest);
+            }
+        }
+        if (pendingDestinations.isEmpty()) {
+            return Mono.empty();
+        }
+
+        logger.info("行程优化需要查询{}个终点的距离矩阵列，站点数量: {}", pendingDestinations.size(), n);
+        return Mono.deferContextual(context -> {
+            ToolProgress progress = ToolProgress.from(context);
+            progress.expect(pendingDestinations.size());
+            return Flux.fromIterable(pendingDestinations)
+                    .flatMap(dest -> fillColumn(stops, mode, matrix, dest, cache)
+                            .doOnSuccess(ignored -> progress.advance("距离矩阵列完成，终点: " + stops.get(dest), null)),
+                            configProperties.getTripOptimizer().getConcurrency())
+                    .then();
+        });
+    }
+
+    private Mono<Void> fillColumn(List<String> stops, String mode, Leg[] matrix, int dest, Cache cache) {
+        int n = stops.size();
+        int[] origins = IntStream.range(0, n).filter(origin -> matrix[origin * n + dest] == null).toArray();
+        String originText = IntStream.of(origins).mapToObj(stops::get).collect(Collectors.joining("|"));
+        var request = new AmapOtherModels.DistanceRequest(originText, stops.get(dest), mode);
+        return amapApiService.distance(request)
+                .doOnNext(response -> {
+                    if (!response.isSuccess() || response.getResults() == null) {
+                        logger.warn("距离测量失败，终点: {}, 返回信息: {}", stops.get(dest), response.getMessage());
+                        return;
+                    }
+                    for (AmapOtherModels.DistanceInfo info : response.getResults()) {
+                        int position = parseIndex(info.getOriginId()) - 1;
+                        double distance = parseValue(info.getDistance());
+                        double duration = parseValue(info.getDuration());
+                        if (position < 0 || position >= origins.length || distance < 0 || duration < 0) {
+                            continue;
+                        }
+                        int origin = origins[position];
+                        Leg leg = new Leg(distance, duration, false);
+                        matrix[origin * n + dest] = leg;
+                        if (cache != null) {
+                            cache.put(cellKey(mode, stops.get(origin), stops.get(dest)), leg);
+                        }
+                    }
+                })
+                .onErrorResume(error -> {
+                    logger.warn("距离测量失败，终点: {}, 错误: {}", stops.get(dest), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private TripPlan solve(List<String> stops, double[][] points, String mode, Leg[] matrix, boolean roundTrip) {
+        int n = stops.size();
+        double[] cost = new double[n * n];
+        for (int origin = 0; origin < n; origin++) {
+            for (int dest = 0; dest < n; dest++) {
+                int cell = origin * n + dest;
+                if (matrix[cell] == null) {
+                    matrix[cell] = estimate(points[origin], points[dest], mode);
+                }
+                // 直线距离模式没有时间，按距离求解
+                cost[cell] = "0".equals(mode) ? matrix[cell].distance() : matrix[cell].duration();
+            }
+        }
+
+        int[] order = TourSolver.solve(cost, n, roundTrip);
+        List<Leg> legs = new ArrayList<>(n);
+        for (int i = 1; i < n; i++) {
+            legs.add(matrix[order[i - 1] * n + order[i]]);
+        }
+        if (roundTrip) {
+            legs.add(matrix[order[n - 1] * n + order[0]]);
+        }
+        return new TripPlan(stops, order, legs, roundTrip);
+    }
+
+    private static Leg estimate(double[] from, double[] to, String mode) {
+        double distance = GeoUtils.haversine(from[0], from[1], to[0], to[1]) * DETOUR_FACTOR;
+        double speed = "3".equals(mode) ? WALKING_SPEED : DRIVING_SPEED;
+        return new Leg(distance, distance / speed, true);
+    }
+
+    private static String cellKey(String mode, String origin, String dest) {
+        return CELL_KEY_PREFIX + mode + ":" + origin + ":" + dest;
+    }
+
+    private static int parseIndex(String value) {
+        try {
+            return value == null ? -1 : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static double parseValue(String value) {
+        try {
+            return value == null ? -1 : Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package com.fottas.amapmcpserver.tools;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fottas.amapmcpserver.geo.GeoUtils;
 import com.fottas.amapmcpserver.model.*;
 import com.fottas.amapmcpserver.service.AmapApiService;
+import com.fottas.amapmcpserver.service.AmapTracing;
+import com.fottas.amapmcpserver.service.DistrictIndex;
+import com.fottas.amapmcpserver.service.DistrictIndexService;
+import com.fottas.amapmcpserver.service.IsochroneService;
+import com.fottas.amapmcpserver.service.OfflineRegeoService;
+import com.fottas.amapmcpserver.service.PoiFanoutService;
+import com.fottas.amapmcpserver.service.PoiSpatialIndex;
+import com.fottas.amapmcpserver.service.ToolProgress;
+import com.fottas.amapmcpserver.service.TrafficService;
+import com.fottas.amapmcpserver.service.TripOptimizerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +26,7 @@ import reactor.core.publisher.Mono;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 高德地图MCP工具实现 - 严格按照MCP工具文档
@@ -24,12 +37,49 @@ public class AmapMcpTools {
 
     private static final Logger logger = LoggerFactory.getLogger(AmapMcpTools.class);
 
+    /**
+     * POI搜索2.0默认每页数量与最大每页数量
+     */
+    private static final int DEFAULT_POI_PAGE_SIZE = 10;
+    private static final int MAX_POI_PAGE_SIZE = 25;
+
+    /**
+     * 路线工具返回内容参数的说明
+     */
+    private static final String PROJECTION_DESCRIPTION = "返回内容：summary-只返回每条路线的距离与时间，steps-额外返回分步导航（默认），"
+            + "compact-合并同一道路上的连续步骤并省略次要明细，geometry-额外返回路线坐标串";
+    private static final String MAX_TOKENS_DESCRIPTION = "返回结果的大致token上限，超出时按compact合并步骤并省略中间步骤（公交省略靠后的方案）";
+
     @Autowired
     private AmapApiService amapApiService;
     
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private DistrictIndexService districtIndexService;
+
+    @Autowired
+    private OfflineRegeoService offlineRegeoService;
+
+    @Autowired
+    private PoiSpatialIndex poiSpatialIndex;
+
+    @Autowired
+    private PoiFanoutService poiFanoutService;
+
+    @Autowired
+    private TripOptimizerService tripOptimizerService;
+
+    @Autowired
+    private IsochroneService isochroneService;
+
+    @Autowired
+    private TrafficService trafficService;
+
+    @Autowired
+    private AmapTracing tracing;
+
     // ====================== 地理编码工具 ======================
 
     @Tool(name = "maps_geo", description = "将详细的结构化地址转换为经纬度坐标。支持对地标性名胜景区、建筑物名称解析为经纬度坐标")
@@ -40,19 +90,31 @@ public class AmapMcpTools {
                 AmapMcpTools.this::convertGeocodingResponse);
     }
 
-    @Tool(name = "maps_regeocode", description = "将一个高德经纬度坐标转换为行政区划地址信息")
-    public McpResponseModels.ReverseGeocodingResult mapsRegeocode(@ToolParam(description = "经纬度") String location) {
+    @Tool(name = "maps_regeocode", description = "将一个高德经纬度坐标转换为行政区划地址信息，默认只返回到区县，需要时可返回乡镇街道、街道门牌与结构化地址")
+    public McpResponseModels.ReverseGeocodingResult mapsRegeocode(@ToolParam(description = "经纬度") String location,
+                                                                  @ToolParam(description = "是否返回乡镇街道级信息，默认否", required = false) Boolean street) {
+        // 只需要省/市/区县时优先由本地行政区边界解析，乡镇街道级信息只能由高德接口返回
+        boolean streetLevel = Boolean.TRUE.equals(street);
+        if (!streetLevel) {
+            var located = offlineRegeoService.locate(location);
+            if (located.isPresent()) {
+                logger.info("执行逆地理编码工具（离线），关键信息: {}", location);
+                return convertLocatedDistrict(located.get());
+            }
+        }
         return executeApiCall("逆地理编码", location,
                 () -> amapApiService.reverseGeocoding(new AmapApiModels.ReverseGeocodingRequest(location)),
-                this::convertReverseGeocodingResponse);
+                response -> convertReverseGeocodingResponse(response, streetLevel));
     }
 
     // ====================== POI搜索工具 ======================
 
-    @Tool(name = "maps_text_search", description = "关键字搜索 API 根据用户输入的关键字进行 POI 搜索，并返回相关的信息")
+    @Tool(name = "maps_text_search", description = "关键字搜索 API 根据用户输入的关键字进行 POI 搜索，并返回相关的信息；自动翻页时complete为false表示结果不完整，failed_pages为查询失败的页码，truncated表示达到翻页上限，limited表示达到结果数上限")
     public McpResponseModels.PoiSearchResult mapsTextSearch(@ToolParam(description = "查询关键字") String keywords,
                                 @ToolParam(description = "搜索区划 增加指定区域内数据召回权重，如需严格限制召回数据在区域内，请搭配使用city_limit参数，可输入citycode，adcode，cityname；cityname仅支持到城市级别，如“北京市”。") String region,
-                                @ToolParam(description = "是否限制城市范围内搜索，默认不限制") Boolean citylimit) {
+                                @ToolParam(description = "是否限制城市范围内搜索，默认不限制") Boolean citylimit,
+                                @ToolParam(description = "是否自动翻页返回全部结果（最多200条），默认只返回第一页", required = false) Boolean fetchAll,
+                                ToolContext toolContext) {
         var request = PoiModels.PoiTextSearchRequest.builder()
                 .keywords(keywords)
                 .region(region)
@@ -60,6 +122,12 @@ public class AmapMcpTools {
                 .show_fields("business,photos")
                 .build();
 
+        if (Boolean.TRUE.equals(fetchAll)) {
+            return executeFanout("关键字搜索（自动翻页）", keywords, McpToolProgress.open(toolContext, this::convertPartialPois),
+                    () -> poiFanoutService.textSearchAll(request),
+                    this::convertPoiTextSearch);
+        }
+
         return executeApiCall("关键字搜索", keywords,
                 () -> amapApiService.poiTextSearch(request),
                 this::convertPoiTextSearchResponse);
@@ -69,6 +137,15 @@ public class AmapMcpTools {
     public McpResponseModels.PoiAroundResult mapsAroundSearch(@ToolParam(description = "搜索关键词") String keywords,
                                   @ToolParam(description = "中心点经度纬度") String location,
                                   @ToolParam(description = "搜索半径") String radius) {
+        // 搜索范围已被完整枚举过时直接由本地索引回答
+        var local = poiSpatialIndex.findAround(keywords, null, location, radius, DEFAULT_POI_PAGE_SIZE);
+        if (local.isPresent()) {
+            logger.info("执行周边搜索工具（本地索引），关键信息: {}", location);
+            var result = new McpResponseModels.PoiAroundResult();
+            result.setPois(convertPoiList(local.get()));
+            return result;
+        }
+
         var request = PoiModels.PoiAroundSearchRequest.builder()
                 .location(location)
                 .keywords(keywords)
@@ -80,6 +157,42 @@ public class AmapMcpTools {
                 this::convertPoiAroundSearchResponse);
     }
 
+    @Tool(name = "maps_nearest_poi", description = "查询距离指定坐标最近的若干个POI，按距离由近到远排序")
+    public McpResponseModels.PoiAroundResult mapsNearestPoi(@ToolParam(description = "搜索关键词") String keywords,
+                                                            @ToolParam(description = "中心点经度纬度") String location,
+                                                            @ToolParam(description = "返回数量，最大25，默认10", required = false) Integer count) {
+        int limit = count == null || count <= 0 ? DEFAULT_POI_PAGE_SIZE : Math.min(count, MAX_POI_PAGE_SIZE);
+        var local = poiSpatialIndex.findNearest(keywords, null, location, limit);
+        if (local.isPresent()) {
+            logger.info("执行最近POI查询工具（本地索引），关键信息: {}", location);
+            var result = new McpResponseModels.PoiAroundResult();
+            result.setPois(convertPoiList(local.get()));
+            return result;
+        }
+
+        var request = PoiModels.PoiAroundSearchRequest.builder()
+                .location(location)
+                .keywords(keywords)
+                .radius("50000")
+                .sortrule("distance")
+                .page_size(String.valueOf(limit))
+                .show_fields("business,photos")
+                .build();
+        return executeApiCall("最近POI查询", location,
+                () -> amapApiService.poiAroundSearch(request),
+                this::convertPoiAroundSearchResponse);
+    }
+
+    @Tool(name = "maps_polygon_search", description = "多边形区域搜索，查询多边形范围内的全部POI；大范围会自动拆分为多个分片并行查询并去重合并，适用于行政区、商圈等大面积覆盖分析；complete为false时结果不完整，failed_tiles为查询失败的分片数，truncated_tiles为细分后仍被截断的分片数")
+    public McpResponseModels.PolygonSearchResult mapsPolygonSearch(@ToolParam(description = "多边形坐标，经度和纬度用\",\"分割，坐标对之间用\"|\"分割，只传两个坐标时视为矩形的左上、右下顶点") String polygon,
+                                                                   @ToolParam(description = "搜索关键词") String keywords,
+                                                                   @ToolParam(description = "POI分类编码，多个以\"|\"分割", required = false) String types,
+                                                                   ToolContext toolContext) {
+        return executeFanout("多边形搜索", keywords, McpToolProgress.open(toolContext, this::convertPartialPois),
+                () -> poiFanoutService.polygonSearch(polygon, keywords, types),
+                this::convertPolygonSearch);
+    }
+
     @Tool(name = "maps_search_detail", description = "查询关键词搜或者周边搜获取到的POI ID的详细信息")
     public McpResponseModels.PoiDetailResult mapsSearchDetail(@ToolParam(description = "关键词搜或者周边搜获取到的POI ID") String id) {
         var request = PoiModels.PoiDetailRequest.builder()
@@ -95,51 +208,81 @@ public class AmapMcpTools {
 
     @Tool(name = "maps_direction_driving", description = "驾车路径规划API可以根据用户起终点经纬度坐标规划以小客车、轿车通勤出行的方案，并且返回通勤方案的数据")
     public McpResponseModels.RouteResult mapsDirectionDriving(@ToolParam(description = "出发点经纬度，坐标格式为：经度, 纬度") String origin,
-                                      @ToolParam(description = "目的地经纬度，坐标格式为：经度, 纬度") String destination) {
+                                      @ToolParam(description = "目的地经纬度，坐标格式为：经度, 纬度") String destination,
+                                      @ToolParam(description = PROJECTION_DESCRIPTION, required = false) String projection,
+                                      @ToolParam(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens) {
         var request = new RouteModels.DrivingRouteRequest(origin, destination);
         request.setExtensions("all");
+        var routeProjection = applyProjection(request, projection);
 
         return executeApiCall("驾车路径规划", origin + " -> " + destination,
                 () -> amapApiService.drivingRoute(request),
-                this::convertDrivingRouteResponse);
+                response -> convertDrivingRouteResponse(response, routeProjection, maxTokens));
     }
 
     @Tool(name = "maps_direction_walking", description = "根据输入起点终点经纬度坐标规划100km以内的步行通勤方案，并且返回通勤方案的数据")
     public McpResponseModels.WalkingRouteResult mapsDirectionWalking(@ToolParam(description = "出发点经度，纬度，坐标格式为：经度, 纬度") String origin,
-                                      @ToolParam(description = "目的地经度，纬度，坐标格式为：经度, 纬度") String destination) {
+                                      @ToolParam(description = "目的地经度，纬度，坐标格式为：经度, 纬度") String destination,
+                                      @ToolParam(description = PROJECTION_DESCRIPTION, required = false) String projection,
+                                      @ToolParam(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens) {
         var request = new RouteModels.WalkingRouteRequest(origin, destination);
         request.setExtensions("all");
+        var routeProjection = applyProjection(request, projection);
 
         return executeApiCall("步行路径规划", origin + " -> " + destination,
                 () -> amapApiService.walkingRoute(request),
-                this::convertWalkingRouteResponse);
+                response -> convertWalkingRouteResponse(response, routeProjection, maxTokens));
     }
 
     @Tool(name = "maps_direction_bicycling", description = "骑行路径规划用于规划骑行通勤方案，规划时会考虑天桥、单行线、封路等情况。最大支持 500km 的骑行路线规划")
     public McpResponseModels.RouteResult mapsDirectionBicycling(@ToolParam(description = "出发点经纬度，坐标格式为：经度, 纬度") String origin,
-                                        @ToolParam(description = "目的地经纬度，坐标格式为：经度, 纬度") String destination) {
+                                        @ToolParam(description = "目的地经纬度，坐标格式为：经度, 纬度") String destination,
+                                        @ToolParam(description = PROJECTION_DESCRIPTION, required = false) String projection,
+                                        @ToolParam(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens) {
         var request = new RouteModels.BicyclingRouteRequest(origin, destination);
         request.setExtensions("all");
+        var routeProjection = applyProjection(request, projection);
 
         return executeApiCall("骑行路径规划", origin + " -> " + destination,
                 () -> amapApiService.bicyclingRoute(request),
-                this::convertBicyclingRouteResponse);
+                response -> convertBicyclingRouteResponse(response, routeProjection, maxTokens));
+    }
+
+    @Tool(name = "maps_direction_electrobike", description = "电动车路径规划用于规划电动自行车出行方案，规划时会考虑电动车的限行道路、天桥、单行线、封路等情况，可以返回备选路线")
+    public McpResponseModels.RouteResult mapsDirectionElectrobike(@ToolParam(description = "出发点经纬度，坐标格式为：经度, 纬度") String origin,
+                                                                  @ToolParam(description = "目的地经纬度，坐标格式为：经度, 纬度") String destination,
+                                                                  @ToolParam(description = "备选路线数量，0-只返回一条路线（默认），最多3条", required = false) Integer alternativeRoute,
+                                                                  @ToolParam(description = PROJECTION_DESCRIPTION, required = false) String projection,
+                                                                  @ToolParam(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens) {
+        var request = new RouteModels.ElectricBikeRouteRequest(origin, destination);
+        request.setExtensions("all");
+        if (alternativeRoute != null) {
+            request.setAlternative_route(String.valueOf(Math.max(0, Math.min(alternativeRoute, 3))));
+        }
+        var routeProjection = applyProjection(request, projection);
+
+        return executeApiCall("电动车路径规划", origin + " -> " + destination,
+                () -> amapApiService.electricBikeRoute(request),
+                response -> convertGeneralRouteResponse(response, routeProjection, maxTokens));
     }
 
     @Tool(name = "maps_direction_transit_integrated", description = "根据用户起终点经纬度坐标规划综合各类公共(火车、公交、地铁)交通方式的通勤方案，并且返回通勤方案的数据，跨城场景下必须传起点城市与终点城市")
     public McpResponseModels.TransitRouteResult mapsDirectionTransitIntegrated(@ToolParam(description = "出发点经纬度，坐标格式为：经度, 纬度") String origin,
                                                 @ToolParam(description = "目的地经纬度，坐标格式为：经度, 纬度") String destination,
                                                 @ToolParam(description = "公共交通规划起点城市") String city,
-                                                @ToolParam(description = "公共交通规划终点城市") String cityd) {
+                                                @ToolParam(description = "公共交通规划终点城市") String cityd,
+                                                @ToolParam(description = PROJECTION_DESCRIPTION, required = false) String projection,
+                                                @ToolParam(description = MAX_TOKENS_DESCRIPTION, required = false) Integer maxTokens) {
         var request = new RouteModels.TransitRouteRequest(origin, destination, city);
         if (cityd != null && !cityd.trim().isEmpty()) {
             request.setCityd(cityd);
         }
         request.setExtensions("all");
+        var routeProjection = applyProjection(request, projection);
 
         return executeApiCall("综合交通路径规划", origin + " -> " + destination,
                 () -> amapApiService.transitRoute(request),
-                this::convertTransitRouteResponse);
+                response -> convertTransitRouteResponse(response, routeProjection, maxTokens));
     }
 
     // ====================== 实用工具 ======================
@@ -148,6 +291,14 @@ public class AmapMcpTools {
     public McpResponseModels.DistanceResult mapsDistance(@ToolParam(description = "起点经度，纬度，可以传多个坐标，使用竖线隔离，比如120,30|120,31，坐标格式为:经度，纬度") String origins,
                               @ToolParam(description = "终点经度，纬度，坐标格式为:经度，纬度") String destination,
                               @ToolParam(description = "距离测量类型,1代表驾车距离测量，0代表直线距离测量，3步行距离测量") String type) {
+        // 直线距离本地计算，无需调用高德接口；未指定类型时高德按驾车测量，仍然走接口
+        if (type != null && "0".equals(type.trim())) {
+            var localResult = computeStraightDistance(origins, destination);
+            if (localResult != null) {
+                return localResult;
+            }
+        }
+
         var request = new AmapOtherModels.DistanceRequest(origins, destination, type);
 
         return executeApiCall("距离测量", origins + " -> " + destination,
@@ -155,6 +306,41 @@ public class AmapMcpTools {
                 this::convertDistanceResponse);
     }
 
+    @Tool(name = "maps_optimize_trip", description = "多点行程优化，根据站点间的通行时间计算最优访问顺序，返回排序后的站点及总距离、总时间；第一个站点为起点")
+    public McpResponseModels.TripResult mapsOptimizeTrip(@ToolParam(description = "站点坐标，最多50个，使用竖线隔离，比如120,30|120,31|120.5,30.5，第一个为起点") String stops,
+                                                         @ToolParam(description = "距离测量类型,1代表驾车（默认），0代表直线距离，3代表步行", required = false) String type,
+                                                         @ToolParam(description = "是否回到起点，默认否", required = false) Boolean roundTrip,
+                                                         ToolContext toolContext) {
+        return executeFanout("行程优化", stops, McpToolProgress.open(toolContext, Function.identity()),
+                () -> {
+                    List<String> stopList = Arrays.stream(stops.split("\\|"))
+                            .map(String::trim)
+                            .filter(stop -> !stop.isEmpty())
+                            .toList();
+                    return tripOptimizerService.optimize(stopList, type, Boolean.TRUE.equals(roundTrip));
+                },
+                this::convertTripPlan);
+    }
+
+    @Tool(name = "maps_isochrone", description = "等时圈，估算从指定坐标出发在N分钟内驾车、骑行或步行可到达的范围，返回近似多边形（可直接用于多边形搜索）")
+    public McpResponseModels.IsochroneResult mapsIsochrone(@ToolParam(description = "中心点经度纬度") String location,
+                                                           @ToolParam(description = "时长（分钟）") Integer minutes,
+                                                           @ToolParam(description = "出行方式：driving（默认）、bicycling、walking", required = false) String mode,
+                                                           @ToolParam(description = "最多调用接口次数，默认及上限由服务端配置", required = false) Integer budget,
+                                                           ToolContext toolContext) {
+        return executeFanout("等时圈", location, McpToolProgress.open(toolContext, Function.identity()),
+                () -> isochroneService.compute(location, minutes == null ? 0 : minutes, IsochroneService.Mode.parse(mode), budget),
+                this::convertIsochrone);
+    }
+
+    @Tool(name = "maps_traffic", description = "矩形区域交通态势，返回区域内道路的畅通、缓行、拥堵情况及整体评价，拥堵路段优先返回；部分网格查询失败时complete为false，评价只覆盖成功的网格")
+    public McpResponseModels.TrafficResult mapsTraffic(@ToolParam(description = "矩形区域左下、右上顶点坐标，格式：经度,纬度;经度,纬度") String rectangle,
+                                                       @ToolParam(description = "道路等级，1-高速，2-城市快速路，3-国道，4-省道，5-县道（默认），6-乡公路，返回不高于该等级的道路", required = false) String level) {
+        return executeFanout("交通态势", rectangle, ToolProgress.NONE,
+                () -> trafficService.rectangle(rectangle, level),
+                this::convertTrafficSummary);
+    }
+
     @Tool(name = "maps_weather", description = "根据城市名称或者标准adcode查询指定城市的天气")
     public McpResponseModels.WeatherResult mapsWeather(@ToolParam(description = "城市名称或者adcode") String city) {
         var request = new AmapOtherModels.WeatherRequest(city);
@@ -173,6 +359,27 @@ public class AmapMcpTools {
                 this::convertIpLocationResponse);
     }
 
+    @Tool(name = "maps_district", description = "行政区划查询，根据行政区名称、adcode或citycode查询省、市、区县的层级信息，包括adcode、citycode、中心点和下级行政区")
+    public McpResponseModels.DistrictResult mapsDistrict(@ToolParam(description = "行政区名称、adcode或citycode，为空时查询全国") String keywords,
+                                                         @ToolParam(description = "返回下级行政区的级数，0-不返回，1-返回下一级，2-返回下两级，3-返回下三级，默认1", required = false) String subdistrict) {
+        int depth = parseSubdistrict(subdistrict);
+
+        // 优先使用本地索引，无需网络请求；索引中没有对应区域时仍查询高德接口
+        var index = districtIndexService.currentIndex();
+        var nodes = index.map(districtIndex -> districtIndex.lookup(keywords)).orElse(List.of());
+        if (!nodes.isEmpty()) {
+            logger.info("执行行政区划查询工具（本地索引），关键信息: {}", keywords);
+            var result = new McpResponseModels.DistrictResult();
+            result.setDistricts(convertDistrictNodes(index.get(), nodes, depth));
+            return result;
+        }
+
+        var request = new AmapOtherModels.DistrictRequest(keywords, String.valueOf(depth));
+        return executeApiCall("行政区划查询", keywords,
+                () -> amapApiService.district(request),
+                this::convertDistrictResponse);
+    }
+
     // ====================== Schema工具 ======================
 
     @Tool(name = "maps_schema_navi", description = "Schema唤醒客户端-导航页面，用于根据用户输入终点信息，返回一个拼装好的客户端唤醒URI，用户点击该UR即可唤起对应的客户端APP。唤起客户端后，会自动跳转到导航页面。")
@@ -213,10 +420,10 @@ public class AmapMcpTools {
         try {
             logger.info("执行{}工具，关键信息: {}", apiName, key);
             
-            T response = apiCall.get().block();
+            T response = tracing.propagate(apiCall.get()).block();
 
             if (response != null && response.isSuccess()) {
-                return converter.apply(response);
+                return tracing.observe("amap.tool.convert", () -> converter.apply(response));
             } else {
                 logger.warn("{}-API调用失败，关键信息: {}, 返回信息: {}", apiName, key, response);
                 return null;
@@ -227,9 +434,61 @@ public class AmapMcpTools {
         }
     }
 
+    /**
+     * 执行多次调用高德接口的并发工具：与executeApiCall相同的日志、追踪与异常处理，
+     * 另外将进度上报绑定到并发流程；部分失败由各服务在结果中标记，这里只处理整体失败
+     *
+     * @param progress 进度上报，不上报进度时传ToolProgress.NONE
+     */
+    private <T, R> R executeFanout(String toolName, String key, ToolProgress progress,
+                                   Supplier<Mono<T>> fanout, Function<T, R> converter) {
+        try {
+            logger.info("执行{}工具，关键信息: {}", toolName, key);
+
+            T result = tracing.propagate(progress.bind(fanout.get())).block();
+
+            return result != null ? tracing.observe("amap.tool.convert", () -> converter.apply(result)) : null;
+        } catch (Exception e) {
+            logger.error("{}-工具执行失败", toolName, e);
+            return null;
+        }
+    }
+
+    /**
+     * 本地计算直线距离 - 结构与高德距离测量返回保持一致
+     *
+     * @return 距离结果，坐标格式非法时返回null以交由高德接口处理
+     */
+    private McpResponseModels.DistanceResult computeStraightDistance(String origins, String destination) {
+        double[][] originPoints = GeoUtils.parseLocations(origins);
+        double[] destPoint = GeoUtils.parseLocation(destination);
+        if (originPoints == null || destPoint == null) {
+            return null;
+        }
+
+        int count = originPoints[0].length;
+        double[] distances = new double[count];
+        GeoUtils.haversineBatch(originPoints[0], originPoints[1], count, destPoint[0], destPoint[1], distances);
+
+        List<McpResponseModels.DistanceItem> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            McpResponseModels.DistanceItem item = new McpResponseModels.DistanceItem();
+            item.setOriginId(String.valueOf(i + 1));
+            item.setDestId("1");
+            item.setDistance(String.valueOf(Math.round(distances[i])));
+            item.setDuration("0");
+            results.add(item);
+        }
+
+        var result = new McpResponseModels.DistanceResult();
+        result.setResults(results);
+        logger.debug("直线距离本地计算完成，起点数量: {}", count);
+        return result;
+    }
+
     // ====================== 响应转换方法 - 严格按照MCP工具文档格式 ======================
 
-    private McpResponseModels.GeocodingResult convertGeocodingResponse(AmapApiModels.GeocodingResponse response) {
+    McpResponseModels.GeocodingResult convertGeocodingResponse(AmapApiModels.GeocodingResponse response) {
         var result = new McpResponseModels.GeocodingResult();
         List<McpResponseModels.GeocodingItem> results = new ArrayList<>();
         
@@ -253,7 +512,8 @@ public class AmapMcpTools {
         return result;
     }
 
-    private McpResponseModels.ReverseGeocodingResult convertReverseGeocodingResponse(AmapApiModels.ReverseGeocodingResponse response) {
+    McpResponseModels.ReverseGeocodingResult convertReverseGeocodingResponse(AmapApiModels.ReverseGeocodingResponse response,
+                                                                             boolean streetLevel) {
         var result = new McpResponseModels.ReverseGeocodingResult();
         
         if (response.getRegeocode() != null && response.getRegeocode().getAddressComponent() != null) {
@@ -262,12 +522,33 @@ public class AmapMcpTools {
             result.setProvince(addr.getProvince());
             result.setCity(Collections.emptyList()); // 按照MCP文档，city是空数组
             result.setDistrict(addr.getDistrict());
+            if (streetLevel) {
+                result.setTownship(addr.townshipText());
+                result.setStreet(addr.getStreetNumber() != null ? addr.getStreetNumber().streetText() : null);
+                result.setFormattedAddress(response.getRegeocode().formattedAddressText());
+            }
         }
         
         return result;
     }
 
-    private McpResponseModels.PoiSearchResult convertPoiTextSearchResponse(PoiModels.PoiResponse response) {
+    private McpResponseModels.ReverseGeocodingResult convertLocatedDistrict(List<DistrictIndex.DistrictNode> path) {
+        var result = new McpResponseModels.ReverseGeocodingResult();
+        result.setCountry("中国");
+        result.setProvince("");
+        result.setDistrict("");
+        for (DistrictIndex.DistrictNode node : path) {
+            if ("province".equals(node.level())) {
+                result.setProvince(node.name());
+            } else if ("district".equals(node.level())) {
+                result.setDistrict(node.name());
+            }
+        }
+        result.setCity(Collections.emptyList()); // 与在线结果保持一致
+        return result;
+    }
+
+    McpResponseModels.PoiSearchResult convertPoiTextSearchResponse(PoiModels.PoiResponse response) {
         var result = new McpResponseModels.PoiSearchResult();
         
         // 设置建议信息 - 按照MCP文档格式
@@ -283,13 +564,113 @@ public class AmapMcpTools {
         return result;
     }
 
-    private McpResponseModels.PoiAroundResult convertPoiAroundSearchResponse(PoiModels.PoiResponse response) {
+    private McpResponseModels.PoiSearchResult convertPoiTextSearch(PoiFanoutService.TextSearch search) {
+        var merged = new PoiModels.PoiResponse();
+        merged.setPois(search.pois());
+        var result = convertPoiTextSearchResponse(merged);
+        result.setComplete(search.complete());
+        result.setFailedPages(search.failedPages());
+        result.setTruncated(search.truncated());
+        result.setLimited(search.limited());
+        return result;
+    }
+
+    private McpResponseModels.PolygonSearchResult convertPolygonSearch(PoiFanoutService.PolygonSearch search) {
+        var result = new McpResponseModels.PolygonSearchResult();
+        result.setPois(convertPoiList(search.pois()));
+        result.setCount(result.getPois().size());
+        result.setComplete(search.complete());
+        result.setFailedTiles(search.failedTiles());
+        result.setTruncatedTiles(search.truncatedTiles());
+        return result;
+    }
+
+    McpResponseModels.PoiAroundResult convertPoiAroundSearchResponse(PoiModels.PoiResponse response) {
         var result = new McpResponseModels.PoiAroundResult();
         result.setPois(convertPoiList(response.getPois()));
         return result;
     }
 
-    private McpResponseModels.PoiDetailResult convertPoiDetailResponse(PoiModels.PoiResponse response) {
+    private McpResponseModels.TripResult convertTripPlan(TripOptimizerService.TripPlan plan) {
+        int[] order = plan.order();
+        List<McpResponseModels.TripStop> stops = new ArrayList<>(order.length + 1);
+        for (int i = 0; i <= order.length; i++) {
+            if (i == order.length && !plan.roundTrip()) {
+                break;
+            }
+            int index = i == order.length ? order[0] : order[i];
+            var stop = new McpResponseModels.TripStop();
+            stop.setSequence(i + 1);
+            stop.setInputIndex(index + 1);
+            stop.setLocation(plan.stops().get(index));
+            var leg = i == 0 ? null : plan.legs().get(i - 1);
+            stop.setDistance(String.valueOf(leg == null ? 0 : Math.round(leg.distance())));
+            stop.setDuration(String.valueOf(leg == null ? 0 : Math.round(leg.duration())));
+            stops.add(stop);
+        }
+
+        var result = new McpResponseModels.TripResult();
+        result.setStops(stops);
+        result.setTotalDistance(String.valueOf(Math.round(plan.totalDistance())));
+        result.setTotalDuration(String.valueOf(Math.round(plan.totalDuration())));
+        result.setRoundTrip(plan.roundTrip());
+        result.setEstimatedLegs((int) plan.estimatedLegs());
+        return result;
+    }
+
+    private McpResponseModels.IsochroneResult convertIsochrone(IsochroneService.Isochrone isochrone) {
+        var result = new McpResponseModels.IsochroneResult();
+        result.setLocation(isochrone.location());
+        result.setMinutes(isochrone.minutes());
+        result.setMode(isochrone.mode().name().toLowerCase(Locale.ROOT));
+        double[] ring = isochrone.ring();
+        StringJoiner polygon = new StringJoiner("|");
+        for (int i = 0; i < ring.length; i += 2) {
+            polygon.add(GeoUtils.formatLocation(ring[i], ring[i + 1]));
+        }
+        result.setPolygon(polygon.toString());
+        result.setRequests(isochrone.requests());
+        result.setProbes(isochrone.probes());
+        result.setComplete(isochrone.complete());
+        return result;
+    }
+
+    private McpResponseModels.TrafficResult convertTrafficSummary(TrafficService.TrafficSummary summary) {
+        double[] shares = summary.shares();
+        var evaluation = new McpResponseModels.TrafficEvaluation();
+        evaluation.setUnknown(formatPercent(shares[0]));
+        evaluation.setExpedite(formatPercent(shares[1]));
+        evaluation.setCongested(formatPercent(shares[2]));
+        evaluation.setBlocked(formatPercent(shares[3]));
+
+        List<McpResponseModels.TrafficRoadItem> roads = new ArrayList<>(summary.roads().size());
+        for (TrafficService.Road road : summary.roads()) {
+            var item = new McpResponseModels.TrafficRoadItem();
+            item.setName(road.name());
+            item.setStatus(String.valueOf(road.status()));
+            item.setDirection(road.direction());
+            item.setSpeed(road.speed());
+            item.setPolyline(road.polyline());
+            roads.add(item);
+        }
+
+        var result = new McpResponseModels.TrafficResult();
+        result.setDescription(String.format("畅通%s，缓行%s，拥堵%s", evaluation.getExpedite(),
+                evaluation.getCongested(), evaluation.getBlocked()));
+        result.setEvaluation(evaluation);
+        result.setRoadCount(summary.totalRoads());
+        result.setRoads(roads);
+        result.setTiles(summary.tiles());
+        result.setFailedTiles(summary.failedTiles());
+        result.setComplete(summary.complete());
+        return result;
+    }
+
+    private static String formatPercent(double share) {
+        return String.format("%.2f%%", share * 100);
+    }
+
+    McpResponseModels.PoiDetailResult convertPoiDetailResponse(PoiModels.PoiResponse response) {
         var result = new McpResponseModels.PoiDetailResult();
         
         if (response.getPois() != null && !response.getPois().isEmpty()) {
@@ -313,6 +694,14 @@ public class AmapMcpTools {
         return result;
     }
 
+    /**
+     * 进度通知中的部分结果与最终结果使用相同的POI格式
+     */
+    @SuppressWarnings("unchecked")
+    private Object convertPartialPois(Object partial) {
+        return convertPoiList((List<PoiModels.PoiInfo>) partial);
+    }
+
     private List<McpResponseModels.PoiItem> convertPoiList(List<PoiModels.PoiInfo> pois) {
         List<McpResponseModels.PoiItem> items = new ArrayList<>();
         if (pois != null) {
@@ -330,45 +719,54 @@ public class AmapMcpTools {
         return items;
     }
 
-    private McpResponseModels.RouteResult convertDrivingRouteResponse(RouteModels.RouteResponse response) {
-        return convertGeneralRouteResponse(response);
+    McpResponseModels.RouteResult convertDrivingRouteResponse(RouteModels.RouteResponse response, RouteModels.Projection projection,
+                                                              Integer maxTokens) {
+        return convertGeneralRouteResponse(response, projection, maxTokens);
     }
 
-    private McpResponseModels.RouteResult convertBicyclingRouteResponse(RouteModels.RouteResponse response) {
-        return convertGeneralRouteResponse(response);
+    McpResponseModels.RouteResult convertBicyclingRouteResponse(RouteModels.RouteResponse response, RouteModels.Projection projection,
+                                                                Integer maxTokens) {
+        return convertGeneralRouteResponse(response, projection, maxTokens);
     }
 
-    // 通用路线转换方法（驾车、骑行共用）
-    private McpResponseModels.RouteResult convertGeneralRouteResponse(RouteModels.RouteResponse response) {
+    // 通用路线转换方法（驾车、骑行、电动车共用）
+    McpResponseModels.RouteResult convertGeneralRouteResponse(RouteModels.RouteResponse response, RouteModels.Projection projection,
+                                                              Integer maxTokens) {
         var result = new McpResponseModels.RouteResult();
 
         if (response.getRoute() != null) {
             var routeData = response.getRoute();
             result.setOrigin(routeData.getOrigin());
             result.setDestination(routeData.getDestination());
+            Integer pathBudget = pathBudget(maxTokens, result, routeData.getPaths());
 
             List<McpResponseModels.RoutePath> paths = new ArrayList<>();
             if (routeData.getPaths() != null) {
                 for (RouteModels.Path path : routeData.getPaths()) {
                     McpResponseModels.RoutePath routePath = new McpResponseModels.RoutePath();
-                    routePath.setPath(""); // 根据需要可以设置polyline
+                    routePath.setPath(projection.includesGeometry() ? joinPolylines(path.getSteps()) : "");
                     routePath.setDistance(path.getDistance());
-                    routePath.setDuration(path.getCost() != null ? path.getCost().getDuration() : "0");
+                    routePath.setDuration(durationOf(path.getCost(), path.getDuration()));
 
                     // 转换步骤信息
-                    List<McpResponseModels.RouteStep> steps = new ArrayList<>();
-                    if (path.getSteps() != null) {
-                        for (RouteModels.Step step : path.getSteps()) {
-                            McpResponseModels.RouteStep routeStep = new McpResponseModels.RouteStep();
-                            routeStep.setInstruction(step.getInstruction());
-                            routeStep.setRoad(step.getRoadName() != null ? step.getRoadName() : "");
-                            routeStep.setDistance(step.getStepDistance());
-                            routeStep.setOrientation(step.getOrientation());
-                            routeStep.setDuration(step.getCost() != null ? step.getCost().getDuration() : "0");
-                            steps.add(routeStep);
+                    if (projection.includesSteps()) {
+                        List<McpResponseModels.RouteStep> steps = new ArrayList<>();
+                        if (path.getSteps() != null) {
+                            for (RouteModels.Step step : path.getSteps()) {
+                                McpResponseModels.RouteStep routeStep = new McpResponseModels.RouteStep();
+                                routeStep.setInstruction(step.getInstruction());
+                                routeStep.setRoad(step.getRoadName() != null ? step.getRoadName() : "");
+                                routeStep.setDistance(step.getStepDistance());
+                                routeStep.setOrientation(step.getOrientation());
+                                routeStep.setDuration(durationOf(step.getCost(), step.getDuration()));
+                                steps.add(routeStep);
+                            }
+                        }
+                        if (projection.isCompact() || maxTokens != null) {
+                            steps = compactSteps(steps, stepBudget(pathBudget, routePath));
                         }
+                        routePath.setSteps(steps);
                     }
-                    routePath.setSteps(steps);
                     paths.add(routePath);
                 }
             }
@@ -378,7 +776,55 @@ public class AmapMcpTools {
         return result;
     }
 
-    private McpResponseModels.WalkingRouteResult convertWalkingRouteResponse(RouteModels.RouteResponse response) {
+    // 分步坐标串首尾相接，拼接为整条路线的坐标串
+    private static String joinPolylines(List<RouteModels.Step> steps) {
+        if (steps == null) {
+            return "";
+        }
+        return steps.stream()
+                .map(RouteModels.Step::getPolyline)
+                .filter(polyline -> polyline != null && !polyline.isEmpty())
+                .collect(Collectors.joining(";"));
+    }
+
+    // 精简模式合并连续步骤，给定预算时再截断
+    private static List<McpResponseModels.RouteStep> compactSteps(List<McpResponseModels.RouteStep> steps, Integer stepBudget) {
+        var merged = RouteStepCompactor.merge(steps);
+        return stepBudget == null ? merged : RouteStepCompactor.fit(merged, stepBudget);
+    }
+
+    // 预算扣除结果本身的字段后平均分给各条路线
+    private static Integer pathBudget(Integer maxTokens, Object result, List<?> paths) {
+        if (maxTokens == null) {
+            return null;
+        }
+        int count = paths == null || paths.isEmpty() ? 1 : paths.size();
+        return (maxTokens - RouteStepCompactor.estimateTokens(result)) / count;
+    }
+
+    // 路线的预算再扣除距离、时间等字段，剩余部分留给步骤；需要在设置步骤之前调用
+    private static Integer stepBudget(Integer pathBudget, Object path) {
+        return pathBudget == null ? null : pathBudget - RouteStepCompactor.estimateTokens(path);
+    }
+
+    // 投影同时决定请求的show_fields与响应解析视图
+    private static RouteModels.Projection applyProjection(RouteModels.BaseRouteRequest request, String projection) {
+        var routeProjection = RouteModels.Projection.parse(projection);
+        request.setProjection(routeProjection);
+        request.setShow_fields(routeProjection.getShowFields());
+        return routeProjection;
+    }
+
+    // 驾车时间在cost对象中，骑行、电动车时间直接在路线或步骤上
+    private static String durationOf(RouteModels.Cost cost, String duration) {
+        if (cost != null && cost.getDuration() != null) {
+            return cost.getDuration();
+        }
+        return duration != null ? duration : "0";
+    }
+
+    McpResponseModels.WalkingRouteResult convertWalkingRouteResponse(RouteModels.RouteResponse response, RouteModels.Projection projection,
+                                                                     Integer maxTokens) {
         var result = new McpResponseModels.WalkingRouteResult();
         var route = new McpResponseModels.WalkingRoute();
 
@@ -386,28 +832,47 @@ public class AmapMcpTools {
             var routeData = response.getRoute();
             route.setOrigin(routeData.getOrigin());
             route.setDestination(routeData.getDestination());
+            Integer pathBudget = pathBudget(maxTokens, route, routeData.getPaths());
 
             List<McpResponseModels.WalkingPath> paths = new ArrayList<>();
             if (routeData.getPaths() != null) {
                 for (RouteModels.Path path : routeData.getPaths()) {
                     McpResponseModels.WalkingPath walkingPath = new McpResponseModels.WalkingPath();
                     walkingPath.setDistance(safeParseInt(path.getDistance()));
-                    walkingPath.setDuration(path.getCost() != null ? safeParseInt(path.getCost().getDuration()) : 0);
+                    walkingPath.setDuration(safeParseInt(durationOf(path.getCost(), path.getDuration())));
+                    if (projection.includesGeometry()) {
+                        walkingPath.setPolyline(joinPolylines(path.getSteps()));
+                    }
 
-                    // 转换步行步骤
-                    List<McpResponseModels.WalkingStep> steps = new ArrayList<>();
-                    if (path.getSteps() != null) {
-                        for (RouteModels.Step step : path.getSteps()) {
+                    // 精简模式借用通用步骤合并后再转换
+                    if (projection.includesSteps() && (projection.isCompact() || maxTokens != null)) {
+                        List<McpResponseModels.WalkingStep> steps = new ArrayList<>();
+                        for (var routeStep : compactSteps(convertRouteSteps(path.getSteps()), stepBudget(pathBudget, walkingPath))) {
                             McpResponseModels.WalkingStep walkingStep = new McpResponseModels.WalkingStep();
-                            walkingStep.setInstruction(step.getInstruction());
-                            walkingStep.setRoad(step.getRoadName() != null ? step.getRoadName() : "");
-                            walkingStep.setDistance(safeParseInt(step.getStepDistance()));
-                            walkingStep.setOrientation(step.getOrientation());
-                            walkingStep.setDuration(step.getCost() != null ? safeParseInt(step.getCost().getDuration()) : 0);
+                            walkingStep.setInstruction(routeStep.getInstruction());
+                            walkingStep.setRoad(routeStep.getRoad());
+                            walkingStep.setDistance(safeParseInt(routeStep.getDistance()));
+                            walkingStep.setOrientation(routeStep.getOrientation());
+                            walkingStep.setDuration(safeParseInt(routeStep.getDuration()));
                             steps.add(walkingStep);
                         }
+                        walkingPath.setSteps(steps);
+                    } else if (projection.includesSteps()) {
+                        // 转换步行步骤
+                        List<McpResponseModels.WalkingStep> steps = new ArrayList<>();
+                        if (path.getSteps() != null) {
+                            for (RouteModels.Step step : path.getSteps()) {
+                                McpResponseModels.WalkingStep walkingStep = new McpResponseModels.WalkingStep();
+                                walkingStep.setInstruction(step.getInstruction());
+                                walkingStep.setRoad(step.getRoadName() != null ? step.getRoadName() : "");
+                                walkingStep.setDistance(safeParseInt(step.getStepDistance()));
+                                walkingStep.setOrientation(step.getOrientation());
+                                walkingStep.setDuration(safeParseInt(durationOf(step.getCost(), step.getDuration())));
+                                steps.add(walkingStep);
+                            }
+                        }
+                        walkingPath.setSteps(steps);
                     }
-                    walkingPath.setSteps(steps);
                     paths.add(walkingPath);
                 }
             }
@@ -419,7 +884,9 @@ public class AmapMcpTools {
     }
 
     // 重写公交路线转换方法 - 不再使用默认值
-    private McpResponseModels.TransitRouteResult convertTransitRouteResponse(RouteModels.TransitRouteResponse response) {
+    McpResponseModels.TransitRouteResult convertTransitRouteResponse(RouteModels.TransitRouteResponse response,
+                                                                     RouteModels.Projection projection, Integer maxTokens) {
+        boolean compact = projection.isCompact() || maxTokens != null;
         var result = new McpResponseModels.TransitRouteResult();
 
         if (response.getRoute() != null) {
@@ -437,41 +904,53 @@ public class AmapMcpTools {
                     transitRoute.setWalkingDistance(transit.getWalkingDistance());
 
                     // 转换路段信息
-                    List<McpResponseModels.TransitSegment> segments = new ArrayList<>();
-                    if (transit.getSegments() != null) {
-                        for (RouteModels.Segment segment : transit.getSegments()) {
-                            McpResponseModels.TransitSegment mcpSegment = new McpResponseModels.TransitSegment();
-
-                            // 转换步行信息
-                            if (segment.getWalking() != null) {
-                                mcpSegment.setWalking(convertTransitWalking(segment.getWalking()));
-                            }
-
-                            // 转换公交信息
-                            if (segment.getBus() != null) {
-                                mcpSegment.setBus(convertTransitBus(segment.getBus()));
+                    if (projection.includesSteps()) {
+                        List<McpResponseModels.TransitSegment> segments = new ArrayList<>();
+                        if (transit.getSegments() != null) {
+                            for (RouteModels.Segment segment : transit.getSegments()) {
+                                McpResponseModels.TransitSegment mcpSegment = new McpResponseModels.TransitSegment();
+
+                                // 转换步行信息
+                                if (segment.getWalking() != null) {
+                                    mcpSegment.setWalking(convertTransitWalking(segment.getWalking(), projection, compact));
+                                }
+
+                                // 转换公交信息
+                                if (segment.getBus() != null) {
+                                    mcpSegment.setBus(convertTransitBus(segment.getBus(), compact));
+                                }
+
+                                segments.add(mcpSegment);
                             }
-
-                            segments.add(mcpSegment);
                         }
+                        transitRoute.setSegments(segments);
                     }
-                    transitRoute.setSegments(segments);
                     transitRoutes.add(transitRoute);
                 }
             }
+            // 方案已按策略排序，超出预算时省略靠后的方案
+            if (maxTokens != null) {
+                transitRoutes = RouteStepCompactor.limit(transitRoutes, maxTokens - RouteStepCompactor.estimateTokens(result));
+            }
             result.setTransits(transitRoutes);
         }
 
         return result;
     }
 
-    private McpResponseModels.TransitWalking convertTransitWalking(RouteModels.WalkingSegment walking) {
+    private McpResponseModels.TransitWalking convertTransitWalking(RouteModels.WalkingSegment walking,
+                                                                  RouteModels.Projection projection, boolean compact) {
         var result = new McpResponseModels.TransitWalking();
         result.setOrigin(walking.getOrigin());
         result.setDestination(walking.getDestination());
         result.setDistance(walking.getDistance());
         result.setDuration(walking.getCost() != null ? walking.getCost().getDuration() : "0");
 
+        // 精简模式只保留步行距离与时间
+        if (compact) {
+            return result;
+        }
+
         // 转换步行步骤
         List<Object> steps = new ArrayList<>();
         if (walking.getSteps() != null) {
@@ -482,6 +961,9 @@ public class AmapMcpTools {
                 stepMap.put("distance", step.getDistance());
                 stepMap.put("action", step.getAction());
                 stepMap.put("assistant_action", step.getAssistantAction());
+                if (projection.includesGeometry()) {
+                    stepMap.put("polyline", step.getPolyline());
+                }
                 steps.add(stepMap);
             }
         }
@@ -490,7 +972,7 @@ public class AmapMcpTools {
         return result;
     }
 
-    private McpResponseModels.TransitBus convertTransitBus(RouteModels.BusSegment bus) {
+    private McpResponseModels.TransitBus convertTransitBus(RouteModels.BusSegment bus, boolean compact) {
         var result = new McpResponseModels.TransitBus();
 
         List<McpResponseModels.BusLine> busLines = new ArrayList<>();
@@ -514,16 +996,18 @@ public class AmapMcpTools {
                     mcpBusLine.setArrivalStop(arrivalStop);
                 }
 
-                // 转换途经站点
-                List<Object> viaStops = new ArrayList<>();
-                if (busLine.getViaStops() != null) {
-                    for (RouteModels.BusStop viaStop : busLine.getViaStops()) {
-                        Map<String, Object> stopMap = new HashMap<>();
-                        stopMap.put("name", viaStop.getName());
-                        viaStops.add(stopMap);
+                // 转换途经站点，精简模式下省略
+                if (!compact) {
+                    List<Object> viaStops = new ArrayList<>();
+                    if (busLine.getViaStops() != null) {
+                        for (RouteModels.BusStop viaStop : busLine.getViaStops()) {
+                            Map<String, Object> stopMap = new HashMap<>();
+                            stopMap.put("name", viaStop.getName());
+                            viaStops.add(stopMap);
+                        }
                     }
+                    mcpBusLine.setViaStops(viaStops);
                 }
-                mcpBusLine.setViaStops(viaStops);
 
                 busLines.add(mcpBusLine);
             }
@@ -535,7 +1019,7 @@ public class AmapMcpTools {
 
 
 
-    private McpResponseModels.DistanceResult convertDistanceResponse(AmapOtherModels.DistanceResponse response) {
+    McpResponseModels.DistanceResult convertDistanceResponse(AmapOtherModels.DistanceResponse response) {
         var result = new McpResponseModels.DistanceResult();
         List<McpResponseModels.DistanceItem> results = new ArrayList<>();
         
@@ -554,7 +1038,7 @@ public class AmapMcpTools {
         return result;
     }
 
-    private McpResponseModels.WeatherResult convertWeatherResponse(AmapOtherModels.WeatherResponse response) {
+    McpResponseModels.WeatherResult convertWeatherResponse(AmapOtherModels.WeatherResponse response) {
         var result = new McpResponseModels.WeatherResult();
         
         if (response.getForecasts() != null && !response.getForecasts().isEmpty()) {
@@ -586,7 +1070,7 @@ public class AmapMcpTools {
         return result;
     }
 
-    private McpResponseModels.IpLocationResult convertIpLocationResponse(AmapOtherModels.IpLocationResponse response) {
+    McpResponseModels.IpLocationResult convertIpLocationResponse(AmapOtherModels.IpLocationResponse response) {
         var result = new McpResponseModels.IpLocationResult();
         result.setProvince(response.getProvince());
         result.setCity(response.getCity());
@@ -595,6 +1079,55 @@ public class AmapMcpTools {
         return result;
     }
 
+    McpResponseModels.DistrictResult convertDistrictResponse(AmapOtherModels.DistrictResponse response) {
+        var result = new McpResponseModels.DistrictResult();
+        result.setDistricts(convertDistrictInfos(response.getDistricts(), null));
+        return result;
+    }
+
+    private List<McpResponseModels.DistrictItem> convertDistrictInfos(List<AmapOtherModels.DistrictInfo> districts, String parentAdcode) {
+        List<McpResponseModels.DistrictItem> items = new ArrayList<>();
+        if (districts != null) {
+            for (AmapOtherModels.DistrictInfo district : districts) {
+                McpResponseModels.DistrictItem item = new McpResponseModels.DistrictItem();
+                item.setAdcode(district.getAdcode());
+                item.setName(district.getName());
+                item.setCitycode(district.citycodeText());
+                item.setLevel(district.getLevel());
+                item.setCenter(district.getCenter());
+                item.setParentAdcode(parentAdcode);
+                item.setDistricts(convertDistrictInfos(district.getDistricts(), district.getAdcode()));
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    private List<McpResponseModels.DistrictItem> convertDistrictNodes(DistrictIndex index, List<DistrictIndex.DistrictNode> nodes, int depth) {
+        List<McpResponseModels.DistrictItem> items = new ArrayList<>(nodes.size());
+        for (DistrictIndex.DistrictNode node : nodes) {
+            McpResponseModels.DistrictItem item = new McpResponseModels.DistrictItem();
+            item.setAdcode(String.valueOf(node.adcode()));
+            item.setName(node.name());
+            item.setCitycode(node.citycode());
+            item.setLevel(node.level());
+            item.setCenter(node.center());
+            item.setParentAdcode(node.parentAdcode() > 0 ? String.valueOf(node.parentAdcode()) : null);
+            item.setDistricts(depth > 0
+                    ? convertDistrictNodes(index, index.children(node), depth - 1)
+                    : Collections.emptyList());
+            items.add(item);
+        }
+        return items;
+    }
+
+    private int parseSubdistrict(String subdistrict) {
+        if (subdistrict == null || subdistrict.isBlank()) {
+            return 1;
+        }
+        return Math.max(0, Math.min(3, safeParseInt(subdistrict.trim())));
+    }
+
     // ====================== 辅助方法 ======================
 
     private McpResponseModels.RouteResult convertRouteResponse(RouteModels.RouteResponse response) {
@@ -610,7 +1143,7 @@ public class AmapMcpTools {
                     McpResponseModels.RoutePath routePath = new McpResponseModels.RoutePath();
                     routePath.setPath("");
                     routePath.setDistance(path.getDistance());
-                    routePath.setDuration(path.getCost() != null ? path.getCost().getDuration() : "0");
+                    routePath.setDuration(durationOf(path.getCost(), path.getDuration()));
                     routePath.setSteps(convertRouteSteps(path.getSteps()));
                     paths.add(routePath);
                 }
@@ -627,10 +1160,10 @@ public class AmapMcpTools {
             for (RouteModels.Step step : steps) {
                 McpResponseModels.RouteStep routeStep = new McpResponseModels.RouteStep();
                 routeStep.setInstruction(step.getInstruction());
-                routeStep.setRoad("");
+                routeStep.setRoad(step.getRoadName() != null ? step.getRoadName() : "");
                 routeStep.setDistance(step.getStepDistance());
                 routeStep.setOrientation(step.getOrientation());
-                routeStep.setDuration(step.getCost() != null ? step.getCost().getDuration() : "0");
+                routeStep.setDuration(durationOf(step.getCost(), step.getDuration()));
                 routeSteps.add(routeStep);
             }
         }
@@ -646,7 +1179,7 @@ public class AmapMcpTools {
                 walkingStep.setRoad("");
                 walkingStep.setDistance(safeParseInt(step.getStepDistance()));
                 walkingStep.setOrientation(step.getOrientation());
-                walkingStep.setDuration(step.getCost() != null ? safeParseInt(step.getCost().getDuration()) : 0);
+                walkingStep.setDuration(safeParseInt(durationOf(step.getCost(), step.getDuration())));
                 walkingSteps.add(walkingStep);
             }
         }
@@ -0,0 +1,69 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fottas.amapmcpserver.service.ToolProgress;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * MCP进度通知
+ * 客户端在tools/call请求的_meta中携带progressToken时，把ToolProgress的进度转为notifications/progress；
+ * 部分结果放在通知的_meta.partial中。通知以异步方式发送，不阻塞工具线程；
+ * 服务端不处理notifications/cancelled，客户端取消后工具仍会执行完毕
+ */
+public final class McpToolProgress {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpToolProgress.class);
+
+    /**
+     * ToolContext中的进度令牌
+     */
+    public static final String PROGRESS_TOKEN_KEY = "progressToken";
+
+    /**
+     * ToolContext中的异步交换对象，默认的exchange键只提供阻塞的同步交换对象
+     */
+    public static final String ASYNC_EXCHANGE_KEY = "asyncExchange";
+
+    private McpToolProgress() {
+    }
+
+    /**
+     * 为一次工具调用构建ToolContext内容
+     */
+    public static Map<String, Object> toolContext(McpAsyncServerExchange exchange, McpSchema.CallToolRequest request) {
+        Map<String, Object> context = new HashMap<>();
+        context.put(McpToolUtils.TOOL_CONTEXT_MCP_EXCHANGE_KEY, new McpSyncServerExchange(exchange));
+        context.put(ASYNC_EXCHANGE_KEY, exchange);
+        if (request.progressToken() != null) {
+            context.put(PROGRESS_TOKEN_KEY, request.progressToken());
+        }
+        return context;
+    }
+
+    /**
+     * 创建向客户端发送进度通知的ToolProgress，客户端未请求进度时返回ToolProgress.NONE
+     *
+     * @param partialMapper 将部分结果转换为响应模型
+     */
+    static ToolProgress open(ToolContext toolContext, Function<Object, Object> partialMapper) {
+        if (toolContext == null || toolContext.getContext() == null
+                || !(toolContext.getContext().get(PROGRESS_TOKEN_KEY) instanceof String token)
+                || !(toolContext.getContext().get(ASYNC_EXCHANGE_KEY) instanceof McpAsyncServerExchange exchange)) {
+            return ToolProgress.NONE;
+        }
+        return new ToolProgress((completed, total, message, partial) -> exchange
+                .progressNotification(new McpSchema.ProgressNotification(token, (double) completed,
+                        total > 0 ? (double) total : null, message,
+                        partial == null ? null : Map.of("partial", partialMapper.apply(partial))))
+                .subscribe(null, error -> logger.debug("发送进度通知失败: {}", error.getMessage())));
+    }
+}
@@ -0,0 +1,61 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fottas.amapmcpserver.jfr.ToolCallEvent;
+import com.fottas.amapmcpserver.service.AmapMetrics;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * 记录工具调用耗时与结果的ToolCallback包装，同时提交JFR工具调用事件
+ * 在注册处统一包装，覆盖全部@Tool方法，包括不经过executeApiCall的本地计算与并发查询工具
+ */
+public class MeteredToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final AmapMetrics metrics;
+    private final String toolName;
+
+    public MeteredToolCallback(ToolCallback delegate, AmapMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.toolName = delegate.getToolDefinition().name();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        ToolCallEvent event = new ToolCallEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = AmapMetrics.OUTCOME_ERROR;
+        try {
+            String result = toolContext != null ? delegate.call(toolInput, toolContext) : delegate.call(toolInput);
+            // 工具执行失败时返回null，序列化后为"null"
+            outcome = result == null || "null".equals(result) ? AmapMetrics.OUTCOME_EMPTY : AmapMetrics.OUTCOME_SUCCESS;
+            return result;
+        } finally {
+            metrics.recordTool(toolName, outcome, System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.tool = toolName;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.fottas.amapmcpserver.tools;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * 为每次工具调用创建根观测（span）的ToolCallback包装
+ * 工具方法在调用线程上同步执行，观测在该线程上打开作用域，工具内部再通过AmapTracing写入Reactor Context
+ */
+public class ObservedToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ObservationRegistry registry;
+    private final String toolName;
+
+    public ObservedToolCallback(ToolCallback delegate, ObservationRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.toolName = delegate.getToolDefinition().name();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return Observation.createNotStarted("amap.tool", registry)
+                .contextualName(toolName)
+                .lowCardinalityKeyValue("tool", toolName)
+                .observe(() -> toolContext != null ? delegate.call(toolInput, toolContext) : delegate.call(toolInput));
+    }
+}
@@ -0,0 +1,178 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fottas.amapmcpserver.model.McpResponseModels;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * 路线步骤精简
+ * 合并同一道路（无道路名时为同一方向）上的连续步骤，并按token预算截断：
+ * 从首尾两端交替保留步骤，中间省略的步骤合并为一个摘要步骤，相同输入总是得到相同输出
+ */
+final class RouteStepCompactor {
+
+    /**
+     * 只用于估算序列化后的大小
+     */
+    private static final ObjectMapper ESTIMATOR = new ObjectMapper();
+
+    private RouteStepCompactor() {
+    }
+
+    /**
+     * 合并连续步骤，单个步骤保留原始导航描述，合并后的步骤改写为"沿某路行驶多少米"
+     */
+    static List<McpResponseModels.RouteStep> merge(List<McpResponseModels.RouteStep> steps) {
+        List<McpResponseModels.RouteStep> merged = new ArrayList<>();
+        int start = 0;
+        while (start < steps.size()) {
+            int end = start + 1;
+            while (end < steps.size() && continues(steps.get(end - 1), steps.get(end))) {
+                end++;
+            }
+            merged.add(end - start == 1 ? steps.get(start) : mergeRange(steps.subList(start, end)));
+            start = end;
+        }
+        return merged;
+    }
+
+    /**
+     * 截断步骤使估算的token数不超过预算，预算连一个步骤都放不下时只返回一个摘要步骤
+     */
+    static List<McpResponseModels.RouteStep> fit(List<McpResponseModels.RouteStep> steps, int budget) {
+        int[] costs = new int[steps.size()];
+        int total = 2;
+        for (int i = 0; i < steps.size(); i++) {
+            costs[i] = estimateTokens(steps.get(i));
+            total += costs[i];
+        }
+        if (total <= budget || steps.isEmpty()) {
+            return steps;
+        }
+
+        int n = steps.size();
+        int used = 2 + estimateTokens(summarize(steps));
+        int head = 0;
+        int tail = 0;
+        while (head + tail < n) {
+            boolean takeHead = head <= tail;
+            int index = takeHead ? head : n - 1 - tail;
+            if (used + costs[index] > budget) {
+                break;
+            }
+            used += costs[index];
+            if (takeHead) {
+                head++;
+            } else {
+                tail++;
+            }
+        }
+
+        List<McpResponseModels.RouteStep> result = new ArrayList<>(steps.subList(0, head));
+        result.add(summarize(steps.subList(head, n - tail)));
+        result.addAll(steps.subList(n - tail, n));
+        return result;
+    }
+
+    /**
+     * 保留预算内的前若干项，至少保留一项；适用于已按优先级排序的列表（例如公交方案）
+     */
+    static <T> List<T> limit(List<T> items, int budget) {
+        int used = 2;
+        int count = 0;
+        for (T item : items) {
+            used += estimateTokens(item);
+            if (count > 0 && used > budget) {
+                break;
+            }
+            count++;
+        }
+        return count == items.size() ? items : new ArrayList<>(items.subList(0, count));
+    }
+
+    /**
+     * 按序列化后的JSON估算token数
+     */
+    static int estimateTokens(Object value) {
+        try {
+            return estimateTokens(ESTIMATOR.writeValueAsString(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 粗略估算token数：汉字按每字1个，其余字符按每4个1个
+     */
+    static int estimateTokens(CharSequence text) {
+        int wide = 0;
+        int narrow = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x2E80) {
+                wide++;
+            } else {
+                narrow++;
+            }
+        }
+        return wide + (narrow + 3) / 4;
+    }
+
+    private static boolean continues(McpResponseModels.RouteStep previous, McpResponseModels.RouteStep next) {
+        String road = Objects.toString(previous.getRoad(), "");
+        if (!road.isEmpty()) {
+            return road.equals(next.getRoad());
+        }
+        String orientation = Objects.toString(previous.getOrientation(), "");
+        return Objects.toString(next.getRoad(), "").isEmpty() && !orientation.isEmpty()
+                && orientation.equals(next.getOrientation());
+    }
+
+    private static McpResponseModels.RouteStep mergeRange(List<McpResponseModels.RouteStep> steps) {
+        var first = steps.get(0);
+        var merged = sum(steps);
+        String road = Objects.toString(first.getRoad(), "");
+        merged.setInstruction((road.isEmpty() ? "向" + first.getOrientation() : "沿" + road)
+                + "行驶" + formatDistance(Long.parseLong(merged.getDistance())));
+        merged.setRoad(road);
+        merged.setOrientation(first.getOrientation());
+        return merged;
+    }
+
+    private static McpResponseModels.RouteStep summarize(List<McpResponseModels.RouteStep> steps) {
+        var summary = sum(steps);
+        summary.setInstruction("省略" + steps.size() + "个步骤，共" + formatDistance(Long.parseLong(summary.getDistance())));
+        summary.setRoad("");
+        summary.setOrientation("");
+        return summary;
+    }
+
+    private static McpResponseModels.RouteStep sum(List<McpResponseModels.RouteStep> steps) {
+        long distance = 0;
+        long duration = 0;
+        for (var step : steps) {
+            distance += parseLong(step.getDistance());
+            duration += parseLong(step.getDuration());
+        }
+        var result = new McpResponseModels.RouteStep();
+        result.setDistance(String.valueOf(distance));
+        result.setDuration(String.valueOf(duration));
+        return result;
+    }
+
+    private static String formatDistance(long meters) {
+        return meters >= 1000 ? String.format(Locale.ROOT, "%.1f公里", meters / 1000.0) : meters + "米";
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return value != null ? Long.parseLong(value.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
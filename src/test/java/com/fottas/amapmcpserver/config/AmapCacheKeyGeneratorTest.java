@@ -0,0 +1,100 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import com.fottas.amapmcpserver.model.PoiModels;
+import com.fottas.amapmcpserver.model.RouteModels;
+import com.fottas.amapmcpserver.service.AmapApiService;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmapCacheKeyGeneratorTest {
+
+    private final AmapCacheKeyGenerator generator = new AmapCacheKeyGenerator();
+
+    @Test
+    void keysFollowCachedFieldsAndDefaults() throws Exception {
+        Method driving = AmapApiService.class.getMethod("drivingRoute", RouteModels.DrivingRouteRequest.class);
+        var first = new RouteModels.DrivingRouteRequest("116.1,39.1", "116.2,39.2");
+        var second = new RouteModels.DrivingRouteRequest("116.1,39.1", "116.2,39.2");
+        second.setStrategy(null);
+        second.setPlate("京A12345");
+
+        Object key = generator.generate(null, driving, first);
+        assertThat(key).isEqualTo(generator.generate(null, driving, second)).hasSameHashCodeAs(generator.generate(null, driving, second));
+        assertThat(key).hasToString("drivingRoute:116.1,39.1:116.2,39.2:0:STEPS");
+
+        // 返回内容投影不同时解析结果不同，不能共用缓存
+        second.setProjection(RouteModels.Projection.SUMMARY);
+        assertThat(generator.generate(null, driving, second)).isNotEqualTo(key);
+
+        // 相同请求类型用于不同接口时依靠方法名区分
+        var weather = new AmapOtherModels.WeatherRequest("110000");
+        Method current = AmapApiService.class.getMethod("getCurrentWeather", AmapOtherModels.WeatherRequest.class);
+        Method forecast = AmapApiService.class.getMethod("getWeatherForecast", AmapOtherModels.WeatherRequest.class);
+        assertThat(generator.generate(null, current, weather)).isNotEqualTo(generator.generate(null, forecast, weather));
+    }
+
+    @Test
+    void aroundSearchKeyIncludesPageSizeAndSortRule() throws Exception {
+        Method around = AmapApiService.class.getMethod("poiAroundSearch", PoiModels.PoiAroundSearchRequest.class);
+        var nearest = PoiModels.PoiAroundSearchRequest.builder()
+                .location("116.397428,39.90923")
+                .keywords("咖啡")
+                .radius("50000")
+                .sortrule("distance")
+                .page_size("5")
+                .page_num("1");
+
+        Object key = generator.generate(null, around, nearest.build());
+
+        assertThat(generator.generate(null, around, nearest.page_size("20").build())).isNotEqualTo(key);
+        assertThat(generator.generate(null, around, nearest.page_size("5").sortrule("weight").build())).isNotEqualTo(key);
+        assertThat(generator.generate(null, around, nearest.sortrule("distance").build())).isEqualTo(key);
+    }
+
+    @Test
+    void longParametersAreDigested() throws Exception {
+        Method polygonSearch = AmapApiService.class.getMethod("poiPolygonSearch", PoiModels.PoiPolygonSearchRequest.class);
+        String polygon = IntStream.range(0, 40).mapToObj(i -> "116." + i + ",39." + i).collect(Collectors.joining("|"));
+
+        Object key = generator.generate(null, polygonSearch, polygonRequest(polygon));
+
+        assertThat(key.toString()).doesNotContain(polygon).hasSizeLessThan(polygon.length());
+        assertThat(key).isEqualTo(generator.generate(null, polygonSearch, polygonRequest(polygon)));
+        assertThat(key).isNotEqualTo(generator.generate(null, polygonSearch, polygonRequest(polygon + "|116.9,39.9")));
+
+        // 摘要不修改调用方的参数数组
+        Object[] parts = {polygon};
+        AmapCacheKey.of("poiPolygonSearch", parts);
+        assertThat(parts).containsExactly(polygon);
+    }
+
+    @Test
+    void sharedKeysAreUnambiguousAndParseBack() {
+        AmapCacheKey first = AmapCacheKey.of("geocoding", "a:b", "");
+        AmapCacheKey second = AmapCacheKey.of("geocoding", "a", "b:");
+        assertThat(first).hasToString(second.toString()).isNotEqualTo(second);
+        assertThat(first.sharedKey()).isNotEqualTo(second.sharedKey());
+
+        String polygon = "116.1,39.1|".repeat(20);
+        AmapCacheKey mixed = AmapCacheKey.of("poiPolygonSearch", polygon, null, "1=2:3", 25, RouteModels.Projection.SUMMARY);
+        for (AmapCacheKey key : new AmapCacheKey[]{first, second, mixed, AmapCacheKey.of("getIpLocation")}) {
+            assertThat(AmapCacheKey.parse(key.sharedKey())).isEqualTo(key).hasSameHashCodeAs(key);
+        }
+        assertThat(AmapCacheKey.parse("geocoding:5=ab")).isNull();
+    }
+
+    private static PoiModels.PoiPolygonSearchRequest polygonRequest(String polygon) {
+        return PoiModels.PoiPolygonSearchRequest.builder()
+                .polygon(polygon)
+                .keywords("咖啡")
+                .page_size("25")
+                .page_num("1")
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmapRecordingFilterTest {
+
+    private static final String BODY = "{\"status\":\"1\",\"info\":\"OK\",\"infocode\":\"10000\",\"count\":\"1\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsWithoutKeyAndReplaysRegardlessOfParameterOrder() throws IOException {
+        Path archive = dir.resolve("recording.jsonl.gz");
+        var config = new AmapConfigProperties.RecordingConfig();
+        config.setArchivePath(archive.toString());
+        config.setMode(AmapConfigProperties.RecordingConfig.Mode.RECORD);
+
+        try (var recorder = new AmapRecordingFilter(config, objectMapper)) {
+            String recorded = recorder.filter(request("/v3/distance?key=secret&origins=1,1&destination=2,2"),
+                            ignored -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(BODY)
+                                    .build()))
+                    .flatMap(response -> response.bodyToMono(String.class))
+                    .block();
+            assertThat(recorded).isEqualTo(BODY);
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(archive))) {
+            String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(content).contains("\"path\":\"/v3/distance\"").doesNotContain("secret");
+        }
+
+        config.setMode(AmapConfigProperties.RecordingConfig.Mode.REPLAY);
+        config.setTiming(AmapConfigProperties.RecordingConfig.Timing.FULL_SPEED);
+        try (var replayer = new AmapRecordingFilter(config, objectMapper)) {
+            ClientResponse hit = replayer.filter(request("/v3/distance?destination=2,2&origins=1,1&key=other"),
+                    ignored -> Mono.error(new AssertionError("回放时不应访问网络"))).block();
+            assertThat(hit.statusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(hit.bodyToMono(String.class).block()).isEqualTo(BODY);
+
+            ClientResponse miss = replayer.filter(request("/v3/distance?origins=3,3&destination=2,2"),
+                    ignored -> Mono.error(new AssertionError("回放时不应访问网络"))).block();
+            assertThat(miss.statusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    private static ClientRequest request(String uri) {
+        return ClientRequest.create(HttpMethod.GET, URI.create("https://restapi.amap.com" + uri)).build();
+    }
+}
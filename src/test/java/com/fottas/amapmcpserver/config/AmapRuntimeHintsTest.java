@@ -0,0 +1,35 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fottas.amapmcpserver.model.McpResponseModels;
+import com.fottas.amapmcpserver.model.PoiModels;
+import com.fottas.amapmcpserver.model.RouteModels;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmapRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    AmapRuntimeHintsTest() {
+        new AmapRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void requestFieldsAreReadableForParameterBuilding() throws Exception {
+        // buildRequestParams会沿继承链读取父类字段
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onField(RouteModels.BaseRouteRequest.class.getDeclaredField("origin"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onField(PoiModels.PoiTextSearchRequest.class.getDeclaredField("keywords"))).accepts(hints);
+    }
+
+    @Test
+    void jacksonModelsAreRegistered() throws Exception {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onMethod(McpResponseModels.RouteStep.class.getMethod("getInstruction"))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(AmapRecordingFilter.Exchange.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,96 @@
+package com.fottas.amapmcpserver.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadHttpConnectorTest {
+
+    @Test
+    void pathsRouteToTheirBulkhead() {
+        var source = new MapConfigurationPropertySource(Map.of(
+                "amap.api.key", "test",
+                "amap.api.http-client.bulkheads.routing.max-connections", "30"));
+        var http = new Binder(source).bind("amap.api", AmapConfigProperties.class).get().getHttpClient();
+        // 只覆盖连接数时保留内置接口族的路径前缀
+        assertThat(http.getBulkheads().get("routing").getMaxConnections()).isEqualTo(30);
+        assertThat(http.resolveEndpoints("routing")).containsExactly("/v5/direction/", "/v3/distance");
+        // 默认连接池只使用max-connections扣除各接口族后剩余的连接
+        assertThat(http.fallbackMaxConnections()).isEqualTo(100 - 30 - 3 * 20);
+        http.setMaxConnections(90);
+        assertThat(http.isWithinConnectionCap()).isFalse();
+
+        var connector = new BulkheadHttpConnector("/proxy/", Map.of(),
+                Map.of("routing", http.resolveEndpoints("routing"), "weather-ip", http.resolveEndpoints("weather-ip")),
+                null);
+        assertThat(connector.bulkheadFor("/proxy/v5/direction/transit/integrated")).isEqualTo("routing");
+        assertThat(connector.bulkheadFor("/proxy/v3/ip")).isEqualTo("weather-ip");
+        assertThat(connector.bulkheadFor("/proxy/v3/config/district")).isNull();
+    }
+
+    @Test
+    void saturatedBulkheadDoesNotStallOtherFamilies() throws Exception {
+        CountDownLatch arrived = new CountDownLatch(1);
+        DisposableServer server = HttpServer.create().host("127.0.0.1").port(0)
+                .route(routes -> routes
+                        .get("/v5/direction/transit/integrated", (request, response) -> {
+                            arrived.countDown();
+                            return response.sendString(Mono.delay(Duration.ofSeconds(2)).thenReturn("{}"));
+                        })
+                        .get("/v3/weather/weatherInfo", (request, response) -> response.sendString(Mono.just("{}"))))
+                .bindNow();
+        List<Disposable> pending = List.of();
+        try {
+            var connector = new BulkheadHttpConnector("", Map.of(
+                    "routing", connector("routing", 1, 1),
+                    "weather-ip", connector("weather-ip", 1, 1)),
+                    Map.of("routing", List.of("/v5/direction/"), "weather-ip", List.of("/v3/weather/")),
+                    connector("default", 1, 1));
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://127.0.0.1:" + server.port())
+                    .clientConnector(connector)
+                    .build();
+            Mono<String> transit = client.get().uri("/v5/direction/transit/integrated").retrieve().bodyToMono(String.class);
+
+            // 第一个请求到达服务端后占用唯一的连接，第二个请求排队
+            Disposable active = transit.subscribe();
+            assertThat(arrived.await(5, TimeUnit.SECONDS)).isTrue();
+            pending = List.of(active, transit.subscribe());
+
+            assertThatThrownBy(() -> transit.block(Duration.ofSeconds(1)))
+                    .hasMessageContaining("Pending acquire queue has reached its maximum size");
+            long start = System.nanoTime();
+            assertThat(client.get().uri("/v3/weather/weatherInfo").retrieve().bodyToMono(String.class)
+                    .block(Duration.ofSeconds(1))).isEqualTo("{}");
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        } finally {
+            pending.forEach(Disposable::dispose);
+            server.disposeNow();
+        }
+    }
+
+    private static ClientHttpConnector connector(String name, int maxConnections, int pendingAcquireMaxCount) {
+        return new ReactorClientHttpConnector(HttpClient.create(ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .build()));
+    }
+}
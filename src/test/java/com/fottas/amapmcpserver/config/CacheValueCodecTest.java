@@ -0,0 +1,48 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fottas.amapmcpserver.model.AmapFixtures;
+import com.fottas.amapmcpserver.model.RouteModels;
+import com.fottas.amapmcpserver.service.TripOptimizerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheValueCodecTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+    private final CacheValueCodec codec = new CacheValueCodec(objectMapper, 256);
+
+    @Test
+    void responseModelsRoundTripCompressed() throws Exception {
+        byte[] json = AmapFixtures.load("/v5/direction/driving");
+        var response = objectMapper.readValue(json, RouteModels.RouteResponse.class);
+
+        byte[] encoded = codec.encode(response);
+
+        assertThat(encoded[0]).as("超过阈值时压缩").isEqualTo((byte) 1);
+        assertThat(encoded.length).isLessThan(json.length);
+        assertThat(codec.decode(encoded)).usingRecursiveComparison().isEqualTo(response);
+    }
+
+    @Test
+    void serviceValuesRoundTrip() {
+        var leg = new TripOptimizerService.Leg(1234.5, 300, true);
+        assertThat(codec.decode(codec.encode(leg))).isEqualTo(leg);
+        assertThat((double[]) codec.decode(codec.encode(new double[]{1.5, -2.25}))).containsExactly(1.5, -2.25);
+        assertThat(codec.decode(codec.encode("北京"))).isEqualTo("北京");
+    }
+
+    @Test
+    void foreignTypesAndCorruptDataAreMisses() {
+        assertThat(codec.encode(List.of("a"))).isNull();
+        assertThat(codec.decode(new byte[]{1, 3, 7, 9})).isNull();
+        assertThat(codec.decode(new byte[]{0, 42})).isNull();
+    }
+}
@@ -0,0 +1,28 @@
+package com.fottas.amapmcpserver.config;
+
+import io.modelcontextprotocol.server.McpAsyncServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("fast-start")
+class FastStartConfigurationTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    void mcpServerIsEagerAndUnusedBeansAreDeferred() {
+        assertThat(beanFactory.getBeanNamesForType(McpAsyncServer.class, false, false))
+                .allSatisfy(name -> assertThat(beanFactory.containsSingleton(name)).as(name).isTrue())
+                .isNotEmpty();
+        // MCP服务器依赖的工具调用路径在启动时创建
+        assertThat(beanFactory.containsSingleton("amapWebClient")).isTrue();
+        assertThat(beanFactory.containsSingleton("genericWebClient")).isFalse();
+    }
+}
@@ -0,0 +1,38 @@
+package com.fottas.amapmcpserver.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ObservedCacheTest {
+
+    @Test
+    void cacheOperationsAreRecordedAsJfrEvents(@TempDir Path dir) throws Exception {
+        var cache = new ObservedCache(new ConcurrentMapCache("amapCache"), ObservationRegistry.NOOP);
+        Path file = dir.resolve("cache.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("com.fottas.amap.Cache").withThreshold(Duration.ZERO);
+            recording.start();
+            cache.get("trip_cell:1:a:b", String.class);
+            cache.put("trip_cell:1:a:b", "leg");
+            cache.get("trip_cell:1:a:b", String.class);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).extracting(event -> event.getString("operation")).containsExactly("miss", "put", "hit");
+        assertThat(events).allSatisfy(event -> assertThat(event.getString("cache")).isEqualTo("amapCache"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fottas.amapmcpserver.model.AmapApiModels;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 针对真实Redis的兼容性测试：RespStubServer只模拟用到的命令，回复格式、脚本与发布订阅以真实服务为准
+ * 默认不运行，使用 mvn test -Dtest=RespRedisCompatibilityTest -Dredis.port=6379 启动，
+ * 可用 -Dredis.host、-Dredis.password 与 -Dredis.database（默认15）调整；测试结束时清空所用的库
+ */
+@EnabledIfSystemProperty(named = "redis.port", matches = "\\d+")
+class RespRedisCompatibilityTest {
+
+    private final String host = System.getProperty("redis.host", "localhost");
+    private final int port = Integer.getInteger("redis.port", 6379);
+    private final String password = System.getProperty("redis.password");
+    private final int database = Integer.getInteger("redis.database", 15);
+
+    private final RespClient client = new RespClient(host, port, password, database, Duration.ofSeconds(2), Duration.ofSeconds(1));
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        client.execute("FLUSHDB").get(2, TimeUnit.SECONDS);
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+        client.close();
+    }
+
+    @Test
+    void pipelinedRepliesMatchTheirCommands() throws Exception {
+        List<CompletableFuture<Object>> writes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            writes.add(client.execute("SET", "compat:" + i, "值\r\n" + i));
+        }
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        List<CompletableFuture<Object>> reads = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            reads.add(client.execute("GET", "compat:" + i));
+        }
+        for (int i = 0; i < 500; i++) {
+            assertThat(new String((byte[]) reads.get(i).get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8)).isEqualTo("值\r\n" + i);
+        }
+        assertThat(client.execute("GET", "compat:missing").get(2, TimeUnit.SECONDS)).isSameAs(RespCodec.NIL);
+        // 错误回复只让对应的命令失败，之后的回复仍然对应正确
+        assertThatThrownBy(() -> client.execute("INCR", "compat:0").get(2, TimeUnit.SECONDS)).hasMessageContaining("ERR");
+        assertThat(client.execute("EXISTS", "compat:1").get(2, TimeUnit.SECONDS)).isEqualTo(1L);
+    }
+
+    @Test
+    void sharedCountersAddAndExpireAtomically() throws Exception {
+        var config = new AmapConfigProperties.DistributedRateLimitConfig();
+        config.setHost(host);
+        config.setPort(port);
+        config.setPassword(password);
+        config.setDatabase(database);
+        config.setTimeout(Duration.ofSeconds(2));
+        var counters = new RespSharedCounters(config);
+        resources.add(counters);
+
+        assertThat(counters.add("compat:counter", 4, Duration.ofSeconds(30)).block()).isEqualTo(4);
+        assertThat(counters.add("compat:counter", -1, Duration.ofSeconds(30)).block()).isEqualTo(3);
+        assertThat((Long) client.execute("PTTL", "compat:counter").get(2, TimeUnit.SECONDS)).isBetween(1L, 30_000L);
+    }
+
+    @Test
+    void evictionReachesOtherReplicas() throws Exception {
+        AmapCacheKey key = AmapCacheKey.of("geocoding", "北京市朝阳区阜通东大街6号", "北京");
+        TwoLevelCache first = (TwoLevelCache) replica().getCache("amapCache");
+        TwoLevelCache second = (TwoLevelCache) replica().getCache("amapCache");
+        await(() -> subscribers("amap-mcp:invalidate") == 2);
+
+        var response = new AmapApiModels.GeocodingResponse();
+        response.setStatus("1");
+        first.put(key, response);
+        assertThat(second.retrieve(key).get(2, TimeUnit.SECONDS)).isNotNull();
+        assertThat(second.getLocal().get(key)).isNotNull();
+
+        first.evict(key);
+
+        await(() -> second.getLocal().get(key) == null);
+        assertThat(client.execute("EXISTS", "amap-mcp:amapCache:" + key.sharedKey()).get(2, TimeUnit.SECONDS)).isEqualTo(0L);
+    }
+
+    private long subscribers(String channel) {
+        List<?> reply = (List<?>) client.execute("PUBSUB", "NUMSUB", channel).join();
+        return (Long) reply.get(1);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("等待超时").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private TwoLevelCacheManager replica() {
+        CaffeineCacheManager local = new CaffeineCacheManager("amapCache");
+        local.setAsyncCacheMode(true);
+        var config = new AmapConfigProperties.L2CacheConfig();
+        config.setEnabled(true);
+        config.setHost(host);
+        config.setPort(port);
+        config.setPassword(password);
+        config.setDatabase(database);
+        config.setTimeout(Duration.ofSeconds(2));
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(local, config, new ObjectMapper(), new SimpleMeterRegistry());
+        resources.add(manager::destroy);
+        return manager;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fottas.amapmcpserver.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RespSharedCountersTest {
+
+    @Test
+    void countersAreSharedThroughTheStore() {
+        try (RespStubServer server = new RespStubServer().start()) {
+            var config = new AmapConfigProperties.DistributedRateLimitConfig();
+            config.setHost("127.0.0.1");
+            config.setPort(server.port());
+            config.setTimeout(Duration.ofSeconds(1));
+            try (var first = new RespSharedCounters(config); var second = new RespSharedCounters(config)) {
+                assertThat(first.add("rate:window:1", 4, Duration.ofSeconds(2)).block()).isEqualTo(4);
+                assertThat(second.add("rate:window:1", 4, Duration.ofSeconds(2)).block()).isEqualTo(8);
+                assertThat(first.add("rate:window:1", -3, Duration.ofSeconds(2)).block()).isEqualTo(5);
+                // 过期时间与第一次增加计数一起设置
+                assertThat(server.ttls()).containsEntry("rate:window:1", 2000L);
+            }
+        }
+    }
+}
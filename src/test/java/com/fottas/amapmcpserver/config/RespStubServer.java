@@ -0,0 +1,139 @@
+package com.fottas.amapmcpserver.config;
+
+import io.netty.buffer.ByteBuf;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.tcp.TcpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 测试用的Redis协议替身，只实现二级缓存与共享计数用到的命令；只记录过期时间，不处理过期
+ */
+final class RespStubServer implements AutoCloseable {
+
+    private final Map<String, byte[]> data = new ConcurrentHashMap<>();
+    private final Map<String, Long> ttls = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+    private DisposableServer server;
+
+    RespStubServer start() {
+        server = TcpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .doOnConnection(connection -> connection.addHandlerLast("resp", new RespCodec.Decoder()))
+                .handle((in, out) -> {
+                    AtomicReference<Connection> current = new AtomicReference<>();
+                    in.withConnection(current::set);
+                    current.get().onDispose(() -> subscribers.values().forEach(set -> set.remove(current.get())));
+                    return in.receiveObject().doOnNext(command -> reply(current.get(), execute(current.get(), (List<?>) command))).then();
+                })
+                .bindNow();
+        return this;
+    }
+
+    int port() {
+        return server.port();
+    }
+
+    Map<String, byte[]> data() {
+        return data;
+    }
+
+    Map<String, Long> ttls() {
+        return ttls;
+    }
+
+    int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private Object execute(Connection connection, List<?> command) {
+        List<String> args = new ArrayList<>(command.size());
+        for (Object arg : command) {
+            args.add(new String((byte[]) arg, StandardCharsets.UTF_8));
+        }
+        switch (args.get(0).toUpperCase()) {
+            case "PING":
+                return "PONG";
+            case "AUTH":
+            case "SELECT":
+                return "OK";
+            case "GET":
+                return data.get(args.get(1));
+            case "SET": {
+                if (args.subList(3, args.size()).contains("NX") && data.containsKey(args.get(1))) {
+                    return null;
+                }
+                data.put(args.get(1), (byte[]) command.get(2));
+                return "OK";
+            }
+            case "DEL":
+            case "UNLINK": {
+                long removed = args.subList(1, args.size()).stream().filter(key -> data.remove(key) != null).count();
+                return removed;
+            }
+            case "INCRBY":
+                return incrBy(args.get(1), args.get(2));
+            case "PEXPIRE":
+                return data.containsKey(args.get(1)) && ttls.put(args.get(1), Long.parseLong(args.get(2))) == null ? 1L : 0L;
+            case "EVAL": {
+                // 只支持共享计数的脚本：KEYS[1]、增量、过期时间
+                if (!args.get(1).equals(RespSharedCounters.ADD_SCRIPT)) {
+                    return new RespCodec.Error("ERR unknown script");
+                }
+                long total = incrBy(args.get(3), args.get(4));
+                ttls.putIfAbsent(args.get(3), Long.parseLong(args.get(5)));
+                return total;
+            }
+            case "SCAN": {
+                String prefix = args.get(args.indexOf("MATCH") + 1).replace("*", "");
+                List<Object> keys = data.keySet().stream().filter(key -> key.startsWith(prefix))
+                        .map(key -> (Object) key.getBytes(StandardCharsets.UTF_8)).toList();
+                return List.of("0".getBytes(StandardCharsets.UTF_8), keys);
+            }
+            case "PUBLISH": {
+                Set<Connection> receivers = subscribers.getOrDefault(args.get(1), Set.of());
+                for (Connection receiver : receivers) {
+                    reply(receiver, List.of(bytes("message"), bytes(args.get(1)), command.get(2)));
+                }
+                return (long) receivers.size();
+            }
+            case "SUBSCRIBE":
+                subscribers.computeIfAbsent(args.get(1), ignored -> new CopyOnWriteArraySet<>()).add(connection);
+                return List.of(bytes("subscribe"), bytes(args.get(1)), 1L);
+            default:
+                return new RespCodec.Error("ERR unknown command '" + args.get(0) + "'");
+        }
+    }
+
+    private long incrBy(String key, String delta) {
+        return Long.parseLong(new String(data.merge(key, bytes(delta),
+                (current, increment) -> bytes(String.valueOf(Long.parseLong(new String(current, StandardCharsets.UTF_8))
+                        + Long.parseLong(new String(increment, StandardCharsets.UTF_8))))), StandardCharsets.UTF_8));
+    }
+
+    private static void reply(Connection connection, Object reply) {
+        ByteBuf buffer = connection.channel().alloc().buffer();
+        RespCodec.encodeReply(buffer, reply);
+        connection.channel().writeAndFlush(buffer);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
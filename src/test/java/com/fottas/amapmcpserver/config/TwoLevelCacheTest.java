@@ -0,0 +1,157 @@
+package com.fottas.amapmcpserver.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fottas.amapmcpserver.model.AmapApiModels;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoLevelCacheTest {
+
+    private static final AmapCacheKey KEY = AmapCacheKey.of("geocoding", "北京市朝阳区阜通东大街6号", "北京");
+
+    private final RespStubServer server = new RespStubServer();
+    private final List<TwoLevelCacheManager> managers = new ArrayList<>();
+
+    @BeforeEach
+    void startServer() {
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        managers.forEach(TwoLevelCacheManager::destroy);
+        server.close();
+    }
+
+    @Test
+    void replicaReadsValueWrittenByAnotherReplica() throws Exception {
+        Cache first = replica(server.port()).getCache("amapCache");
+        Cache second = replica(server.port()).getCache("amapCache");
+
+        first.put(KEY, geocoding("110105"));
+        await(() -> !server.data().isEmpty());
+
+        Object shared = second.retrieve(KEY).get(1, TimeUnit.SECONDS);
+        assertThat(shared).isInstanceOf(Cache.ValueWrapper.class);
+        var response = (AmapApiModels.GeocodingResponse) ((Cache.ValueWrapper) shared).get();
+        assertThat(response.getGeocodes()).singleElement()
+                .extracting(AmapApiModels.Geocode::getAdcode).isEqualTo("110105");
+        // 回填本地，之后不再访问二级缓存
+        assertThat(((TwoLevelCache) second).getLocal().get(KEY)).isNotNull();
+        assertThat(server.data()).containsOnlyKeys("amap-mcp:amapCache:" + KEY.sharedKey());
+    }
+
+    @Test
+    void evictionInvalidatesOtherReplicasLocalCopy() throws Exception {
+        TwoLevelCache first = (TwoLevelCache) replica(server.port()).getCache("amapCache");
+        TwoLevelCache second = (TwoLevelCache) replica(server.port()).getCache("amapCache");
+        await(() -> server.subscriberCount() == 2);
+        first.put(KEY, geocoding("110105"));
+        await(() -> !server.data().isEmpty());
+        assertThat(second.retrieve(KEY).get(1, TimeUnit.SECONDS)).isNotNull();
+
+        first.evict(KEY);
+
+        await(() -> second.getLocal().get(KEY) == null);
+        assertThat(server.data()).isEmpty();
+        assertThat(second.retrieve(KEY).get(1, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void onlyExplicitClearInvalidatesOtherReplicas() throws Exception {
+        TwoLevelCache first = (TwoLevelCache) replica(server.port()).getCache("amapCache");
+        TwoLevelCache second = (TwoLevelCache) replica(server.port()).getCache("amapCache");
+        await(() -> server.subscriberCount() == 2);
+        first.put(KEY, geocoding("110105"));
+        await(() -> !server.data().isEmpty());
+        assertThat(second.retrieve(KEY).get(1, TimeUnit.SECONDS)).isNotNull();
+
+        // 再次写入不会覆盖先写入的值，也不会通知其他副本
+        first.put(KEY, geocoding("110106"));
+        assertThat(second.getLocal().get(KEY)).isNotNull();
+
+        first.clear();
+
+        await(() -> second.getLocal().get(KEY) == null);
+        assertThat(server.data()).isEmpty();
+    }
+
+    @Test
+    void keysWithTheSameTextDoNotShareEntries() throws Exception {
+        // 两个键的toString都是geocoding:a:b:
+        AmapCacheKey first = AmapCacheKey.of("geocoding", "a:b", "");
+        AmapCacheKey second = AmapCacheKey.of("geocoding", "a", "b:");
+        Cache writer = replica(server.port()).getCache("amapCache");
+        Cache reader = replica(server.port()).getCache("amapCache");
+
+        writer.put(first, geocoding("110105"));
+        writer.put(second, geocoding("310115"));
+        await(() -> server.data().size() == 2);
+
+        var firstResponse = (AmapApiModels.GeocodingResponse) ((Cache.ValueWrapper) reader.retrieve(first).get(1, TimeUnit.SECONDS)).get();
+        var secondResponse = (AmapApiModels.GeocodingResponse) ((Cache.ValueWrapper) reader.retrieve(second).get(1, TimeUnit.SECONDS)).get();
+        assertThat(firstResponse.getGeocodes().get(0).getAdcode()).isEqualTo("110105");
+        assertThat(secondResponse.getGeocodes().get(0).getAdcode()).isEqualTo("310115");
+    }
+
+    @Test
+    void unavailableSharedCacheIsTreatedAsMiss() throws Exception {
+        int port = server.port();
+        server.close();
+        Cache cache = replica(port).getCache("amapCache");
+
+        assertThat(cache.retrieve(KEY).get(2, TimeUnit.SECONDS)).isNull();
+        cache.put(KEY, geocoding("110105"));
+        assertThat(cache.retrieve(KEY)).isNotNull();
+        assertThat(cache.get(KEY, AmapApiModels.GeocodingResponse.class)).isNotNull();
+    }
+
+    @Test
+    void onlyConfiguredCachesAreShared() {
+        TwoLevelCacheManager manager = replica(server.port());
+        assertThat(manager.getCache("amapCache")).isInstanceOf(TwoLevelCache.class);
+        assertThat(manager.getCache("trafficCache")).isNotInstanceOf(TwoLevelCache.class);
+    }
+
+    private TwoLevelCacheManager replica(int port) {
+        CaffeineCacheManager local = new CaffeineCacheManager("amapCache", "trafficCache");
+        local.setAsyncCacheMode(true);
+        var config = new AmapConfigProperties.L2CacheConfig();
+        config.setEnabled(true);
+        config.setHost("127.0.0.1");
+        config.setPort(port);
+        config.setTimeout(Duration.ofSeconds(1));
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(local, config, new ObjectMapper(), new SimpleMeterRegistry());
+        managers.add(manager);
+        return manager;
+    }
+
+    private static AmapApiModels.GeocodingResponse geocoding(String adcode) {
+        var result = new AmapApiModels.Geocode();
+        result.setAdcode(adcode);
+        var response = new AmapApiModels.GeocodingResponse();
+        response.setStatus("1");
+        response.setGeocodes(List.of(result));
+        return response;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("等待超时").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
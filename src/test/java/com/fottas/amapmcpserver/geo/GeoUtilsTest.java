@@ -0,0 +1,35 @@
+package com.fottas.amapmcpserver.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoUtilsTest {
+
+    @Test
+    void haversineMatchesKnownDistance() {
+        // 天安门 -> 上海人民广场，约1067公里
+        double distance = GeoUtils.haversine(116.397428, 39.90923, 121.473701, 31.230416);
+        assertThat(distance).isCloseTo(1_068_000, within(5_000.0));
+    }
+
+    @Test
+    void batchMatchesScalar() {
+        double[][] origins = GeoUtils.parseLocations("116.481028,39.989643|114.465302,40.004717|116.3,39.9");
+        double[] out = new double[3];
+        GeoUtils.haversineBatch(origins[0], origins[1], 3, 116.434446, 39.90816, out);
+        for (int i = 0; i < 3; i++) {
+            assertThat(out[i]).isCloseTo(
+                    GeoUtils.haversine(origins[0][i], origins[1][i], 116.434446, 39.90816), within(1e-6));
+        }
+    }
+
+    @Test
+    void invalidLocationsAreRejected() {
+        assertThat(GeoUtils.parseLocation("116.4")).isNull();
+        assertThat(GeoUtils.parseLocation("abc,39.9")).isNull();
+        assertThat(GeoUtils.parseLocation("200,39.9")).isNull();
+        assertThat(GeoUtils.parseLocations("116.4,39.9|bad")).isNull();
+    }
+}
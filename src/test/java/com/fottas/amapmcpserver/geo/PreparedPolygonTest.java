@@ -0,0 +1,46 @@
+package com.fottas.amapmcpserver.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PreparedPolygonTest {
+
+    @Test
+    void containsHonoursHolesAndDisjointParts() {
+        // 外环 + 内洞 + 飞地
+        PreparedPolygon polygon = PreparedPolygon.parse(
+                "0,0;10,0;10,10;0,10|4,4;6,4;6,6;4,6|20,20;22,20;22,22;20,22");
+
+        assertThat(polygon.contains(2, 2)).isTrue();
+        assertThat(polygon.contains(5, 5)).isFalse();
+        assertThat(polygon.contains(21, 21)).isTrue();
+        assertThat(polygon.contains(15, 15)).isFalse();
+    }
+
+    @Test
+    void rtreeFindsContainingPolygon() {
+        StrRTree.Builder<Integer> builder = StrRTree.builder();
+        List<PreparedPolygon> cells = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < 50; j++) {
+                PreparedPolygon cell = PreparedPolygon.ofRing(new double[]{i, j, i + 1, j, i + 1, j + 1, i, j + 1});
+                cells.add(cell);
+                builder.add(cells.size() - 1, i, j, i + 1, j + 1);
+            }
+        }
+        StrRTree<Integer> tree = builder.build();
+
+        List<Integer> hits = new ArrayList<>();
+        tree.queryPoint(12.5, 37.5, id -> {
+            if (cells.get(id).contains(12.5, 37.5)) {
+                hits.add(id);
+            }
+        });
+        assertThat(tree.size()).isEqualTo(2500);
+        assertThat(hits).containsExactly(12 * 50 + 37);
+    }
+}
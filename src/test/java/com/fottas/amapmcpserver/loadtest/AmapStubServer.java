@@ -0,0 +1,299 @@
+package com.fottas.amapmcpserver.loadtest;
+
+import com.fottas.amapmcpserver.model.AmapFixtures;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * 本地高德接口替身
+ * 按接口路径返回fixtures/amap下的响应样本，可配置延迟分布、HTTP错误与infocode注入以及QPS上限；
+ * 超过QPS上限时与真实接口一样返回HTTP 200和infocode 10021
+ *
+ * <p>单独启动：java ... AmapStubServer，参数通过系统属性传入，例如
+ * -Dstub.port=18080 -Dstub.latency=lognormal:40:250 -Dstub.errorRate=0.01 -Dstub.infocodes=10021:0.01 -Dstub.qps=200
+ */
+public class AmapStubServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AmapStubServer.class);
+
+    /**
+     * infocode对应的info文本
+     */
+    private static final Map<String, String> INFO = Map.of(
+            "10001", "INVALID_USER_KEY",
+            "10003", "DAILY_QUERY_OVER_LIMIT",
+            "10021", "CUQPS_HAS_EXCEEDED_THE_LIMIT",
+            "10044", "USER_DAILY_QUERY_OVER_LIMIT",
+            "20003", "UNKNOWN_ERROR");
+
+    /**
+     * 延迟分布
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        long sampleMillis(RandomGenerator random);
+
+        static Latency none() {
+            return random -> 0;
+        }
+
+        static Latency fixed(long millis) {
+            return random -> millis;
+        }
+
+        static Latency uniform(long minMillis, long maxMillis) {
+            return random -> random.nextLong(minMillis, maxMillis + 1);
+        }
+
+        /**
+         * 对数正态分布，由中位数与P99确定，接近真实接口的长尾
+         */
+        static Latency logNormal(double medianMillis, double p99Millis) {
+            double mu = Math.log(medianMillis);
+            double sigma = (Math.log(p99Millis) - mu) / 2.326;
+            return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        }
+
+        /**
+         * 解析延迟配置：none、fixed:30、uniform:10:80、lognormal:40:250
+         */
+        static Latency parse(String spec) {
+            String[] parts = spec.trim().split(":");
+            return switch (parts[0]) {
+                case "none" -> none();
+                case "fixed" -> fixed(Long.parseLong(parts[1]));
+                case "uniform" -> uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                case "lognormal" -> logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("不支持的延迟分布: " + spec);
+            };
+        }
+    }
+
+    /**
+     * 替身行为配置
+     */
+    public static class Options {
+
+        private int port;
+        private Latency latency = Latency.none();
+        private double errorRate;
+        private final Map<String, Double> infocodes = new LinkedHashMap<>();
+        private int qps;
+
+        /**
+         * 监听端口，0表示随机端口
+         */
+        public Options port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Options latency(Latency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * 返回HTTP 503的比例
+         */
+        public Options errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * 以给定比例返回status=0和指定infocode
+         */
+        public Options infocode(String infocode, double rate) {
+            this.infocodes.put(infocode, rate);
+            return this;
+        }
+
+        /**
+         * 每秒请求上限，0表示不限制
+         */
+        public Options qps(int qps) {
+            this.qps = qps;
+            return this;
+        }
+
+        /**
+         * 从stub.*系统属性读取配置
+         */
+        public static Options fromSystemProperties() {
+            var options = new Options()
+                    .port(Integer.getInteger("stub.port", 18080))
+                    .latency(Latency.parse(System.getProperty("stub.latency", "lognormal:40:250")))
+                    .errorRate(Double.parseDouble(System.getProperty("stub.errorRate", "0")))
+                    .qps(Integer.getInteger("stub.qps", 0));
+            String infocodes = System.getProperty("stub.infocodes", "");
+            for (String item : infocodes.split(",")) {
+                if (!item.isBlank()) {
+                    String[] parts = item.trim().split(":");
+                    options.infocode(parts[0], Double.parseDouble(parts[1]));
+                }
+            }
+            return options;
+        }
+    }
+
+    private final Options options;
+    private final Map<String, byte[]> fixtures = new LinkedHashMap<>();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> injected = new ConcurrentHashMap<>();
+    private DisposableServer server;
+
+    private long window;
+    private int windowCount;
+
+    public AmapStubServer(Options options) {
+        this.options = options;
+        for (String endpoint : AmapFixtures.ENDPOINTS.keySet()) {
+            fixtures.put(endpoint, AmapFixtures.load(endpoint));
+        }
+    }
+
+    public AmapStubServer start() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(options.port)
+                .handle(this::handle)
+                .bindNow();
+        logger.info("高德接口替身已启动: {}", baseUrl());
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    /**
+     * 各接口收到的请求数（包括被注入错误的请求）
+     */
+    public Map<String, Long> calls() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        calls.forEach((endpoint, count) -> snapshot.put(endpoint, count.sum()));
+        return snapshot;
+    }
+
+    public long totalCalls() {
+        return calls.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * 注入的错误数量，键为HTTP状态码或infocode
+     */
+    public Map<String, Long> injected() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        injected.forEach((reason, count) -> snapshot.put(reason, count.sum()));
+        return snapshot;
+    }
+
+    public void reset() {
+        calls.clear();
+        injected.clear();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    // ====================== 请求处理 ======================
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        String endpoint = new QueryStringDecoder(request.uri()).path();
+        byte[] fixture = fixtures.get(endpoint);
+        if (fixture == null) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        calls.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+
+        RandomGenerator random = ThreadLocalRandom.current();
+        HttpResponseStatus status = HttpResponseStatus.OK;
+        byte[] body = fixture;
+        if (!acquire()) {
+            body = failure("10021");
+        } else if (random.nextDouble() < options.errorRate) {
+            status = HttpResponseStatus.SERVICE_UNAVAILABLE;
+            body = "{\"message\":\"injected\"}".getBytes(StandardCharsets.UTF_8);
+            injected.computeIfAbsent(String.valueOf(status.code()), key -> new LongAdder()).increment();
+        } else {
+            String infocode = pickInfocode(random);
+            if (infocode != null) {
+                body = failure(infocode);
+            }
+        }
+
+        long delay = options.latency.sampleMillis(random);
+        HttpResponseStatus finalStatus = status;
+        byte[] finalBody = body;
+        return Mono.delay(Duration.ofMillis(Math.max(0, delay)))
+                .then(response.status(finalStatus)
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json;charset=UTF-8")
+                        .sendByteArray(Mono.just(finalBody))
+                        .then());
+    }
+
+    private String pickInfocode(RandomGenerator random) {
+        double roll = random.nextDouble();
+        for (var entry : options.infocodes.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private byte[] failure(String infocode) {
+        injected.computeIfAbsent(infocode, key -> new LongAdder()).increment();
+        String info = INFO.getOrDefault(infocode, "UNKNOWN_ERROR");
+        return ("{\"status\":\"0\",\"info\":\"" + info + "\",\"infocode\":\"" + infocode + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 固定一秒窗口计数
+     */
+    private synchronized boolean acquire() {
+        if (options.qps <= 0) {
+            return true;
+        }
+        long second = System.nanoTime() / 1_000_000_000L;
+        if (second != window) {
+            window = second;
+            windowCount = 0;
+        }
+        return ++windowCount <= options.qps;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        try (var stub = new AmapStubServer(Options.fromSystemProperties()).start()) {
+            logger.info("将amap.api.base-url指向{}即可使用，Ctrl+C退出", stub.baseUrl());
+            new CountDownLatch(1).await();
+        }
+    }
+}
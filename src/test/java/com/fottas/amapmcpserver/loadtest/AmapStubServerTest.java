@@ -0,0 +1,56 @@
+package com.fottas.amapmcpserver.loadtest;
+
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import com.fottas.amapmcpserver.model.RouteModels;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AmapStubServerTest {
+
+    @Test
+    void servesFixturesByEndpointAndCountsCalls() {
+        try (var stub = new AmapStubServer(new AmapStubServer.Options()).start()) {
+            var webClient = WebClient.create(stub.baseUrl());
+
+            var route = webClient.get().uri("/v5/direction/driving?key=k&origin=1,1&destination=2,2")
+                    .retrieve().bodyToMono(RouteModels.RouteResponse.class).block();
+
+            assertThat(route.isSuccess()).isTrue();
+            assertThat(route.getRoute().getPaths()).isNotEmpty();
+            assertThatThrownBy(() -> webClient.get().uri("/v3/unknown").retrieve().bodyToMono(String.class).block())
+                    .isInstanceOf(WebClientResponseException.NotFound.class);
+            assertThat(stub.calls()).isEqualTo(Map.of("/v5/direction/driving", 1L));
+        }
+    }
+
+    @Test
+    void injectsInfocodesAndEnforcesQps() {
+        var options = new AmapStubServer.Options().infocode("10003", 1.0);
+        try (var stub = new AmapStubServer(options).start()) {
+            var response = WebClient.create(stub.baseUrl()).get().uri("/v3/distance")
+                    .retrieve().bodyToMono(AmapOtherModels.DistanceResponse.class).block();
+
+            assertThat(response.isSuccess()).isFalse();
+            assertThat(response.getInfocode()).isEqualTo("10003");
+        }
+
+        try (var stub = new AmapStubServer(new AmapStubServer.Options().qps(2)).start()) {
+            var webClient = WebClient.create(stub.baseUrl());
+            long limited = 0;
+            for (int i = 0; i < 5; i++) {
+                var response = webClient.get().uri("/v3/ip").retrieve().bodyToMono(AmapOtherModels.IpLocationResponse.class).block();
+                limited += "10021".equals(response.getInfocode()) ? 1 : 0;
+            }
+
+            // 5个请求可能跨越一个秒边界
+            assertThat(limited).isBetween(1L, 3L);
+            assertThat(stub.injected()).containsEntry("10021", limited);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.fottas.amapmcpserver.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压测结果：吞吐量、延迟分位数，以及每次工具调用引发的上游请求数（放大倍数）
+ */
+public class LoadReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Histogram total = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private Duration elapsed = Duration.ZERO;
+    private Map<String, Long> upstreamCalls = Map.of();
+
+    void record(String tool, long nanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_MICROS);
+        latencies.computeIfAbsent(tool, key -> new ConcurrentHistogram(MAX_LATENCY_MICROS, 3)).recordValue(micros);
+        total.recordValue(micros);
+        if (!success) {
+            errors.computeIfAbsent(tool, key -> new LongAdder()).increment();
+        }
+    }
+
+    void elapsed(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * 设置压测期间上游（高德接口替身）收到的请求数
+     */
+    public void upstreamCalls(Map<String, Long> upstreamCalls) {
+        this.upstreamCalls = new TreeMap<>(upstreamCalls);
+    }
+
+    public long calls() {
+        return total.getTotalCount();
+    }
+
+    public long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public double throughput() {
+        return elapsed.isZero() ? 0 : calls() * 1000.0 / elapsed.toMillis();
+    }
+
+    /**
+     * 上游请求数与工具调用数之比；缓存命中会使其小于1，分片和重试会使其大于1
+     */
+    public double amplification() {
+        long upstream = upstreamCalls.values().stream().mapToLong(Long::longValue).sum();
+        return calls() == 0 ? 0 : (double) upstream / calls();
+    }
+
+    public String format() {
+        var out = new StringBuilder();
+        out.append(String.format("持续时间: %.1fs, 工具调用: %d, 失败: %d, 吞吐量: %.1f次/秒%n",
+                elapsed.toMillis() / 1000.0, calls(), errors(), throughput()));
+        out.append(String.format("%-36s %8s %6s %9s %9s %9s %9s%n", "工具", "调用", "失败", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)"));
+        new TreeMap<>(latencies).forEach((tool, histogram) -> appendRow(out, tool, histogram,
+                errors.getOrDefault(tool, new LongAdder()).sum()));
+        appendRow(out, "全部", total, errors());
+        if (!upstreamCalls.isEmpty()) {
+            out.append(String.format("上游请求: %d, 放大倍数: %.2f%n",
+                    upstreamCalls.values().stream().mapToLong(Long::longValue).sum(), amplification()));
+            upstreamCalls.forEach((endpoint, count) -> out.append(String.format("  %-36s %8d%n", endpoint, count)));
+        }
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, String name, Histogram histogram, long failed) {
+        out.append(String.format("%-36s %8d %6d %9.1f %9.1f %9.1f %9.1f%n", name, histogram.getTotalCount(), failed,
+                histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0));
+    }
+}
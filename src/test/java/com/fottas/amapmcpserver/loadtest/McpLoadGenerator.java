@@ -0,0 +1,104 @@
+package com.fottas.amapmcpserver.loadtest;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MCP压测客户端
+ * 每个虚拟用户持有一个Streamable HTTP会话，在压测时长内按工具组合连续调用（闭环模型，无思考时间）
+ *
+ * <p>单独运行：java ... McpLoadGenerator，参数通过系统属性传入，例如
+ * -Dload.target=http://localhost:8081 -Dload.users=32 -Dload.duration=60s -Dload.warmup=10s
+ */
+public class McpLoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpLoadGenerator.class);
+
+    private final String target;
+    private final String endpoint;
+    private final ToolMix mix;
+
+    public McpLoadGenerator(String target, String endpoint, ToolMix mix) {
+        this.target = target;
+        this.endpoint = endpoint;
+        this.mix = mix;
+    }
+
+    /**
+     * 运行压测
+     *
+     * @param users 并发会话数
+     * @param duration 压测时长；需要预热时先以相同参数运行一次并丢弃结果
+     */
+    public LoadReport run(int users, Duration duration) throws Exception {
+        LoadReport report = new LoadReport();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        List<Future<?>> sessions = new ArrayList<>(users);
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        try {
+            for (int i = 0; i < users; i++) {
+                sessions.add(executor.submit(() -> session(deadline, report)));
+            }
+            for (Future<?> session : sessions) {
+                session.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        report.elapsed(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+
+    private void session(long deadline, LoadReport report) {
+        var transport = HttpClientStreamableHttpTransport.builder(target).endpoint(endpoint).build();
+        try (McpSyncClient client = McpClient.sync(transport).requestTimeout(Duration.ofSeconds(60)).build()) {
+            client.initialize();
+            var random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                ToolMix.Entry entry = mix.pick(random);
+                boolean success;
+                try {
+                    McpSchema.CallToolResult result = client.callTool(new McpSchema.CallToolRequest(entry.tool(), entry.arguments().apply(random)));
+                    success = !Boolean.TRUE.equals(result.isError()) && !isNullResult(result);
+                } catch (Exception e) {
+                    logger.debug("工具调用失败: {}", entry.tool(), e);
+                    success = false;
+                }
+                report.record(entry.tool(), System.nanoTime() - now, success);
+            }
+        }
+    }
+
+    /**
+     * 工具执行失败时返回null，序列化后为文本"null"
+     */
+    private static boolean isNullResult(McpSchema.CallToolResult result) {
+        return result.content().size() == 1
+                && result.content().get(0) instanceof McpSchema.TextContent text
+                && "null".equals(text.text());
+    }
+
+    public static void main(String[] args) throws Exception {
+        var generator = new McpLoadGenerator(System.getProperty("load.target", "http://localhost:8081"),
+                System.getProperty("load.endpoint", "/mcp"), ToolMix.realistic());
+        int users = Integer.getInteger("load.users", 32);
+        generator.run(users, Duration.parse("PT" + System.getProperty("load.warmup", "10s")));
+        LoadReport report = generator.run(users, Duration.parse("PT" + System.getProperty("load.duration", "60s")));
+        System.out.print(report.format());
+    }
+}
@@ -0,0 +1,60 @@
+package com.fottas.amapmcpserver.loadtest;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 端到端压测：应用指向本地高德接口替身，由McpLoadGenerator通过/mcp发起工具调用
+ * 默认不运行，使用 mvn test -Dtest=McpLoadTest -Dloadtest=true 启动；
+ * 可用 -Dload.users、-Dload.warmup、-Dload.duration 与 -Dstub.* 调整压力和替身行为
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "amap.api.key=loadtest",
+        "amap.api.rate-limit.qps=10000",
+        "amap.api.rate-limit.burst-capacity=10000",
+        "logging.level.reactor.netty.http.client=INFO",
+        "logging.level.org.springframework.ai.mcp=INFO"
+})
+class McpLoadTest {
+
+    private static final AmapStubServer stub = new AmapStubServer(
+            AmapStubServer.Options.fromSystemProperties().port(0)).start();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void amapBaseUrl(DynamicPropertyRegistry registry) {
+        registry.add("amap.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void toolMixAgainstStub() throws Exception {
+        var generator = new McpLoadGenerator("http://127.0.0.1:" + port, "/mcp", ToolMix.realistic());
+        int users = Integer.getInteger("load.users", 16);
+
+        generator.run(users, Duration.parse("PT" + System.getProperty("load.warmup", "5s")));
+        stub.reset();
+        LoadReport report = generator.run(users, Duration.parse("PT" + System.getProperty("load.duration", "20s")));
+        report.upstreamCalls(stub.calls());
+
+        System.out.print(report.format());
+        System.out.println("替身注入的错误: " + stub.injected());
+        assertThat(report.calls()).isPositive();
+    }
+}
@@ -0,0 +1,203 @@
+package com.fottas.amapmcpserver.loadtest;
+
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 冷启动对比：交替启动各种构建，记录健康检查就绪时间、首次工具调用成功的时间，以及就绪时和短时压测后的RSS
+ * <ul>
+ *     <li>jvm：可执行jar</li>
+ *     <li>jvm-lazy：可执行jar + fast-start profile</li>
+ *     <li>jvm-cds：解压后的jar + AppCDS归档 + fast-start profile</li>
+ *     <li>native：原生镜像</li>
+ * </ul>
+ * 默认不运行，先按需执行 mvn package、mvn -Pcds package 与 mvn -Pnative native:compile，再使用
+ * mvn test -Dtest=StartupComparisonTest -Dstartup=true 启动；缺少产物的构建会被跳过。
+ * 可用 -Dstartup.runs、-Dstartup.jar、-Dstartup.cds-dir、-Dstartup.native、-Dstartup.jvm-opts 与 -Dstartup.load 调整；
+ * RSS读取/proc/{pid}/status，仅支持Linux。
+ * 本仓库尚未记录过任何一次完整的对比结果，原生镜像与AppCDS的启动收益均未经实测
+ */
+@EnabledIfSystemProperty(named = "startup", matches = "true")
+class StartupComparisonTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupComparisonTest.class);
+
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    /**
+     * 待测构建
+     *
+     * @param artifact 需要存在的产物，不存在时跳过
+     */
+    private record Build(String name, Path artifact, Path workingDirectory, List<String> command) {
+    }
+
+    @Test
+    void startupAcrossBuilds() throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar", "target/amap-mcp-server-0.0.1-SNAPSHOT.jar"));
+        Path cdsDirectory = Path.of(System.getProperty("startup.cds-dir", "target/cds"));
+        Path nativeImage = Path.of(System.getProperty("startup.native", "target/amap-mcp-server"));
+        int runs = Integer.getInteger("startup.runs", 5);
+        Duration load = Duration.parse("PT" + System.getProperty("startup.load", "5s"));
+
+        List<Build> builds = List.of(
+                new Build("jvm", jar, null, java("-jar", jar.toAbsolutePath().toString())),
+                new Build("jvm-lazy", jar, null,
+                        java("-Dspring.profiles.active=fast-start", "-jar", jar.toAbsolutePath().toString())),
+                // 归档与训练时的类路径必须一致，因此在解压目录中使用相对路径启动
+                new Build("jvm-cds", cdsDirectory.resolve("application.jsa"), cdsDirectory,
+                        java("-XX:SharedArchiveFile=application.jsa", "-Dspring.profiles.active=fast-start",
+                                "-jar", jar.getFileName().toString())),
+                new Build("native", nativeImage, null, List.of(nativeImage.toAbsolutePath().toString())));
+
+        StartupReport report = new StartupReport();
+        try (AmapStubServer stub = new AmapStubServer(AmapStubServer.Options.fromSystemProperties().port(0)).start()) {
+            for (int i = 0; i < runs; i++) {
+                // 交替运行，避免页缓存等外部因素只偏向其中一种构建
+                for (Build build : builds) {
+                    if (Files.exists(build.artifact())) {
+                        report.record(build.name(), measure(build, stub, load, build.name() + "-" + i));
+                    }
+                }
+            }
+        }
+
+        System.out.print(report.format());
+        assertThat(report.isEmpty()).as("没有找到可启动的产物: %s, %s, %s", jar, cdsDirectory, nativeImage).isFalse();
+    }
+
+    private static List<String> java(String... arguments) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        for (String option : System.getProperty("startup.jvm-opts", "").split("\\s+")) {
+            if (!option.isEmpty()) {
+                command.add(option);
+            }
+        }
+        command.addAll(List.of(arguments));
+        return command;
+    }
+
+    private StartupReport.Run measure(Build build, AmapStubServer stub, Duration load, String name) throws Exception {
+        int port = freePort();
+        List<String> full = new ArrayList<>(build.command());
+        full.add("--server.port=" + port);
+        full.add("--amap.api.base-url=" + stub.baseUrl());
+        full.add("--amap.api.key=startup");
+        full.add("--amap.api.rate-limit.qps=10000");
+        full.add("--amap.api.rate-limit.burst-capacity=10000");
+        full.add("--management.tracing.sampling.probability=0");
+
+        Path log = Files.createDirectories(Path.of("target", "startup")).resolve(name + ".log").toAbsolutePath();
+        var builder = new ProcessBuilder(full).redirectErrorStream(true).redirectOutput(log.toFile());
+        if (build.workingDirectory() != null) {
+            builder.directory(build.workingDirectory().toFile());
+        }
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            awaitReady(process, port, log);
+            long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long readyRss = rssKb(process.pid());
+            firstToolCall(port);
+            long firstCallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (!load.isZero()) {
+                new McpLoadGenerator("http://127.0.0.1:" + port, "/mcp", ToolMix.realistic()).run(4, load);
+            }
+            long loadedRss = rssKb(process.pid());
+            logger.info("{} 就绪时间: {}ms, 首次工具调用: {}ms, 就绪RSS: {}KB, 压测后RSS: {}KB",
+                    name, readyMillis, firstCallMillis, readyRss, loadedRss);
+            return new StartupReport.Run(readyMillis, firstCallMillis, readyRss, loadedRss);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitReady(Process process, int port, Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("进程已退出，退出码: " + process.exitValue() + "，日志: " + log);
+            }
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 端口尚未监听
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("启动超时，日志: " + log);
+    }
+
+    /**
+     * 建立MCP会话并调用一次地理编码工具，包含会话初始化与工具调用路径上懒加载Bean的创建
+     */
+    private static void firstToolCall(int port) {
+        var transport = HttpClientStreamableHttpTransport.builder("http://127.0.0.1:" + port).endpoint("/mcp").build();
+        try (McpSyncClient client = McpClient.sync(transport).requestTimeout(READY_TIMEOUT).build()) {
+            client.initialize();
+            McpSchema.CallToolResult result = client.callTool(new McpSchema.CallToolRequest("maps_geo",
+                    Map.of("address", "北京市朝阳区阜通东大街6号", "city", "北京")));
+            // 工具执行失败时返回null，序列化后为文本"null"
+            if (Boolean.TRUE.equals(result.isError()) || result.content().isEmpty()
+                    || result.content().get(0) instanceof McpSchema.TextContent text && "null".equals(text.text())) {
+                throw new IllegalStateException("首次工具调用失败: " + result.content());
+            }
+        }
+    }
+
+    /**
+     * 读取进程的常驻内存，非Linux系统返回-1
+     */
+    private static long rssKb(long pid) {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.debug("读取RSS失败: {}", e.getMessage());
+        }
+        return -1;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.fottas.amapmcpserver.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * 启动对比结果：每种构建多次冷启动的就绪时间、首次工具调用时间与常驻内存（RSS），并给出相对jvm构建的比值
+ */
+public class StartupReport {
+
+    private static final String BASELINE = "jvm";
+
+    /**
+     * 一次冷启动
+     *
+     * @param readyMillis 从创建进程到健康检查返回200的时间
+     * @param firstCallMillis 从创建进程到第一次工具调用成功返回的时间
+     * @param readyRssKb 就绪时的RSS，无法读取时为-1
+     * @param loadedRssKb 短时压测之后的RSS，无法读取时为-1
+     */
+    record Run(long readyMillis, long firstCallMillis, long readyRssKb, long loadedRssKb) {
+    }
+
+    private final Map<String, List<Run>> runs = new LinkedHashMap<>();
+
+    void record(String build, Run run) {
+        runs.computeIfAbsent(build, key -> new ArrayList<>()).add(run);
+    }
+
+    public long medianReadyMillis(String build) {
+        return median(build, Run::readyMillis);
+    }
+
+    public long medianFirstCallMillis(String build) {
+        return median(build, Run::firstCallMillis);
+    }
+
+    public long medianReadyRssKb(String build) {
+        return median(build, Run::readyRssKb);
+    }
+
+    public long medianLoadedRssKb(String build) {
+        return median(build, Run::loadedRssKb);
+    }
+
+    public boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    public String format() {
+        var out = new StringBuilder();
+        out.append(String.format("%-10s %6s %12s %14s %14s %14s %14s%n",
+                "构建", "次数", "就绪p50(ms)", "首次调用p50(ms)", "首次调用max(ms)", "就绪RSS(MB)", "压测后RSS(MB)"));
+        runs.forEach((build, list) -> out.append(String.format("%-10s %6d %12d %14d %14d %14s %14s%n", build, list.size(),
+                medianReadyMillis(build), medianFirstCallMillis(build),
+                list.stream().mapToLong(Run::firstCallMillis).max().orElse(0),
+                megabytes(medianReadyRssKb(build)), megabytes(medianLoadedRssKb(build)))));
+        if (runs.containsKey(BASELINE)) {
+            runs.keySet().stream().filter(build -> !build.equals(BASELINE)).forEach(build -> out.append(String.format(
+                    "%s/%s 就绪时间: %s, 首次调用: %s, 就绪RSS: %s, 压测后RSS: %s%n", build, BASELINE,
+                    ratio(medianReadyMillis(build), medianReadyMillis(BASELINE)),
+                    ratio(medianFirstCallMillis(build), medianFirstCallMillis(BASELINE)),
+                    ratio(medianReadyRssKb(build), medianReadyRssKb(BASELINE)),
+                    ratio(medianLoadedRssKb(build), medianLoadedRssKb(BASELINE)))));
+        }
+        return out.toString();
+    }
+
+    private long median(String build, ToLongFunction<Run> metric) {
+        long[] values = runs.getOrDefault(build, List.of()).stream().mapToLong(metric).toArray();
+        if (values.length == 0) {
+            return -1;
+        }
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    private static String megabytes(long kb) {
+        return kb < 0 ? "-" : String.format("%.1f", kb / 1024.0);
+    }
+
+    private static String ratio(long value, long base) {
+        return value < 0 || base <= 0 ? "-" : String.format("%.2f", (double) value / base);
+    }
+}
@@ -0,0 +1,81 @@
+package com.fottas.amapmcpserver.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * 按权重组合的工具调用
+ * 参数从较小的取值池中抽取，重复的参数会命中服务端缓存，使放大倍数接近真实会话
+ */
+public class ToolMix {
+
+    /**
+     * 单个工具及其参数生成方式
+     */
+    public record Entry(String tool, int weight, Function<RandomGenerator, Map<String, Object>> arguments) {
+    }
+
+    private static final String[] ADDRESSES = {"北京市朝阳区阜通东大街6号", "北京市海淀区中关村大街27号", "北京市东城区天安门广场",
+            "北京市西城区金融大街7号", "北京市朝阳区建国路87号", "北京市丰台区丽泽路16号", "北京市通州区新华大街1号", "北京市大兴区黄村西大街"};
+    private static final String[] KEYWORDS = {"咖啡", "便利店", "加油站", "医院", "火锅", "酒店", "地铁站", "银行", "超市", "停车场"};
+    private static final String[] CITIES = {"北京", "上海", "广州", "深圳", "杭州", "110000", "310000"};
+    private static final String[] POI_IDS = {"B000A7BD6C", "B0FFG25761", "B0FFG68707", "B0FFG80080", "B000A83M61"};
+
+    private final List<Entry> entries = new ArrayList<>();
+    private int totalWeight;
+
+    public ToolMix add(String tool, int weight, Function<RandomGenerator, Map<String, Object>> arguments) {
+        entries.add(new Entry(tool, weight, arguments));
+        totalWeight += weight;
+        return this;
+    }
+
+    public Entry pick(RandomGenerator random) {
+        int roll = random.nextInt(totalWeight);
+        for (Entry entry : entries) {
+            roll -= entry.weight();
+            if (roll < 0) {
+                return entry;
+            }
+        }
+        throw new IllegalStateException("工具组合为空");
+    }
+
+    /**
+     * 以地点查询和路线规划为主的默认组合
+     */
+    public static ToolMix realistic() {
+        return new ToolMix()
+                .add("maps_geo", 15, random -> Map.of("address", pick(random, ADDRESSES), "city", "北京"))
+                .add("maps_regeocode", 8, random -> Map.of("location", location(random, 40)))
+                .add("maps_text_search", 15, random -> Map.of("keywords", pick(random, KEYWORDS), "region", "北京", "citylimit", true))
+                .add("maps_around_search", 15, random -> Map.of("keywords", pick(random, KEYWORDS), "location", location(random, 40), "radius", "1000"))
+                .add("maps_search_detail", 5, random -> Map.of("id", pick(random, POI_IDS)))
+                .add("maps_direction_driving", 12, random -> Map.of("origin", location(random, 60), "destination", location(random, 60)))
+                .add("maps_direction_walking", 6, random -> Map.of("origin", location(random, 60), "destination", location(random, 60)))
+                .add("maps_direction_bicycling", 3, random -> Map.of("origin", location(random, 60), "destination", location(random, 60)))
+                .add("maps_direction_electrobike", 2, random -> Map.of("origin", location(random, 60), "destination", location(random, 60)))
+                .add("maps_direction_transit_integrated", 8, random -> Map.of("origin", location(random, 60), "destination", location(random, 60),
+                        "city", "北京", "cityd", "北京"))
+                .add("maps_distance", 5, random -> Map.of("origins", location(random, 60) + "|" + location(random, 60),
+                        "destination", location(random, 60), "type", "1"))
+                .add("maps_weather", 5, random -> Map.of("city", pick(random, CITIES)))
+                .add("maps_ip_location", 1, random -> Map.of("ip", "114.247.50." + random.nextInt(1, 255)));
+    }
+
+    private static String pick(RandomGenerator random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * 北京城区内的坐标，取值落在边长约1公里的网格上，共points*points个点
+     */
+    private static String location(RandomGenerator random, int points) {
+        double lng = 116.25 + random.nextInt(points) * 0.01;
+        double lat = 39.80 + random.nextInt(points) * 0.008;
+        return String.format("%.6f,%.6f", lng, lat);
+    }
+}
@@ -0,0 +1,57 @@
+package com.fottas.amapmcpserver.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 高德接口响应样本
+ * 样本位于fixtures/amap下，按接口路径存放（如/v5/direction/driving对应fixtures/amap/v5/direction/driving.json），
+ * 供解析测试、基准测试与本地模拟服务共用
+ */
+public final class AmapFixtures {
+
+    /**
+     * 接口路径与响应类型
+     */
+    public static final Map<String, Class<? extends AmapApiModels.ApiResult<?>>> ENDPOINTS = new LinkedHashMap<>();
+
+    static {
+        ENDPOINTS.put("/v3/geocode/geo", AmapApiModels.GeocodingResponse.class);
+        ENDPOINTS.put("/v3/geocode/regeo", AmapApiModels.ReverseGeocodingResponse.class);
+        ENDPOINTS.put("/v5/place/text", PoiModels.PoiResponse.class);
+        ENDPOINTS.put("/v5/place/around", PoiModels.PoiResponse.class);
+        ENDPOINTS.put("/v5/place/polygon", PoiModels.PoiResponse.class);
+        ENDPOINTS.put("/v5/place/detail", PoiModels.PoiResponse.class);
+        ENDPOINTS.put("/v5/direction/driving", RouteModels.RouteResponse.class);
+        ENDPOINTS.put("/v5/direction/walking", RouteModels.RouteResponse.class);
+        ENDPOINTS.put("/v5/direction/bicycling", RouteModels.RouteResponse.class);
+        ENDPOINTS.put("/v5/direction/electrobike", RouteModels.RouteResponse.class);
+        ENDPOINTS.put("/v5/direction/transit/integrated", RouteModels.TransitRouteResponse.class);
+        ENDPOINTS.put("/v3/distance", AmapOtherModels.DistanceResponse.class);
+        ENDPOINTS.put("/v3/weather/weatherInfo", AmapOtherModels.WeatherResponse.class);
+        ENDPOINTS.put("/v3/ip", AmapOtherModels.IpLocationResponse.class);
+        ENDPOINTS.put("/v3/config/district", AmapOtherModels.DistrictResponse.class);
+        ENDPOINTS.put("/v3/traffic/status/rectangle", AmapOtherModels.TrafficResponse.class);
+    }
+
+    private AmapFixtures() {
+    }
+
+    /**
+     * 读取接口样本的原始响应体
+     */
+    public static byte[] load(String endpoint) {
+        String path = "/fixtures/amap" + endpoint + ".json";
+        try (InputStream in = AmapFixtures.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalArgumentException("没有接口样本: " + endpoint);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.fottas.amapmcpserver.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmapFixturesTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void everyFixtureDecodesToItsResponseType() throws Exception {
+        for (var entry : AmapFixtures.ENDPOINTS.entrySet()) {
+            AmapApiModels.ApiResult<?> response = objectMapper.readValue(AmapFixtures.load(entry.getKey()), entry.getValue());
+
+            // 样本字段类型与模型不一致时readValue会直接失败
+            assertThat(response.isSuccess()).as(entry.getKey()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmapMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AmapMetrics metrics = new AmapMetrics(registry, new AmapConfigProperties());
+
+    @Test
+    void apiCallsAreCountedByInfocode() {
+        var ok = new AmapOtherModels.DistanceResponse();
+        ok.setStatus("1");
+        ok.setInfocode("10000");
+        var overQuota = new AmapOtherModels.DistanceResponse();
+        overQuota.setStatus("0");
+        overQuota.setInfocode("10003");
+
+        metrics.recordApi("/v3/distance", ok, TimeUnit.MILLISECONDS.toNanos(80));
+        metrics.recordApi("/v3/distance", ok, TimeUnit.MILLISECONDS.toNanos(120));
+        metrics.recordApi("/v3/distance", overQuota, TimeUnit.MILLISECONDS.toNanos(30));
+        metrics.recordApiError("/v3/distance", new IllegalStateException(), TimeUnit.SECONDS.toNanos(3));
+
+        assertThat(registry.get(AmapMetrics.API_RESPONSES).tag("infocode", "10000").counter().count()).isEqualTo(2);
+        assertThat(registry.get(AmapMetrics.API_RESPONSES).tag("infocode", "10003").counter().count()).isEqualTo(1);
+        assertThat(registry.get(AmapMetrics.API_RESPONSES).tag("infocode", "IllegalStateException").counter().count()).isEqualTo(1);
+        var success = registry.get(AmapMetrics.API_DURATION).tag("outcome", AmapMetrics.OUTCOME_SUCCESS).timer();
+        assertThat(success.count()).isEqualTo(2);
+        // 80ms落在100ms桶内，120ms不在
+        assertThat(success.takeSnapshot().histogramCounts())
+                .filteredOn(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 100)
+                .singleElement()
+                .satisfies(bucket -> assertThat(bucket.count()).isEqualTo(1));
+    }
+
+    @Test
+    void payloadSizeIsRecordedWhenBodyIsRead() {
+        var request = ClientRequest.create(HttpMethod.GET, URI.create("https://restapi.amap.com/v3/weather/weatherInfo?city=110000")).build();
+        String body = "{\"status\":\"1\",\"lives\":[]}";
+
+        String read = metrics.payloadSizeFilter()
+                .filter(request, ignored -> Mono.just(ClientResponse.create(HttpStatus.OK).body(body).build()))
+                .flatMap(response -> response.bodyToMono(String.class))
+                .block();
+
+        assertThat(read).isEqualTo(body);
+        var summary = registry.get(AmapMetrics.API_PAYLOAD_SIZE).tag("endpoint", "/v3/weather/weatherInfo").summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(body.length());
+    }
+}
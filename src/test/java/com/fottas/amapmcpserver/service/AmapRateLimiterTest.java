@@ -0,0 +1,139 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AmapRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * 北京时间2026-10-19 12:00:00，对齐到窗口起点
+     */
+    private final AtomicLong wallClock = new AtomicLong(1_792_382_400_000L);
+
+    @Test
+    void burstIsServedImmediatelyThenSpacedByRate() {
+        var properties = new AmapConfigProperties();
+        properties.getRateLimit().setQps(10);
+        properties.getRateLimit().setBurstCapacity(2);
+        var limiter = new AmapRateLimiter(properties, clock::get);
+
+        assertThat(limiter.reserve("/v5/place/text")).isZero();
+        assertThat(limiter.reserve("/v5/place/text")).isZero();
+        assertThat(limiter.reserve("/v5/place/text")).isEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(limiter.reserve("/v5/place/text")).isEqualTo(Duration.ofMillis(200).toNanos());
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(limiter.reserve("/v5/place/text")).isZero();
+    }
+
+    @Test
+    void apiLimitAppliesOnTopOfGlobalLimit() {
+        var properties = new AmapConfigProperties();
+        var apiLimit = new AmapConfigProperties.ApiLimitConfig();
+        apiLimit.setQps(1);
+        apiLimit.setBurstCapacity(1);
+        properties.getRateLimit().getApiLimits().put("/v3/distance", apiLimit);
+        properties.getRateLimit().setMaxWait(Duration.ofMillis(500));
+        var limiter = new AmapRateLimiter(properties, clock::get);
+
+        assertThat(limiter.reserve("/v3/distance")).isZero();
+        assertThat(limiter.reserve("/v3/distance")).isNegative();
+        assertThat(limiter.reserve("/v5/place/text")).isZero();
+    }
+
+    @Test
+    void replicasShareTheWindowLimitThroughLeases() {
+        var properties = distributed(10, 4, 0);
+        var counters = new InMemorySharedCounters();
+        List<AmapRateLimiter> fleet = List.of(replica(properties, counters), replica(properties, counters));
+
+        assertThat(drainWindow(fleet)).isEqualTo(10);
+
+        wallClock.addAndGet(1000);
+        assertThat(fleet.get(1).reserveShared("/v5/place/text").block()).isZero();
+    }
+
+    @Test
+    void dailyQuotaIsSharedAndUnusedLeasesAreReturned() {
+        var properties = distributed(10, 4, 12);
+        var counters = new InMemorySharedCounters();
+        List<AmapRateLimiter> fleet = List.of(replica(properties, counters), replica(properties, counters));
+        String dayKey = "amap-mcp:rate:day:2026-10-19";
+
+        assertThat(fleet.get(0).reserveShared("/v5/place/text").block()).isZero();
+        assertThat(counters.get(dayKey)).isEqualTo(4);
+        wallClock.addAndGet(1000);
+        // 新窗口的第一次调用归还上个窗口剩余的3个令牌，再租用4个
+        assertThat(fleet.get(0).reserveShared("/v5/place/text").block()).isZero();
+        assertThat(counters.get(dayKey)).isEqualTo(5);
+
+        int granted = 2;
+        for (int window = 0; window < 3; window++) {
+            wallClock.addAndGet(1000);
+            granted += drainWindow(fleet);
+        }
+        assertThat(granted).isEqualTo(12);
+        assertThatThrownBy(() -> fleet.get(1).reserveShared("/v5/place/text").block())
+                .isInstanceOf(GlobalExceptionHandler.RateLimitException.class)
+                .hasMessageContaining("当日配额");
+    }
+
+    @Test
+    void unavailableSharedStoreFallsBackToLocalBucket() {
+        var properties = distributed(10, 4, 0);
+        properties.getRateLimit().setBurstCapacity(1);
+        var limiter = replica(properties, (key, delta, ttl) -> Mono.error(new IllegalStateException("连接失败")));
+
+        assertThat(limiter.reserveShared("/v5/place/text").block()).isZero();
+        assertThat(limiter.reserveShared("/v5/place/text").block()).isNegative();
+    }
+
+    private AmapConfigProperties distributed(int qps, int leaseSize, long dailyQuota) {
+        var properties = new AmapConfigProperties();
+        properties.getRateLimit().setQps(qps);
+        properties.getRateLimit().setMaxWait(Duration.ZERO);
+        properties.getRateLimit().getDistributed().setEnabled(true);
+        properties.getRateLimit().getDistributed().setLeaseSize(leaseSize);
+        properties.getRateLimit().getDistributed().setDailyQuota(dailyQuota);
+        return properties;
+    }
+
+    private AmapRateLimiter replica(AmapConfigProperties properties, SharedCounters counters) {
+        return new AmapRateLimiter(properties, clock::get, wallClock::get, counters);
+    }
+
+    /**
+     * 各副本交替调用，直到当前窗口内都拿不到令牌，返回成功次数
+     */
+    private static int drainWindow(List<AmapRateLimiter> fleet) {
+        int granted = 0;
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (AmapRateLimiter limiter : fleet) {
+                Long wait;
+                try {
+                    wait = limiter.reserveShared("/v5/place/text").block();
+                } catch (GlobalExceptionHandler.RateLimitException e) {
+                    continue;
+                }
+                if (wait != null && wait == 0) {
+                    granted++;
+                    progress = true;
+                }
+            }
+        }
+        return granted;
+    }
+}
@@ -0,0 +1,63 @@
+package com.fottas.amapmcpserver.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AmapTracingTest {
+
+    private final ObservationRegistry registry = ObservationRegistry.create();
+    private final List<Observation.Context> stopped = new CopyOnWriteArrayList<>();
+    private final AmapTracing tracing = new AmapTracing(registry);
+
+    AmapTracingTest() {
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    void childObservationsFollowReactorContextAcrossThreads() {
+        Observation tool = Observation.createNotStarted("amap.tool", registry);
+
+        Integer value = tool.observe(() -> tracing.propagate(tracing.observe("amap.api", "地理编码", "/v3/geocode/geo",
+                        Mono.deferContextual(context -> Mono.fromCallable(() -> tracing.observe(context, "amap.api.decode", () -> 42)))
+                                .subscribeOn(Schedulers.parallel())))
+                .block());
+
+        assertThat(value).isEqualTo(42);
+        Map<String, Observation.Context> byName = new ConcurrentHashMap<>();
+        stopped.forEach(context -> byName.put(context.getName(), context));
+        assertThat(byName).containsOnlyKeys("amap.tool", "amap.api", "amap.api.decode");
+        assertThat(byName.get("amap.api.decode").getParentObservation().getContextView().getName()).isEqualTo("amap.api");
+        assertThat(byName.get("amap.api").getParentObservation().getContextView().getName()).isEqualTo("amap.tool");
+    }
+
+    @Test
+    void errorsAreRecordedOnTheObservation() {
+        Mono<Object> failing = tracing.observe("amap.api", "天气查询", "/v3/weather/weatherInfo",
+                Mono.error(new IllegalStateException("boom")));
+
+        assertThat(failing.onErrorResume(error -> Mono.empty()).block()).isNull();
+        assertThat(stopped).singleElement()
+                .satisfies(context -> assertThat(context.getError()).isInstanceOf(IllegalStateException.class));
+    }
+}
@@ -0,0 +1,58 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DistrictIndexTest {
+
+    private static AmapOtherModels.DistrictInfo district(String adcode, String name, Object citycode, String level,
+                                                         AmapOtherModels.DistrictInfo... children) {
+        var info = new AmapOtherModels.DistrictInfo();
+        info.setAdcode(adcode);
+        info.setName(name);
+        info.setCitycode(citycode);
+        info.setLevel(level);
+        info.setDistricts(List.of(children));
+        return info;
+    }
+
+    private static DistrictIndex sampleIndex() {
+        var chaoyang = district("110105", "朝阳区", "010", "district");
+        var haidian = district("110108", "海淀区", "010", "district");
+        var beijingCity = district("110100", "北京城区", "010", "city", chaoyang, haidian);
+        var beijing = district("110000", "北京市", "010", "province", beijingCity);
+        var hangzhou = district("330100", "杭州市", "0571", "city", district("330106", "西湖区", "0571", "district"));
+        var zhejiang = district("330000", "浙江省", Collections.emptyList(), "province", hangzhou);
+        var country = district("100000", "中华人民共和国", Collections.emptyList(), "country", beijing, zhejiang);
+        return DistrictIndex.build(List.of(country));
+    }
+
+    @Test
+    void lookupByAdcodeNameAndCitycode() {
+        DistrictIndex index = sampleIndex();
+
+        assertThat(index.size()).isEqualTo(8);
+        assertThat(index.lookup("110105")).extracting(DistrictIndex.DistrictNode::name).containsExactly("朝阳区");
+        assertThat(index.lookup("朝阳")).extracting(DistrictIndex.DistrictNode::adcode).containsExactly(110105);
+        // 直辖市的省级节点与下属区县共用citycode，只返回直辖市本身
+        assertThat(index.lookup("010")).extracting(DistrictIndex.DistrictNode::name).containsExactly("北京市");
+        assertThat(index.lookup("0571")).extracting(DistrictIndex.DistrictNode::name).containsExactly("杭州市");
+        assertThat(index.lookup(null)).extracting(DistrictIndex.DistrictNode::adcode).containsExactly(100000);
+    }
+
+    @Test
+    void hierarchyIsNavigable() {
+        DistrictIndex index = sampleIndex();
+        DistrictIndex.DistrictNode haidian = index.find(110108);
+
+        assertThat(index.parent(haidian).name()).isEqualTo("北京城区");
+        assertThat(index.parent(index.parent(haidian)).citycode()).isEqualTo("010");
+        assertThat(index.find(330000).citycode()).isNull();
+        assertThat(index.children(index.find(110100))).hasSize(2);
+    }
+}
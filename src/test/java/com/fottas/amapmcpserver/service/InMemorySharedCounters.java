@@ -0,0 +1,24 @@
+package com.fottas.amapmcpserver.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 测试用的共享计数，多个限流器共用同一实例即模拟多个副本；不处理过期
+ */
+class InMemorySharedCounters implements SharedCounters {
+
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Long> add(String key, long delta, Duration ttl) {
+        return Mono.fromSupplier(() -> counts.merge(key, delta, Long::sum));
+    }
+
+    long get(String key) {
+        return counts.getOrDefault(key, 0L);
+    }
+}
@@ -0,0 +1,91 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.geo.GeoUtils;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IsochroneServiceTest {
+
+    private static final String CENTER = "116.397428,39.909230";
+
+    @Test
+    void boundaryConvergesToUniformSpeedCircle() {
+        AmapApiService api = uniformSpeedApi(10);
+        var service = new IsochroneService(api, new AmapConfigProperties(), new ConcurrentMapCacheManager("isochroneProbeCache"));
+
+        var isochrone = service.compute(CENTER, 10, IsochroneService.Mode.DRIVING, null).block();
+
+        assertThat(isochrone.complete()).isTrue();
+        double[] ring = isochrone.ring();
+        for (int i = 0; i < ring.length; i += 2) {
+            assertThat(GeoUtils.haversine(116.397428, 39.90923, ring[i], ring[i + 1])).isCloseTo(6000, within(400.0));
+        }
+        assertThat(isochrone.requests()).isLessThanOrEqualTo(12);
+    }
+
+    @Test
+    void repeatedQueryIsServedFromProbeCache() {
+        AmapApiService api = uniformSpeedApi(10);
+        var service = new IsochroneService(api, new AmapConfigProperties(), new ConcurrentMapCacheManager("isochroneProbeCache"));
+        service.compute(CENTER, 10, IsochroneService.Mode.DRIVING, null).block();
+        clearInvocations(api);
+
+        var again = service.compute(CENTER, 10, IsochroneService.Mode.DRIVING, null).block();
+
+        assertThat(again.requests()).isZero();
+        verify(api, never()).distance(any());
+    }
+
+    @Test
+    void budgetIsRespected() {
+        AmapApiService api = uniformSpeedApi(10);
+        var service = new IsochroneService(api, new AmapConfigProperties(), new ConcurrentMapCacheManager("isochroneProbeCache"));
+
+        var isochrone = service.compute(CENTER, 10, IsochroneService.Mode.DRIVING, 2).block();
+
+        assertThat(isochrone.requests()).isEqualTo(2);
+        assertThat(isochrone.complete()).isFalse();
+    }
+
+    /**
+     * 模拟匀速路网：通行时间 = 直线距离 / 速度
+     */
+    private static AmapApiService uniformSpeedApi(double metersPerSecond) {
+        AmapApiService api = mock(AmapApiService.class);
+        when(api.distance(any())).thenAnswer(invocation -> {
+            AmapOtherModels.DistanceRequest request = invocation.getArgument(0);
+            double[] dest = GeoUtils.parseLocation(request.getDestination());
+            String[] origins = request.getOrigins().split("\\|");
+            List<AmapOtherModels.DistanceInfo> results = new ArrayList<>();
+            for (int i = 0; i < origins.length; i++) {
+                double[] origin = GeoUtils.parseLocation(origins[i]);
+                double distance = GeoUtils.haversine(origin[0], origin[1], dest[0], dest[1]);
+                var info = new AmapOtherModels.DistanceInfo();
+                info.setOriginId(String.valueOf(i + 1));
+                info.setDistance(String.valueOf(Math.round(distance)));
+                info.setDuration(String.valueOf(Math.round(distance / metersPerSecond)));
+                results.add(info);
+            }
+            var response = new AmapOtherModels.DistanceResponse();
+            response.setStatus("1");
+            response.setResults(results);
+            return Mono.just(response);
+        });
+        return api;
+    }
+}
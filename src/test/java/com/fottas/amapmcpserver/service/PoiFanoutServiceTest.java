@@ -0,0 +1,208 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.geo.PreparedPolygon;
+import com.fottas.amapmcpserver.model.PoiModels;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PoiFanoutServiceTest {
+
+    @Test
+    void largePolygonIsTiledWithinLimit() {
+        PreparedPolygon polygon = PoiFanoutService.parsePolygon("116.2,39.8|116.6,40.1");
+
+        List<PoiFanoutService.Tile> tiles = PoiFanoutService.tile(polygon, 5000, 64);
+
+        assertThat(tiles).hasSizeBetween(2, 64);
+        assertThat(tiles).allSatisfy(tile -> assertThat(tile.polygon()).contains("|"));
+    }
+
+    @Test
+    void tilesOutsideTriangleAreSkipped() {
+        PreparedPolygon triangle = PoiFanoutService.parsePolygon("116.0,39.0|117.0,39.0|116.0,40.0");
+
+        List<PoiFanoutService.Tile> tiles = PoiFanoutService.tile(triangle, 11_000, 1000);
+
+        // 10 × 10 网格中右上角的分片不与三角形相交
+        assertThat(tiles.size()).isLessThan(100).isGreaterThan(50);
+    }
+
+    @Test
+    void resultsAreDeduplicatedAcrossTiles() {
+        AmapApiService api = mock(AmapApiService.class);
+        when(api.poiPolygonSearch(any())).thenReturn(Mono.just(response(
+                poi("A", "116.30,39.90"), poi("B", "116.50,40.00"), poi("OUT", "117.50,40.00"))));
+        var properties = new AmapConfigProperties();
+        properties.getPoiFanout().setTileSizeMeters(10_000);
+        var service = new PoiFanoutService(api, properties);
+
+        var search = service.polygonSearch("116.2,39.8|116.6,40.1", "超市", null).block();
+
+        assertThat(search.pois()).extracting(PoiModels.PoiInfo::getId).containsExactlyInAnyOrder("A", "B");
+        assertThat(search.complete()).isTrue();
+    }
+
+    @Test
+    void failedAndTruncatedTilesAreReported() {
+        AmapApiService api = mock(AmapApiService.class);
+        when(api.poiPolygonSearch(any())).thenAnswer(invocation -> {
+            PoiModels.PoiPolygonSearchRequest request = invocation.getArgument(0);
+            if (request.getPage_num().equals("1")) {
+                var pois = new PoiModels.PoiInfo[25];
+                for (int i = 0; i < pois.length; i++) {
+                    pois[i] = poi(request.getPolygon() + i, "116.30,39.90");
+                }
+                return Mono.just(response(pois));
+            }
+            return Mono.error(new IllegalStateException("超时"));
+        });
+        var properties = new AmapConfigProperties();
+        properties.getPoiFanout().setTileSizeMeters(100_000);
+        properties.getPoiFanout().setMaxPages(1);
+        properties.getPoiFanout().setMaxSplitDepth(0);
+        var service = new PoiFanoutService(api, properties);
+
+        var truncated = service.polygonSearch("116.2,39.8|116.6,40.1", "超市", null).block();
+
+        // 单页即达到翻页上限，且不允许继续细分
+        assertThat(truncated.truncatedTiles()).isEqualTo(1);
+        assertThat(truncated.complete()).isFalse();
+
+        properties.getPoiFanout().setMaxPages(2);
+        var failed = service.polygonSearch("116.2,39.8|116.6,40.1", "超市", null).block();
+
+        // 第二页失败时保留第一页的结果
+        assertThat(failed.failedTiles()).isEqualTo(1);
+        assertThat(failed.truncatedTiles()).isZero();
+        assertThat(failed.pois()).hasSize(25);
+        assertThat(failed.complete()).isFalse();
+    }
+
+    @Test
+    void textSearchPrefetchesPagesAfterFullFirstPage() {
+        AmapApiService api = mock(AmapApiService.class);
+        List<Integer> requested = Collections.synchronizedList(new ArrayList<>());
+        when(api.poiTextSearch(any())).thenAnswer(invocation -> {
+            PoiModels.PoiTextSearchRequest request = invocation.getArgument(0);
+            int page = Integer.parseInt(request.getPage_num());
+            requested.add(page);
+            var response = textPage(page, page < 3 ? 25 : page == 3 ? 5 : 0);
+            // 第二页较慢，其后的页在等待期间已经并发发出
+            return page == 2 ? Mono.just(response).delayElement(Duration.ofMillis(50)) : Mono.just(response);
+        });
+        var service = new PoiFanoutService(api, new AmapConfigProperties());
+
+        var search = service.textSearchAll(PoiModels.PoiTextSearchRequest.builder()
+                        .keywords("星巴克")
+                        .region("上海")
+                        .build())
+                .block();
+
+        assertThat(search.pois()).hasSize(53);
+        assertThat(search.pois().get(0).getId()).isEqualTo("0");
+        assertThat(search.complete()).isTrue();
+        // v5的count只是当前页条数，第一页已满即按并发数预取，第三页不足一页后不再继续
+        assertThat(requested).contains(1, 2, 3, 4, 5).hasSizeLessThan(8);
+    }
+
+    @Test
+    void textSearchReportsProgressWithNewPoisPerPage() {
+        AmapApiService api = mock(AmapApiService.class);
+        when(api.poiTextSearch(any())).thenAnswer(invocation -> {
+            PoiModels.PoiTextSearchRequest request = invocation.getArgument(0);
+            int page = Integer.parseInt(request.getPage_num());
+            return Mono.just(textPage(page, page < 3 ? 25 : page == 3 ? 5 : 0));
+        });
+        var service = new PoiFanoutService(api, new AmapConfigProperties());
+        List<String> events = new ArrayList<>();
+        var progress = new ToolProgress((completed, total, message, partial) ->
+                events.add(completed + "/" + total + ":" + ((List<?>) partial).size()));
+
+        var search = progress.bind(service.textSearchAll(PoiModels.PoiTextSearchRequest.builder()
+                        .keywords("星巴克")
+                        .build()))
+                .block();
+
+        assertThat(search.pois()).hasSize(53);
+        // 总页数未知，每处理完一个满页预期下一页；部分结果只包含新增的POI
+        assertThat(events).containsExactly("1/2:25", "2/3:24", "3/3:4");
+        assertThat(ToolProgress.NONE.bind(Mono.just(1)).block()).isEqualTo(1);
+    }
+
+    @Test
+    void textSearchKeepsFetchedPagesAndReportsGaps() {
+        AmapApiService api = mock(AmapApiService.class);
+        when(api.poiTextSearch(any())).thenAnswer(invocation -> {
+            PoiModels.PoiTextSearchRequest request = invocation.getArgument(0);
+            int page = Integer.parseInt(request.getPage_num());
+            return page == 2 ? Mono.error(new IllegalStateException("超时")) : Mono.just(textPage(page, 25));
+        });
+        var properties = new AmapConfigProperties();
+        properties.getPoiFanout().setMaxPages(3);
+        var service = new PoiFanoutService(api, properties);
+        var request = PoiModels.PoiTextSearchRequest.builder().keywords("星巴克").build();
+
+        var search = service.textSearchAll(request).block();
+
+        // 第二页失败不影响第三页；第三页已满且达到翻页上限
+        assertThat(search.pois()).hasSize(50);
+        assertThat(search.failedPages()).containsExactly(2);
+        assertThat(search.truncated()).isTrue();
+        assertThat(search.limited()).isFalse();
+        assertThat(search.complete()).isFalse();
+
+        properties.getPoiFanout().setMaxPages(8);
+        properties.getPoiFanout().setMaxResults(30);
+        var limited = service.textSearchAll(request).block();
+
+        assertThat(limited.pois()).hasSize(30);
+        assertThat(limited.limited()).isTrue();
+        assertThat(limited.truncated()).isFalse();
+
+        doReturn(Mono.error(new IllegalStateException("超时"))).when(api).poiTextSearch(any());
+        var failed = service.textSearchAll(request).block();
+
+        assertThat(failed.pois()).isEmpty();
+        assertThat(failed.failedPages()).containsExactly(1);
+        assertThat(failed.complete()).isFalse();
+    }
+
+    /**
+     * 第page页的v5响应，count与当前页条数相同；相邻页之间有一条重复数据
+     */
+    private static PoiModels.PoiResponse textPage(int page, int size) {
+        var pois = new PoiModels.PoiInfo[size];
+        for (int i = 0; i < size; i++) {
+            pois[i] = poi(String.valueOf((page - 1) * 24 + i), "121.47,31.23");
+        }
+        var response = response(pois);
+        response.setCount(String.valueOf(size));
+        return response;
+    }
+
+    private static PoiModels.PoiResponse response(PoiModels.PoiInfo... pois) {
+        var response = new PoiModels.PoiResponse();
+        response.setStatus("1");
+        response.setPois(List.of(pois));
+        return response;
+    }
+
+    private static PoiModels.PoiInfo poi(String id, String location) {
+        var poi = new PoiModels.PoiInfo();
+        poi.setId(id);
+        poi.setLocation(location);
+        return poi;
+    }
+}
@@ -0,0 +1,87 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.model.PoiModels;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PoiSpatialIndexTest {
+
+    private final PoiSpatialIndex index = new PoiSpatialIndex(new AmapConfigProperties());
+
+    @Test
+    void completeAroundSearchAnswersSmallerRadiusLocally() {
+        index.recordAround(aroundRequest("116.397428,39.90923", "3000"),
+                response(poi("A", "116.398,39.910"), poi("B", "116.410,39.915")));
+
+        var result = index.findAround("咖啡", null, "116.397428,39.90923", "1000", 10);
+
+        assertThat(result).isPresent();
+        assertThat(result.get()).extracting(PoiModels.PoiInfo::getId).containsExactly("A");
+    }
+
+    @Test
+    void partialResultsAreOnlySampled() {
+        var request = aroundRequest("116.397428,39.90923", "3000");
+        request.setPage_size("2");
+        index.recordAround(request, response(poi("A", "116.398,39.910"), poi("B", "116.410,39.915")));
+
+        assertThat(index.findAround("咖啡", null, "116.397428,39.90923", "1000", 10)).isEmpty();
+        assertThat(index.coverageOf("116.398,39.910", "咖啡", null)).contains(PoiSpatialIndex.Coverage.SAMPLED);
+    }
+
+    @Test
+    void droppedPoisKeepTheirCellsSampled() {
+        var properties = new AmapConfigProperties();
+        properties.getPoiIndex().setMaxPois(1);
+        var bounded = new PoiSpatialIndex(properties);
+        bounded.recordAround(aroundRequest("116.397428,39.90923", "3000"),
+                response(poi("A", "116.398,39.910"), poi("B", "116.410,39.915")));
+
+        // 超出容量的B所在网格只能算采样
+        assertThat(bounded.coverageOf("116.398,39.910", "咖啡", null)).contains(PoiSpatialIndex.Coverage.FULL);
+        assertThat(bounded.coverageOf("116.410,39.915", "咖啡", null)).contains(PoiSpatialIndex.Coverage.SAMPLED);
+
+        index.recordAround(aroundRequest("116.397428,39.90923", "3000"),
+                response(poi("A", "116.398,39.910"), poi("C", null)));
+
+        // 位置未知的POI可能在任一网格内
+        assertThat(index.findAround("咖啡", null, "116.397428,39.90923", "1000", 10)).isEmpty();
+    }
+
+    @Test
+    void otherQueriesAreNotAnswered() {
+        index.recordAround(aroundRequest("116.397428,39.90923", "3000"), response(poi("A", "116.398,39.910")));
+
+        assertThat(index.findAround("酒店", null, "116.397428,39.90923", "1000", 10)).isEmpty();
+        assertThat(index.findNearest("咖啡", null, "116.397428,39.90923", 1))
+                .hasValueSatisfying(pois -> assertThat(pois).extracting(PoiModels.PoiInfo::getId).containsExactly("A"));
+    }
+
+    private static PoiModels.PoiAroundSearchRequest aroundRequest(String location, String radius) {
+        return PoiModels.PoiAroundSearchRequest.builder()
+                .keywords("咖啡")
+                .location(location)
+                .radius(radius)
+                .build();
+    }
+
+    private static PoiModels.PoiResponse response(PoiModels.PoiInfo... pois) {
+        var response = new PoiModels.PoiResponse();
+        response.setStatus("1");
+        response.setCount(String.valueOf(pois.length));
+        response.setPois(List.of(pois));
+        return response;
+    }
+
+    private static PoiModels.PoiInfo poi(String id, String location) {
+        var poi = new PoiModels.PoiInfo();
+        poi.setId(id);
+        poi.setName(id);
+        poi.setLocation(location);
+        return poi;
+    }
+}
@@ -0,0 +1,61 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.model.AmapFixtures;
+import com.fottas.amapmcpserver.model.RouteModels;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.util.retry.Retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class RouteProjectionTest {
+
+    private static final String DRIVING = "/v5/direction/driving";
+
+    private final AmapConfigProperties properties = new AmapConfigProperties();
+    private final AmapApiService service = new AmapApiService(mock(WebClient.class), properties, Retry.max(0),
+            new PoiSpatialIndex(properties), new AmapRateLimiter(properties, System::nanoTime),
+            new AmapMetrics(new SimpleMeterRegistry(), properties), new AmapTracing(ObservationRegistry.NOOP),
+            Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void summarySkipsStepsWhileDecoding() throws Exception {
+        RouteModels.Path path = decode(RouteModels.Projection.SUMMARY);
+
+        assertThat(path.getSteps()).isNull();
+        assertThat(path.getDistance()).isNotBlank();
+        assertThat(path.getCost().getDuration()).isNotBlank();
+    }
+
+    @Test
+    void stepsSkipGeometryAndGeometryKeepsEverything() throws Exception {
+        RouteModels.Step step = decode(RouteModels.Projection.STEPS).getSteps().get(0);
+        assertThat(step.getInstruction()).isNotBlank();
+        assertThat(step.getPolyline()).isNull();
+        assertThat(step.getTmcs()).isNull();
+
+        assertThat(decode(RouteModels.Projection.GEOMETRY).getSteps().get(0).getPolyline()).isNotBlank();
+    }
+
+    @Test
+    void projectionIsNotSentAsRequestParameter() {
+        var request = new RouteModels.DrivingRouteRequest("116.1,39.1", "116.2,39.2");
+        request.setProjection(RouteModels.Projection.GEOMETRY);
+        request.setShow_fields(RouteModels.Projection.GEOMETRY.getShowFields());
+
+        assertThat(service.buildRequestParams(request))
+                .containsEntry("show_fields", "cost,polyline")
+                .doesNotContainKey("projection");
+    }
+
+    private RouteModels.Path decode(RouteModels.Projection projection) throws Exception {
+        RouteModels.RouteResponse response = service.decode(DRIVING, AmapFixtures.load(DRIVING),
+                RouteModels.RouteResponse.class, projection.getView());
+        return response.getRoute().getPaths().get(0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.fottas.amapmcpserver.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TourSolverTest {
+
+    @Test
+    void pointsOnLineAreVisitedInOrder() {
+        double[] xs = {0, 5, 1, 4, 2, 3};
+        double[] cost = euclidean(xs, new double[xs.length]);
+
+        int[] tour = TourSolver.solve(cost, xs.length, false);
+
+        assertThat(tour).containsExactly(0, 2, 4, 5, 3, 1);
+        assertThat(TourSolver.tourCost(cost, xs.length, tour, false)).isEqualTo(5.0);
+    }
+
+    @Test
+    void localSearchNeverWorsensNearestNeighbour() {
+        Random random = new Random(42);
+        int n = 50;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextDouble() * 100;
+            ys[i] = random.nextDouble() * 100;
+        }
+        double[] cost = euclidean(xs, ys);
+
+        int[] tour = TourSolver.solve(cost, n, true);
+
+        assertThat(tour[0]).isZero();
+        int[] sorted = tour.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; i++) {
+            assertThat(sorted[i]).isEqualTo(i);
+        }
+        double initial = TourSolver.tourCost(cost, n, TourSolver.nearestNeighbour(cost, n), true);
+        assertThat(TourSolver.tourCost(cost, n, tour, true)).isLessThan(initial);
+    }
+
+    private static double[] euclidean(double[] xs, double[] ys) {
+        int n = xs.length;
+        double[] cost = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                cost[i * n + j] = Math.hypot(xs[i] - xs[j], ys[i] - ys[j]);
+            }
+        }
+        return cost;
+    }
+}
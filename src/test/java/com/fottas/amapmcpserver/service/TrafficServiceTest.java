@@ -0,0 +1,56 @@
+package com.fottas.amapmcpserver.service;
+
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrafficServiceTest {
+
+    @Test
+    void overlappingRectanglesShareAlignedTiles() {
+        var first = TrafficService.tiles(TrafficService.parseRectangle("116.341,39.901;116.379,39.935"), 0.02);
+        var second = TrafficService.tiles(TrafficService.parseRectangle("116.375,39.925|116.362,39.912"), 0.02);
+
+        assertThat(first).hasSize(4);
+        assertThat(first).containsAll(second);
+        assertThat(first.get(0).rectangle(0.02)).isEqualTo("116.340000,39.900000;116.360000,39.920000");
+    }
+
+    @Test
+    void roadsFromNeighbouringTilesAreMergedOnce() {
+        var shared = road("长安街", "1", "116.38,39.91;116.39,39.91");
+        var congested = road("二环", "3", "116.37,39.92;116.37,39.93");
+        var outside = road("五环", "2", "116.50,40.00;116.51,40.00");
+
+        var summary = TrafficService.merge(List.of(response(shared, outside), response(shared, congested)),
+                new double[]{116.35, 39.90, 116.39, 39.935}, 3, 10);
+
+        assertThat(summary.roads()).extracting(TrafficService.Road::name).containsExactly("二环", "长安街");
+        assertThat(summary.shares()[1] + summary.shares()[3]).isCloseTo(1.0, within(1e-9));
+        // 三个网格中只有两个返回结果
+        assertThat(summary.failedTiles()).isEqualTo(1);
+        assertThat(summary.complete()).isFalse();
+    }
+
+    private static AmapOtherModels.TrafficResponse response(AmapOtherModels.TrafficRoad... roads) {
+        var info = new AmapOtherModels.TrafficInfo();
+        info.setRoads(List.of(roads));
+        var response = new AmapOtherModels.TrafficResponse();
+        response.setStatus("1");
+        response.setTrafficinfo(info);
+        return response;
+    }
+
+    private static AmapOtherModels.TrafficRoad road(String name, String status, String polyline) {
+        var road = new AmapOtherModels.TrafficRoad();
+        road.setName(name);
+        road.setStatus(status);
+        road.setDirection("东向西");
+        road.setPolyline(polyline);
+        return road;
+    }
+}
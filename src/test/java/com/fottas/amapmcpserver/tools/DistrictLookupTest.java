@@ -0,0 +1,79 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fottas.amapmcpserver.model.AmapFixtures;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import com.fottas.amapmcpserver.model.McpResponseModels;
+import com.fottas.amapmcpserver.service.AmapApiService;
+import com.fottas.amapmcpserver.service.DistrictIndex;
+import com.fottas.amapmcpserver.service.DistrictIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * maps_district：本地索引命中时直接返回，未命中时查询高德行政区划接口
+ */
+class DistrictLookupTest {
+
+    private final AmapApiService api = mock(AmapApiService.class);
+    private final DistrictIndexService districtIndexService = mock(DistrictIndexService.class);
+    private AmapMcpTools tools;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var online = Jackson2ObjectMapperBuilder.json().build()
+                .readValue(AmapFixtures.load("/v3/config/district"), AmapOtherModels.DistrictResponse.class);
+        when(api.district(any())).thenReturn(Mono.just(online));
+
+        var chaoyang = new AmapOtherModels.DistrictInfo();
+        chaoyang.setAdcode("110105");
+        chaoyang.setName("朝阳区");
+        chaoyang.setCitycode("010");
+        chaoyang.setLevel("district");
+        var beijing = new AmapOtherModels.DistrictInfo();
+        beijing.setAdcode("110000");
+        beijing.setName("北京市");
+        beijing.setCitycode("010");
+        beijing.setLevel("province");
+        beijing.setDistricts(List.of(chaoyang));
+        var country = new AmapOtherModels.DistrictInfo();
+        country.setAdcode("100000");
+        country.setName("中华人民共和国");
+        country.setCitycode(Collections.emptyList());
+        country.setLevel("country");
+        country.setDistricts(List.of(beijing));
+        when(districtIndexService.currentIndex()).thenReturn(Optional.of(DistrictIndex.build(List.of(country))));
+
+        tools = StubbedAmapMcpTools.create(api);
+        ReflectionTestUtils.setField(tools, "districtIndexService", districtIndexService);
+    }
+
+    @Test
+    void municipalityCitycodeIsAnsweredLocally() {
+        var result = tools.mapsDistrict("010", "0");
+
+        assertThat(result.getDistricts()).extracting(McpResponseModels.DistrictItem::getName).containsExactly("北京市");
+        verify(api, never()).district(any());
+    }
+
+    @Test
+    void localMissFallsBackToAmap() {
+        var result = tools.mapsDistrict("杭州", "1");
+
+        assertThat(result.getDistricts()).isNotEmpty();
+        verify(api).district(any());
+    }
+}
@@ -0,0 +1,73 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fottas.amapmcpserver.service.ToolProgress;
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class McpToolProgressTest {
+
+    @Test
+    void progressTokenReceivesMonotonicNotifications() {
+        McpAsyncServerExchange exchange = mock(McpAsyncServerExchange.class);
+        List<McpSchema.ProgressNotification> notifications = new CopyOnWriteArrayList<>();
+        when(exchange.progressNotification(any())).thenAnswer(invocation -> {
+            notifications.add(invocation.getArgument(0));
+            return Mono.empty();
+        });
+        var request = new McpSchema.CallToolRequest("maps_polygon_search", Map.of(), Map.of("progressToken", "token-1"));
+        var toolContext = new ToolContext(McpToolProgress.toolContext(exchange, request));
+
+        ToolProgress progress = McpToolProgress.open(toolContext, partial -> "第" + partial + "片");
+        progress.expect(20);
+        // 子请求在多个线程上并发完成
+        progress.bind(Flux.range(1, 20)
+                        .flatMap(i -> Mono.deferContextual(context -> {
+                            ToolProgress.from(context).advance("分片完成", i);
+                            return Mono.just(i);
+                        }).subscribeOn(Schedulers.parallel())))
+                .then()
+                .block();
+
+        assertThat(notifications).hasSize(20);
+        assertThat(notifications).allSatisfy(notification -> {
+            assertThat(notification.progressToken()).isEqualTo("token-1");
+            assertThat(notification.total()).isEqualTo(20.0);
+            assertThat(notification.meta().get("partial")).asString().startsWith("第");
+        });
+        assertThat(notifications).extracting(McpSchema.ProgressNotification::progress)
+                .isSorted()
+                .doesNotHaveDuplicates()
+                .endsWith(20.0);
+    }
+
+    @Test
+    void requestWithoutProgressTokenGetsNoNotifications() {
+        McpAsyncServerExchange exchange = mock(McpAsyncServerExchange.class);
+        var request = new McpSchema.CallToolRequest("maps_polygon_search", Map.of());
+        var toolContext = new ToolContext(McpToolProgress.toolContext(exchange, request));
+
+        ToolProgress progress = McpToolProgress.open(toolContext, partial -> partial);
+        progress.expect(2);
+        progress.advance("分片完成", List.of());
+        progress.advance("分片完成", null);
+
+        assertThat(progress).isSameAs(ToolProgress.NONE);
+        assertThat(McpToolProgress.open(null, partial -> partial)).isSameAs(ToolProgress.NONE);
+        verifyNoInteractions(exchange);
+    }
+}
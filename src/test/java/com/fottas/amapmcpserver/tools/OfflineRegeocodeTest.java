@@ -0,0 +1,152 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fottas.amapmcpserver.config.AmapConfigProperties;
+import com.fottas.amapmcpserver.model.AmapApiModels;
+import com.fottas.amapmcpserver.model.AmapFixtures;
+import com.fottas.amapmcpserver.model.AmapOtherModels;
+import com.fottas.amapmcpserver.service.AmapApiService;
+import com.fottas.amapmcpserver.service.DistrictIndex;
+import com.fottas.amapmcpserver.service.DistrictIndexService;
+import com.fottas.amapmcpserver.service.OfflineRegeoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 离线逆地理编码：从边界快照样本加载区县边界，经maps_regeocode验证离线解析与回退到高德接口的情形
+ * 样本中的边界是简化的矩形，海淀区带一个内洞
+ */
+class OfflineRegeocodeTest {
+
+    private static final String WANGJING = "116.480724,39.989584";
+    private static final String HAIDIAN_HOLE = "116.22,39.97";
+    private static final String OUTSIDE = "113.26,23.13";
+
+    @TempDir
+    Path dir;
+
+    private final AmapApiService api = mock(AmapApiService.class);
+    private final DistrictIndexService districtIndexService = mock(DistrictIndexService.class);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(districtIndexService.currentIndex()).thenReturn(Optional.of(sampleIndex()));
+        var regeo = Jackson2ObjectMapperBuilder.json().build()
+                .readValue(AmapFixtures.load("/v3/geocode/regeo"), AmapApiModels.ReverseGeocodingResponse.class);
+        when(api.reverseGeocoding(any())).thenReturn(Mono.just(regeo));
+    }
+
+    @Test
+    void pointInsideDistrictResolvesOffline() throws Exception {
+        var service = loaded(Path.of(getClass().getResource("/fixtures/offline-regeo/district-boundaries.json").toURI()));
+        var tools = tools(service);
+
+        assertThat(service.locate(WANGJING)).hasValueSatisfying(path -> assertThat(path)
+                .extracting(DistrictIndex.DistrictNode::name)
+                .containsExactly("中华人民共和国", "北京市", "北京城区", "朝阳区"));
+        assertThat(service.locate("121.60,31.20")).hasValueSatisfying(path ->
+                assertThat(path.get(path.size() - 1).name()).isEqualTo("浦东新区"));
+        // 内洞和边界之外都不算命中
+        assertThat(service.locate(HAIDIAN_HOLE)).isEmpty();
+        assertThat(service.locate(OUTSIDE)).isEmpty();
+
+        var result = tools.mapsRegeocode(WANGJING, null);
+
+        assertThat(result.getProvince()).isEqualTo("北京市");
+        assertThat(result.getDistrict()).isEqualTo("朝阳区");
+        assertThat(result.getTownship()).isNull();
+        verify(api, never()).reverseGeocoding(any());
+    }
+
+    @Test
+    void streetLevelDetailFallsBackToAmap() throws Exception {
+        var service = loaded(Path.of(getClass().getResource("/fixtures/offline-regeo/district-boundaries.json").toURI()));
+        var tools = tools(service);
+
+        var result = tools.mapsRegeocode(WANGJING, true);
+
+        assertThat(result.getDistrict()).isEqualTo("朝阳区");
+        assertThat(result.getTownship()).isEqualTo("望京街道");
+        assertThat(result.getStreet()).isEqualTo("阜通东大街6号");
+        assertThat(result.getFormattedAddress()).isEqualTo("北京市朝阳区望京街道方恒国际中心B座");
+        verify(api).reverseGeocoding(any());
+    }
+
+    @Test
+    void missingSnapshotFallsBackToAmap() {
+        var config = new AmapConfigProperties();
+        config.getOfflineRegeo().setSnapshotPath(dir.resolve("missing.json").toString());
+        var service = new OfflineRegeoService(api, districtIndexService, config, Jackson2ObjectMapperBuilder.json().build());
+        service.loadBoundaries();
+
+        assertThat(service.isReady()).isFalse();
+        assertThat(service.locate(WANGJING)).isEmpty();
+
+        var result = tools(service).mapsRegeocode(WANGJING, null);
+
+        assertThat(result.getProvince()).isEqualTo("北京市");
+        assertThat(result.getDistrict()).isEqualTo("朝阳区");
+        verify(api).reverseGeocoding(any());
+    }
+
+    /**
+     * 加载快照并等待异步读取完成
+     */
+    private OfflineRegeoService loaded(Path snapshot) throws InterruptedException {
+        var config = new AmapConfigProperties();
+        config.getOfflineRegeo().setSnapshotPath(snapshot.toString());
+        var service = new OfflineRegeoService(api, districtIndexService, config, Jackson2ObjectMapperBuilder.json().build());
+        service.loadBoundaries();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!service.isReady()) {
+            assertThat(System.nanoTime()).as("等待边界加载超时").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        return service;
+    }
+
+    private AmapMcpTools tools(OfflineRegeoService service) {
+        var tools = StubbedAmapMcpTools.create(api);
+        ReflectionTestUtils.setField(tools, "offlineRegeoService", service);
+        return tools;
+    }
+
+    private static AmapOtherModels.DistrictInfo district(String adcode, String name, Object citycode, String level,
+                                                         AmapOtherModels.DistrictInfo... children) {
+        var info = new AmapOtherModels.DistrictInfo();
+        info.setAdcode(adcode);
+        info.setName(name);
+        info.setCitycode(citycode);
+        info.setLevel(level);
+        info.setDistricts(List.of(children));
+        return info;
+    }
+
+    private static DistrictIndex sampleIndex() {
+        var beijing = district("110000", "北京市", "010", "province",
+                district("110100", "北京城区", "010", "city",
+                        district("110105", "朝阳区", "010", "district"),
+                        district("110108", "海淀区", "010", "district")));
+        var shanghai = district("310000", "上海市", "021", "province",
+                district("310100", "上海城区", "021", "city",
+                        district("310115", "浦东新区", "021", "district")));
+        return DistrictIndex.build(List.of(district("100000", "中华人民共和国", Collections.emptyList(), "country",
+                beijing, shanghai)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fottas.amapmcpserver.model.AmapFixtures;
+import com.fottas.amapmcpserver.model.McpResponseModels;
+import com.fottas.amapmcpserver.model.RouteModels;
+import com.fottas.amapmcpserver.service.AmapApiService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class RouteStepCompactorTest {
+
+    private static final String ORIGIN = "116.321086,39.894913";
+    private static final String DESTINATION = "116.603039,40.080525";
+
+    @Test
+    void mergesConsecutiveStepsOnTheSameRoad() {
+        List<McpResponseModels.RouteStep> steps = List.of(
+                step("向东行驶200米右转", "", "东", 200, 60),
+                step("沿长安街行驶", "长安街", "东", 800, 120),
+                step("沿长安街继续行驶", "长安街", "东", 700, 100),
+                step("向北行驶", "", "北", 100, 30),
+                step("向北行驶到达终点", "", "北", 50, 20));
+
+        var merged = RouteStepCompactor.merge(steps);
+
+        assertThat(merged).extracting(McpResponseModels.RouteStep::getInstruction)
+                .containsExactly("向东行驶200米右转", "沿长安街行驶1.5公里", "向北行驶150米");
+        assertThat(merged.get(1).getDuration()).isEqualTo("220");
+    }
+
+    @Test
+    void fitKeepsBothEndsAndSummarizesTheMiddle() {
+        List<McpResponseModels.RouteStep> steps = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            steps.add(step("第" + i + "步，沿道路" + i + "直行后右转", "道路" + i, "东", 100, 10));
+        }
+
+        var fitted = RouteStepCompactor.fit(steps, 200);
+
+        assertThat(RouteStepCompactor.estimateTokens(fitted)).isLessThanOrEqualTo(200);
+        assertThat(fitted.get(0)).isSameAs(steps.get(0));
+        assertThat(fitted.get(fitted.size() - 1)).isSameAs(steps.get(39));
+        assertThat(fitted).filteredOn(step -> step.getInstruction().startsWith("省略")).hasSize(1);
+        assertThat(fitted.stream().mapToLong(step -> Long.parseLong(step.getDistance())).sum()).isEqualTo(4000);
+        assertThat(RouteStepCompactor.fit(steps, 200)).usingRecursiveFieldByFieldElementComparator().isEqualTo(fitted);
+    }
+
+    @Test
+    void routeResultFitsTokenBudget() throws Exception {
+        var response = Jackson2ObjectMapperBuilder.json().build().readValue(
+                AmapFixtures.load("/v5/direction/driving"), RouteModels.RouteResponse.class);
+        AmapApiService api = StubbedAmapMcpTools.stub(AmapApiService.class);
+        when(api.drivingRoute(any())).thenReturn(Mono.just(response));
+        var tools = StubbedAmapMcpTools.create(api);
+
+        var full = tools.mapsDirectionDriving(ORIGIN, DESTINATION, "steps", null);
+        var compact = tools.mapsDirectionDriving(ORIGIN, DESTINATION, "steps", 400);
+
+        assertThat(RouteStepCompactor.estimateTokens(full)).isGreaterThan(400);
+        assertThat(RouteStepCompactor.estimateTokens(compact)).isLessThanOrEqualTo(400);
+        assertThat(compact.getPaths()).hasSameSizeAs(full.getPaths());
+    }
+
+    private static McpResponseModels.RouteStep step(String instruction, String road, String orientation, int distance, int duration) {
+        var step = new McpResponseModels.RouteStep();
+        step.setInstruction(instruction);
+        step.setRoad(road);
+        step.setOrientation(orientation);
+        step.setDistance(String.valueOf(distance));
+        step.setDuration(String.valueOf(duration));
+        return step;
+    }
+}
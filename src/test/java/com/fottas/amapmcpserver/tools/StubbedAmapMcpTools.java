@@ -0,0 +1,49 @@
+package com.fottas.amapmcpserver.tools;
+
+import com.fottas.amapmcpserver.service.AmapApiService;
+import com.fottas.amapmcpserver.service.AmapTracing;
+import com.fottas.amapmcpserver.service.DistrictIndexService;
+import com.fottas.amapmcpserver.service.IsochroneService;
+import com.fottas.amapmcpserver.service.OfflineRegeoService;
+import com.fottas.amapmcpserver.service.PoiFanoutService;
+import com.fottas.amapmcpserver.service.PoiSpatialIndex;
+import com.fottas.amapmcpserver.service.TrafficService;
+import com.fottas.amapmcpserver.service.TripOptimizerService;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * 以给定的高德接口装配AmapMcpTools，测试通过公开的工具方法走完整的调用与转换流程；
+ * 本地索引、离线逆地理编码等协作者均为空实现，查询总是落到高德接口
+ */
+final class StubbedAmapMcpTools {
+
+    private StubbedAmapMcpTools() {
+    }
+
+    static AmapMcpTools create(AmapApiService amapApiService) {
+        var tools = new AmapMcpTools();
+        ReflectionTestUtils.setField(tools, "amapApiService", amapApiService);
+        ReflectionTestUtils.setField(tools, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(tools, "districtIndexService", stub(DistrictIndexService.class));
+        ReflectionTestUtils.setField(tools, "offlineRegeoService", stub(OfflineRegeoService.class));
+        ReflectionTestUtils.setField(tools, "poiSpatialIndex", stub(PoiSpatialIndex.class));
+        ReflectionTestUtils.setField(tools, "poiFanoutService", stub(PoiFanoutService.class));
+        ReflectionTestUtils.setField(tools, "tripOptimizerService", stub(TripOptimizerService.class));
+        ReflectionTestUtils.setField(tools, "isochroneService", stub(IsochroneService.class));
+        ReflectionTestUtils.setField(tools, "trafficService", stub(TrafficService.class));
+        ReflectionTestUtils.setField(tools, "tracing", new AmapTracing(ObservationRegistry.NOOP));
+        return tools;
+    }
+
+    /**
+     * 不记录调用的模拟对象
+     */
+    static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+}